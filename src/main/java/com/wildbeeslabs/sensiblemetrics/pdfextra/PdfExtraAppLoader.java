@@ -23,5 +23,106 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.cli.Launcher;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.cli.LauncherOptions;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.server.ExtractionServer;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.server.ServerOptions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Application loader (command line entry point)
+ * <p>
+ * Usage: {@code pdfextra <command> [options] <file|directory|->...}, see {@link LauncherOptions#USAGE},
+ * or {@code pdfextra server [options]} to run embedded extraction server, see {@link ServerOptions#USAGE}.
+ * Exit codes: 0 - every document processed, 1 - some documents failed, 2 - invalid arguments.
+ */
+@Slf4j
 public class PdfExtraAppLoader {
+
+    /**
+     * Default exit code for failed documents
+     */
+    public static final int EXIT_FAILURE = 1;
+    /**
+     * Default exit code for invalid arguments
+     */
+    public static final int EXIT_USAGE = 2;
+    /**
+     * Default server command name
+     */
+    public static final String SERVER_COMMAND = "server";
+
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Returns exit code by input command line arguments
+     *
+     * @param args - initial input command line arguments
+     * @return exit code
+     */
+    public static int run(final String... args) {
+        if (args.length > 0 && SERVER_COMMAND.equalsIgnoreCase(args[0])) {
+            return runServer(Arrays.copyOfRange(args, 1, args.length));
+        }
+        final LauncherOptions options;
+        try {
+            options = LauncherOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LauncherOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.isHelp()) {
+            System.out.println(LauncherOptions.USAGE);
+            return 0;
+        }
+        try (final Launcher launcher = new Launcher(options)) {
+            final Launcher.Statistics statistics = launcher.run();
+            launcher.printSummary(System.err);
+            return statistics.getFailed().get() > 0 ? EXIT_FAILURE : 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (Exception e) {
+            log.error(String.format("ERROR: cannot run command={%s}, message={%s}", options.getCommand(), e.getMessage()));
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static int runServer(final String... args) {
+        final ServerOptions options;
+        try {
+            options = ServerOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ServerOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.isHelp()) {
+            System.out.println(ServerOptions.USAGE);
+            return 0;
+        }
+        final CountDownLatch stopped = new CountDownLatch(1);
+        try {
+            final ExtractionServer server = new ExtractionServer(options.getAddress(), options.getThreads(), options.getQueueCapacity());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                stopped.countDown();
+            }, "pdfextra-shutdown"));
+            server.start();
+            stopped.await();
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            log.error(String.format("ERROR: cannot start server on address={%s}, message={%s}", options.getAddress(), e.getMessage()));
+            return EXIT_FAILURE;
+        }
+    }
 }
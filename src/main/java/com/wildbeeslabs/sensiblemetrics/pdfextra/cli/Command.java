@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.cli;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent.ExtractionExecutors;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.exporter.PdfExporter;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.ExtractionResult;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Launcher command definition
+ * <p>
+ * Every command turns input source {@link Source} into output record {@link Map} written as single json line,
+ * extracting commands pass text content and meta data to optional extraction sink {@link ExtractionSink}
+ */
+public enum Command {
+    /**
+     * Detects media type
+     */
+    DETECT {
+        @Override
+        public Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception {
+            final Map<String, Object> record = record(source);
+            if (source.isFile()) {
+                record.put("type", AnalyzerUtils.detectDocTypeByFile(source.getPath()).toString());
+            } else {
+                try (final TikaInputStream stream = source.open()) {
+                    record.put("type", AnalyzerUtils.detectDocTypeByDetector(stream).toString());
+                }
+            }
+            return record;
+        }
+    },
+    /**
+     * Extracts text content and meta data
+     */
+    EXTRACT {
+        @Override
+        public Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception {
+            final ExtractionResult result = extract(source, options);
+            final Map<String, Object> record = record(source, result);
+            record.put("metadata", AnalyzerUtils.toMap(result.getMetadata()));
+            if (Objects.isNull(sink)) {
+                record.put("content", result.getContent());
+            } else {
+                store(result, record, sink);
+            }
+            return record;
+        }
+    },
+    /**
+     * Extracts meta data only
+     */
+    METADATA {
+        @Override
+        public Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception {
+            final Map<String, Object> record = record(source);
+            try (final TikaInputStream stream = source.open()) {
+                final Metadata metadata = AnalyzerUtils.getMetadataByParser(stream);
+                record.put("type", metadata.get(Metadata.CONTENT_TYPE));
+                record.put("metadata", AnalyzerUtils.toMap(metadata));
+            }
+            return record;
+        }
+    },
+    /**
+     * Renders velocity html template into pdf document next to the template (or into output directory)
+     */
+    EXPORT {
+        @Override
+        public Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception {
+            final byte[] document;
+            try (final InputStream stream = source.openRaw()) {
+                document = ExtractionExecutors.callCpuBound(() -> PdfExporter.getInstance().export(stream, new HashMap<>()));
+            }
+            final Path target = exportTarget(source, options);
+            Files.write(target, document);
+            final Map<String, Object> record = record(source);
+            record.put("output", target.toString());
+            record.put("bytes", document.length);
+            return record;
+        }
+    },
+    /**
+     * Extracts text content split into chunks
+     */
+    CHUNK {
+        @Override
+        public Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception {
+            final ExtractionResult result = extract(source, options);
+            final Map<String, Object> record = record(source, result);
+            if (Objects.isNull(sink)) {
+                record.put("chunks", AnalyzerUtils.splitToChunks(result.getContent(), options.getChunkSize()));
+            } else {
+                record.put("chunks", AnalyzerUtils.splitToChunks(result.getContent(), options.getChunkSize()).size());
+                store(result, record, sink);
+            }
+            return record;
+        }
+    };
+
+    /**
+     * Returns output record {@link Map} by input source {@link Source} and launcher options {@link LauncherOptions},
+     * extracting commands write text content into extraction sink {@link ExtractionSink} (if any) instead of output record
+     *
+     * @param source  - initial input source {@link Source}
+     * @param options - initial input launcher options {@link LauncherOptions}
+     * @param sink    - initial input extraction sink {@link ExtractionSink} (nullable)
+     * @return output record {@link Map}
+     * @throws Exception
+     */
+    public abstract Map<String, Object> execute(final Source source, final LauncherOptions options, final ExtractionSink sink) throws Exception;
+
+    /**
+     * Returns command {@link Command} by input name {@link String}
+     *
+     * @param name - initial input command name {@link String}
+     * @return command {@link Command}
+     */
+    public static Command of(final String name) {
+        for (final Command command : values()) {
+            if (command.name().equalsIgnoreCase(name)) {
+                return command;
+            }
+        }
+        throw new IllegalArgumentException(String.format("ERROR: invalid command={%s}", name));
+    }
+
+    /**
+     * Returns binary flag whether command produces text content for extraction sink
+     *
+     * @return true - if command produces text content, false - otherwise
+     */
+    public boolean isExtracting() {
+        return this == EXTRACT || this == CHUNK;
+    }
+
+    private static ExtractionResult extract(final Source source, final LauncherOptions options) throws Exception {
+        if (options.isDigest()) {
+            try (final InputStream stream = source.openRaw()) {
+                return ExtractionExecutors.callCpuBound(() -> AnalyzerUtils.extractWithDigests(stream, source.getName()));
+            }
+        }
+        try (final TikaInputStream stream = source.open()) {
+            return ExtractionExecutors.callCpuBound(() -> AnalyzerUtils.extractByParser(stream, source.getName()));
+        }
+    }
+
+    private static void store(final ExtractionResult result, final Map<String, Object> record, final ExtractionSink sink) throws IOException {
+        sink.accept(result.getDocumentId(), result.getMetadata(), result.getContent());
+        record.put("characters", result.getContent().length());
+    }
+
+    private static Map<String, Object> record(final Source source) {
+        final Map<String, Object> record = new LinkedHashMap<>();
+        record.put("source", source.getName());
+        return record;
+    }
+
+    private static Map<String, Object> record(final Source source, final ExtractionResult result) {
+        final Map<String, Object> record = record(source);
+        record.put("type", Objects.isNull(result.getMediaType()) ? null : result.getMediaType().toString());
+        return record;
+    }
+
+    private static Path exportTarget(final Source source, final LauncherOptions options) {
+        final String name = source.isFile() ? source.getPath().getFileName().toString() : "stdin";
+        final String baseName = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+        final Path directory = Objects.nonNull(options.getOutputDirectory())
+            ? options.getOutputDirectory()
+            : source.isFile() && Objects.nonNull(source.getPath().toAbsolutePath().getParent()) ? source.getPath().toAbsolutePath().getParent() : Paths.get(".");
+        return directory.resolve(baseName + ".pdf");
+    }
+}
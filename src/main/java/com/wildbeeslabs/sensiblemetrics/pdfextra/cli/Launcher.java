@@ -0,0 +1,347 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent.ExtractionExecutors;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.LatencyHistogram;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.SegmentStoreWriter;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Command line launcher implementation
+ * <p>
+ * Runs single command {@link Command} over input files, directories (walked recursively and concurrently) or standard input
+ * on batch executor of {@link ExtractionExecutors} (fixed pool of worker threads, or virtual threads on Java 21) with bounded
+ * number of in-flight documents. Every document produces single json line written to
+ * output file or standard output (in completion order), failures are reported as json lines with "error" field.
+ * Extracted text is optionally written into segment store {@link SegmentStoreWriter}. Errors raised by parsers (such as
+ * {@link StackOverflowError} or {@link LinkageError} of missing optional dependency) are reported as document failures,
+ * only fatal virtual machine errors are propagated.
+ */
+@Slf4j
+@ToString(of = "options")
+public class Launcher implements Closeable {
+
+    /**
+     * Default number of in-flight documents per worker thread
+     */
+    private static final int DEFAULT_IN_FLIGHT_PER_WORKER = 4;
+
+    /**
+     * Default launcher options
+     */
+    @Getter
+    private final LauncherOptions options;
+    /**
+     * Default per-document latency histogram
+     */
+    @Getter
+    private final LatencyHistogram latency = new LatencyHistogram();
+    /**
+     * Default launcher statistics
+     */
+    @Getter
+    private final Statistics statistics = new Statistics();
+    /**
+     * Default json object mapper {@link ObjectMapper}
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Default json lines output {@link Writer}
+     */
+    private final Writer output;
+    /**
+     * Default optional extraction sink {@link ExtractionSink}
+     */
+    private final ExtractionSink sink;
+    /**
+     * Default batch executor service {@link ExecutorService}
+     */
+    private final ExecutorService executor;
+    /**
+     * Default in-flight documents permits {@link Semaphore}
+     */
+    private final Semaphore inFlight;
+    /**
+     * Default maximum number of in-flight documents
+     */
+    private final int maxInFlight;
+
+    /**
+     * Default launcher constructor with input launcher options {@link LauncherOptions}, opens output and optional segment store
+     *
+     * @param options - initial input launcher options {@link LauncherOptions}
+     * @throws IOException
+     */
+    public Launcher(final LauncherOptions options) throws IOException {
+        Objects.requireNonNull(options, "Launcher options should not be null");
+        if (Objects.nonNull(options.getStore()) && !options.getCommand().isExtracting()) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid command={%s}, store requires extracting command", options.getCommand()));
+        }
+        this.options = options;
+        this.output = new BufferedWriter(new OutputStreamWriter(Objects.isNull(options.getOutput())
+            ? new CloseShieldOutputStream(System.out)
+            : Files.newOutputStream(options.getOutput()), StandardCharsets.UTF_8));
+        if (Objects.nonNull(options.getOutputDirectory())) {
+            Files.createDirectories(options.getOutputDirectory());
+        }
+        this.sink = Objects.isNull(options.getStore()) ? null : new SegmentStoreWriter(options.getStore());
+        this.maxInFlight = options.getThreads() * DEFAULT_IN_FLIGHT_PER_WORKER;
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.executor = ExtractionExecutors.newBatchExecutor("pdfextra-cli", options.getThreads());
+    }
+
+    /**
+     * Returns launcher statistics {@link Statistics} after processing every input source
+     *
+     * @return launcher statistics {@link Statistics}
+     * @throws IOException
+     */
+    public Statistics run() throws IOException {
+        final long start = System.nanoTime();
+        try {
+            boolean stdin = false;
+            final List<Callable<Void>> walks = new ArrayList<>();
+            for (final String input : this.options.getInputs()) {
+                if (Source.STDIN.equals(input)) {
+                    if (stdin) {
+                        throw new IllegalArgumentException("ERROR: invalid input={-}, standard input is used more than once");
+                    }
+                    stdin = true;
+                } else {
+                    walks.add(() -> {
+                        this.walk(Paths.get(input));
+                        return null;
+                    });
+                }
+            }
+            if (stdin) {
+                this.submit(Source.stdin());
+            }
+            ExtractionExecutors.invokeAll("pdfextra-walk", walks);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(String.format("ERROR: cannot walk inputs={%s}, message={%s}", this.options.getInputs(), e.getMessage()), e);
+        } finally {
+            this.awaitInFlight();
+            this.statistics.elapsed = System.nanoTime() - start;
+            this.output.flush();
+            if (Objects.nonNull(this.sink)) {
+                this.sink.flush();
+            }
+        }
+        return this.statistics;
+    }
+
+    /**
+     * Prints throughput and latency summary into input print stream {@link PrintStream}
+     *
+     * @param out - initial input print stream {@link PrintStream}
+     */
+    public void printSummary(final PrintStream out) {
+        final LatencyHistogram.Snapshot snapshot = this.latency.snapshot();
+        final double seconds = Math.max(this.statistics.getElapsed(), 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        out.println(String.format("%s: %d documents (%d failed), %.1f MB in %.2f s",
+            this.options.getCommand().name().toLowerCase(), this.statistics.getProcessed().get(), this.statistics.getFailed().get(),
+            this.statistics.getBytes().get() / (1024d * 1024d), seconds));
+        out.println(String.format("throughput: %.1f documents/s, %.2f MB/s, %d threads",
+            this.statistics.getProcessed().get() / seconds, this.statistics.getBytes().get() / (1024d * 1024d) / seconds, this.options.getThreads()));
+        out.println(String.format("latency (ms): mean=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+            LatencyHistogram.Snapshot.toMillis(snapshot.getMean()), LatencyHistogram.Snapshot.toMillis(snapshot.getP50()),
+            LatencyHistogram.Snapshot.toMillis(snapshot.getP90()), LatencyHistogram.Snapshot.toMillis(snapshot.getP99()),
+            LatencyHistogram.Snapshot.toMillis(snapshot.getP999()), LatencyHistogram.Snapshot.toMillis(snapshot.getMax())));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            this.output.close();
+        } finally {
+            if (Objects.nonNull(this.sink)) {
+                this.sink.close();
+            }
+        }
+    }
+
+    private void walk(final Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            this.submit(Source.of(path));
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile()) {
+                    submit(Source.of(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+                log.error(String.format("ERROR: cannot visit file={%s}, message={%s}", file, exc.getMessage()));
+                statistics.failed.incrementAndGet();
+                write(failure(Source.of(file), exc));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void submit(final Source source) throws IOException {
+        try {
+            this.inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("ERROR: interrupted while processing source={%s}", source.getName()), e);
+        }
+        this.executor.execute(() -> {
+            try {
+                this.process(source);
+            } finally {
+                this.inFlight.release();
+            }
+        });
+    }
+
+    private void process(final Source source) {
+        final long start = System.nanoTime();
+        Map<String, Object> record;
+        try {
+            record = this.options.getCommand().execute(source, this.options, this.sink);
+            this.statistics.processed.incrementAndGet();
+        } catch (Exception | Error e) {
+            if (isFatal(e)) {
+                throw (Error) e;
+            }
+            log.error(String.format("ERROR: cannot process source={%s}, message={%s}", source.getName(), e.getMessage()));
+            this.statistics.failed.incrementAndGet();
+            record = failure(source, e);
+        }
+        this.latency.record(System.nanoTime() - start);
+        final long size = source.size();
+        if (size > 0) {
+            this.statistics.bytes.addAndGet(size);
+        }
+        try {
+            this.write(record);
+        } catch (IOException e) {
+            log.error(String.format("ERROR: cannot write record of source={%s}, message={%s}", source.getName(), e.getMessage()));
+        }
+    }
+
+    private void write(final Map<String, Object> record) throws IOException {
+        final String line = this.mapper.writeValueAsString(record);
+        synchronized (this.output) {
+            this.output.write(line);
+            this.output.write('\n');
+        }
+    }
+
+    private static Map<String, Object> failure(final Source source, final Throwable e) {
+        final Map<String, Object> record = new LinkedHashMap<>();
+        record.put("source", source.getName());
+        record.put("error", Objects.isNull(e.getMessage()) ? e.getClass().getName() : e.getMessage());
+        return record;
+    }
+
+    /**
+     * Returns binary flag whether input error {@link Throwable} leaves virtual machine in unusable state
+     *
+     * @param e - initial input error {@link Throwable}
+     * @return true - if error is fatal (out of memory, internal error), false - otherwise
+     */
+    private static boolean isFatal(final Throwable e) {
+        return (e instanceof VirtualMachineError && !(e instanceof StackOverflowError)) || e instanceof ThreadDeath;
+    }
+
+    private void awaitInFlight() throws IOException {
+        try {
+            this.inFlight.acquire(this.maxInFlight);
+            this.inFlight.release(this.maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("ERROR: interrupted while waiting for in-flight documents", e);
+        }
+    }
+
+    /**
+     * Launcher statistics implementation
+     */
+    @Getter
+    @ToString
+    public static class Statistics {
+        /**
+         * Default number of processed documents
+         */
+        final AtomicLong processed = new AtomicLong();
+        /**
+         * Default number of failed documents
+         */
+        final AtomicLong failed = new AtomicLong();
+        /**
+         * Default number of input bytes (local files only)
+         */
+        final AtomicLong bytes = new AtomicLong();
+        /**
+         * Default elapsed time (in nanoseconds)
+         */
+        volatile long elapsed;
+    }
+}
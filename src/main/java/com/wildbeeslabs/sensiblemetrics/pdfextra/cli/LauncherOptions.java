@@ -0,0 +1,194 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.cli;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Launcher options implementation
+ * <p>
+ * Command line syntax: {@code <command> [options] <file|directory|->...}
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public class LauncherOptions {
+
+    /**
+     * Default chunk size (in characters)
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    /**
+     * Default command line usage
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: pdfextra <command> [options] <file|directory|->...",
+        "",
+        "Commands:",
+        "  detect      detect media type",
+        "  extract     extract text content and meta data",
+        "  metadata    extract meta data only",
+        "  export      render velocity html template into pdf document",
+        "  chunk       extract text content split into chunks",
+        "  server      run embedded extraction http server (see: pdfextra server --help)",
+        "",
+        "Options:",
+        "  -t, --threads <n>       number of worker threads (default: available processors)",
+        "  -o, --output <file>     write json lines into file (default: standard output)",
+        "  -d, --output-dir <dir>  write exported pdf documents into directory (default: next to template)",
+        "  -s, --store <dir>       write extracted text and meta data into segment files",
+        "  -c, --chunk-size <n>    maximum chunk size in characters (default: " + DEFAULT_CHUNK_SIZE + ")",
+        "  -g, --digest            add SHA-256 and XXH64 digests of extracted documents into meta data",
+        "  -h, --help              print this message",
+        "",
+        "Use '-' to read single document from standard input.",
+        "",
+        "Fast-start launcher (-Dpdfextra.parser.lazy=true) loads parsers lazily only for media types of tika.xml",
+        "(pdf, ms office, open document, html, rtf, xml, plain text), documents of other media types fall back",
+        "to full auto-detect parser, which loads every parser on first such document and loses the startup gain.");
+
+    /**
+     * Default command
+     */
+    private Command command;
+    /**
+     * Default input files, directories or standard input marker
+     */
+    private List<String> inputs = new ArrayList<>();
+    /**
+     * Default number of worker threads
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Default json lines output file (null for standard output)
+     */
+    private Path output;
+    /**
+     * Default exported documents output directory
+     */
+    private Path outputDirectory;
+    /**
+     * Default segment store directory
+     */
+    private Path store;
+    /**
+     * Default chunk size
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    /**
+     * Default content digest flag
+     */
+    private boolean digest;
+    /**
+     * Default help flag
+     */
+    private boolean help;
+
+    /**
+     * Returns launcher options {@link LauncherOptions} by input command line arguments
+     *
+     * @param args - initial input command line arguments
+     * @return launcher options {@link LauncherOptions}
+     */
+    public static LauncherOptions parse(final String... args) {
+        final LauncherOptions options = new LauncherOptions();
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    options.setHelp(true);
+                    return options;
+                case "-t":
+                case "--threads":
+                    options.setThreads(positive(arg, value(args, ++i, arg)));
+                    break;
+                case "-o":
+                case "--output":
+                    options.setOutput(Paths.get(value(args, ++i, arg)));
+                    break;
+                case "-d":
+                case "--output-dir":
+                    options.setOutputDirectory(Paths.get(value(args, ++i, arg)));
+                    break;
+                case "-s":
+                case "--store":
+                    options.setStore(Paths.get(value(args, ++i, arg)));
+                    break;
+                case "-c":
+                case "--chunk-size":
+                    options.setChunkSize(positive(arg, value(args, ++i, arg)));
+                    break;
+                case "-g":
+                case "--digest":
+                    options.setDigest(true);
+                    break;
+                default:
+                    if (arg.startsWith("-") && !Source.STDIN.equals(arg)) {
+                        throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}", arg));
+                    }
+                    if (Objects.isNull(options.getCommand())) {
+                        options.setCommand(Command.of(arg));
+                    } else {
+                        options.getInputs().add(arg);
+                    }
+            }
+        }
+        if (Objects.isNull(options.getCommand())) {
+            throw new IllegalArgumentException("ERROR: invalid command={null}");
+        }
+        if (options.getInputs().isEmpty()) {
+            throw new IllegalArgumentException("ERROR: invalid inputs={[]}");
+        }
+        return options;
+    }
+
+    private static String value(final String[] args, final int index, final String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}, value is missing", option));
+        }
+        return args[index];
+    }
+
+    private static int positive(final String option, final String value) {
+        try {
+            final int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}, value={%s}", option, value));
+    }
+}
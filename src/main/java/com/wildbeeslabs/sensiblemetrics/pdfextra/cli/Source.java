@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.cli;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Launcher input source implementation, either local file or standard input
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class Source {
+
+    /**
+     * Default standard input source name
+     */
+    public static final String STDIN = "-";
+
+    /**
+     * Default source name
+     */
+    private final String name;
+    /**
+     * Default source file (null for standard input)
+     */
+    private final Path path;
+
+    private Source(final String name, final Path path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    /**
+     * Returns file source {@link Source} by input file path {@link Path}
+     *
+     * @param path - initial input file path {@link Path}
+     * @return file source {@link Source}
+     */
+    public static Source of(final Path path) {
+        return new Source(path.toString(), path);
+    }
+
+    /**
+     * Returns standard input source {@link Source}
+     *
+     * @return standard input source {@link Source}
+     */
+    public static Source stdin() {
+        return new Source(STDIN, null);
+    }
+
+    /**
+     * Returns binary flag whether source is local file
+     *
+     * @return true - if source is local file, false - otherwise
+     */
+    public boolean isFile() {
+        return Objects.nonNull(this.path);
+    }
+
+    /**
+     * Returns source size in bytes or -1 when unknown
+     *
+     * @return source size in bytes
+     */
+    public long size() {
+        try {
+            return this.isFile() ? Files.size(this.path) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns new input stream {@link TikaInputStream}, file-backed for local files, standard input is never closed
+     *
+     * @return input stream {@link TikaInputStream}
+     * @throws IOException
+     */
+    public TikaInputStream open() throws IOException {
+        return this.isFile()
+            ? AnalyzerUtils.openFileStream(this.path, new Metadata())
+            : TikaInputStream.get(new CloseShieldInputStream(System.in));
+    }
+
+    /**
+     * Returns new raw input stream {@link InputStream}
+     *
+     * @return input stream {@link InputStream}
+     * @throws IOException
+     */
+    public InputStream openRaw() throws IOException {
+        return this.isFile() ? Files.newInputStream(this.path) : new CloseShieldInputStream(System.in);
+    }
+}
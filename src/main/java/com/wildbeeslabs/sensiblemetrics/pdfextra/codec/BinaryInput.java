@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary input implementation
+ * <p>
+ * Reads values written by {@link BinaryOutput} from byte array range, truncated input raises {@link EOFException}
+ * and malformed varints {@link StreamCorruptedException}. Instances are not thread-safe.
+ */
+public class BinaryInput {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryInput(final byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryInput(final byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException(String.format("ERROR: invalid range={%s, %s}, length={%s}", offset, length, buffer.length));
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Returns next unsigned byte
+     *
+     * @return unsigned byte value
+     * @throws IOException
+     */
+    public int readByte() throws IOException {
+        this.require(1);
+        return this.buffer[this.position++] & 0xFF;
+    }
+
+    /**
+     * Reads bytes into input array range
+     *
+     * @param bytes  - initial input target bytes
+     * @param offset - initial input offset
+     * @param length - initial input length
+     * @throws IOException
+     */
+    public void readBytes(final byte[] bytes, int offset, int length) throws IOException {
+        this.require(length);
+        System.arraycopy(this.buffer, this.position, bytes, offset, length);
+        this.position += length;
+    }
+
+    /**
+     * Returns next unsigned varint
+     *
+     * @return varint value
+     * @throws IOException
+     */
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = this.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("ERROR: invalid varint, too many bytes");
+    }
+
+    /**
+     * Returns next unsigned varint
+     *
+     * @return varint value
+     * @throws IOException
+     */
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final int b = this.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("ERROR: invalid varint, too many bytes");
+    }
+
+    /**
+     * Returns next zig-zag encoded signed varint
+     *
+     * @return varint value
+     * @throws IOException
+     */
+    public long readSignedVarLong() throws IOException {
+        final long value = this.readVarLong();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Returns next varint length prefixed UTF-8 string
+     *
+     * @return string value
+     * @throws IOException
+     */
+    public String readString() throws IOException {
+        return this.readUtf8(this.readLength());
+    }
+
+    /**
+     * Returns UTF-8 string of input encoded length
+     *
+     * @param length - initial input encoded length
+     * @return string value
+     * @throws IOException
+     */
+    public String readUtf8(int length) throws IOException {
+        this.require(length);
+        final String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+        this.position += length;
+        return value;
+    }
+
+    /**
+     * Returns next varint length, validated against remaining input
+     *
+     * @return length
+     * @throws IOException
+     */
+    public int readLength() throws IOException {
+        final int length = this.readVarInt();
+        if (length < 0) {
+            throw new StreamCorruptedException(String.format("ERROR: invalid length={%s}", length & 0xFFFFFFFFL));
+        }
+        return length;
+    }
+
+    /**
+     * Returns number of unread bytes
+     *
+     * @return number of unread bytes
+     */
+    public int remaining() {
+        return this.limit - this.position;
+    }
+
+    byte[] buffer() {
+        return this.buffer;
+    }
+
+    int position() {
+        return this.position;
+    }
+
+    void skip(int length) throws IOException {
+        this.require(length);
+        this.position += length;
+    }
+
+    private void require(int length) throws EOFException {
+        if (length > this.limit - this.position) {
+            throw new EOFException(String.format("ERROR: cannot read {%s} bytes, remaining={%s}", length, this.limit - this.position));
+        }
+    }
+}
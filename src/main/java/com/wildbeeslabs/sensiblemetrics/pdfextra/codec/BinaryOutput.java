@@ -0,0 +1,245 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import java.util.Arrays;
+
+/**
+ * Binary output implementation
+ * <p>
+ * Growable byte array with unsigned LEB128 varints, zig-zag encoded signed varints and varint length prefixed UTF-8 strings,
+ * strings are encoded directly from char sequence {@link CharSequence} (unpaired surrogates as '?', as by {@link String#getBytes}).
+ * Instances are reusable by {@link #reset()} and not thread-safe.
+ */
+public class BinaryOutput {
+
+    /**
+     * Default initial buffer size
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private byte[] buffer;
+    private int size;
+
+    public BinaryOutput() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public BinaryOutput(int capacity) {
+        this.buffer = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * Writes single byte
+     *
+     * @param value - initial input byte value
+     */
+    public void writeByte(int value) {
+        this.ensure(1);
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    /**
+     * Writes input bytes range
+     *
+     * @param bytes  - initial input bytes
+     * @param offset - initial input offset
+     * @param length - initial input length
+     */
+    public void writeBytes(final byte[] bytes, int offset, int length) {
+        this.ensure(length);
+        System.arraycopy(bytes, offset, this.buffer, this.size, length);
+        this.size += length;
+    }
+
+    /**
+     * Writes unsigned varint (1 - 5 bytes)
+     *
+     * @param value - initial input value
+     */
+    public void writeVarInt(int value) {
+        this.ensure(5);
+        while ((value & ~0x7F) != 0) {
+            this.buffer[this.size++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    /**
+     * Writes unsigned varint (1 - 10 bytes)
+     *
+     * @param value - initial input value
+     */
+    public void writeVarLong(long value) {
+        this.ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            this.buffer[this.size++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[this.size++] = (byte) value;
+    }
+
+    /**
+     * Writes zig-zag encoded signed varint, so small negative values stay short
+     *
+     * @param value - initial input value
+     */
+    public void writeSignedVarLong(long value) {
+        this.writeVarLong(value << 1 ^ value >> 63);
+    }
+
+    /**
+     * Writes varint length prefixed UTF-8 string
+     *
+     * @param value - initial input char sequence {@link CharSequence}
+     */
+    public void writeString(final CharSequence value) {
+        final int length = encodedLength(value);
+        this.writeVarInt(length);
+        this.writeUtf8(value, length);
+    }
+
+    /**
+     * Writes UTF-8 bytes of input char sequence {@link CharSequence} of input encoded length
+     *
+     * @param value  - initial input char sequence {@link CharSequence}
+     * @param length - initial input encoded length as by {@link #encodedLength(CharSequence)}
+     */
+    public void writeUtf8(final CharSequence value, int length) {
+        this.ensure(length);
+        final byte[] bytes = this.buffer;
+        int position = this.size;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                bytes[position++] = '?';
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        this.size = position;
+    }
+
+    /**
+     * Returns UTF-8 encoded length of input char sequence {@link CharSequence}
+     *
+     * @param value - initial input char sequence {@link CharSequence}
+     * @return UTF-8 encoded length
+     */
+    public static int encodedLength(final CharSequence value) {
+        long length = 0;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        if (length > Integer.MAX_VALUE - 16) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid encoded length={%s}", length));
+        }
+        return (int) length;
+    }
+
+    /**
+     * Returns number of written bytes
+     *
+     * @return number of written bytes
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns backing buffer, valid up to {@link #size()}
+     *
+     * @return backing buffer
+     */
+    public byte[] buffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Returns copy of written bytes
+     *
+     * @return written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.size);
+    }
+
+    /**
+     * Discards written bytes, keeping allocated buffer
+     */
+    public void reset() {
+        this.size = 0;
+    }
+
+    /**
+     * Reserves input number of bytes, returns position of reserved range
+     */
+    int reserve(int length) {
+        this.ensure(length);
+        final int position = this.size;
+        this.size += length;
+        return position;
+    }
+
+    /**
+     * Sets number of written bytes (not above reserved capacity)
+     */
+    void size(int size) {
+        this.size = size;
+    }
+
+    private void ensure(int length) {
+        final long required = (long) this.size + length;
+        if (required > this.buffer.length) {
+            if (required > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException(String.format("ERROR: invalid buffer size={%s}", required));
+            }
+            this.buffer = Arrays.copyOf(this.buffer, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, this.buffer.length * 2L)));
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.DocumentInfo;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Document info binary codec implementation {@link DocumentInfo}
+ * <p>
+ * Encoded document info is:
+ * <pre>
+ * byte   format version ({@link #VERSION})
+ * byte   flags, see FLAG_* constants
+ * id     16 bytes if canonical UUID string ({@link #FLAG_ID_UUID}), string otherwise
+ * string name
+ * varint zig-zag encoded created date epoch milliseconds
+ * varint UTF-8 content length, then either UTF-8 bytes or varint LZ4 block length and LZ4 block ({@link #FLAG_CONTENT_LZ4})
+ * </pre>
+ * Absent fields are omitted and marked by flags, strings are varint length prefixed UTF-8. Content is compressed
+ * only when compression is enabled, content is not shorter than threshold and compressed block is actually smaller.
+ * Codec instances are immutable and thread-safe.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class DocumentInfoCodec {
+
+    /**
+     * Default format version
+     */
+    public static final int VERSION = 1;
+    /**
+     * Default minimum UTF-8 content length to compress
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    /**
+     * Default identifier present flag
+     */
+    static final int FLAG_ID = 0x01;
+    /**
+     * Default identifier stored as 16-byte UUID flag
+     */
+    static final int FLAG_ID_UUID = 0x02;
+    /**
+     * Default name present flag
+     */
+    static final int FLAG_NAME = 0x04;
+    /**
+     * Default created date present flag
+     */
+    static final int FLAG_CREATED = 0x08;
+    /**
+     * Default content present flag
+     */
+    static final int FLAG_CONTENT = 0x10;
+    /**
+     * Default content stored as LZ4 block flag
+     */
+    static final int FLAG_CONTENT_LZ4 = 0x20;
+
+    /**
+     * Default uncompressed codec instance
+     */
+    private static final DocumentInfoCodec PLAIN = new DocumentInfoCodec(false, DEFAULT_COMPRESSION_THRESHOLD);
+    /**
+     * Default compressing codec instance
+     */
+    private static final DocumentInfoCodec COMPRESSING = new DocumentInfoCodec(true, DEFAULT_COMPRESSION_THRESHOLD);
+
+    /**
+     * Default content compression flag
+     */
+    private final boolean compression;
+    /**
+     * Default minimum UTF-8 content length to compress
+     */
+    private final int compressionThreshold;
+
+    public DocumentInfoCodec(boolean compression, int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid compression threshold={%s}", compressionThreshold));
+        }
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Returns shared codec instance {@link DocumentInfoCodec} by input compression flag
+     *
+     * @param compression - initial input content compression flag
+     * @return codec instance {@link DocumentInfoCodec}
+     */
+    public static DocumentInfoCodec getInstance(boolean compression) {
+        return compression ? COMPRESSING : PLAIN;
+    }
+
+    /**
+     * Returns binary encoded input document info {@link DocumentInfo}
+     *
+     * @param info - initial input document info {@link DocumentInfo}
+     * @return encoded bytes
+     */
+    public byte[] encode(final DocumentInfo info) {
+        final BinaryOutput output = new BinaryOutput();
+        this.write(info, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Returns document info {@link DocumentInfo} by input encoded bytes
+     *
+     * @param bytes - initial input encoded bytes
+     * @return document info {@link DocumentInfo}
+     * @throws IOException
+     */
+    public DocumentInfo decode(final byte[] bytes) throws IOException {
+        return this.read(new BinaryInput(bytes));
+    }
+
+    /**
+     * Writes input document info {@link DocumentInfo} to binary output {@link BinaryOutput}
+     *
+     * @param info   - initial input document info {@link DocumentInfo}
+     * @param output - initial input binary output {@link BinaryOutput}
+     */
+    public void write(final DocumentInfo info, final BinaryOutput output) {
+        output.writeByte(VERSION);
+        final int flagsPosition = output.reserve(1);
+        int flags = 0;
+        final String id = info.getId();
+        if (Objects.nonNull(id)) {
+            final UUID uuid = toUuid(id);
+            if (Objects.nonNull(uuid)) {
+                flags |= FLAG_ID | FLAG_ID_UUID;
+                writeLong(output, uuid.getMostSignificantBits());
+                writeLong(output, uuid.getLeastSignificantBits());
+            } else {
+                flags |= FLAG_ID;
+                output.writeString(id);
+            }
+        }
+        if (Objects.nonNull(info.getName())) {
+            flags |= FLAG_NAME;
+            output.writeString(info.getName());
+        }
+        if (Objects.nonNull(info.getCreated())) {
+            flags |= FLAG_CREATED;
+            output.writeSignedVarLong(info.getCreated().getTime());
+        }
+        if (Objects.nonNull(info.getContent())) {
+            flags |= FLAG_CONTENT;
+            final CharSequence content = info.getContent();
+            final int length = BinaryOutput.encodedLength(content);
+            output.writeVarInt(length);
+            final int position = output.size();
+            output.writeUtf8(content, length);
+            if (this.compression && length >= this.compressionThreshold && compress(output, position, length)) {
+                flags |= FLAG_CONTENT_LZ4;
+            }
+        }
+        output.buffer()[flagsPosition] = (byte) flags;
+    }
+
+    /**
+     * Returns document info {@link DocumentInfo} read from binary input {@link BinaryInput}
+     *
+     * @param input - initial input binary input {@link BinaryInput}
+     * @return document info {@link DocumentInfo}
+     * @throws IOException
+     */
+    public DocumentInfo read(final BinaryInput input) throws IOException {
+        final int version = input.readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException(String.format("ERROR: invalid document info format version={%s}", version));
+        }
+        final int flags = input.readByte();
+        final DocumentInfo.DocumentInfoBuilder builder = DocumentInfo.builder();
+        if ((flags & FLAG_ID) != 0) {
+            builder.id((flags & FLAG_ID_UUID) != 0 ? new UUID(readLong(input), readLong(input)).toString() : input.readString());
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            builder.name(input.readString());
+        }
+        if ((flags & FLAG_CREATED) != 0) {
+            builder.created(new Date(input.readSignedVarLong()));
+        }
+        if ((flags & FLAG_CONTENT) != 0) {
+            final int length = input.readLength();
+            builder.content((flags & FLAG_CONTENT_LZ4) != 0 ? decompress(input, length) : input.readUtf8(length));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Replaces UTF-8 bytes at input position by varint length prefixed LZ4 block if it is smaller
+     */
+    private static boolean compress(final BinaryOutput output, int position, int length) {
+        final LZ4Compressor compressor = Lz4.FACTORY.fastCompressor();
+        final int blockPosition = output.reserve(compressor.maxCompressedLength(length));
+        final byte[] buffer = output.buffer();
+        final int blockLength = compressor.compress(buffer, position, length, buffer, blockPosition, buffer.length - blockPosition);
+        if (varIntSize(blockLength) + blockLength >= length) {
+            output.size(blockPosition);
+            return false;
+        }
+        output.size(position);
+        output.writeVarInt(blockLength);
+        System.arraycopy(buffer, blockPosition, buffer, output.size(), blockLength);
+        output.size(output.size() + blockLength);
+        return true;
+    }
+
+    private static String decompress(final BinaryInput input, int length) throws IOException {
+        final int blockLength = input.readLength();
+        if (blockLength > input.remaining()) {
+            throw new StreamCorruptedException(String.format("ERROR: invalid LZ4 block length={%s}, remaining={%s}", blockLength, input.remaining()));
+        }
+        final LZ4SafeDecompressor decompressor = Lz4.FACTORY.safeDecompressor();
+        final byte[] bytes = new byte[length];
+        try {
+            final int decompressed = decompressor.decompress(input.buffer(), input.position(), blockLength, bytes, 0, length);
+            if (decompressed != length) {
+                throw new StreamCorruptedException(String.format("ERROR: invalid LZ4 content length={%s}, expected={%s}", decompressed, length));
+            }
+        } catch (LZ4Exception e) {
+            throw new StreamCorruptedException(String.format("ERROR: cannot decompress LZ4 block, message={%s}", e.getMessage()));
+        }
+        input.skip(blockLength);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns identifier {@link UUID} if input identifier is canonical UUID string, null otherwise
+     */
+    private static UUID toUuid(final String id) {
+        if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-' || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            final UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeLong(final BinaryOutput output, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.writeByte((int) (value >>> shift));
+        }
+    }
+
+    private static long readLong(final BinaryInput input) throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | input.readByte();
+        }
+        return value;
+    }
+
+    private static int varIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * LZ4 factory holder, loaded on first compressed content only
+     */
+    private static final class Lz4 {
+        private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+    }
+}
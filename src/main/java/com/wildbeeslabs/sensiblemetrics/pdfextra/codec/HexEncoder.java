@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Hexadecimal encoder implementation
+ * <p>
+ * Table-based lower case hexadecimal encoding, {@code encode(..., char[], int)} variants write into caller supplied
+ * buffers and do not allocate, {@code String} variants allocate only the result.
+ */
+@UtilityClass
+public class HexEncoder {
+
+    /**
+     * Default hexadecimal digits table
+     */
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Returns hexadecimal string by input bytes
+     *
+     * @param bytes - initial input bytes
+     * @return hexadecimal string {@link String}
+     */
+    public static String encode(final byte[] bytes) {
+        final char[] chars = new char[bytes.length << 1];
+        encode(bytes, 0, bytes.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Writes hexadecimal digits of input bytes range into target chars at input position
+     *
+     * @param bytes    - initial input bytes
+     * @param offset   - initial input bytes offset
+     * @param length   - initial input bytes length
+     * @param target   - initial input target chars (2 chars per byte)
+     * @param position - initial input target position
+     * @return position after last written char
+     */
+    public static int encode(final byte[] bytes, int offset, int length, final char[] target, int position) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final int b = bytes[i];
+            target[position++] = DIGITS[b >>> 4 & 0xF];
+            target[position++] = DIGITS[b & 0xF];
+        }
+        return position;
+    }
+
+    /**
+     * Returns 16-digit hexadecimal string by input value (big-endian)
+     *
+     * @param value - initial input value
+     * @return hexadecimal string {@link String}
+     */
+    public static String encode(long value) {
+        final char[] chars = new char[16];
+        encode(value, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Writes 16 hexadecimal digits of input value (big-endian) into target chars at input position
+     *
+     * @param value    - initial input value
+     * @param target   - initial input target chars
+     * @param position - initial input target position
+     * @return position after last written char
+     */
+    public static int encode(long value, final char[] target, int position) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            target[position++] = DIGITS[(int) (value >>> shift) & 0xF];
+        }
+        return position;
+    }
+}
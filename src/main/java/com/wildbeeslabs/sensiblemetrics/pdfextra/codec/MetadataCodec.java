@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import lombok.experimental.UtilityClass;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Meta data binary codec implementation {@link Metadata}
+ * <p>
+ * Encoded meta data is a format version byte ({@link #VERSION}) and a varint number of names followed by every name and its values:
+ * <pre>
+ * varint name code, 0 - literal name string follows, N - {@link #KEYS}[N - 1]
+ * varint number of values, then every value string
+ * </pre>
+ * Strings are varint length prefixed UTF-8. Dictionary is part of the format, keys are only ever appended to it and
+ * every append bumps the version, so data of older version is decoded with dictionary size of its version
+ * ({@link #DICTIONARY_SIZES}) and unknown codes are rejected.
+ */
+@UtilityClass
+public class MetadataCodec {
+
+    /**
+     * Default format version
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Default dictionary of frequent meta data names (append-only)
+     */
+    static final String[] KEYS = {
+        "Content-Type",
+        "Content-Length",
+        "Content-Encoding",
+        "Content-Language",
+        "resourceName",
+        "X-Parsed-By",
+        "dc:title",
+        "dc:creator",
+        "dc:description",
+        "dc:subject",
+        "dc:format",
+        "dc:language",
+        "dcterms:created",
+        "dcterms:modified",
+        "meta:author",
+        "meta:creation-date",
+        "meta:save-date",
+        "meta:last-author",
+        "meta:page-count",
+        "meta:word-count",
+        "meta:character-count",
+        "meta:keyword",
+        "title",
+        "creator",
+        "Author",
+        "Creation-Date",
+        "Last-Modified",
+        "Last-Save-Date",
+        "modified",
+        "date",
+        "producer",
+        "xmp:CreatorTool",
+        "xmpTPg:NPages",
+        "pdf:PDFVersion",
+        "pdf:docinfo:title",
+        "pdf:docinfo:creator",
+        "pdf:docinfo:producer",
+        "pdf:docinfo:created",
+        "pdf:docinfo:modified",
+        "pdf:docinfo:creator_tool",
+        "pdf:encrypted",
+        "pdf:charsPerPage",
+        "pdf:unmappedUnicodeCharsPerPage",
+        "pdf:hasXFA",
+        "pdf:hasXMP",
+        "pdf:hasMarkedContent",
+        "access_permission:can_modify",
+        "access_permission:can_print",
+        "access_permission:can_print_degraded",
+        "access_permission:extract_content",
+        "access_permission:extract_for_accessibility",
+        "access_permission:assemble_document",
+        "access_permission:fill_in_form",
+        "access_permission:modify_annotations",
+        "Application-Name",
+        "Application-Version",
+        "extended-properties:Application",
+        "extended-properties:AppVersion",
+        "extended-properties:Company",
+        "cp:revision",
+        "X-TIKA:content_handler",
+        "X-TIKA:embedded_resource_path",
+        "embeddedRelationshipId",
+        "X-TIKA:digest:SHA256",
+        "X-TIKA:digest:XXH64"
+    };
+
+    /**
+     * Default dictionary sizes by format version (index 0 is unused), version 2 adds digest names
+     */
+    static final int[] DICTIONARY_SIZES = {0, 63, 65};
+
+    /**
+     * Default dictionary codes by name
+     */
+    private static final Map<String, Integer> CODES = new HashMap<>(KEYS.length * 2);
+
+    static {
+        if (DICTIONARY_SIZES[VERSION] != KEYS.length) {
+            throw new ExceptionInInitializerError(String.format("ERROR: invalid dictionary size={%s}, version={%s}", KEYS.length, VERSION));
+        }
+        for (int i = 0; i < KEYS.length; i++) {
+            CODES.put(KEYS[i], i + 1);
+        }
+    }
+
+    /**
+     * Writes input meta data {@link Metadata} to binary output {@link BinaryOutput}
+     *
+     * @param metadata - initial input meta data {@link Metadata}
+     * @param output   - initial input binary output {@link BinaryOutput}
+     */
+    public static void write(final Metadata metadata, final BinaryOutput output) {
+        final String[] names = metadata.names();
+        output.writeByte(VERSION);
+        output.writeVarInt(names.length);
+        for (final String name : names) {
+            final Integer code = CODES.get(name);
+            if (Objects.isNull(code)) {
+                output.writeVarInt(0);
+                output.writeString(name);
+            } else {
+                output.writeVarInt(code);
+            }
+            final String[] values = metadata.getValues(name);
+            output.writeVarInt(values.length);
+            for (final String value : values) {
+                output.writeString(value);
+            }
+        }
+    }
+
+    /**
+     * Returns meta data {@link Metadata} read from binary input {@link BinaryInput}
+     *
+     * @param input - initial input binary input {@link BinaryInput}
+     * @return meta data {@link Metadata}
+     * @throws IOException
+     */
+    public static Metadata read(final BinaryInput input) throws IOException {
+        final int version = input.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new StreamCorruptedException(String.format("ERROR: invalid meta data format version={%s}", version));
+        }
+        final int dictionarySize = DICTIONARY_SIZES[version];
+        final Metadata metadata = new Metadata();
+        for (int i = 0, names = input.readLength(); i < names; i++) {
+            final int code = input.readLength();
+            if (code > dictionarySize) {
+                throw new StreamCorruptedException(String.format("ERROR: invalid meta data name code={%s}, version={%s}", code, version));
+            }
+            final String name = code == 0 ? input.readString() : KEYS[code - 1];
+            for (int j = 0, values = input.readLength(); j < values; j++) {
+                metadata.add(name, input.readString());
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns binary encoded input meta data {@link Metadata}
+     *
+     * @param metadata - initial input meta data {@link Metadata}
+     * @return encoded bytes
+     */
+    public static byte[] encode(final Metadata metadata) {
+        final BinaryOutput output = new BinaryOutput();
+        write(metadata, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Returns meta data {@link Metadata} by input encoded bytes
+     *
+     * @param bytes - initial input encoded bytes
+     * @return meta data {@link Metadata}
+     * @throws IOException
+     */
+    public static Metadata decode(final byte[] bytes) throws IOException {
+        return read(new BinaryInput(bytes));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * XXH64 hash implementation
+ * <p>
+ * Streaming implementation of non-cryptographic XXH64 (xxHash) 64-bit hash, results match the reference implementation
+ * for the same seed. Use for deduplication and cache keys only, it is not collision resistant against adversarial input.
+ * Instances are not thread-safe.
+ */
+@ToString(of = {"seed", "length"})
+public class XxHash64 {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * Default stripe size
+     */
+    private static final int STRIPE_SIZE = 32;
+
+    /**
+     * Default hash seed
+     */
+    @Getter
+    private final long seed;
+    /**
+     * Default pending stripe bytes
+     */
+    private final byte[] stripe = new byte[STRIPE_SIZE];
+    private int stripeLength;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    /**
+     * Default number of hashed bytes
+     */
+    @Getter
+    private long length;
+
+    public XxHash64() {
+        this(0);
+    }
+
+    public XxHash64(long seed) {
+        this.seed = seed;
+        this.reset();
+    }
+
+    /**
+     * Returns XXH64 hash of input bytes range with input seed
+     *
+     * @param bytes  - initial input bytes
+     * @param offset - initial input offset
+     * @param length - initial input length
+     * @param seed   - initial input seed
+     * @return hash value
+     */
+    public static long hash(final byte[] bytes, int offset, int length, long seed) {
+        final XxHash64 hash = new XxHash64(seed);
+        hash.update(bytes, offset, length);
+        return hash.getValue();
+    }
+
+    /**
+     * Resets hash state to initial one
+     */
+    public void reset() {
+        this.v1 = this.seed + PRIME1 + PRIME2;
+        this.v2 = this.seed + PRIME2;
+        this.v3 = this.seed;
+        this.v4 = this.seed - PRIME1;
+        this.stripeLength = 0;
+        this.length = 0;
+    }
+
+    /**
+     * Updates hash by input byte
+     *
+     * @param b - initial input byte
+     */
+    public void update(int b) {
+        this.stripe[this.stripeLength++] = (byte) b;
+        this.length++;
+        if (this.stripeLength == STRIPE_SIZE) {
+            this.consume(this.stripe, 0);
+            this.stripeLength = 0;
+        }
+    }
+
+    /**
+     * Updates hash by input bytes range
+     *
+     * @param bytes  - initial input bytes
+     * @param offset - initial input offset
+     * @param length - initial input length
+     */
+    public void update(final byte[] bytes, int offset, int length) {
+        this.length += length;
+        final int end = offset + length;
+        if (this.stripeLength > 0) {
+            final int n = Math.min(STRIPE_SIZE - this.stripeLength, length);
+            System.arraycopy(bytes, offset, this.stripe, this.stripeLength, n);
+            this.stripeLength += n;
+            offset += n;
+            if (this.stripeLength < STRIPE_SIZE) {
+                return;
+            }
+            this.consume(this.stripe, 0);
+            this.stripeLength = 0;
+        }
+        for (; offset <= end - STRIPE_SIZE; offset += STRIPE_SIZE) {
+            this.consume(bytes, offset);
+        }
+        this.stripeLength = end - offset;
+        System.arraycopy(bytes, offset, this.stripe, 0, this.stripeLength);
+    }
+
+    /**
+     * Returns hash value of bytes hashed so far, hash state is not changed
+     *
+     * @return hash value
+     */
+    public long getValue() {
+        long hash;
+        if (this.length >= STRIPE_SIZE) {
+            hash = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7) + Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+            hash = merge(hash, this.v1);
+            hash = merge(hash, this.v2);
+            hash = merge(hash, this.v3);
+            hash = merge(hash, this.v4);
+        } else {
+            hash = this.seed + PRIME5;
+        }
+        hash += this.length;
+        int position = 0;
+        for (; position + 8 <= this.stripeLength; position += 8) {
+            hash ^= round(0, readLong(this.stripe, position));
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        if (position + 4 <= this.stripeLength) {
+            hash ^= (readInt(this.stripe, position) & 0xFFFFFFFFL) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            position += 4;
+        }
+        for (; position < this.stripeLength; position++) {
+            hash ^= (this.stripe[position] & 0xFFL) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void consume(final byte[] bytes, int offset) {
+        this.v1 = round(this.v1, readLong(bytes, offset));
+        this.v2 = round(this.v2, readLong(bytes, offset + 8));
+        this.v3 = round(this.v3, readLong(bytes, offset + 16));
+        this.v4 = round(this.v4, readLong(bytes, offset + 24));
+    }
+
+    private static long round(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * PRIME2, 31) * PRIME1;
+    }
+
+    private static long merge(long hash, long value) {
+        return (hash ^ round(0, value)) * PRIME1 + PRIME4;
+    }
+
+    private static long readLong(final byte[] bytes, int offset) {
+        return (readInt(bytes, offset) & 0xFFFFFFFFL) | (long) readInt(bytes, offset + 4) << 32;
+    }
+
+    private static int readInt(final byte[] bytes, int offset) {
+        return bytes[offset] & 0xFF | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16 | bytes[offset + 3] << 24;
+    }
+}
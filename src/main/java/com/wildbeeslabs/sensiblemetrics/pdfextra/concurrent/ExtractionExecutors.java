@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Extraction executors implementation
+ * <p>
+ * Single place deciding which threads run extraction work. This Java 8 layer uses platform thread pools, the Java 21 layer
+ * of the multi-release jar (META-INF/versions/21) runs I/O-bound and batch tasks on virtual threads instead. In both layers
+ * CPU-bound work (parsing, pdf rendering) is capped by shared semaphore sized by {@link #CPU_PERMITS_PROPERTY}
+ * (available processors by default), so unbounded numbers of task threads never oversubscribe the CPU.
+ */
+@UtilityClass
+public class ExtractionExecutors {
+
+    /**
+     * Default system property overriding number of concurrent CPU-bound tasks
+     */
+    public static final String CPU_PERMITS_PROPERTY = "pdfextra.cpu.permits";
+
+    /**
+     * Default CPU-bound task permits
+     */
+    private static final Semaphore CPU_PERMITS = new Semaphore(Math.max(1, Integer.getInteger(CPU_PERMITS_PROPERTY, Runtime.getRuntime().availableProcessors())));
+    /**
+     * Default per-thread flag whether CPU permit is held (nested CPU-bound calls do not acquire again)
+     */
+    private static final ThreadLocal<Boolean> CPU_PERMIT_HELD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Returns binary flag whether tasks run on virtual threads
+     *
+     * @return true - if tasks run on virtual threads, false - otherwise
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+
+    /**
+     * Returns executor service {@link ExecutorService} for I/O-bound tasks (fetching, spooling, writing) by input thread name prefix {@link String}
+     *
+     * @param name - initial input thread name prefix {@link String}
+     * @return executor service {@link ExecutorService}
+     */
+    public static ExecutorService newIoExecutor(final String name) {
+        return Executors.newCachedThreadPool(threadFactory(name));
+    }
+
+    /**
+     * Returns executor service {@link ExecutorService} for batch tasks by input thread name prefix {@link String} and parallelism,
+     * platform thread pool of given size (virtual thread per task in Java 21 layer, running tasks bounded by the same parallelism)
+     *
+     * @param name        - initial input thread name prefix {@link String}
+     * @param parallelism - initial input number of platform threads
+     * @return executor service {@link ExecutorService}
+     */
+    public static ExecutorService newBatchExecutor(final String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid parallelism={%s}", parallelism));
+        }
+        return Executors.newFixedThreadPool(parallelism, threadFactory(name));
+    }
+
+    /**
+     * Returns result of input CPU-bound task {@link Callable}, waiting for CPU permit when all permits are in use
+     *
+     * @param task - initial input task {@link Callable}
+     * @param <T>  type of result
+     * @return task result
+     * @throws Exception
+     */
+    public static <T> T callCpuBound(final Callable<T> task) throws Exception {
+        if (CPU_PERMIT_HELD.get()) {
+            return task.call();
+        }
+        CPU_PERMITS.acquire();
+        CPU_PERMIT_HELD.set(Boolean.TRUE);
+        try {
+            return task.call();
+        } finally {
+            CPU_PERMIT_HELD.set(Boolean.FALSE);
+            CPU_PERMITS.release();
+        }
+    }
+
+    /**
+     * Returns results {@link List} of input tasks {@link Collection} in task order, forked as subtasks of the calling thread.
+     * The first failed subtask cancels the remaining ones and its exception is rethrown, no subtask outlives the call.
+     *
+     * @param name  - initial input thread name prefix {@link String}
+     * @param tasks - initial input tasks {@link Collection}
+     * @param <T>   type of result
+     * @return results {@link List}
+     * @throws Exception
+     */
+    public static <T> List<T> invokeAll(final String name, final Collection<? extends Callable<T>> tasks) throws Exception {
+        final ExecutorService scope = newIoExecutor(name);
+        try {
+            return join(scope, tasks);
+        } finally {
+            scope.shutdownNow();
+            scope.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static <T> List<T> join(final ExecutorService scope, final Collection<? extends Callable<T>> tasks) throws Exception {
+        final CompletionService<T> completion = new ExecutorCompletionService<>(scope);
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(completion.submit(task));
+        }
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        final List<T> results = new ArrayList<>(futures.size());
+        for (final Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        return new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-%d").build();
+    }
+}
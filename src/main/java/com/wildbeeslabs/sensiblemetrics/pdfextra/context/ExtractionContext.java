@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.context;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reusable extraction context implementation
+ * <p>
+ * Holds per-thread {@link Metadata}, {@link ParseContext} and body {@link ContentHandler} instances
+ * that are reset instead of being reallocated on every parse call. Use {@link #acquire()} within
+ * try-with-resources block, the context is reset and released back to the owning thread on {@link #close()}.
+ * Reset removes every parse context entry, including entries added by parsers themselves (e.g. embedded document
+ * parser), so no state leaks from one parse call to the next.
+ */
+@Slf4j
+@Getter
+@ToString
+public class ExtractionContext implements AutoCloseable {
+
+    /**
+     * Default initial text buffer capacity
+     */
+    public static final int DEFAULT_INITIAL_BUFFER_CAPACITY = 4 * 1024;
+    /**
+     * Default maximum text buffer capacity retained between parse calls
+     */
+    public static final int DEFAULT_MAX_RETAINED_BUFFER_CAPACITY = 1024 * 1024;
+    /**
+     * Default stateless content handler {@link ContentHandler} that discards all parse events
+     */
+    public static final ContentHandler DEFAULT_DISCARD_HANDLER = new DefaultHandler();
+
+    /**
+     * Default per-thread extraction context instance {@link ThreadLocal}
+     */
+    private static final ThreadLocal<ExtractionContext> LOCAL_CONTEXT = ThreadLocal.withInitial(ExtractionContext::new);
+
+    /**
+     * Default meta data {@link Metadata}
+     */
+    private final Metadata metadata = new Metadata();
+    /**
+     * Default parse context {@link ParseContext}, every key set is tracked to be cleared on reset
+     */
+    @Getter(AccessLevel.NONE)
+    private final TrackingParseContext parseContext = new TrackingParseContext();
+    /**
+     * Default text buffer {@link StringWriter}
+     */
+    @ToString.Exclude
+    private StringWriter writer;
+    /**
+     * Default body content handler {@link ContentHandler} writing to text buffer
+     */
+    @ToString.Exclude
+    private ContentHandler bodyHandler;
+    /**
+     * Default acquisition flag
+     */
+    private boolean acquired;
+
+    /**
+     * Default extraction context constructor
+     */
+    public ExtractionContext() {
+        this.initBuffer();
+    }
+
+    /**
+     * Returns extraction context {@link ExtractionContext} bound to the current thread,
+     * or fresh unbound instance if the thread context is already in use (nested parse calls)
+     *
+     * @return extraction context {@link ExtractionContext}
+     */
+    public static ExtractionContext acquire() {
+        final ExtractionContext context = LOCAL_CONTEXT.get();
+        if (context.isAcquired()) {
+            return new ExtractionContext();
+        }
+        context.acquired = true;
+        return context;
+    }
+
+    /**
+     * Sets parse context value by input key {@link Class}, cleared on reset
+     *
+     * @param key   - initial input parse context key {@link Class}
+     * @param value - initial input parse context value
+     * @param <T>   type of parse context value
+     * @return current extraction context {@link ExtractionContext}
+     */
+    public <T> ExtractionContext set(final Class<T> key, final T value) {
+        this.parseContext.set(key, value);
+        return this;
+    }
+
+    /**
+     * Returns parse context {@link ParseContext}
+     *
+     * @return parse context {@link ParseContext}
+     */
+    public ParseContext getParseContext() {
+        return this.parseContext;
+    }
+
+    /**
+     * Returns text content collected by body content handler
+     *
+     * @return text content {@link String}
+     */
+    public String getText() {
+        return this.writer.toString();
+    }
+
+    /**
+     * Resets meta data, parse context and text buffer for subsequent parse call
+     * <p>
+     * Body content handler is always recreated, since its element matcher state is left
+     * descended by parse calls that fail before reaching closing elements.
+     */
+    public void reset() {
+        for (final String name : this.metadata.names()) {
+            this.metadata.remove(name);
+        }
+        this.parseContext.clear();
+        if (this.writer.getBuffer().capacity() > DEFAULT_MAX_RETAINED_BUFFER_CAPACITY) {
+            this.initBuffer();
+        } else {
+            this.writer.getBuffer().setLength(0);
+            this.bodyHandler = new BodyContentHandler(this.writer);
+        }
+    }
+
+    /**
+     * Resets and releases current extraction context back to the owning thread
+     */
+    @Override
+    public void close() {
+        this.reset();
+        this.acquired = false;
+    }
+
+    private void initBuffer() {
+        this.writer = new StringWriter(DEFAULT_INITIAL_BUFFER_CAPACITY);
+        this.bodyHandler = new BodyContentHandler(this.writer);
+    }
+
+    /**
+     * Parse context implementation {@link ParseContext} tracking keys of every entry set by callers and parsers
+     */
+    private static final class TrackingParseContext extends ParseContext {
+
+        /**
+         * Default explicit serialVersionUID for interoperability
+         */
+        private static final long serialVersionUID = 4120569323361985714L;
+
+        /**
+         * Default collection of keys {@link Set} set since last clear
+         */
+        private final Set<Class<?>> keys = new HashSet<>();
+
+        @Override
+        public <T> void set(final Class<T> key, final T value) {
+            if (Objects.nonNull(value)) {
+                this.keys.add(key);
+            }
+            super.set(key, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void clear() {
+            for (final Class<?> key : this.keys) {
+                super.set((Class<Object>) key, null);
+            }
+            this.keys.clear();
+        }
+    }
+}
@@ -23,6 +23,7 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra.examples.processor;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.ingest.CheckpointJournal;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -44,6 +45,7 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -70,13 +72,29 @@ public class PhoneProcessor {
      * @param folder - initial input path folder {@link Path}
      */
     public void processFolder(final Path folder) {
+        this.processFolder(folder, null);
+    }
+
+    /**
+     * Processes input path folder {@link Path} skipping files unchanged since recorded in checkpoint journal {@link CheckpointJournal}
+     *
+     * @param folder  - initial input path folder {@link Path}
+     * @param journal - initial input checkpoint journal {@link CheckpointJournal}
+     */
+    public void processFolder(final Path folder, final CheckpointJournal journal) {
         try {
             Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
                 @Override
                 public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    if (Objects.nonNull(journal) && journal.isDone(file, attrs)) {
+                        return FileVisitResult.CONTINUE;
+                    }
                     try {
                         process(file);
                         successfulFiles++;
+                        if (Objects.nonNull(journal)) {
+                            journal.markDone(file, attrs);
+                        }
                     } catch (Exception e) {
                         failedFiles++;
                     }
@@ -91,6 +109,19 @@ public class PhoneProcessor {
             });
         } catch (IOException e) {
             log.error(String.format("ERROR: cannot parse input folder={%s}", folder.toAbsolutePath()));
+        } finally {
+            this.commit(journal);
+        }
+    }
+
+    private void commit(final CheckpointJournal journal) {
+        if (Objects.isNull(journal)) {
+            return;
+        }
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            log.error(String.format("ERROR: cannot commit checkpoint journal={%s}, message={%s}", journal.getFile(), e.getMessage()));
         }
     }
 
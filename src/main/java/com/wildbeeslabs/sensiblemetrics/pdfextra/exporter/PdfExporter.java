@@ -30,9 +30,11 @@ import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import com.openhtmltopdf.slf4j.Slf4jLogger;
 import com.openhtmltopdf.util.XRLog;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.exception.GeneralException;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.templater.Templater;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.Utils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.velocity.app.VelocityEngine;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -50,6 +52,15 @@ public class PdfExporter {
 
     private String serverPort;
 
+    /**
+     * Returns shared pdf exporter {@link PdfExporter} backed by default velocity engine {@link VelocityEngine}, initialized on first use
+     *
+     * @return pdf exporter {@link PdfExporter}
+     */
+    public static PdfExporter getInstance() {
+        return Holder.INSTANCE;
+    }
+
     public byte[] export(final InputStream template, final Map<String, Object> arguments) {
         XRLog.setLoggerImpl(new Slf4jLogger());
 
@@ -80,16 +91,43 @@ public class PdfExporter {
             fontResolver.addFont(() -> new ByteArrayInputStream(fontBytesTahomaBold), "Tahoma", 700, null, false);
             fontResolver.addFont(() -> new ByteArrayInputStream(fontBytesTahomaItalic), "Tahoma", null, IdentValue.ITALIC, false);
 
+            final ExtractionMetrics metrics = ExtractionMetrics.getInstance();
+            long start = ExtractionMetrics.start();
             renderer.layout();
+            metrics.record(ExtractionMetrics.PDF_LAYOUT, start);
+
+            start = ExtractionMetrics.start();
             renderer.createPDF();
+            metrics.record(ExtractionMetrics.PDF_CREATE, start);
 
             return out.toByteArray();
         } catch (IOException ex) {
+            ExtractionMetrics.getInstance().failure(ExtractionMetrics.PDF_CREATE);
             throw new GeneralException(ex);
+        } catch (RuntimeException ex) {
+            ExtractionMetrics.getInstance().failure(ExtractionMetrics.PDF_CREATE);
+            throw ex;
         }
     }
 
     public void setTemplater(Templater templater) {
         this.templater = templater;
     }
+
+    /**
+     * Shared pdf exporter holder
+     */
+    private static final class Holder {
+        private static final PdfExporter INSTANCE = create();
+
+        private static PdfExporter create() {
+            final VelocityEngine engine = new VelocityEngine();
+            engine.init();
+            final Templater templater = new Templater();
+            templater.setEngine(engine);
+            final PdfExporter exporter = new PdfExporter();
+            exporter.setTemplater(templater);
+            return exporter;
+        }
+    }
 }
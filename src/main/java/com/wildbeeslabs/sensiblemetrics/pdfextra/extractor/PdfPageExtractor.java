@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.extractor;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.tika.io.TemporaryResources;
+import org.apache.tika.io.TikaInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Pdf page extractor implementation
+ * <p>
+ * Extracts text of selected page range only (pages outside the range are skipped), or splits page ranges
+ * across worker threads and reassembles the text in page order. Every worker opens its own {@link PDDocument}
+ * over the same read-only source (file or byte array), since pdfbox documents are not thread-safe.
+ * Input streams are spooled to a temporary file and file documents are loaded with bounded main memory
+ * (the rest is buffered in scratch files), so large documents are not held in heap once per worker.
+ * Page ranges not yet started by executor workers are run by the calling thread, so page-parallel extraction
+ * can be invoked from a task of the same bounded executor without waiting for a free worker.
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PdfPageExtractor {
+
+    /**
+     * Default minimum number of pages per worker
+     */
+    public static final int DEFAULT_MIN_PAGES_PER_WORKER = 8;
+
+    /**
+     * Default maximum main memory (in bytes) used by pdf document loaded from file
+     */
+    public static final long DEFAULT_MAX_MAIN_MEMORY_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Default flag whether text should be sorted by position
+     */
+    private final boolean sortByPosition;
+
+    /**
+     * Default pdf page extractor constructor
+     */
+    public PdfPageExtractor() {
+        this(false);
+    }
+
+    /**
+     * Default pdf page extractor constructor with input sort by position flag
+     *
+     * @param sortByPosition - initial input flag whether text should be sorted by position
+     */
+    public PdfPageExtractor(boolean sortByPosition) {
+        this.sortByPosition = sortByPosition;
+    }
+
+    /**
+     * Pdf document source definition
+     */
+    @FunctionalInterface
+    public interface DocumentSource {
+
+        /**
+         * Returns new pdf document instance {@link PDDocument}
+         *
+         * @return pdf document instance {@link PDDocument}
+         * @throws IOException
+         */
+        PDDocument open() throws IOException;
+
+        /**
+         * Returns pdf document source {@link DocumentSource} by input file path {@link Path}
+         *
+         * @param path - initial input file path {@link Path}
+         * @return pdf document source {@link DocumentSource}
+         */
+        static DocumentSource of(final Path path) {
+            return of(path, MemoryUsageSetting.setupMixed(DEFAULT_MAX_MAIN_MEMORY_BYTES));
+        }
+
+        /**
+         * Returns pdf document source {@link DocumentSource} by input file path {@link Path} and memory usage setting {@link MemoryUsageSetting}
+         *
+         * @param path    - initial input file path {@link Path}
+         * @param setting - initial input memory usage setting {@link MemoryUsageSetting}
+         * @return pdf document source {@link DocumentSource}
+         */
+        static DocumentSource of(final Path path, final MemoryUsageSetting setting) {
+            Objects.requireNonNull(path, "Path should not be null");
+            Objects.requireNonNull(setting, "Memory usage setting should not be null");
+            return () -> PDDocument.load(path.toFile(), setting);
+        }
+
+        /**
+         * Returns pdf document source {@link DocumentSource} by input document content
+         *
+         * @param content - initial input document content
+         * @return pdf document source {@link DocumentSource}
+         */
+        static DocumentSource of(final byte[] content) {
+            Objects.requireNonNull(content, "Content should not be null");
+            return () -> PDDocument.load(content);
+        }
+    }
+
+    /**
+     * Returns text content of page range by input stream {@link InputStream}
+     *
+     * @param stream    - initial input stream {@link InputStream}
+     * @param startPage - initial input start page (1-based, inclusive)
+     * @param endPage   - initial input end page (1-based, inclusive)
+     * @return text content {@link String}
+     * @throws IOException
+     */
+    public String extract(final InputStream stream, int startPage, int endPage) throws IOException {
+        try (final PDDocument document = PDDocument.load(stream)) {
+            return this.extract(document, startPage, endPage);
+        }
+    }
+
+    /**
+     * Returns text content of page range by input document source {@link DocumentSource}
+     *
+     * @param source    - initial input document source {@link DocumentSource}
+     * @param startPage - initial input start page (1-based, inclusive)
+     * @param endPage   - initial input end page (1-based, inclusive)
+     * @return text content {@link String}
+     * @throws IOException
+     */
+    public String extract(final DocumentSource source, int startPage, int endPage) throws IOException {
+        try (final PDDocument document = source.open()) {
+            return this.extract(document, startPage, endPage);
+        }
+    }
+
+    /**
+     * Returns text content of the whole document by input stream {@link InputStream} extracted by page-parallel workers,
+     * stream is spooled to a temporary file which is shared by workers and removed afterwards
+     *
+     * @param stream   - initial input stream {@link InputStream}
+     * @param executor - initial input executor service {@link ExecutorService}
+     * @param workers  - initial input number of workers
+     * @return text content {@link String}
+     * @throws IOException
+     */
+    public String extractParallel(final InputStream stream, final ExecutorService executor, int workers) throws IOException {
+        try (final TemporaryResources tmp = new TemporaryResources()) {
+            final Path path = TikaInputStream.get(stream, tmp).getFile().toPath();
+            return this.extractParallel(DocumentSource.of(path), executor, workers);
+        }
+    }
+
+    /**
+     * Returns text content of the whole document by input document source {@link DocumentSource} extracted by page-parallel workers
+     *
+     * @param source   - initial input document source {@link DocumentSource}
+     * @param executor - initial input executor service {@link ExecutorService}
+     * @param workers  - initial input number of workers
+     * @return text content {@link String}
+     * @throws IOException
+     */
+    public String extractParallel(final DocumentSource source, final ExecutorService executor, int workers) throws IOException {
+        if (workers <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid number of workers={%s}", workers));
+        }
+        try (final PDDocument document = source.open()) {
+            final int numberOfPages = document.getNumberOfPages();
+            final int pagesPerWorker = Math.max(DEFAULT_MIN_PAGES_PER_WORKER, (numberOfPages + workers - 1) / workers);
+            if (numberOfPages <= pagesPerWorker) {
+                return this.extract(document, 1, numberOfPages);
+            }
+            final List<FutureTask<String>> ranges = new ArrayList<>();
+            for (int start = pagesPerWorker + 1; start <= numberOfPages; start += pagesPerWorker) {
+                final int startPage = start;
+                final int endPage = Math.min(numberOfPages, start + pagesPerWorker - 1);
+                final FutureTask<String> range = new FutureTask<>(() -> this.extract(source, startPage, endPage));
+                ranges.add(range);
+                try {
+                    executor.execute(range);
+                } catch (RejectedExecutionException e) {
+                    log.debug(String.format("Executor rejected page range={%s-%s}, it is extracted by the calling thread", startPage, endPage));
+                }
+            }
+            // the calling thread extracts the first range on the already loaded document
+            final String firstRange;
+            try {
+                firstRange = this.extract(document, 1, pagesPerWorker);
+            } catch (IOException | RuntimeException e) {
+                ranges.forEach(range -> range.cancel(true));
+                throw e;
+            }
+            return this.join(firstRange, ranges);
+        }
+    }
+
+    private String join(final String firstRange, final List<FutureTask<String>> ranges) throws IOException {
+        final StringBuilder result = new StringBuilder(firstRange);
+        try {
+            for (final FutureTask<String> range : ranges) {
+                // runs range on the calling thread unless a worker has already started it
+                range.run();
+                result.append(range.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ranges.forEach(range -> range.cancel(true));
+            throw new IOException("ERROR: page-parallel extraction was interrupted", e);
+        } catch (ExecutionException e) {
+            ranges.forEach(range -> range.cancel(true));
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("ERROR: cannot extract page range", e.getCause());
+        }
+        return result.toString();
+    }
+
+    private String extract(final PDDocument document, int startPage, int endPage) throws IOException {
+        if (startPage < 1 || endPage < startPage) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid page range={%s-%s}", startPage, endPage));
+        }
+        final PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setSortByPosition(this.sortByPosition);
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(document);
+    }
+}
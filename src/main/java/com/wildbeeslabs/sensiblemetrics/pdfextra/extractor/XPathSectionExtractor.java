@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.extractor;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.XPathFragmentHandler;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.XPathMatcherCache;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.sax.xpath.Matcher;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Reusable xpath section extractor implementation
+ * <p>
+ * Keeps precompiled matchers {@link Matcher} for configured expressions, so repeated extraction does not parse
+ * selectors again. Instances are immutable and can be shared between threads.
+ */
+@Slf4j
+@Getter
+@EqualsAndHashCode
+@ToString
+public class XPathSectionExtractor {
+
+    /**
+     * Default collection of section expressions {@link Map} with maximum number of matches
+     */
+    private final Map<String, Integer> expressions;
+    /**
+     * Default collection of compiled matchers {@link Map}
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Map<String, Matcher> matchers;
+
+    /**
+     * Default xpath section extractor constructor with input xpath expressions {@link String} and unlimited matches
+     *
+     * @param expressions - initial input xpath expressions {@link String}
+     */
+    public XPathSectionExtractor(final String... expressions) {
+        this(toExpressionMap(expressions));
+    }
+
+    /**
+     * Default xpath section extractor constructor with input xpath expressions {@link Map} and their maximum number of matches
+     *
+     * @param expressions - initial input xpath expressions {@link Map} with maximum number of matches
+     */
+    public XPathSectionExtractor(final Map<String, Integer> expressions) {
+        Objects.requireNonNull(expressions, "Expressions should not be null");
+        final Map<String, Matcher> matchers = new LinkedHashMap<>();
+        for (final String expression : expressions.keySet()) {
+            matchers.put(expression, XPathMatcherCache.get(expression));
+        }
+        this.expressions = Collections.unmodifiableMap(new LinkedHashMap<>(expressions));
+        this.matchers = Collections.unmodifiableMap(matchers);
+    }
+
+    /**
+     * Extracts sections from input stream {@link InputStream} to fragment listener {@link XPathFragmentHandler.FragmentListener}
+     *
+     * @param stream   - initial input stream {@link InputStream}
+     * @param listener - initial input fragment listener {@link XPathFragmentHandler.FragmentListener}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public void extract(final InputStream stream, final XPathFragmentHandler.FragmentListener listener) throws IOException, SAXException, TikaException {
+        AnalyzerUtils.parseByXPath(stream, this.newHandler(listener));
+    }
+
+    /**
+     * Returns collection of extracted sections {@link Map} by input stream {@link InputStream} grouped by xpath expression
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @return collection of extracted sections {@link Map}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public Map<String, List<String>> extract(final InputStream stream) throws IOException, SAXException, TikaException {
+        final Map<String, List<String>> sections = new LinkedHashMap<>();
+        for (final String expression : this.expressions.keySet()) {
+            sections.put(expression, new ArrayList<>());
+        }
+        this.extract(stream, (expression, fragment) -> sections.get(expression).add(fragment));
+        return sections;
+    }
+
+    /**
+     * Returns new xpath fragment handler {@link XPathFragmentHandler} with precompiled matchers by input fragment listener
+     *
+     * @param listener - initial input fragment listener {@link XPathFragmentHandler.FragmentListener}
+     * @return xpath fragment handler {@link XPathFragmentHandler}
+     */
+    public XPathFragmentHandler newHandler(final XPathFragmentHandler.FragmentListener listener) {
+        final XPathFragmentHandler handler = new XPathFragmentHandler(listener);
+        for (final Map.Entry<String, Integer> entry : this.expressions.entrySet()) {
+            handler.select(entry.getKey(), this.matchers.get(entry.getKey()), entry.getValue());
+        }
+        return handler;
+    }
+
+    private static Map<String, Integer> toExpressionMap(final String... expressions) {
+        final Map<String, Integer> result = new LinkedHashMap<>();
+        for (final String expression : expressions) {
+            result.put(expression, XPathFragmentHandler.UNLIMITED_MATCHES);
+        }
+        return result;
+    }
+}
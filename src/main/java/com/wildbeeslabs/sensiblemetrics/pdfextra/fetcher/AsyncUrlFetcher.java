@@ -0,0 +1,342 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.fetcher;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent.ExtractionExecutors;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Asynchronous url fetcher implementation
+ * <p>
+ * Fetches remote documents on background executor and hands the decoded response body to the stream handler
+ * {@link StreamHandler} while it is still arriving, so network transfer and parsing overlap. Number of
+ * concurrent requests per host is bounded, pending requests are queued per host without parking threads.
+ */
+@Slf4j
+@Getter
+@ToString
+public class AsyncUrlFetcher implements AutoCloseable {
+
+    /**
+     * Default maximum number of concurrent requests per host
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+    /**
+     * Default connect timeout (in millis)
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+    /**
+     * Default read timeout (in millis)
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60_000;
+    /**
+     * Default accepted content encodings
+     */
+    public static final String DEFAULT_ACCEPT_ENCODING = "gzip, deflate";
+    /**
+     * Default meta data key of response transfer coding (Content-Encoding header), kept apart from
+     * {@link Metadata#CONTENT_ENCODING} which holds character set of already decoded stream
+     */
+    public static final String HTTP_CONTENT_ENCODING = "X-HTTP-Content-Encoding";
+
+    /**
+     * Default executor service {@link ExecutorService}
+     */
+    @ToString.Exclude
+    private final ExecutorService executor;
+    /**
+     * Default maximum number of concurrent requests per host
+     */
+    private final int maxConnectionsPerHost;
+    /**
+     * Default collection of host queues {@link ConcurrentMap}
+     */
+    @ToString.Exclude
+    private final ConcurrentMap<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+
+    /**
+     * Default async url fetcher constructor with default per-host concurrency
+     */
+    public AsyncUrlFetcher() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Default async url fetcher constructor with input maximum number of concurrent requests per host
+     *
+     * @param maxConnectionsPerHost - initial input maximum number of concurrent requests per host
+     */
+    public AsyncUrlFetcher(int maxConnectionsPerHost) {
+        this(maxConnectionsPerHost, ExtractionExecutors.newIoExecutor("pdfextra-fetcher"));
+    }
+
+    /**
+     * Default async url fetcher constructor with input maximum number of concurrent requests per host and executor service {@link ExecutorService}
+     *
+     * @param maxConnectionsPerHost - initial input maximum number of concurrent requests per host
+     * @param executor              - initial input executor service {@link ExecutorService}
+     */
+    public AsyncUrlFetcher(int maxConnectionsPerHost, final ExecutorService executor) {
+        if (maxConnectionsPerHost <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid maximum connections per host={%s}", maxConnectionsPerHost));
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.executor = Objects.requireNonNull(executor, "Executor should not be null");
+    }
+
+    /**
+     * Stream handler definition
+     *
+     * @param <T> type of handler result
+     */
+    @FunctionalInterface
+    public interface StreamHandler<T> {
+
+        /**
+         * Returns result of processing input stream {@link InputStream} with response meta data {@link Metadata}
+         *
+         * @param stream   - initial input decoded response stream {@link InputStream}
+         * @param metadata - initial input response meta data {@link Metadata}
+         * @return processing result
+         * @throws Exception
+         */
+        T handle(final InputStream stream, final Metadata metadata) throws Exception;
+    }
+
+    /**
+     * Returns future text content {@link CompletableFuture} by input address {@link String}
+     *
+     * @param address - initial input address {@link String}
+     * @return future text content {@link CompletableFuture}
+     */
+    public CompletableFuture<String> fetchContent(final String address) {
+        return this.fetch(address, (stream, metadata) -> AnalyzerUtils.getContentByParser(stream));
+    }
+
+    /**
+     * Returns future processing result {@link CompletableFuture} by input address {@link String} and stream handler {@link StreamHandler}
+     *
+     * @param address - initial input address {@link String}
+     * @param handler - initial input stream handler {@link StreamHandler}
+     * @param <T>     type of processing result
+     * @return future processing result {@link CompletableFuture}
+     */
+    public <T> CompletableFuture<T> fetch(final String address, final StreamHandler<T> handler) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final URL url;
+        try {
+            url = new URL(address);
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (this.executor.isShutdown()) {
+            result.completeExceptionally(new RejectedExecutionException(String.format("ERROR: fetcher is closed, cannot fetch address={%s}", address)));
+            return result;
+        }
+        final HostQueue queue = this.hostQueues.computeIfAbsent(url.getAuthority().toLowerCase(Locale.ROOT), host -> new HostQueue());
+        queue.submit(new FetchTask(result, () -> {
+            try {
+                final Metadata metadata = new Metadata();
+                try (final InputStream stream = openStream(url, metadata)) {
+                    result.complete(handler.handle(stream, metadata));
+                }
+            } catch (Throwable e) {
+                log.error(String.format("ERROR: cannot fetch content by address={%s}", address));
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Returns decoded response stream {@link InputStream} by input url {@link URL} and populates response meta data {@link Metadata}
+     *
+     * @param url      - initial input url {@link URL}
+     * @param metadata - initial input meta data {@link Metadata} to be populated by response headers
+     * @return decoded response stream {@link InputStream}
+     * @throws IOException
+     */
+    public static InputStream openStream(final URL url, final Metadata metadata) throws IOException {
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT);
+        connection.setReadTimeout(DEFAULT_READ_TIMEOUT);
+        connection.setRequestProperty("Accept-Encoding", DEFAULT_ACCEPT_ENCODING);
+        if (connection instanceof HttpURLConnection) {
+            final int status = ((HttpURLConnection) connection).getResponseCode();
+            if (status >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                ((HttpURLConnection) connection).disconnect();
+                throw new IOException(String.format("ERROR: unexpected response status={%s} by url={%s}", status, url));
+            }
+        }
+        final String resourceName = StringUtils.substringAfterLast(url.getPath(), "/");
+        if (StringUtils.isNotEmpty(resourceName)) {
+            metadata.set(Metadata.RESOURCE_NAME_KEY, resourceName);
+        }
+        if (Objects.nonNull(connection.getContentType())) {
+            metadata.set(Metadata.CONTENT_TYPE, connection.getContentType());
+        }
+        if (Objects.nonNull(connection.getContentEncoding())) {
+            metadata.set(HTTP_CONTENT_ENCODING, connection.getContentEncoding());
+        }
+        return decode(connection.getInputStream(), connection.getContentEncoding());
+    }
+
+    /**
+     * Returns decoded input stream {@link InputStream} by input raw stream {@link InputStream} and content encoding {@link String}
+     *
+     * @param stream          - initial input raw stream {@link InputStream}
+     * @param contentEncoding - initial input content encoding {@link String}
+     * @return decoded input stream {@link InputStream}
+     * @throws IOException
+     */
+    public static InputStream decode(final InputStream stream, final String contentEncoding) throws IOException {
+        final String encoding = StringUtils.trimToEmpty(contentEncoding).toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "":
+            case "identity":
+                return stream;
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(stream);
+            case "deflate":
+                return new InflaterInputStream(stream);
+            default:
+                stream.close();
+                throw new IOException(String.format("ERROR: unsupported content encoding={%s}", contentEncoding));
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Fetch task implementation
+     */
+    private static class FetchTask {
+        /**
+         * Default future processing result {@link CompletableFuture}
+         */
+        private final CompletableFuture<?> result;
+        /**
+         * Default fetch operation {@link Runnable}
+         */
+        private final Runnable operation;
+
+        FetchTask(final CompletableFuture<?> result, final Runnable operation) {
+            this.result = result;
+            this.operation = operation;
+        }
+
+        void fail(final Throwable error) {
+            this.result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Per-host request queue implementation
+     * <p>
+     * Tasks rejected by executor complete their futures exceptionally, once the executor is shut down all
+     * pending tasks of the queue are failed as well, so callers never wait on a future that cannot complete.
+     */
+    private class HostQueue {
+        /**
+         * Default pending tasks {@link Queue}
+         */
+        private final Queue<FetchTask> pending = new ConcurrentLinkedQueue<>();
+        /**
+         * Default number of running tasks
+         */
+        private int running;
+
+        void submit(final FetchTask task) {
+            this.pending.add(task);
+            this.dispatch();
+        }
+
+        private void dispatch() {
+            while (true) {
+                final FetchTask task;
+                synchronized (this) {
+                    if (this.running >= getMaxConnectionsPerHost()) return;
+                    task = this.pending.poll();
+                    if (Objects.isNull(task)) return;
+                    this.running++;
+                }
+                try {
+                    getExecutor().execute(() -> {
+                        try {
+                            task.operation.run();
+                        } finally {
+                            this.complete();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    synchronized (this) {
+                        this.running--;
+                    }
+                    task.fail(e);
+                    if (getExecutor().isShutdown()) {
+                        log.error("ERROR: cannot dispatch fetch tasks, executor is shut down");
+                        this.failPending(e);
+                        return;
+                    }
+                    log.error("ERROR: cannot dispatch fetch task, executor rejected task");
+                }
+            }
+        }
+
+        private void failPending(final Throwable error) {
+            for (FetchTask task = this.pending.poll(); Objects.nonNull(task); task = this.pending.poll()) {
+                task.fail(error);
+            }
+        }
+
+        private void complete() {
+            synchronized (this) {
+                this.running--;
+            }
+            this.dispatch();
+        }
+    }
+}
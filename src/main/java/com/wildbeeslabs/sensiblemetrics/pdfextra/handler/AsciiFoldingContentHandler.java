@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.AsciiFolder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * ASCII folding content handler implementation {@link ContentHandlerDecorator}
+ * <p>
+ * Folds character events to ASCII by {@link AsciiFolder} (optionally ASCII lower cased) before forwarding them
+ * to the decorated handler, so text is normalized as parser produces it. Folded chars are written into
+ * a reusable buffer, parser supplied arrays are not modified.
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class AsciiFoldingContentHandler extends ContentHandlerDecorator {
+
+    /**
+     * Default initial buffer size
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * Default ASCII lower case flag
+     */
+    private final boolean lowerCase;
+    /**
+     * Default folded chars buffer
+     */
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+
+    public AsciiFoldingContentHandler(final ContentHandler handler) {
+        this(handler, false);
+    }
+
+    public AsciiFoldingContentHandler(final ContentHandler handler, boolean lowerCase) {
+        super(handler);
+        this.lowerCase = lowerCase;
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        final int n = this.fold(ch, start, length);
+        if (n > 0) {
+            super.characters(this.buffer, 0, n);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        final int n = this.fold(ch, start, length);
+        if (n > 0) {
+            super.ignorableWhitespace(this.buffer, 0, n);
+        }
+    }
+
+    private int fold(final char[] ch, int start, int length) {
+        if (this.buffer.length < length) {
+            this.buffer = new char[Math.max(length, this.buffer.length * 2)];
+        }
+        return AsciiFolder.fold(ch, start, length, this.buffer, 0, this.lowerCase);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xml.sax.SAXException;
+
+import java.util.Objects;
+
+/**
+ * Extraction completion exception implementation {@link SAXException}
+ * <p>
+ * Thrown by content handlers to interrupt parsing once they collected everything they need
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString(callSuper = true)
+public class ExtractionCompletedException extends SAXException {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -1204917862043150723L;
+
+    /**
+     * Default extraction completion exception constructor with input message {@link String}
+     *
+     * @param message - initial input message {@link String}
+     */
+    public ExtractionCompletedException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Returns binary flag whether input exception {@link Throwable} is caused by extraction completion
+     *
+     * @param throwable - initial input exception {@link Throwable}
+     * @return true - if parsing was interrupted on completion, false - otherwise
+     */
+    public static boolean isCauseOf(final Throwable throwable) {
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof ExtractionCompletedException) return true;
+        }
+        return false;
+    }
+}
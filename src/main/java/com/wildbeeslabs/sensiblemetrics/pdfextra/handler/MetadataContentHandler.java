@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Meta data content handler implementation {@link DefaultHandler}
+ * <p>
+ * Interrupts parsing by {@link ExtractionCompletedException} as soon as XHTML {@code <body>} element starts,
+ * so only document meta data is collected and no text is extracted. Parsers emitting meta data
+ * after body start (rare) leave it partially populated. Once completed, any later event raises the completion
+ * again, so parsers which recover from intermediate handler errors cannot go on extracting text.
+ */
+@ToString
+public class MetadataContentHandler extends DefaultHandler {
+
+    /**
+     * Default body element name
+     */
+    private static final String BODY_ELEMENT = "body";
+
+    /**
+     * Default flag whether meta data extraction is completed
+     */
+    @Getter
+    private boolean completed;
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+        this.checkCompleted();
+        if (BODY_ELEMENT.equals(localName) || BODY_ELEMENT.equals(qName)) {
+            this.completed = true;
+            this.checkCompleted();
+        }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        this.checkCompleted();
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        this.checkCompleted();
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        this.checkCompleted();
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        this.checkCompleted();
+    }
+
+    private void checkCompleted() throws ExtractionCompletedException {
+        if (this.completed) {
+            throw new ExtractionCompletedException("Meta data extraction completed at body start");
+        }
+    }
+}
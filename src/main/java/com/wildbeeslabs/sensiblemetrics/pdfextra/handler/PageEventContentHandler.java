@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.Objects;
+
+/**
+ * Page event content handler implementation {@link ContentHandlerDecorator}
+ * <p>
+ * Detects {@code <div class="page">} elements emitted by the pdf parser and notifies {@link PageListener}
+ * with page number, page text and per-page meta data as soon as each page closes. All events are
+ * forwarded to the decorated handler. Parsing is interrupted by {@link ExtractionCompletedException}
+ * when the listener cancels or the maximum number of pages is reached. Once completed, the handler neither
+ * notifies the listener nor forwards events, any later event raises the completion again, so parsers which
+ * recover from intermediate handler errors cannot resume page extraction.
+ */
+@Slf4j
+@Getter
+@ToString
+public class PageEventContentHandler extends ContentHandlerDecorator {
+
+    /**
+     * Default unlimited number of pages
+     */
+    public static final int UNLIMITED_PAGES = -1;
+    /**
+     * Default page number meta data key
+     */
+    public static final String PAGE_NUMBER = "X-Page-Number";
+    /**
+     * Default page characters count meta data key
+     */
+    public static final String PAGE_CHARACTERS = "X-Page-Characters";
+    /**
+     * Default page paragraphs count meta data key
+     */
+    public static final String PAGE_PARAGRAPHS = "X-Page-Paragraphs";
+
+    /**
+     * Default page element name
+     */
+    private static final String PAGE_ELEMENT = "div";
+    /**
+     * Default page element class
+     */
+    private static final String PAGE_CLASS = "page";
+
+    /**
+     * Page listener definition
+     */
+    @FunctionalInterface
+    public interface PageListener {
+
+        /**
+         * Handles extracted page by input page number, page text and page meta data {@link Metadata}
+         *
+         * @param pageNumber - initial input page number (1-based)
+         * @param text       - initial input page text {@link String}
+         * @param metadata   - initial input page meta data {@link Metadata}
+         * @return true - to continue extraction, false - to cancel remaining pages
+         * @throws SAXException
+         */
+        boolean onPage(int pageNumber, final String text, final Metadata metadata) throws SAXException;
+    }
+
+    /**
+     * Default page listener {@link PageListener}
+     */
+    @ToString.Exclude
+    private final PageListener listener;
+    /**
+     * Default maximum number of pages
+     */
+    private final int maxPages;
+    /**
+     * Default page text buffer {@link StringBuilder}
+     */
+    @ToString.Exclude
+    private final StringBuilder text = new StringBuilder();
+    /**
+     * Default number of completed pages
+     */
+    private int pageCount;
+    /**
+     * Default nested div depth within current page (0 - outside of page)
+     */
+    private int pageDepth;
+    /**
+     * Default number of paragraphs within current page
+     */
+    private int paragraphs;
+    /**
+     * Default flag whether page extraction is completed
+     */
+    private boolean completed;
+
+    /**
+     * Default page event content handler constructor with input page listener {@link PageListener}
+     *
+     * @param listener - initial input page listener {@link PageListener}
+     */
+    public PageEventContentHandler(final PageListener listener) {
+        this(new DefaultHandler(), listener, UNLIMITED_PAGES);
+    }
+
+    /**
+     * Default page event content handler constructor with input decorated handler {@link ContentHandler}, page listener {@link PageListener} and maximum number of pages
+     *
+     * @param handler  - initial input decorated content handler {@link ContentHandler}
+     * @param listener - initial input page listener {@link PageListener}
+     * @param maxPages - initial input maximum number of pages ({@link #UNLIMITED_PAGES} for unlimited)
+     */
+    public PageEventContentHandler(final ContentHandler handler, final PageListener listener, int maxPages) {
+        super(handler);
+        if (maxPages == 0 || maxPages < UNLIMITED_PAGES) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid maximum number of pages={%s}", maxPages));
+        }
+        this.listener = Objects.requireNonNull(listener, "Page listener should not be null");
+        this.maxPages = maxPages;
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String name, final Attributes atts) throws SAXException {
+        this.checkCompleted();
+        if (PAGE_ELEMENT.equals(localName)) {
+            if (this.pageDepth > 0) {
+                this.pageDepth++;
+            } else if (PAGE_CLASS.equals(atts.getValue("class"))) {
+                this.pageDepth = 1;
+                this.paragraphs = 0;
+                this.text.setLength(0);
+            }
+        } else if (this.pageDepth > 0 && "p".equals(localName)) {
+            this.paragraphs++;
+        }
+        super.startElement(uri, localName, name, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String name) throws SAXException {
+        this.checkCompleted();
+        super.endElement(uri, localName, name);
+        if (this.pageDepth > 0 && PAGE_ELEMENT.equals(localName) && --this.pageDepth == 0) {
+            this.endPage();
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        this.checkCompleted();
+        if (this.pageDepth > 0) {
+            this.text.append(ch, start, length);
+        }
+        super.characters(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        this.checkCompleted();
+        if (this.pageDepth > 0) {
+            this.text.append(ch, start, length);
+        }
+        super.ignorableWhitespace(ch, start, length);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        this.checkCompleted();
+        super.endDocument();
+    }
+
+    private void endPage() throws SAXException {
+        this.pageCount++;
+        final Metadata metadata = new Metadata();
+        metadata.set(PAGE_NUMBER, String.valueOf(this.pageCount));
+        metadata.set(PAGE_CHARACTERS, String.valueOf(this.text.length()));
+        metadata.set(PAGE_PARAGRAPHS, String.valueOf(this.paragraphs));
+        final boolean proceed = this.listener.onPage(this.pageCount, this.text.toString(), metadata);
+        this.text.setLength(0);
+        if (!proceed || (this.maxPages != UNLIMITED_PAGES && this.pageCount >= this.maxPages)) {
+            this.completed = true;
+            this.checkCompleted();
+        }
+    }
+
+    private void checkCompleted() throws ExtractionCompletedException {
+        if (this.completed) {
+            throw new ExtractionCompletedException(String.format("Page extraction completed after page={%s}", this.pageCount));
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streaming xhtml content handler implementation {@link DefaultHandler}
+ * <p>
+ * Serializes parse events as XML directly to writer {@link Writer} (same markup as {@link org.apache.tika.sax.ToXMLContentHandler})
+ * without accumulating the document in memory. Use {@link com.wildbeeslabs.sensiblemetrics.pdfextra.io.PooledEncodingWriter} to encode to output stream.
+ */
+@Slf4j
+@ToString
+public class XHTMLStreamingContentHandler extends DefaultHandler {
+
+    /**
+     * Default target writer {@link Writer}
+     */
+    @ToString.Exclude
+    private final Writer writer;
+    /**
+     * Default output encoding, {@code null} if xml declaration should be omitted
+     */
+    private final String encoding;
+    /**
+     * Default collection of pending namespace declarations {@link List}
+     */
+    @ToString.Exclude
+    private final List<String[]> pendingNamespaces = new ArrayList<>();
+    /**
+     * Default flag whether start tag is open and not closed yet
+     */
+    private boolean startTagOpen;
+
+    /**
+     * Default streaming xhtml content handler constructor with input writer {@link Writer}
+     *
+     * @param writer - initial input writer {@link Writer}
+     */
+    public XHTMLStreamingContentHandler(final Writer writer) {
+        this(writer, null);
+    }
+
+    /**
+     * Default streaming xhtml content handler constructor with input writer {@link Writer} and output encoding {@link String}
+     *
+     * @param writer   - initial input writer {@link Writer}
+     * @param encoding - initial input output encoding {@link String} to be declared in xml declaration
+     */
+    public XHTMLStreamingContentHandler(final Writer writer, final String encoding) {
+        this.writer = Objects.requireNonNull(writer, "Writer should not be null");
+        this.encoding = encoding;
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        if (Objects.nonNull(this.encoding)) {
+            this.write("<?xml version=\"1.0\" encoding=\"" + this.encoding + "\"?>\n");
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        this.closeStartTag();
+        try {
+            this.writer.flush();
+        } catch (IOException e) {
+            throw new SAXException("ERROR: cannot flush xhtml output", e);
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) {
+        this.pendingNamespaces.add(new String[]{prefix, uri});
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+        this.closeStartTag();
+        this.write('<');
+        this.write(this.getName(localName, qName));
+        for (int i = 0; i < attributes.getLength(); i++) {
+            this.write(' ');
+            this.write(this.getName(attributes.getLocalName(i), attributes.getQName(i)));
+            this.write("=\"");
+            this.escape(attributes.getValue(i));
+            this.write('"');
+        }
+        for (final String[] namespace : this.pendingNamespaces) {
+            this.write(namespace[0].isEmpty() ? " xmlns" : " xmlns:" + namespace[0]);
+            this.write("=\"");
+            this.escape(namespace[1]);
+            this.write('"');
+        }
+        this.pendingNamespaces.clear();
+        this.startTagOpen = true;
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        if (this.startTagOpen) {
+            this.write(" />");
+            this.startTagOpen = false;
+        } else {
+            this.write("</");
+            this.write(this.getName(localName, qName));
+            this.write('>');
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        this.closeStartTag();
+        this.escape(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        this.characters(ch, start, length);
+    }
+
+    private String getName(final String localName, final String qName) {
+        return (Objects.nonNull(qName) && !qName.isEmpty()) ? qName : localName;
+    }
+
+    private void closeStartTag() throws SAXException {
+        if (this.startTagOpen) {
+            this.write('>');
+            this.startTagOpen = false;
+        }
+    }
+
+    private void escape(final String value) throws SAXException {
+        this.escape(value.toCharArray(), 0, value.length());
+    }
+
+    private void escape(final char[] ch, int start, int length) throws SAXException {
+        int pos = start;
+        final int end = start + length;
+        for (int i = start; i < end; i++) {
+            final String entity;
+            switch (ch[i]) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                default:
+                    entity = null;
+            }
+            if (Objects.nonNull(entity)) {
+                this.write(ch, pos, i - pos);
+                this.write(entity);
+                pos = i + 1;
+            }
+        }
+        this.write(ch, pos, end - pos);
+    }
+
+    private void write(char c) throws SAXException {
+        try {
+            this.writer.write(c);
+        } catch (IOException e) {
+            throw new SAXException("ERROR: cannot write xhtml output", e);
+        }
+    }
+
+    private void write(final String value) throws SAXException {
+        try {
+            this.writer.write(value);
+        } catch (IOException e) {
+            throw new SAXException("ERROR: cannot write xhtml output", e);
+        }
+    }
+
+    private void write(final char[] ch, int start, int length) throws SAXException {
+        if (length == 0) return;
+        try {
+            this.writer.write(ch, start, length);
+        } catch (IOException e) {
+            throw new SAXException("ERROR: cannot write xhtml output", e);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.sax.ToXMLContentHandler;
+import org.apache.tika.sax.xpath.Matcher;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.*;
+
+/**
+ * Streaming xpath fragment content handler implementation {@link DefaultHandler}
+ * <p>
+ * Evaluates several compiled xpath expressions in a single parse pass. Every matched element is serialized
+ * on its own and emitted to {@link FragmentListener} as soon as the element closes, matched text nodes are
+ * emitted when their parent element closes. Once every expression reached its maximum number of matches
+ * parsing is interrupted by {@link ExtractionCompletedException}.
+ */
+@Slf4j
+@ToString
+public class XPathFragmentHandler extends DefaultHandler {
+
+    /**
+     * Default unlimited number of matches per expression
+     */
+    public static final int UNLIMITED_MATCHES = -1;
+
+    /**
+     * Fragment listener definition
+     */
+    @FunctionalInterface
+    public interface FragmentListener {
+
+        /**
+         * Handles matched fragment by input xpath expression
+         *
+         * @param expression - initial input xpath expression {@link String}
+         * @param fragment   - initial input matched xml fragment or text {@link String}
+         * @throws SAXException
+         */
+        void onFragment(final String expression, final String fragment) throws SAXException;
+    }
+
+    /**
+     * Default fragment listener {@link FragmentListener}
+     */
+    @ToString.Exclude
+    private final FragmentListener listener;
+    /**
+     * Default collection of evaluated expressions {@link List}
+     */
+    private final List<Selector> selectors = new ArrayList<>();
+    /**
+     * Default collection of active prefix mappings {@link Map}
+     */
+    @ToString.Exclude
+    private final Map<String, String> prefixMappings = new LinkedHashMap<>();
+    /**
+     * Default current element depth
+     */
+    private int depth;
+
+    /**
+     * Default xpath fragment handler constructor with input fragment listener {@link FragmentListener}
+     *
+     * @param listener - initial input fragment listener {@link FragmentListener}
+     */
+    public XPathFragmentHandler(final FragmentListener listener) {
+        this.listener = Objects.requireNonNull(listener, "Fragment listener should not be null");
+    }
+
+    /**
+     * Registers xpath expression {@link String} with unlimited number of matches
+     *
+     * @param expression - initial input xpath expression {@link String}
+     * @return current xpath fragment handler {@link XPathFragmentHandler}
+     */
+    public XPathFragmentHandler select(final String expression) {
+        return this.select(expression, UNLIMITED_MATCHES);
+    }
+
+    /**
+     * Registers xpath expression {@link String} with input maximum number of matches
+     *
+     * @param expression - initial input xpath expression {@link String}
+     * @param maxMatches - initial input maximum number of matches ({@link #UNLIMITED_MATCHES} for unlimited)
+     * @return current xpath fragment handler {@link XPathFragmentHandler}
+     */
+    public XPathFragmentHandler select(final String expression, int maxMatches) {
+        return this.select(expression, XPathMatcherCache.get(expression), maxMatches);
+    }
+
+    /**
+     * Registers compiled xpath matcher {@link Matcher} by input xpath expression {@link String} with input maximum number of matches
+     *
+     * @param expression - initial input xpath expression {@link String}
+     * @param matcher    - initial input compiled xpath matcher {@link Matcher}
+     * @param maxMatches - initial input maximum number of matches ({@link #UNLIMITED_MATCHES} for unlimited)
+     * @return current xpath fragment handler {@link XPathFragmentHandler}
+     */
+    public XPathFragmentHandler select(final String expression, final Matcher matcher, int maxMatches) {
+        if (maxMatches == 0 || maxMatches < UNLIMITED_MATCHES) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid maximum number of matches={%s} by expression={%s}", maxMatches, expression));
+        }
+        this.selectors.add(new Selector(expression, matcher, maxMatches));
+        return this;
+    }
+
+    /**
+     * Returns binary flag whether every registered expression reached its maximum number of matches
+     *
+     * @return true - if all expressions are satisfied, false - otherwise
+     */
+    public boolean isCompleted() {
+        if (this.selectors.isEmpty()) return false;
+        for (final Selector selector : this.selectors) {
+            if (!selector.isSatisfied()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+        this.prefixMappings.put(prefix, uri);
+        for (final Selector selector : this.selectors) {
+            if (selector.isCapturing()) {
+                selector.getCapture().startPrefixMapping(prefix, uri);
+            }
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) throws SAXException {
+        this.prefixMappings.remove(prefix);
+        for (final Selector selector : this.selectors) {
+            if (selector.isCapturing()) {
+                selector.getCapture().endPrefixMapping(prefix);
+            }
+        }
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+        this.depth++;
+        for (final Selector selector : this.selectors) {
+            selector.descend(uri, localName);
+            if (selector.isSatisfied()) continue;
+            if (!selector.isCapturing() && selector.getMatcher().matchesElement()) {
+                selector.startCapture(this.depth, this.prefixMappings);
+            }
+            if (selector.isCapturing()) {
+                selector.getCapture().startElement(uri, localName, qName, attributes);
+            }
+        }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        for (final Selector selector : this.selectors) {
+            if (selector.isCapturing()) {
+                selector.getCapture().endElement(uri, localName, qName);
+                if (selector.getCaptureDepth() == this.depth) {
+                    this.emit(selector, selector.endCapture());
+                }
+            } else if (selector.getMatcher().matchesText() && selector.getText().length() > 0) {
+                final String text = selector.getText().toString();
+                selector.getText().setLength(0);
+                this.emit(selector, text);
+            }
+            selector.ascend();
+        }
+        this.depth--;
+        if (this.isCompleted()) {
+            throw new ExtractionCompletedException("Every xpath expression is satisfied");
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        for (final Selector selector : this.selectors) {
+            if (selector.isSatisfied()) continue;
+            if (selector.isCapturing()) {
+                selector.getCapture().characters(ch, start, length);
+            } else if (selector.getMatcher().matchesText()) {
+                selector.getText().append(ch, start, length);
+            }
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        this.characters(ch, start, length);
+    }
+
+    private void emit(final Selector selector, final String fragment) throws SAXException {
+        if (selector.isSatisfied()) return;
+        selector.matches++;
+        this.listener.onFragment(selector.getExpression(), fragment);
+    }
+
+    /**
+     * Xpath selector state implementation
+     */
+    @Getter
+    @ToString
+    private static class Selector {
+        /**
+         * Default xpath expression
+         */
+        private final String expression;
+        /**
+         * Default maximum number of matches
+         */
+        private final int maxMatches;
+        /**
+         * Default stack of parent matchers {@link Deque}
+         */
+        @ToString.Exclude
+        private final Deque<Matcher> parents = new ArrayDeque<>();
+        /**
+         * Default matched text buffer {@link StringBuilder}
+         */
+        @ToString.Exclude
+        private final StringBuilder text = new StringBuilder();
+        /**
+         * Default current matcher {@link Matcher}
+         */
+        @ToString.Exclude
+        private Matcher matcher;
+        /**
+         * Default active fragment capture {@link ToXMLContentHandler}
+         */
+        @ToString.Exclude
+        private ToXMLContentHandler capture;
+        /**
+         * Default depth of captured element
+         */
+        private int captureDepth;
+        /**
+         * Default number of emitted matches
+         */
+        private int matches;
+
+        Selector(final String expression, final Matcher matcher, int maxMatches) {
+            this.expression = expression;
+            this.matcher = matcher;
+            this.maxMatches = maxMatches;
+        }
+
+        boolean isSatisfied() {
+            return this.maxMatches != UNLIMITED_MATCHES && this.matches >= this.maxMatches;
+        }
+
+        boolean isCapturing() {
+            return Objects.nonNull(this.capture);
+        }
+
+        void descend(final String uri, final String localName) {
+            this.parents.push(this.matcher);
+            this.matcher = this.matcher.descend(uri, localName);
+        }
+
+        void ascend() {
+            this.matcher = this.parents.pop();
+        }
+
+        void startCapture(int depth, final Map<String, String> prefixMappings) throws SAXException {
+            this.capture = new ToXMLContentHandler();
+            this.captureDepth = depth;
+            for (final Map.Entry<String, String> mapping : prefixMappings.entrySet()) {
+                this.capture.startPrefixMapping(mapping.getKey(), mapping.getValue());
+            }
+        }
+
+        String endCapture() {
+            final String fragment = this.capture.toString();
+            this.capture = null;
+            return fragment;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.sax.XHTMLContentHandler;
+import org.apache.tika.sax.xpath.Matcher;
+import org.apache.tika.sax.xpath.XPathParser;
+
+/**
+ * Compiled xpath matcher cache implementation
+ * <p>
+ * Tika matchers {@link Matcher} are immutable, so compiled instances are shared between threads and parse calls.
+ * Expressions not supported by {@link XPathParser} are rejected instead of being compiled to never matching {@link Matcher#FAIL}.
+ */
+@Slf4j
+@UtilityClass
+public class XPathMatcherCache {
+
+    /**
+     * Default maximum number of cached expressions
+     */
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1024;
+
+    /**
+     * Default cache of compiled matchers {@link LoadingCache} keyed by xpath expression
+     */
+    private static final LoadingCache<String, Matcher> DEFAULT_MATCHER_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(DEFAULT_MAX_CACHE_SIZE)
+        .build(CacheLoader.from(XPathMatcherCache::compile));
+
+    /**
+     * Returns compiled xpath matcher {@link Matcher} by input xpath expression {@link String}
+     *
+     * @param expression - initial input xpath expression {@link String}
+     * @return compiled xpath matcher {@link Matcher}
+     * @throws IllegalArgumentException if xpath expression is not supported
+     */
+    public static Matcher get(final String expression) {
+        try {
+            return DEFAULT_MATCHER_CACHE.getUnchecked(expression);
+        } catch (UncheckedExecutionException e) {
+            log.error(String.format("ERROR: cannot compile xpath expression={%s}", expression));
+            throw new IllegalArgumentException(String.format("Invalid xpath expression={%s}", expression), e.getCause());
+        }
+    }
+
+    /**
+     * Returns number of cached matchers
+     *
+     * @return number of cached matchers
+     */
+    public static long size() {
+        return DEFAULT_MATCHER_CACHE.size();
+    }
+
+    /**
+     * Removes all cached matchers
+     */
+    public static void clear() {
+        DEFAULT_MATCHER_CACHE.invalidateAll();
+    }
+
+    private static Matcher compile(final String expression) {
+        final Matcher matcher = new XPathParser("xhtml", XHTMLContentHandler.XHTML).parse(expression);
+        if (matcher == Matcher.FAIL) {
+            throw new IllegalArgumentException(String.format("Unsupported xpath expression={%s}", expression));
+        }
+        return matcher;
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.SegmentStoreWriter;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk ingestor implementation
+ * <p>
+ * Walks input folder, extracts every regular file into extraction sink {@link ExtractionSink} and records completed files
+ * in checkpoint journal {@link CheckpointJournal}, so interrupted or incremental runs skip unchanged files by size and
+ * modification time fingerprint. Journal entries are committed only after the sink is flushed, entries marked since
+ * the last checkpoint are discarded when the sink cannot be flushed, so such files are extracted again by the next run.
+ */
+@Slf4j
+@ToString(of = {"excluded", "maxInFlight", "checkpointInterval"})
+public class BulkIngestor implements Closeable {
+
+    /**
+     * Default journal file name
+     */
+    public static final String DEFAULT_JOURNAL_NAME = "checkpoint.journal";
+    /**
+     * Default store directory name
+     */
+    public static final String DEFAULT_STORE_NAME = "store";
+    /**
+     * Default number of completed files between checkpoints
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+    /**
+     * Default number of in-flight files per worker thread
+     */
+    private static final int DEFAULT_IN_FLIGHT_PER_WORKER = 4;
+
+    /**
+     * Default extraction sink
+     */
+    @Getter
+    private final ExtractionSink sink;
+    /**
+     * Default checkpoint journal
+     */
+    @Getter
+    private final CheckpointJournal journal;
+    /**
+     * Default directory excluded from walk (working directory)
+     */
+    private final Path excluded;
+    /**
+     * Default worker executor service {@link ExecutorService}
+     */
+    private final ExecutorService executor;
+    /**
+     * Default in-flight files permits {@link Semaphore}
+     */
+    private final Semaphore inFlight;
+    /**
+     * Default maximum number of in-flight files
+     */
+    private final int maxInFlight;
+    /**
+     * Default number of completed files between checkpoints
+     */
+    private final int checkpointInterval;
+
+    /**
+     * Default bulk ingestor constructor with input extraction sink {@link ExtractionSink}, checkpoint journal {@link CheckpointJournal} and number of workers
+     *
+     * @param sink    - initial input extraction sink {@link ExtractionSink}
+     * @param journal - initial input checkpoint journal {@link CheckpointJournal}
+     * @param workers - initial input number of worker threads
+     */
+    public BulkIngestor(final ExtractionSink sink, final CheckpointJournal journal, int workers) {
+        this(sink, journal, null, workers, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Default bulk ingestor constructor with input extraction sink {@link ExtractionSink}, checkpoint journal {@link CheckpointJournal},
+     * excluded directory {@link Path}, number of workers and checkpoint interval
+     *
+     * @param sink               - initial input extraction sink {@link ExtractionSink}
+     * @param journal            - initial input checkpoint journal {@link CheckpointJournal}
+     * @param excluded           - initial input directory {@link Path} excluded from walk (nullable)
+     * @param workers            - initial input number of worker threads
+     * @param checkpointInterval - initial input number of completed files between checkpoints
+     */
+    public BulkIngestor(final ExtractionSink sink, final CheckpointJournal journal, final Path excluded, int workers, int checkpointInterval) {
+        Objects.requireNonNull(sink, "Extraction sink should not be null");
+        Objects.requireNonNull(journal, "Checkpoint journal should not be null");
+        if (workers <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid number of workers={%s}", workers));
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid checkpoint interval={%s}", checkpointInterval));
+        }
+        this.sink = sink;
+        this.journal = journal;
+        this.excluded = Objects.isNull(excluded) ? null : excluded.toAbsolutePath().normalize();
+        this.checkpointInterval = checkpointInterval;
+        this.maxInFlight = workers * DEFAULT_IN_FLIGHT_PER_WORKER;
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.executor = Executors.newFixedThreadPool(workers, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-ingest-%d").build());
+    }
+
+    /**
+     * Returns bulk ingestor {@link BulkIngestor} by input working directory {@link Path}, storing results into segment store {@link SegmentStoreWriter}
+     *
+     * @param workDirectory - initial input working directory {@link Path} for journal and store files
+     * @return bulk ingestor {@link BulkIngestor}
+     * @throws IOException
+     */
+    public static BulkIngestor create(final Path workDirectory) throws IOException {
+        return create(workDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns bulk ingestor {@link BulkIngestor} by input working directory {@link Path} and number of workers, storing results into segment store {@link SegmentStoreWriter}
+     *
+     * @param workDirectory - initial input working directory {@link Path} for journal and store files
+     * @param workers       - initial input number of worker threads
+     * @return bulk ingestor {@link BulkIngestor}
+     * @throws IOException
+     */
+    public static BulkIngestor create(final Path workDirectory, int workers) throws IOException {
+        final CheckpointJournal journal = new CheckpointJournal(workDirectory.resolve(DEFAULT_JOURNAL_NAME));
+        try {
+            final SegmentStoreWriter store = new SegmentStoreWriter(workDirectory.resolve(DEFAULT_STORE_NAME));
+            return new BulkIngestor(store, journal, workDirectory, workers, DEFAULT_CHECKPOINT_INTERVAL);
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns ingestion statistics {@link Statistics} by input folder {@link Path}
+     *
+     * @param folder - initial input folder {@link Path}
+     * @return ingestion statistics {@link Statistics}
+     * @throws IOException
+     */
+    public Statistics ingest(final Path folder) throws IOException {
+        final Statistics statistics = new Statistics();
+        final AtomicLong completed = new AtomicLong();
+        try {
+            Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    return Objects.nonNull(excluded) && dir.toAbsolutePath().normalize().equals(excluded)
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    if (!attrs.isRegularFile()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if (journal.isDone(file, attrs)) {
+                        statistics.skipped.incrementAndGet();
+                        return FileVisitResult.CONTINUE;
+                    }
+                    submit(file, attrs, statistics, completed);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                    log.error(String.format("ERROR: cannot visit file={%s}, message={%s}", file, exc.getMessage()));
+                    statistics.failed.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } finally {
+            this.awaitInFlight();
+            this.checkpoint();
+        }
+        return statistics;
+    }
+
+    /**
+     * Flushes extraction sink and commits checkpoint journal, discards marked journal entries if the sink cannot be flushed
+     *
+     * @throws IOException
+     */
+    public void checkpoint() throws IOException {
+        synchronized (this.journal) {
+            try {
+                this.sink.flush();
+            } catch (IOException | RuntimeException e) {
+                this.journal.discard();
+                throw e;
+            }
+            this.journal.commit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            this.checkpoint();
+        } finally {
+            try {
+                this.sink.close();
+            } finally {
+                this.journal.close();
+            }
+        }
+    }
+
+    private void submit(final Path file, final BasicFileAttributes attrs, final Statistics statistics, final AtomicLong completed) throws IOException {
+        try {
+            this.inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("ERROR: interrupted while ingesting file={%s}", file), e);
+        }
+        this.executor.execute(() -> {
+            try {
+                AnalyzerUtils.storeByParser(file, this.sink);
+                this.journal.markDone(file, attrs);
+                statistics.processed.incrementAndGet();
+                if (completed.incrementAndGet() % this.checkpointInterval == 0) {
+                    this.checkpoint();
+                }
+            } catch (Exception e) {
+                log.error(String.format("ERROR: cannot ingest file={%s}, message={%s}", file, e.getMessage()));
+                statistics.failed.incrementAndGet();
+            } finally {
+                this.inFlight.release();
+            }
+        });
+    }
+
+    private void awaitInFlight() throws IOException {
+        try {
+            this.inFlight.acquire(this.maxInFlight);
+            this.inFlight.release(this.maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("ERROR: interrupted while waiting for in-flight files", e);
+        }
+    }
+
+    /**
+     * Ingestion statistics implementation
+     */
+    @Getter
+    @ToString
+    public static class Statistics {
+        /**
+         * Default number of extracted files
+         */
+        private final AtomicLong processed = new AtomicLong();
+        /**
+         * Default number of unchanged files skipped by checkpoint
+         */
+        private final AtomicLong skipped = new AtomicLong();
+        /**
+         * Default number of failed files
+         */
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
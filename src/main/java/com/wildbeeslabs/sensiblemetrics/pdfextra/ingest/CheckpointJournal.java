@@ -0,0 +1,338 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Checkpoint journal implementation
+ * <p>
+ * Append-only log of completed files, every entry is a fixed-size triple of 64-bit path hash, file size and modification time.
+ * Entries are kept in open-addressing primitive table, so millions of paths cost 24 bytes each, a file is considered done
+ * while its size and modification time fingerprint is unchanged. Marked entries become durable on {@link #commit()},
+ * or are rolled back in the table by {@link #discard()}.
+ */
+@Slf4j
+@ToString(of = {"file", "size"})
+public class CheckpointJournal implements Closeable {
+
+    /**
+     * Default journal entry size (in bytes)
+     */
+    private static final int ENTRY_SIZE = 3 * Long.BYTES;
+    /**
+     * Default initial table capacity
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 12;
+    /**
+     * Default empty slot marker
+     */
+    private static final long EMPTY = 0L;
+    /**
+     * Default previous size marker of entries absent before being marked
+     */
+    private static final long ABSENT = -1L;
+
+    /**
+     * Default journal file
+     */
+    @Getter
+    private final Path file;
+    private final FileChannel channel;
+    /**
+     * Default pending entries buffer
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(ENTRY_SIZE * 1024);
+    /**
+     * Default previous states of pending entries buffer, size is {@link #ABSENT} for entries which were not in the table
+     */
+    private ByteBuffer undo = ByteBuffer.allocate(ENTRY_SIZE * 1024);
+
+    private long[] keys;
+    private long[] sizes;
+    private long[] modified;
+    /**
+     * Default number of distinct entries
+     */
+    @Getter
+    private int size;
+    /**
+     * Default number of journal entries including superseded ones
+     */
+    private long entries;
+
+    /**
+     * Default checkpoint journal constructor with input journal file {@link Path}, loads existing entries
+     *
+     * @param file - initial input journal file {@link Path}
+     * @throws IOException
+     */
+    public CheckpointJournal(final Path file) throws IOException {
+        Objects.requireNonNull(file, "Journal file should not be null");
+        this.file = file;
+        this.allocate(DEFAULT_INITIAL_CAPACITY);
+        if (Objects.nonNull(file.getParent())) {
+            Files.createDirectories(file.getParent());
+        }
+        if (Files.exists(file)) {
+            this.load();
+            if (this.entries > 2L * this.size + DEFAULT_INITIAL_CAPACITY) {
+                this.compact();
+            }
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns binary flag whether input file {@link Path} with attributes {@link BasicFileAttributes} is unchanged since marked done
+     *
+     * @param path       - initial input file {@link Path}
+     * @param attributes - initial input file attributes {@link BasicFileAttributes}
+     * @return true - if file is done and unchanged, false - otherwise
+     */
+    public synchronized boolean isDone(final Path path, final BasicFileAttributes attributes) {
+        final int slot = this.slot(hash(path));
+        return this.keys[slot] != EMPTY
+            && this.sizes[slot] == attributes.size()
+            && this.modified[slot] == attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * Marks input file {@link Path} with attributes {@link BasicFileAttributes} as done
+     *
+     * @param path       - initial input file {@link Path}
+     * @param attributes - initial input file attributes {@link BasicFileAttributes}
+     */
+    public synchronized void markDone(final Path path, final BasicFileAttributes attributes) {
+        final long key = hash(path);
+        final long size = attributes.size();
+        final long modified = attributes.lastModifiedTime().toMillis();
+        final int slot = this.slot(key);
+        final boolean present = this.keys[slot] != EMPTY;
+        this.undo = append(this.undo, key, present ? this.sizes[slot] : ABSENT, present ? this.modified[slot] : ABSENT);
+        this.pending = append(this.pending, key, size, modified);
+        this.put(key, size, modified);
+    }
+
+    /**
+     * Writes marked entries to journal file and forces them to storage device
+     *
+     * @throws IOException
+     */
+    public synchronized void commit() throws IOException {
+        if (this.pending.position() == 0) {
+            return;
+        }
+        this.pending.flip();
+        while (this.pending.hasRemaining()) {
+            this.channel.write(this.pending);
+        }
+        this.pending.clear();
+        this.undo.clear();
+        this.channel.force(false);
+    }
+
+    /**
+     * Discards marked entries not committed yet, the entries are not written to journal file and table entries are
+     * restored to their state of the last commit, so the files are not done until they are marked done again
+     */
+    public synchronized void discard() {
+        // restores in reverse order, so the state before the first of repeated marks wins
+        for (int position = this.undo.position() - ENTRY_SIZE; position >= 0; position -= ENTRY_SIZE) {
+            final long key = this.undo.getLong(position);
+            final long size = this.undo.getLong(position + Long.BYTES);
+            if (size == ABSENT) {
+                this.remove(key);
+            } else {
+                this.put(key, size, this.undo.getLong(position + 2 * Long.BYTES));
+            }
+        }
+        this.pending.clear();
+        this.undo.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.commit();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Returns 64-bit hash of normalized absolute path, zero is reserved for empty slots
+     *
+     * @param path - initial input file {@link Path}
+     * @return path hash
+     */
+    static long hash(final Path path) {
+        final long hash = Hashing.murmur3_128().hashString(path.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8).asLong();
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private void load() throws IOException {
+        try (final FileChannel input = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * 4096);
+            while (input.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= ENTRY_SIZE) {
+                    this.put(buffer.getLong(), buffer.getLong(), buffer.getLong());
+                    this.entries++;
+                }
+                buffer.compact();
+            }
+            if (buffer.position() > 0) {
+                log.error(String.format("ERROR: cannot read truncated journal entry, file={%s}, bytes={%s}", this.file, buffer.position()));
+                try (final FileChannel output = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+                    output.truncate(this.entries * ENTRY_SIZE);
+                }
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        final Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (final FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * 4096);
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i] == EMPTY) {
+                    continue;
+                }
+                if (buffer.remaining() < ENTRY_SIZE) {
+                    this.drain(output, buffer);
+                }
+                buffer.putLong(this.keys[i]).putLong(this.sizes[i]).putLong(this.modified[i]);
+            }
+            this.drain(output, buffer);
+            output.force(false);
+        }
+        Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.entries = this.size;
+    }
+
+    private void drain(final FileChannel output, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer append(final ByteBuffer buffer, long key, long size, long modified) {
+        final ByteBuffer result = buffer.remaining() < ENTRY_SIZE
+            ? ByteBuffer.allocate(buffer.capacity() * 2).put((ByteBuffer) buffer.flip())
+            : buffer;
+        return result.putLong(key).putLong(size).putLong(modified);
+    }
+
+    private void put(long key, long size, long modified) {
+        int slot = this.slot(key);
+        if (this.keys[slot] == EMPTY) {
+            if ((this.size + 1) * 4L > this.keys.length * 3L) {
+                this.rehash();
+                slot = this.slot(key);
+            }
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.sizes[slot] = size;
+        this.modified[slot] = modified;
+    }
+
+    /**
+     * Removes entry by input key, entries following in the probe sequence are shifted back into the freed slot
+     *
+     * @param key - initial input key
+     */
+    private void remove(long key) {
+        final int mask = this.keys.length - 1;
+        int slot = this.slot(key);
+        if (this.keys[slot] == EMPTY) {
+            return;
+        }
+        this.size--;
+        for (int next = (slot + 1) & mask; this.keys[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = this.home(this.keys[next]);
+            // entry is moved unless its home slot lies cyclically within (slot, next]
+            final boolean reachable = slot <= next ? (slot < home && home <= next) : (slot < home || home <= next);
+            if (!reachable) {
+                this.keys[slot] = this.keys[next];
+                this.sizes[slot] = this.sizes[next];
+                this.modified[slot] = this.modified[next];
+                slot = next;
+            }
+        }
+        this.keys[slot] = EMPTY;
+    }
+
+    private int slot(long key) {
+        final int mask = this.keys.length - 1;
+        int slot = this.home(key);
+        while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & (this.keys.length - 1);
+    }
+
+    private void rehash() {
+        final long[] oldKeys = this.keys;
+        final long[] oldSizes = this.sizes;
+        final long[] oldModified = this.modified;
+        this.allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = this.slot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.sizes[slot] = oldSizes[i];
+                this.modified[slot] = oldModified[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.sizes = new long[capacity];
+        this.modified = new long[capacity];
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Directory watcher implementation
+ * <p>
+ * Watches drop directory (recursively) by {@link WatchService} and extracts created or modified files into extraction sink {@link ExtractionSink}.
+ * A file is dispatched once it is quiet for debounce period and its size and modification time stop changing, so partially written
+ * files are not parsed. Dispatched files go to bounded work queue, while the queue is full files stay pending, events for already
+ * queued files are coalesced into the queued task and re-arm its quiet period, so the task is returned to pending files when it
+ * starts before the file is quiet again. Extracted files are recorded in optional checkpoint journal {@link CheckpointJournal},
+ * so initial scan and rescans on watch events overflow skip files unchanged since extraction. The watcher thread checkpoints
+ * the sink and journal every checkpoint interval of extracted files or checkpoint period, whichever comes first. Excluded
+ * directory (working directory of journal and store) and journal file are neither scanned nor extracted.
+ */
+@Slf4j
+@ToString(of = {"directory", "quietPeriod"})
+public class DirectoryWatcher implements Closeable {
+
+    /**
+     * Default quiet period (in milliseconds)
+     */
+    public static final long DEFAULT_QUIET_PERIOD = 1000;
+    /**
+     * Default work queue capacity
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    /**
+     * Default number of extracted files between checkpoints
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = BulkIngestor.DEFAULT_CHECKPOINT_INTERVAL;
+    /**
+     * Default maximum period between checkpoints of extracted files (in milliseconds)
+     */
+    public static final long DEFAULT_CHECKPOINT_PERIOD = 30_000;
+
+    /**
+     * Default watched directory
+     */
+    @Getter
+    private final Path directory;
+    /**
+     * Default extraction sink
+     */
+    private final ExtractionSink sink;
+    /**
+     * Default checkpoint journal (nullable)
+     */
+    private final CheckpointJournal journal;
+    /**
+     * Default directory excluded from watching (nullable)
+     */
+    private final Path excluded;
+    /**
+     * Default quiet period (in nanoseconds)
+     */
+    private final long quietPeriod;
+    /**
+     * Default number of extracted files between checkpoints
+     */
+    private final int checkpointInterval;
+    /**
+     * Default maximum period between checkpoints (in nanoseconds)
+     */
+    private final long checkpointPeriod;
+    /**
+     * Default watcher statistics
+     */
+    @Getter
+    private final Statistics statistics = new Statistics();
+    /**
+     * Default pending files by last observed state
+     */
+    private final Map<Path, FileState> pending = new ConcurrentHashMap<>();
+    /**
+     * Default queued files by dispatched state
+     */
+    private final Map<Path, FileState> queued = new ConcurrentHashMap<>();
+    /**
+     * Default watch service {@link WatchService}
+     */
+    private final WatchService watchService;
+    /**
+     * Default worker executor {@link ThreadPoolExecutor}
+     */
+    private final ThreadPoolExecutor executor;
+    /**
+     * Default watcher thread {@link Thread}
+     */
+    private final Thread watcherThread;
+    private volatile boolean running;
+    /**
+     * Default number of extracted files at last checkpoint (watcher thread only)
+     */
+    private long checkpointed;
+    /**
+     * Default time of last checkpoint (watcher thread only, in nanoseconds)
+     */
+    private long lastCheckpoint;
+
+    /**
+     * Default directory watcher constructor with input watched directory {@link Path} and extraction sink {@link ExtractionSink}
+     *
+     * @param directory - initial input watched directory {@link Path}
+     * @param sink      - initial input extraction sink {@link ExtractionSink}
+     * @throws IOException
+     */
+    public DirectoryWatcher(final Path directory, final ExtractionSink sink) throws IOException {
+        this(directory, sink, null, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_QUIET_PERIOD);
+    }
+
+    /**
+     * Default directory watcher constructor with input watched directory {@link Path}, extraction sink {@link ExtractionSink},
+     * checkpoint journal {@link CheckpointJournal}, number of workers, work queue capacity and quiet period
+     *
+     * @param directory         - initial input watched directory {@link Path}
+     * @param sink              - initial input extraction sink {@link ExtractionSink}
+     * @param journal           - initial input checkpoint journal {@link CheckpointJournal} (nullable, every scanned file is extracted without journal)
+     * @param workers           - initial input number of worker threads
+     * @param queueCapacity     - initial input work queue capacity
+     * @param quietPeriodMillis - initial input quiet period (in milliseconds)
+     * @throws IOException
+     */
+    public DirectoryWatcher(final Path directory, final ExtractionSink sink, final CheckpointJournal journal, int workers, int queueCapacity, long quietPeriodMillis) throws IOException {
+        this(directory, sink, journal, null, workers, queueCapacity, quietPeriodMillis, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Default directory watcher constructor with input watched directory {@link Path}, extraction sink {@link ExtractionSink},
+     * checkpoint journal {@link CheckpointJournal}, excluded directory {@link Path}, number of workers, work queue capacity,
+     * quiet period and checkpoint interval
+     *
+     * @param directory          - initial input watched directory {@link Path}
+     * @param sink               - initial input extraction sink {@link ExtractionSink}
+     * @param journal            - initial input checkpoint journal {@link CheckpointJournal} (nullable, every scanned file is extracted without journal)
+     * @param excluded           - initial input directory {@link Path} excluded from watching (nullable)
+     * @param workers            - initial input number of worker threads
+     * @param queueCapacity      - initial input work queue capacity
+     * @param quietPeriodMillis  - initial input quiet period (in milliseconds)
+     * @param checkpointInterval - initial input number of extracted files between checkpoints
+     * @throws IOException
+     */
+    public DirectoryWatcher(final Path directory, final ExtractionSink sink, final CheckpointJournal journal, final Path excluded, int workers, int queueCapacity, long quietPeriodMillis, int checkpointInterval) throws IOException {
+        Objects.requireNonNull(directory, "Watched directory should not be null");
+        Objects.requireNonNull(sink, "Extraction sink should not be null");
+        if (workers <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid number of workers={%s}", workers));
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid queue capacity={%s}", queueCapacity));
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid checkpoint interval={%s}", checkpointInterval));
+        }
+        this.directory = directory;
+        this.sink = sink;
+        this.journal = journal;
+        this.excluded = Objects.isNull(excluded) ? null : excluded.toAbsolutePath().normalize();
+        if (Objects.nonNull(this.excluded) && directory.toAbsolutePath().normalize().startsWith(this.excluded)) {
+            throw new IllegalArgumentException(String.format("ERROR: watched directory={%s} is within excluded directory={%s}", directory, excluded));
+        }
+        this.quietPeriod = TimeUnit.MILLISECONDS.toNanos(quietPeriodMillis);
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointPeriod = TimeUnit.MILLISECONDS.toNanos(DEFAULT_CHECKPOINT_PERIOD);
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-watcher-worker-%d").build(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.watcherThread = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-watcher-" + directory.getFileName()).build().newThread(this::watch);
+    }
+
+    /**
+     * Starts watching directory, files already present in directory are extracted as well unless checkpoint journal records them unchanged
+     *
+     * @throws IOException
+     */
+    public void start() throws IOException {
+        this.register(this.directory);
+        this.lastCheckpoint = System.nanoTime();
+        this.running = true;
+        this.watcherThread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        this.watchService.close();
+        try {
+            this.watcherThread.join();
+            this.executor.shutdown();
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.checkpoint();
+    }
+
+    /**
+     * Flushes extraction sink and commits checkpoint journal, discards marked journal entries if the sink cannot be flushed
+     *
+     * @throws IOException
+     */
+    public void checkpoint() throws IOException {
+        if (Objects.isNull(this.journal)) {
+            this.sink.flush();
+            return;
+        }
+        synchronized (this.journal) {
+            try {
+                this.sink.flush();
+            } catch (IOException | RuntimeException e) {
+                this.journal.discard();
+                throw e;
+            }
+            this.journal.commit();
+        }
+    }
+
+    private void watch() {
+        final long tick = Math.max(10, TimeUnit.NANOSECONDS.toMillis(this.quietPeriod) / 4);
+        while (this.running) {
+            try {
+                final WatchKey key = this.watchService.poll(tick, TimeUnit.MILLISECONDS);
+                if (Objects.nonNull(key)) {
+                    this.handle(key);
+                }
+                this.dispatch();
+                this.checkpointIfDue();
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                log.error(String.format("ERROR: cannot process watch events, directory={%s}, message={%s}", this.directory, e.getMessage()));
+            }
+        }
+    }
+
+    private void checkpointIfDue() {
+        final long processed = this.statistics.processed.get();
+        final long now = System.nanoTime();
+        if (processed == this.checkpointed
+            || (processed - this.checkpointed < this.checkpointInterval && now - this.lastCheckpoint < this.checkpointPeriod)) {
+            return;
+        }
+        this.checkpointed = processed;
+        this.lastCheckpoint = now;
+        try {
+            this.checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.error(String.format("ERROR: cannot checkpoint extracted files, directory={%s}, message={%s}", this.directory, e.getMessage()));
+        }
+    }
+
+    private boolean isExcluded(final Path path) {
+        final Path normalized = path.toAbsolutePath().normalize();
+        return (Objects.nonNull(this.excluded) && normalized.startsWith(this.excluded))
+            || (Objects.nonNull(this.journal) && normalized.equals(this.journal.getFile().toAbsolutePath().normalize()));
+    }
+
+    private void handle(final WatchKey key) throws IOException {
+        final Path parent = (Path) key.watchable();
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                log.error(String.format("ERROR: watch events overflow, rescanning directory={%s}", parent));
+                this.register(parent);
+                continue;
+            }
+            final Path path = parent.resolve((Path) event.context());
+            if (this.isExcluded(path)) {
+                continue;
+            }
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    this.register(path);
+                }
+            } else {
+                this.touch(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void touch(final Path path) {
+        final long now = System.nanoTime();
+        if (Objects.nonNull(this.queued.computeIfPresent(path, (key, state) -> state.rearm(now)))) {
+            this.statistics.coalesced.incrementAndGet();
+            return;
+        }
+        final FileState state = this.pending.get(path);
+        if (Objects.isNull(state)) {
+            this.pending.put(path, new FileState(now));
+        } else {
+            state.rearm(now);
+            this.statistics.coalesced.incrementAndGet();
+        }
+    }
+
+    private void dispatch() {
+        final long now = System.nanoTime();
+        final Iterator<Map.Entry<Path, FileState>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Path, FileState> entry = iterator.next();
+            final Path path = entry.getKey();
+            final FileState state = entry.getValue();
+            if (now - state.lastEvent < this.quietPeriod) {
+                continue;
+            }
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                iterator.remove();
+                continue;
+            }
+            if (!attributes.isRegularFile()) {
+                iterator.remove();
+                continue;
+            }
+            if (state.size != attributes.size() || state.modified != attributes.lastModifiedTime().toMillis()) {
+                state.size = attributes.size();
+                state.modified = attributes.lastModifiedTime().toMillis();
+                state.lastEvent = now;
+                continue;
+            }
+            if (Objects.nonNull(this.queued.putIfAbsent(path, state))) {
+                iterator.remove();
+                continue;
+            }
+            iterator.remove();
+            try {
+                this.executor.execute(() -> this.extract(path));
+            } catch (RejectedExecutionException e) {
+                this.queued.remove(path);
+                this.pending.putIfAbsent(path, state);
+                return;
+            }
+        }
+    }
+
+    private void extract(final Path path) {
+        final FileState state = this.queued.remove(path);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            final long now = System.nanoTime();
+            if (now - state.lastEvent < this.quietPeriod || state.size != attributes.size() || state.modified != attributes.lastModifiedTime().toMillis()) {
+                this.pending.putIfAbsent(path, state.rearm(now));
+                return;
+            }
+            AnalyzerUtils.storeByParser(path, this.sink);
+            if (Objects.nonNull(this.journal)) {
+                this.journal.markDone(path, attributes);
+            }
+            this.statistics.processed.incrementAndGet();
+        } catch (Exception e) {
+            log.error(String.format("ERROR: cannot extract file={%s}, message={%s}", path, e.getMessage()));
+            this.statistics.failed.incrementAndGet();
+        }
+    }
+
+    private void register(final Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (isExcluded(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile() || isExcluded(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (Objects.nonNull(journal) && journal.isDone(file, attrs)) {
+                    statistics.skipped.incrementAndGet();
+                } else {
+                    touch(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Pending file state implementation
+     */
+    private static final class FileState {
+        private volatile long lastEvent;
+        private long size = -1;
+        private long modified = -1;
+
+        private FileState(long lastEvent) {
+            this.lastEvent = lastEvent;
+        }
+
+        private FileState rearm(long lastEvent) {
+            this.lastEvent = lastEvent;
+            return this;
+        }
+    }
+
+    /**
+     * Watcher statistics implementation
+     */
+    @Getter
+    @ToString
+    public static class Statistics {
+        /**
+         * Default number of extracted files
+         */
+        private final AtomicLong processed = new AtomicLong();
+        /**
+         * Default number of scanned files skipped as unchanged by checkpoint journal
+         */
+        private final AtomicLong skipped = new AtomicLong();
+        /**
+         * Default number of events coalesced into pending or queued files
+         */
+        private final AtomicLong coalesced = new AtomicLong();
+        /**
+         * Default number of failed files
+         */
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output compression type
+ */
+public enum CompressionType {
+    /**
+     * Uncompressed output
+     */
+    NONE {
+        @Override
+        public OutputStream wrap(final OutputStream output) {
+            return output;
+        }
+    },
+    /**
+     * Gzip compressed output
+     */
+    GZIP {
+        @Override
+        public OutputStream wrap(final OutputStream output) throws IOException {
+            return new GzipStream(output);
+        }
+    },
+    /**
+     * Deflate (zlib) compressed output
+     */
+    DEFLATE {
+        @Override
+        public OutputStream wrap(final OutputStream output) {
+            return new DeflateStream(output);
+        }
+    };
+
+    /**
+     * Default compression buffer size
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Returns compressing output stream {@link OutputStream} by input target output stream {@link OutputStream}
+     *
+     * @param output - initial input target output stream {@link OutputStream}
+     * @return compressing output stream {@link OutputStream}
+     * @throws IOException
+     */
+    public abstract OutputStream wrap(final OutputStream output) throws IOException;
+
+    /**
+     * Releases native compressor of input compressing output stream {@link OutputStream} returned by {@link #wrap(OutputStream)}
+     * without writing pending output or trailer, so failed output is not completed into valid archive. The stream must not be
+     * used (nor closed) afterwards.
+     *
+     * @param stream - initial input compressing output stream {@link OutputStream}
+     */
+    public void discard(final OutputStream stream) {
+        if (stream instanceof Discardable) {
+            ((Discardable) stream).discard();
+        }
+    }
+
+    /**
+     * Compressing output stream definition that can release its compressor without finishing output
+     */
+    private interface Discardable {
+
+        /**
+         * Releases compressor, pending output is dropped
+         */
+        void discard();
+    }
+
+    /**
+     * Gzip compressing output stream implementation {@link GZIPOutputStream}
+     */
+    private static final class GzipStream extends GZIPOutputStream implements Discardable {
+
+        GzipStream(final OutputStream output) throws IOException {
+            super(output, DEFAULT_BUFFER_SIZE);
+        }
+
+        @Override
+        public void discard() {
+            this.def.end();
+        }
+    }
+
+    /**
+     * Deflate compressing output stream implementation {@link DeflaterOutputStream}
+     */
+    private static final class DeflateStream extends DeflaterOutputStream implements Discardable {
+
+        DeflateStream(final OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void discard() {
+            this.def.end();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.HexEncoder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.XxHash64;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Digesting input stream implementation {@link FilterInputStream}
+ * <p>
+ * Computes SHA-256 and XXH64 ({@link XxHash64}) digests of every byte read through the stream, so content is fingerprinted
+ * in the same pass the parser consumes it. Digests are stored into meta data {@link Metadata} as lower case hex once
+ * end of stream is reached or {@link #finish()} drains the bytes parser did not read. Mark/reset is not supported,
+ * {@link org.apache.tika.io.TikaInputStream#get(InputStream)} buffers it above this stream, so re-read bytes are digested once.
+ */
+@ToString(of = {"length", "finished"})
+public class DigestingInputStream extends FilterInputStream {
+
+    /**
+     * Default SHA-256 digest meta data key
+     */
+    public static final String DIGEST_SHA256 = "X-TIKA:digest:SHA256";
+    /**
+     * Default XXH64 digest meta data key
+     */
+    public static final String DIGEST_XXH64 = "X-TIKA:digest:XXH64";
+    /**
+     * Default drain buffer size
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Default SHA-256 message digest {@link MessageDigest}
+     */
+    private final MessageDigest sha256;
+    /**
+     * Default XXH64 hash {@link XxHash64}
+     */
+    private final XxHash64 xxHash64 = new XxHash64();
+    /**
+     * Default target meta data {@link Metadata}, may be {@code null}
+     */
+    private final Metadata metadata;
+    /**
+     * Default SHA-256 digest, available when finished
+     */
+    private byte[] sha256Digest;
+    /**
+     * Default number of digested bytes
+     */
+    @Getter
+    private long length;
+    /**
+     * Default completion flag
+     */
+    @Getter
+    private boolean finished;
+
+    /**
+     * Default digesting input stream constructor with input stream {@link InputStream} and target meta data {@link Metadata}
+     *
+     * @param stream   - initial input stream {@link InputStream}
+     * @param metadata - initial input target meta data {@link Metadata}, {@code null} to keep digests in the stream only
+     */
+    public DigestingInputStream(final InputStream stream, final Metadata metadata) {
+        super(Objects.requireNonNull(stream, "Stream should not be null"));
+        this.metadata = metadata;
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(String.format("ERROR: cannot create SHA-256 digest, message={%s}", e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b < 0) {
+            this.complete();
+        } else if (!this.finished) {
+            this.sha256.update((byte) b);
+            this.xxHash64.update(b);
+            this.length++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] bytes, int offset, int length) throws IOException {
+        final int n = super.read(bytes, offset, length);
+        if (n < 0) {
+            this.complete();
+        } else if (n > 0 && !this.finished) {
+            this.sha256.update(bytes, offset, n);
+            this.xxHash64.update(bytes, offset, n);
+            this.length += n;
+        }
+        return n;
+    }
+
+    /**
+     * Skips input number of bytes by reading them, so skipped bytes are digested as well
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(DEFAULT_BUFFER_SIZE, Math.max(n, 1))];
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = this.read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("ERROR: mark/reset is not supported");
+    }
+
+    /**
+     * Reads remaining bytes (not consumed by parser) and completes digests
+     *
+     * @throws IOException
+     */
+    public void finish() throws IOException {
+        final byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        while (!this.finished) {
+            this.read(buffer, 0, buffer.length);
+        }
+    }
+
+    /**
+     * Returns SHA-256 digest
+     *
+     * @return SHA-256 digest bytes
+     */
+    public byte[] getSha256() {
+        this.checkFinished();
+        return this.sha256Digest.clone();
+    }
+
+    /**
+     * Returns XXH64 digest
+     *
+     * @return XXH64 digest value
+     */
+    public long getXxHash64() {
+        this.checkFinished();
+        return this.xxHash64.getValue();
+    }
+
+    private void complete() {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+        this.sha256Digest = this.sha256.digest();
+        if (Objects.nonNull(this.metadata)) {
+            this.metadata.set(DIGEST_SHA256, HexEncoder.encode(this.sha256Digest));
+            this.metadata.set(DIGEST_XXH64, HexEncoder.encode(this.xxHash64.getValue()));
+        }
+    }
+
+    private void checkFinished() {
+        if (!this.finished) {
+            throw new IllegalStateException("ERROR: digests are not available before end of stream");
+        }
+    }
+}
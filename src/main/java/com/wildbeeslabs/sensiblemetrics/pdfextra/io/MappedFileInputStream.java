@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.BufferCleaner;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Memory-mapped file input stream implementation {@link InputStream}
+ * <p>
+ * Maps header window of local file into memory in read-only mode and supports unlimited {@link #mark(int)}/{@link #reset()},
+ * so detectors can read the file header without additional buffering. Bytes beyond the header window are read
+ * by {@link FileChannel} positional reads, the mapping is released on {@link #close()}.
+ */
+@Slf4j
+public class MappedFileInputStream extends InputStream {
+
+    /**
+     * Default header window size to be memory-mapped
+     */
+    public static final int DEFAULT_HEADER_SIZE = 64 * 1024;
+
+    /**
+     * Default file channel {@link FileChannel}
+     */
+    private final FileChannel channel;
+    /**
+     * Default mapped header window {@link MappedByteBuffer}
+     */
+    private final MappedByteBuffer header;
+    /**
+     * Default file size
+     */
+    private final long size;
+    /**
+     * Default current and marked positions
+     */
+    private long position;
+    private long markPosition;
+    /**
+     * Default closed flag
+     */
+    private boolean closed;
+
+    /**
+     * Default mapped file input stream constructor with input file path {@link Path}
+     *
+     * @param path - initial input file path {@link Path}
+     * @throws IOException
+     */
+    public MappedFileInputStream(final Path path) throws IOException {
+        this(path, DEFAULT_HEADER_SIZE);
+    }
+
+    /**
+     * Default mapped file input stream constructor with input file path {@link Path} and header window size
+     *
+     * @param path       - initial input file path {@link Path}
+     * @param headerSize - initial input header window size to be memory-mapped
+     * @throws IOException
+     */
+    public MappedFileInputStream(final Path path, int headerSize) throws IOException {
+        Objects.requireNonNull(path, "File path should not be null");
+        if (headerSize < 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid header size={%s}", headerSize));
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = this.channel.size();
+            this.header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(this.size, headerSize));
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns file size
+     *
+     * @return file size
+     */
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public int read() throws IOException {
+        this.ensureOpen();
+        if (this.position < this.header.limit()) {
+            return this.header.get((int) this.position++) & 0xFF;
+        }
+        final byte[] single = new byte[1];
+        return (this.read(single, 0, 1) == -1) ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, int off, int len) throws IOException {
+        this.ensureOpen();
+        if (len == 0) return 0;
+        if (this.position >= this.size) return -1;
+        final int n;
+        if (this.position < this.header.limit()) {
+            n = (int) Math.min(len, this.header.limit() - this.position);
+            this.header.position((int) this.position);
+            this.header.get(b, off, n);
+        } else {
+            n = this.channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, this.size - this.position)), this.position);
+        }
+        if (n > 0) {
+            this.position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        this.ensureOpen();
+        if (n <= 0) return 0;
+        final long skipped = Math.min(n, this.size - this.position);
+        this.position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        this.ensureOpen();
+        return (int) Math.min(this.size - this.position, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        this.markPosition = this.position;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        this.ensureOpen();
+        this.position = this.markPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        BufferCleaner.clean(this.header);
+        this.channel.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("ERROR: stream is closed");
+        }
+    }
+}
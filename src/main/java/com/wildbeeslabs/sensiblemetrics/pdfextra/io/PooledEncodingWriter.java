@@ -0,0 +1,238 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pooled encoding writer implementation {@link Writer}
+ * <p>
+ * Encodes characters directly to output stream {@link OutputStream} through per-thread pooled char/byte buffers
+ * and charset encoders, so serializing large documents allocates no intermediate strings or per-writer buffers.
+ * Writers must be closed on the thread that created them.
+ */
+@Slf4j
+public class PooledEncodingWriter extends Writer {
+
+    /**
+     * Default char buffer size
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Default per-thread encoding buffers {@link ThreadLocal}
+     */
+    private static final ThreadLocal<Buffers> LOCAL_BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Default output stream {@link OutputStream}
+     */
+    private final OutputStream output;
+    /**
+     * Default encoding buffers
+     */
+    private Buffers buffers;
+    /**
+     * Default charset encoder {@link CharsetEncoder}
+     */
+    private CharsetEncoder encoder;
+
+    /**
+     * Default pooled encoding writer constructor with input output stream {@link OutputStream} and UTF-8 charset
+     *
+     * @param output - initial input output stream {@link OutputStream}
+     */
+    public PooledEncodingWriter(final OutputStream output) {
+        this(output, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Default pooled encoding writer constructor with input output stream {@link OutputStream} and charset {@link Charset}
+     *
+     * @param output  - initial input output stream {@link OutputStream}
+     * @param charset - initial input charset {@link Charset}
+     */
+    public PooledEncodingWriter(final OutputStream output, final Charset charset) {
+        this.output = Objects.requireNonNull(output, "Output stream should not be null");
+        Objects.requireNonNull(charset, "Charset should not be null");
+        final Buffers local = LOCAL_BUFFERS.get();
+        this.buffers = local.acquired ? new Buffers() : local;
+        this.buffers.acquired = true;
+        this.encoder = this.buffers.encoder(charset);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        this.ensureOpen();
+        if (!this.buffers.chars.hasRemaining()) {
+            this.encode(false);
+        }
+        this.buffers.chars.put((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, int off, int len) throws IOException {
+        this.ensureOpen();
+        while (len > 0) {
+            if (!this.buffers.chars.hasRemaining()) {
+                this.encode(false);
+            }
+            final int n = Math.min(len, this.buffers.chars.remaining());
+            this.buffers.chars.put(cbuf, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(final String str, int off, int len) throws IOException {
+        this.ensureOpen();
+        while (len > 0) {
+            if (!this.buffers.chars.hasRemaining()) {
+                this.encode(false);
+            }
+            final int n = Math.min(len, this.buffers.chars.remaining());
+            this.buffers.chars.put(str, off, off + n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.ensureOpen();
+        this.encode(false);
+        this.output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.isNull(this.buffers)) return;
+        try {
+            this.encode(true);
+            this.output.close();
+        } finally {
+            this.release();
+        }
+    }
+
+    /**
+     * Releases writer discarding characters not encoded yet, output stream is neither flushed nor closed,
+     * so failed output is not completed by buffered text
+     */
+    public void abort() {
+        if (Objects.isNull(this.buffers)) return;
+        this.release();
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        final CharBuffer chars = this.buffers.chars;
+        final ByteBuffer bytes = this.buffers.bytes;
+        chars.flip();
+        while (true) {
+            final CoderResult result = this.encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                this.drain();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        if (endOfInput) {
+            while (this.encoder.flush(bytes).isOverflow()) {
+                this.drain();
+            }
+            this.encoder.reset();
+        }
+        this.drain();
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        final ByteBuffer bytes = this.buffers.bytes;
+        if (bytes.position() > 0) {
+            this.output.write(bytes.array(), bytes.arrayOffset(), bytes.position());
+            bytes.clear();
+        }
+    }
+
+    private void release() {
+        this.buffers.chars.clear();
+        this.buffers.bytes.clear();
+        this.buffers.acquired = false;
+        this.buffers = null;
+        this.encoder = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (Objects.isNull(this.buffers)) {
+            throw new IOException("Writer is closed");
+        }
+    }
+
+    /**
+     * Per-thread encoding buffers
+     */
+    private static class Buffers {
+        /**
+         * Default char buffer {@link CharBuffer}
+         */
+        private final CharBuffer chars = CharBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        /**
+         * Default byte buffer {@link ByteBuffer}
+         */
+        private final ByteBuffer bytes = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE * 4);
+        /**
+         * Default collection of charset encoders {@link Map}
+         */
+        private final Map<Charset, CharsetEncoder> encoders = new HashMap<>();
+        /**
+         * Default acquisition flag
+         */
+        private boolean acquired;
+
+        CharsetEncoder encoder(final Charset charset) {
+            return this.encoders.computeIfAbsent(charset, value -> value.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE))
+                .reset();
+        }
+    }
+}
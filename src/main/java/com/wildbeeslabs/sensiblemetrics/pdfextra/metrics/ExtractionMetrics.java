@@ -0,0 +1,273 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Extraction metrics implementation {@link ExtractionMetricsMXBean}
+ * <p>
+ * Process-wide registry of latency timers {@link LatencyHistogram} and counters {@link LongAdder} for the extraction path,
+ * exposed over JMX by {@link #registerMBean()} and pushed to pluggable metrics sinks {@link MetricsSink}.
+ * Typical usage:
+ * <pre>
+ * final long start = ExtractionMetrics.start();
+ * ...
+ * ExtractionMetrics.getInstance().record(ExtractionMetrics.DETECT, start);
+ * </pre>
+ */
+@Slf4j
+@EqualsAndHashCode
+@ToString
+public class ExtractionMetrics implements ExtractionMetricsMXBean {
+
+    /**
+     * Default JMX object name
+     */
+    public static final String DEFAULT_OBJECT_NAME = "com.wildbeeslabs.sensiblemetrics.pdfextra:type=ExtractionMetrics";
+    /**
+     * Default media type detection timer name
+     */
+    public static final String DETECT = "detect";
+    /**
+     * Default parse timer name prefix (followed by media type)
+     */
+    public static final String PARSE = "parse.";
+    /**
+     * Default content handler timer name
+     */
+    public static final String HANDLER = "handler";
+    /**
+     * Default template render timer name
+     */
+    public static final String TEMPLATE_RENDER = "template.render";
+    /**
+     * Default pdf layout timer name
+     */
+    public static final String PDF_LAYOUT = "pdf.layout";
+    /**
+     * Default pdf creation timer name
+     */
+    public static final String PDF_CREATE = "pdf.create";
+    /**
+     * Default input bytes counter name
+     */
+    public static final String BYTES_IN = "bytes.in";
+    /**
+     * Default output characters counter name
+     */
+    public static final String CHARS_OUT = "chars.out";
+    /**
+     * Default http endpoint timer name prefix (followed by endpoint name)
+     */
+    public static final String HTTP = "http.";
+    /**
+     * Default rejected http requests counter name
+     */
+    public static final String HTTP_REJECTED = "http.rejected";
+    /**
+     * Default failures counter name suffix
+     */
+    public static final String FAILURES = ".failures";
+
+    /**
+     * Default metrics instance
+     */
+    private static final ExtractionMetrics INSTANCE = new ExtractionMetrics();
+
+    private final ConcurrentMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    /**
+     * Returns process-wide extraction metrics {@link ExtractionMetrics}
+     *
+     * @return extraction metrics {@link ExtractionMetrics}
+     */
+    public static ExtractionMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns start timestamp (in nanoseconds) or zero when recording is disabled
+     *
+     * @return start timestamp
+     */
+    public static long start() {
+        return INSTANCE.enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Registers process-wide extraction metrics as platform MBean, repeated registration is ignored
+     */
+    public static void registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(DEFAULT_OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            log.error(String.format("ERROR: cannot register metrics mbean={%s}, message={%s}", DEFAULT_OBJECT_NAME, e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns latency timer {@link LatencyHistogram} by input name {@link String}
+     *
+     * @param name - initial input timer name {@link String}
+     * @return latency timer {@link LatencyHistogram}
+     */
+    public LatencyHistogram timer(final String name) {
+        return this.timers.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns counter {@link LongAdder} by input name {@link String}
+     *
+     * @param name - initial input counter name {@link String}
+     * @return counter {@link LongAdder}
+     */
+    public LongAdder counter(final String name) {
+        return this.counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Records elapsed time since input start timestamp {@link #start()} into timer by input name {@link String}
+     *
+     * @param name  - initial input timer name {@link String}
+     * @param start - initial input start timestamp (in nanoseconds)
+     */
+    public void record(final String name, long start) {
+        if (this.enabled && start != 0L) {
+            this.timer(name).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds input delta to counter by input name {@link String}
+     *
+     * @param name  - initial input counter name {@link String}
+     * @param delta - initial input delta
+     */
+    public void increment(final String name, long delta) {
+        if (this.enabled) {
+            this.counter(name).add(delta);
+        }
+    }
+
+    /**
+     * Increments failures counter of input timer name {@link String}
+     *
+     * @param name - initial input timer name {@link String}
+     */
+    public void failure(final String name) {
+        this.increment(name + FAILURES, 1);
+    }
+
+    /**
+     * Reports current metrics into input metrics sink {@link MetricsSink}
+     *
+     * @param sink - initial input metrics sink {@link MetricsSink}
+     */
+    public void report(final MetricsSink sink) {
+        sink.report(this.getTimers(), this.getCounters());
+    }
+
+    /**
+     * Returns scheduled reporting task {@link ScheduledFuture} reporting metrics into input metrics sink {@link MetricsSink} with fixed period
+     *
+     * @param sink   - initial input metrics sink {@link MetricsSink}
+     * @param period - initial input reporting period
+     * @param unit   - initial input reporting period unit {@link TimeUnit}
+     * @return scheduled reporting task {@link ScheduledFuture}
+     */
+    public ScheduledFuture<?> schedule(final MetricsSink sink, long period, final TimeUnit unit) {
+        Objects.requireNonNull(sink, "Metrics sink should not be null");
+        return Reporter.EXECUTOR.scheduleAtFixedRate(() -> {
+            try {
+                this.report(sink);
+            } catch (RuntimeException e) {
+                log.error(String.format("ERROR: cannot report metrics into sink={%s}, message={%s}", sink, e.getMessage()));
+            }
+        }, period, period, unit);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getTimers() {
+        final Map<String, LatencyHistogram.Snapshot> result = new TreeMap<>();
+        this.timers.forEach((name, timer) -> result.put(name, timer.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        final Map<String, Long> result = new TreeMap<>();
+        this.counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void reset() {
+        this.timers.values().forEach(LatencyHistogram::reset);
+        this.counters.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Default reporting executor holder
+     */
+    private static final class Reporter {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-metrics-%d").build());
+    }
+}
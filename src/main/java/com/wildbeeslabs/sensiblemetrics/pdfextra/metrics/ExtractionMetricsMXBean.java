@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import java.util.Map;
+
+/**
+ * Extraction metrics management interface exposed over JMX
+ */
+public interface ExtractionMetricsMXBean {
+
+    /**
+     * Returns binary flag whether recording is enabled
+     *
+     * @return true - if recording is enabled, false - otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables recording
+     *
+     * @param enabled - initial input recording flag
+     */
+    void setEnabled(final boolean enabled);
+
+    /**
+     * Returns timer snapshots {@link Map} by timer name, values are in nanoseconds
+     *
+     * @return timer snapshots {@link Map}
+     */
+    Map<String, LatencyHistogram.Snapshot> getTimers();
+
+    /**
+     * Returns counter values {@link Map} by counter name
+     *
+     * @return counter values {@link Map}
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Resets timers and counters
+     */
+    void reset();
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * Instrumented content handler implementation {@link ContentHandlerDecorator}
+ * <p>
+ * Accumulates time spent in decorated content handler and number of characters passed to it,
+ * both are recorded into extraction metrics {@link ExtractionMetrics} at the end of document.
+ * Only every n-th SAX event is timed and handler time is extrapolated from sampled events, so clock reads
+ * do not dominate cheap handlers; per-event timing is enabled by {@link #PER_EVENT_TIMING_PROPERTY}.
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class InstrumentedContentHandler extends ContentHandlerDecorator {
+
+    /**
+     * Default system property enabling timing of every SAX event
+     */
+    public static final String PER_EVENT_TIMING_PROPERTY = "pdfextra.metrics.handler.per-event";
+    /**
+     * Default number of SAX events per timed event (power of two)
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    private final ExtractionMetrics metrics;
+    /**
+     * Default sample interval mask (zero when every event is timed)
+     */
+    private final long sampleMask;
+    private long events;
+    private long sampled;
+    private long elapsed;
+    private long characters;
+
+    public InstrumentedContentHandler(final ContentHandler handler) {
+        this(handler, ExtractionMetrics.getInstance());
+    }
+
+    public InstrumentedContentHandler(final ContentHandler handler, final ExtractionMetrics metrics) {
+        this(handler, metrics, Boolean.getBoolean(PER_EVENT_TIMING_PROPERTY) ? 1 : DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Default instrumented content handler constructor with input decorated handler {@link ContentHandler},
+     * extraction metrics {@link ExtractionMetrics} and sample interval
+     *
+     * @param handler        - initial input decorated content handler {@link ContentHandler}
+     * @param metrics        - initial input extraction metrics {@link ExtractionMetrics}
+     * @param sampleInterval - initial input number of SAX events per timed event (power of two, 1 - every event is timed)
+     */
+    public InstrumentedContentHandler(final ContentHandler handler, final ExtractionMetrics metrics, int sampleInterval) {
+        super(handler);
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid sample interval={%s}, must be power of two", sampleInterval));
+        }
+        this.metrics = metrics;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String name, final Attributes atts) throws SAXException {
+        final long start = this.begin();
+        super.startElement(uri, localName, name, atts);
+        this.end(start);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String name) throws SAXException {
+        final long start = this.begin();
+        super.endElement(uri, localName, name);
+        this.end(start);
+    }
+
+    @Override
+    public void characters(final char[] ch, int start, int length) throws SAXException {
+        final long begin = this.begin();
+        super.characters(ch, start, length);
+        this.end(begin);
+        this.characters += length;
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, int start, int length) throws SAXException {
+        final long begin = this.begin();
+        super.ignorableWhitespace(ch, start, length);
+        this.end(begin);
+        this.characters += length;
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        super.endDocument();
+        if (this.metrics.isEnabled()) {
+            this.metrics.timer(ExtractionMetrics.HANDLER).record(this.getElapsed());
+            this.metrics.increment(ExtractionMetrics.CHARS_OUT, this.characters);
+        }
+    }
+
+    /**
+     * Returns time spent in decorated content handler (in nanoseconds), extrapolated from sampled events
+     *
+     * @return time spent in decorated content handler
+     */
+    public long getElapsed() {
+        return this.sampled == 0 ? 0L : (long) ((double) this.elapsed * this.events / this.sampled);
+    }
+
+    /**
+     * Returns start timestamp (in nanoseconds) when current event is sampled, zero otherwise
+     *
+     * @return start timestamp
+     */
+    private long begin() {
+        return (this.events++ & this.sampleMask) == 0 ? System.nanoTime() : 0L;
+    }
+
+    private void end(long begin) {
+        if (begin != 0L) {
+            this.elapsed += System.nanoTime() - begin;
+            this.sampled++;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram implementation
+ * <p>
+ * Log-linear buckets in the manner of HdrHistogram: every power of two range is split into 8 linear sub-buckets,
+ * so recorded values keep 12.5% relative precision across the whole positive long range. Recording is lock-free
+ * (single atomic increment per value) and safe from any number of threads, snapshots are weakly consistent.
+ */
+@EqualsAndHashCode
+@ToString
+public class LatencyHistogram {
+
+    /**
+     * Default number of sub-bucket bits
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    /**
+     * Default number of sub-buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Default number of buckets
+     */
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records input value (in nanoseconds), negative values are recorded as zero
+     *
+     * @param value - initial input value
+     */
+    public void record(long value) {
+        final long normalized = Math.max(0, value);
+        this.counts.incrementAndGet(index(normalized));
+        this.count.increment();
+        this.sum.add(normalized);
+        long current;
+        while (normalized > (current = this.max.get()) && !this.max.compareAndSet(current, normalized)) {
+            // retry
+        }
+    }
+
+    /**
+     * Returns number of recorded values
+     *
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns value at input percentile (upper bound of the bucket containing percentile)
+     *
+     * @param percentile - initial input percentile in range [0, 100]
+     * @return value at percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid percentile={%s}", percentile));
+        }
+        final long total = this.getCount();
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += this.counts.get(i);
+            if (accumulated >= target) {
+                return Math.min(upperBound(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Returns histogram snapshot {@link Snapshot}
+     *
+     * @return histogram snapshot {@link Snapshot}
+     */
+    public Snapshot snapshot() {
+        final long total = this.getCount();
+        return new Snapshot(
+            total,
+            total == 0 ? 0 : this.sum.sum() / total,
+            this.getValueAtPercentile(50),
+            this.getValueAtPercentile(90),
+            this.getValueAtPercentile(99),
+            this.getValueAtPercentile(99.9),
+            this.max.get());
+    }
+
+    /**
+     * Resets recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.set(0);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long lower = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Latency histogram snapshot implementation, values are in nanoseconds
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Snapshot {
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        public Snapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        /**
+         * Returns input value (in nanoseconds) converted to milliseconds
+         *
+         * @param nanos - initial input value in nanoseconds
+         * @return value in milliseconds
+         */
+        public static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import java.util.Map;
+
+/**
+ * Metrics sink definition
+ * <p>
+ * Receives periodic snapshots of extraction metrics {@link ExtractionMetrics}, implementations bridge them into external monitoring systems
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+    /**
+     * Reports input timer snapshots {@link Map} and counter values {@link Map}
+     *
+     * @param timers   - initial input timer snapshots {@link Map} by timer name
+     * @param counters - initial input counter values {@link Map} by counter name
+     */
+    void report(final Map<String, LatencyHistogram.Snapshot> timers, final Map<String, Long> counters);
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.LatencyHistogram.Snapshot.toMillis;
+
+/**
+ * Parser statistics implementation
+ * <p>
+ * Process-wide per-parser-class accounting of invocations, failures, input bytes and self wall/CPU time
+ * (time spent in nested parsers of embedded documents is attributed to nested parser only)
+ */
+@EqualsAndHashCode
+@ToString
+public class ParserStatistics {
+
+    /**
+     * Default parser statistics instance
+     */
+    private static final ParserStatistics INSTANCE = new ParserStatistics();
+
+    private final ConcurrentMap<String, Counters> parsers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns process-wide parser statistics {@link ParserStatistics}
+     *
+     * @return parser statistics {@link ParserStatistics}
+     */
+    public static ParserStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records single parser invocation
+     *
+     * @param parserClass - initial input parser class name {@link String}
+     * @param bytes       - initial input number of bytes
+     * @param wallNanos   - initial input self wall time (in nanoseconds)
+     * @param cpuNanos    - initial input self CPU time (in nanoseconds), negative if not supported
+     * @param failed      - initial input failure flag
+     */
+    public void record(final String parserClass, long bytes, long wallNanos, long cpuNanos, boolean failed) {
+        final Counters counters = this.parsers.computeIfAbsent(parserClass, key -> new Counters());
+        counters.invocations.increment();
+        counters.bytes.add(bytes);
+        counters.wallNanos.add(wallNanos);
+        counters.cpuNanos.add(Math.max(0, cpuNanos));
+        if (failed) {
+            counters.failures.increment();
+        }
+    }
+
+    /**
+     * Returns collection of parser entries {@link List} ranked by self CPU time (then wall time) descending
+     *
+     * @param limit - initial input maximum number of entries
+     * @return collection of parser entries {@link List}
+     */
+    public List<Entry> getHottestParsers(int limit) {
+        final List<Entry> result = new ArrayList<>(this.parsers.size());
+        this.parsers.forEach((name, counters) -> result.add(new Entry(
+            name,
+            counters.invocations.sum(),
+            counters.failures.sum(),
+            counters.bytes.sum(),
+            counters.wallNanos.sum(),
+            counters.cpuNanos.sum())));
+        result.sort(Comparator.comparingLong(Entry::getCpuNanos).thenComparingLong(Entry::getWallNanos).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Returns text report {@link String} of parsers ranked by self CPU time
+     *
+     * @return text report {@link String}
+     */
+    public String report() {
+        final StringBuilder report = new StringBuilder(String.format("%-60s %10s %8s %14s %12s %12s%n", "parser", "calls", "failed", "bytes", "wall ms", "cpu ms"));
+        for (final Entry entry : this.getHottestParsers(Integer.MAX_VALUE)) {
+            report.append(String.format("%-60s %10d %8d %14d %12.1f %12.1f%n",
+                entry.getParserClass(), entry.getInvocations(), entry.getFailures(), entry.getBytes(), toMillis(entry.getWallNanos()), toMillis(entry.getCpuNanos())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Resets parser statistics
+     */
+    public void reset() {
+        this.parsers.clear();
+    }
+
+    /**
+     * Parser counters implementation
+     */
+    private static final class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+    }
+
+    /**
+     * Parser statistics entry implementation
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Entry {
+        private final String parserClass;
+        private final long invocations;
+        private final long failures;
+        private final long bytes;
+        private final long wallNanos;
+        private final long cpuNanos;
+
+        public Entry(final String parserClass, long invocations, long failures, long bytes, long wallNanos, long cpuNanos) {
+            this.parserClass = parserClass;
+            this.invocations = invocations;
+            this.failures = failures;
+            this.bytes = bytes;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+        }
+
+        /**
+         * Returns failure rate in range [0, 1]
+         *
+         * @return failure rate
+         */
+        public double getFailureRate() {
+            return this.invocations == 0 ? 0 : this.failures / (double) this.invocations;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+
+import static com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.LatencyHistogram.Snapshot.toMillis;
+
+/**
+ * Metrics sink implementation {@link MetricsSink} writing metrics into application log
+ */
+@Slf4j
+@EqualsAndHashCode
+@ToString
+public class Slf4jMetricsSink implements MetricsSink {
+
+    @Override
+    public void report(final Map<String, LatencyHistogram.Snapshot> timers, final Map<String, Long> counters) {
+        timers.forEach((name, snapshot) -> log.info(String.format("timer={%s}, count={%s}, mean={%.3f ms}, p50={%.3f ms}, p99={%.3f ms}, max={%.3f ms}",
+            name, snapshot.getCount(), toMillis(snapshot.getMean()), toMillis(snapshot.getP50()), toMillis(snapshot.getP99()), toMillis(snapshot.getMax()))));
+        counters.forEach((name, value) -> log.info(String.format("counter={%s}, value={%s}", name, value)));
+    }
+}
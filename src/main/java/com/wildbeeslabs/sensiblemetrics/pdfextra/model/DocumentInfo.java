@@ -23,6 +23,7 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra.model;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.IdentifierUtils;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -30,7 +31,6 @@ import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.Date;
-import java.util.UUID;
 
 /**
  * Default document info model
@@ -51,10 +51,10 @@ public class DocumentInfo implements Serializable {
     private static final long serialVersionUID = 5938006355799099121L;
 
     /**
-     * Default document info constructor
+     * Default document info constructor, assigns time-ordered identifier
      */
     public DocumentInfo() {
-        this.id = UUID.randomUUID().toString();
+        this.id = IdentifierUtils.nextTimeOrderedId();
     }
 
     /**
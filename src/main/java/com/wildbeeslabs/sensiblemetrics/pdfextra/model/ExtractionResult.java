@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Default extraction result model
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Builder
+@Data
+@EqualsAndHashCode
+@ToString(exclude = "content")
+public class ExtractionResult {
+
+    /**
+     * Default document identifier
+     */
+    private final String documentId;
+    /**
+     * Default detected media type
+     */
+    private final MediaType mediaType;
+    /**
+     * Default document meta data
+     */
+    private final Metadata metadata;
+    /**
+     * Default document text content
+     */
+    private final String content;
+    /**
+     * Default document text chunks
+     */
+    private final List<String> chunks;
+    /**
+     * Default extraction failure
+     */
+    private final Throwable error;
+
+    /**
+     * Returns binary flag whether extraction failed
+     *
+     * @return true - if extraction failed, false - otherwise
+     */
+    public boolean isFailed() {
+        return Objects.nonNull(this.error);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.model;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.exception.GeneralException;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Lazy document info model {@link DocumentInfo}
+ * <p>
+ * Backed by source file path {@link Path}: name is taken from the path, meta data fields (created date) trigger
+ * meta data only parse (stopped at body start) and content is extracted on first access. Each parse happens at most once
+ * and is thread-safe, full content parse also populates meta data. Failed parse is reported by {@link GeneralException}
+ * and retried on next access. Serialized form is plain {@link DocumentInfo} with every field loaded.
+ * Equality and hash code are based on source file path only, so they never trigger parsing.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@ToString(of = "path")
+public class LazyDocumentInfo extends DocumentInfo {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -2704571330592868014L;
+
+    /**
+     * Default source file path {@link Path}
+     */
+    @Getter
+    private final transient Path path;
+    /**
+     * Default loading lock
+     */
+    private final transient Object lock = new Object();
+    /**
+     * Default loaded meta data {@link Metadata}
+     */
+    private transient volatile Metadata metadata;
+    /**
+     * Default content loaded flag
+     */
+    private transient volatile boolean contentLoaded;
+
+    public LazyDocumentInfo(final Path path) {
+        this.path = Objects.requireNonNull(path, "Path should not be null");
+        super.setName(String.valueOf(path.getFileName()));
+    }
+
+    /**
+     * Returns binary flag whether meta data is loaded
+     *
+     * @return true - if meta data is loaded, false - otherwise
+     */
+    public boolean isMetadataLoaded() {
+        return Objects.nonNull(this.metadata);
+    }
+
+    /**
+     * Returns binary flag whether content is loaded
+     *
+     * @return true - if content is loaded, false - otherwise
+     */
+    public boolean isContentLoaded() {
+        return this.contentLoaded;
+    }
+
+    /**
+     * Returns document meta data {@link Metadata}, parsing meta data only on first access
+     *
+     * @return document meta data {@link Metadata}
+     */
+    public Metadata getMetadata() {
+        Metadata result = this.metadata;
+        if (Objects.isNull(result)) {
+            synchronized (this.lock) {
+                result = this.metadata;
+                if (Objects.isNull(result)) {
+                    try {
+                        result = AnalyzerUtils.getMetadataByParser(this.path);
+                    } catch (IOException | TikaException | SAXException e) {
+                        throw new GeneralException(String.format("ERROR: cannot parse meta data of document={%s}, message={%s}", this.path, e.getMessage()), e);
+                    }
+                    this.loadMetadata(result);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Date getCreated() {
+        this.getMetadata();
+        return super.getCreated();
+    }
+
+    @Override
+    public void setCreated(final Date created) {
+        this.getMetadata();
+        super.setCreated(created);
+    }
+
+    @Override
+    public CharSequence getContent() {
+        if (!this.contentLoaded) {
+            synchronized (this.lock) {
+                if (!this.contentLoaded) {
+                    final Metadata loaded = new Metadata();
+                    try {
+                        super.setContent(AnalyzerUtils.getContentByParser(this.path, loaded));
+                    } catch (IOException | TikaException | SAXException e) {
+                        throw new GeneralException(String.format("ERROR: cannot parse content of document={%s}, message={%s}", this.path, e.getMessage()), e);
+                    }
+                    if (Objects.isNull(this.metadata)) {
+                        this.loadMetadata(loaded);
+                    }
+                    this.contentLoaded = true;
+                }
+            }
+        }
+        return super.getContent();
+    }
+
+    @Override
+    public void setContent(final CharSequence content) {
+        synchronized (this.lock) {
+            super.setContent(content);
+            this.contentLoaded = true;
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LazyDocumentInfo)) {
+            return false;
+        }
+        return this.path.equals(((LazyDocumentInfo) other).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+    @Override
+    protected boolean canEqual(final Object other) {
+        return other instanceof LazyDocumentInfo;
+    }
+
+    /**
+     * Returns plain document info {@link DocumentInfo} with every field loaded to be serialized instead of lazy one
+     */
+    private Object writeReplace() {
+        final DocumentInfo info = new DocumentInfo();
+        info.setId(this.getId());
+        info.setName(this.getName());
+        info.setCreated(this.getCreated());
+        info.setContent(this.getContent());
+        return info;
+    }
+
+    private void loadMetadata(final Metadata metadata) {
+        super.setCreated(metadata.getDate(TikaCoreProperties.CREATED));
+        this.metadata = metadata;
+    }
+}
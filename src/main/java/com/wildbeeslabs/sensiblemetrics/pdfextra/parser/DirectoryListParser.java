@@ -23,11 +23,11 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra.parser;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.MappedLineScanner;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.tika.io.TikaInputStream;
 import org.apache.tika.metadata.Metadata;
@@ -40,8 +40,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 /**
  * Directory list parser implementation {@link Parser}
  */
@@ -60,6 +58,10 @@ public class DirectoryListParser implements Parser {
      * Default supported file types
      */
     private static Set<MediaType> DEFAULT_SUPPORTED_TYPES = new HashSet<>(Collections.singletonList(MediaType.TEXT_PLAIN));
+    /**
+     * Default index of the first file name token (preceded by permissions, links, owner, group, size and date tokens)
+     */
+    private static final int DEFAULT_FILE_NAME_TOKEN = 8;
 
     /*
      * (non-Javadoc)
@@ -91,35 +93,65 @@ public class DirectoryListParser implements Parser {
      */
     @Override
     public void parse(final InputStream is, final ContentHandler handler, final Metadata metadata, final ParseContext context) throws IOException {
-        final List<String> lines = FileUtils.readLines(TikaInputStream.get(is).getFile(), UTF_8);
-        for (final String line : lines) {
-            final String[] fileToks = line.split("\\s+");
-            if (fileToks.length < 8) continue;
-            String filePermissions = fileToks[0];
-            String numHardLinks = fileToks[1];
-            String fileOwner = fileToks[2];
-            String fileOwnerGroup = fileToks[3];
-            String fileSize = fileToks[4];
-
-            final StringBuilder lastModDate = new StringBuilder();
-            lastModDate.append(fileToks[5]);
-            lastModDate.append(StringUtils.SPACE);
-            lastModDate.append(fileToks[6]);
-            lastModDate.append(StringUtils.SPACE);
-            lastModDate.append(fileToks[7]);
+        try (final MappedLineScanner scanner = MappedLineScanner.open(TikaInputStream.get(is).getFile().toPath())) {
+            scanner.forEachLine((line, offset) -> this.parseLine(line, metadata));
+        }
+    }
 
-            final StringBuilder fileName = new StringBuilder();
-            for (int i = 8; i < fileToks.length; i++) {
-                fileName.append(fileToks[i]);
-                fileName.append(StringUtils.SPACE);
+    /**
+     * Parses input directory list line {@link CharSequence} tokenized in place (tokens are separated by whitespace as by
+     * {@code split("\\s+")}), only meta data values are copied into strings
+     */
+    private void parseLine(final CharSequence line, final Metadata metadata) {
+        final int[] starts = new int[DEFAULT_FILE_NAME_TOKEN];
+        final int[] ends = new int[DEFAULT_FILE_NAME_TOKEN];
+        final StringBuilder fileName = new StringBuilder();
+        final int length = line.length();
+        int tokens = 0;
+        int position = 0;
+        if (length > 0 && isSeparator(line.charAt(0))) {
+            tokens++;
+        }
+        while (true) {
+            while (position < length && isSeparator(line.charAt(position))) {
+                position++;
             }
-            fileName.deleteCharAt(fileName.length() - 1);
-            this.addMetadata(metadata, filePermissions, numHardLinks,
-                fileOwner, fileOwnerGroup, fileSize,
-                lastModDate.toString(), fileName.toString());
+            if (position == length) {
+                break;
+            }
+            final int start = position;
+            while (position < length && !isSeparator(line.charAt(position))) {
+                position++;
+            }
+            if (tokens < DEFAULT_FILE_NAME_TOKEN) {
+                starts[tokens] = start;
+                ends[tokens] = position;
+            } else {
+                if (fileName.length() > 0) {
+                    fileName.append(StringUtils.SPACE);
+                }
+                fileName.append(line, start, position);
+            }
+            tokens++;
+        }
+        if (tokens > DEFAULT_FILE_NAME_TOKEN) {
+            final String lastModDate = token(line, starts, ends, 5)
+                + StringUtils.SPACE + token(line, starts, ends, 6)
+                + StringUtils.SPACE + token(line, starts, ends, 7);
+            this.addMetadata(metadata, token(line, starts, ends, 0), token(line, starts, ends, 1),
+                token(line, starts, ends, 2), token(line, starts, ends, 3), token(line, starts, ends, 4),
+                lastModDate, fileName.toString());
         }
     }
 
+    private static String token(final CharSequence line, final int[] starts, final int[] ends, int index) {
+        return line.subSequence(starts[index], ends[index]).toString();
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
     private void addMetadata(final Metadata metadata, final String filePerms,
                              final String numHardLinks, final String fileOwner, final String fileOwnerGroup,
                              final String fileSize, final String lastModDate, final String fileName) {
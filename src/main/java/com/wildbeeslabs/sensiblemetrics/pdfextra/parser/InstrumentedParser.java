@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.parser;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.ExtractionCompletedException;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ParserStatistics;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.parser.CompositeParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.ParserDecorator;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Instrumented parser implementation {@link ParserDecorator}
+ * <p>
+ * Records invocations, input bytes, self wall and CPU time and failures of decorated parser into parser statistics {@link ParserStatistics}.
+ * Use {@link #instrument(CompositeParser)} to decorate every component parser of composite parser (e.g. {@link org.apache.tika.parser.AutoDetectParser}),
+ * so accounting happens per dispatched parser class rather than for composite parser as a whole.
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class InstrumentedParser extends ParserDecorator {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = 3940188407915745712L;
+
+    /**
+     * Default thread management bean
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    /**
+     * Default per-thread nested invocation times, [0] - wall, [1] - CPU
+     */
+    private static final ThreadLocal<long[]> NESTED = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Default parser class name
+     */
+    private final String parserClass;
+
+    public InstrumentedParser(final Parser parser) {
+        super(parser);
+        this.parserClass = unwrap(parser).getClass().getName();
+    }
+
+    /**
+     * Returns input composite parser {@link CompositeParser} with every (flattened) component parser decorated by {@link InstrumentedParser}
+     *
+     * @param parser - initial input composite parser {@link CompositeParser}
+     * @param <T>    type of composite parser
+     * @return composite parser {@link CompositeParser}
+     */
+    public static <T extends CompositeParser> T instrument(final T parser) {
+        final ParseContext context = new ParseContext();
+        final Map<Parser, Map<MediaType, Parser>> composites = new IdentityHashMap<>();
+        final Map<Parser, Parser> decorated = new IdentityHashMap<>();
+        final Map<MediaType, Parser> parsers = new HashMap<>();
+        parser.getParsers(context).forEach((type, component) -> {
+            final Parser resolved = resolve(type, component, context, composites);
+            parsers.put(type, resolved instanceof InstrumentedParser ? resolved : decorated.computeIfAbsent(resolved, InstrumentedParser::new));
+        });
+        parser.setParsers(parsers);
+        return parser;
+    }
+
+    /**
+     * Returns leaf parser {@link Parser} dispatched for input media type {@link MediaType} through nested composite parsers
+     */
+    private static Parser resolve(final MediaType type, final Parser parser, final ParseContext context, final Map<Parser, Map<MediaType, Parser>> composites) {
+        if (!(parser instanceof CompositeParser)) {
+            return parser;
+        }
+        final Parser component = composites.computeIfAbsent(parser, key -> ((CompositeParser) key).getParsers(context)).get(type);
+        return Objects.isNull(component) ? parser : resolve(type, component, context, composites);
+    }
+
+    @Override
+    public void parse(final InputStream stream, final ContentHandler handler, final Metadata metadata, final ParseContext context) throws IOException, SAXException, TikaException {
+        if (!ExtractionMetrics.getInstance().isEnabled()) {
+            super.parse(stream, handler, metadata, context);
+            return;
+        }
+        final long[] nested = NESTED.get();
+        final long outerWall = nested[0];
+        final long outerCpu = nested[1];
+        nested[0] = 0;
+        nested[1] = 0;
+
+        final TikaInputStream tikaStream = stream instanceof TikaInputStream ? (TikaInputStream) stream : null;
+        final CountingInputStream counting = Objects.isNull(tikaStream) ? new CountingInputStream(stream) : null;
+        final long position = Objects.isNull(tikaStream) ? 0 : tikaStream.getPosition();
+        final long startCpu = cpuTime();
+        final long startWall = System.nanoTime();
+        boolean failed = false;
+        try {
+            super.parse(Objects.isNull(tikaStream) ? counting : stream, handler, metadata, context);
+        } catch (IOException | SAXException | TikaException | RuntimeException e) {
+            failed = !ExtractionCompletedException.isCauseOf(e);
+            throw e;
+        } catch (Error e) {
+            failed = true;
+            throw e;
+        } finally {
+            final long wall = System.nanoTime() - startWall;
+            final long cpu = startCpu < 0 ? -1 : cpuTime() - startCpu;
+            final long bytes = Objects.isNull(tikaStream)
+                ? counting.getByteCount()
+                : tikaStream.hasLength() ? tikaStream.getLength() : tikaStream.getPosition() - position;
+            ParserStatistics.getInstance().record(this.parserClass, bytes, wall - nested[0], cpu < 0 ? -1 : cpu - nested[1], failed);
+            nested[0] = outerWall + wall;
+            nested[1] = outerCpu + Math.max(0, cpu);
+        }
+    }
+
+    private static Parser unwrap(final Parser parser) {
+        return parser instanceof ParserDecorator ? unwrap(((ParserDecorator) parser).getWrappedParser()) : parser;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.parser;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.detect.DefaultDetector;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TemporaryResources;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.mime.MediaTypeRegistry;
+import org.apache.tika.mime.MimeTypes;
+import org.apache.tika.parser.AbstractParser;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Lazy composite parser implementation {@link AbstractParser}
+ * <p>
+ * Reads parser class names by media types from tika configuration (e.g. {@code tika.xml}) without instantiating them,
+ * a parser class is loaded and initialized the first time its media type (or supertype) is detected.
+ * Unlike default {@link AutoDetectParser} construction, no parser is created on startup.
+ * <p>
+ * Media types without configured parser are delegated to fallback parser (eager {@link AutoDetectParser} by default),
+ * created on first such document, so coverage matches default parser at the cost of loading every parser once.
+ * Without fallback parser unsupported media types are rejected with {@link TikaException}.
+ */
+@Slf4j
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class LazyCompositeParser extends AbstractParser {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -6217703420383187244L;
+
+    /**
+     * Default tika configuration resource
+     */
+    public static final String DEFAULT_CONFIG = "/tika.xml";
+
+    /**
+     * Default parser class names by media type
+     */
+    private final Map<MediaType, String> parserClasses;
+    /**
+     * Default loaded parsers by class name
+     */
+    private final ConcurrentMap<String, Parser> parsers = new ConcurrentHashMap<>();
+    /**
+     * Default custom detector
+     */
+    private final Detector detector;
+    /**
+     * Default fallback parser factory {@link Supplier} for media types without configured parser
+     */
+    @ToString.Exclude
+    private final transient Supplier<Parser> fallback;
+    /**
+     * Default fallback parser {@link Parser}, created on first use
+     */
+    @ToString.Exclude
+    private transient volatile Parser fallbackParser;
+
+    /**
+     * Default lazy composite parser constructor with default tika configuration and {@link AutoDetectParser} fallback
+     *
+     * @throws IOException
+     */
+    public LazyCompositeParser() throws IOException {
+        this(AutoDetectParser::new);
+    }
+
+    /**
+     * Default lazy composite parser constructor with default tika configuration and input fallback parser factory {@link Supplier}
+     *
+     * @param fallback - initial input fallback parser factory {@link Supplier} (null to reject unsupported media types)
+     * @throws IOException
+     */
+    public LazyCompositeParser(final Supplier<Parser> fallback) throws IOException {
+        this(readConfig(LazyCompositeParser.class.getResource(DEFAULT_CONFIG)), null, fallback);
+    }
+
+    /**
+     * Default lazy composite parser constructor with input tika configuration {@link URL} and {@link AutoDetectParser} fallback
+     *
+     * @param config - initial input tika configuration {@link URL}
+     * @throws IOException
+     */
+    public LazyCompositeParser(final URL config) throws IOException {
+        this(readConfig(config), null, AutoDetectParser::new);
+    }
+
+    /**
+     * Default lazy composite parser constructor with input parser class names {@link Map} by media type, detector {@link Detector}
+     * and fallback parser factory {@link Supplier}
+     *
+     * @param parserClasses - initial input parser class names {@link Map} by media type
+     * @param detector      - initial input detector {@link Detector} (null for default detector)
+     * @param fallback      - initial input fallback parser factory {@link Supplier} (null to reject unsupported media types)
+     */
+    public LazyCompositeParser(final Map<MediaType, String> parserClasses, final Detector detector, final Supplier<Parser> fallback) {
+        Objects.requireNonNull(parserClasses, "Parser classes should not be null");
+        this.parserClasses = Collections.unmodifiableMap(new LinkedHashMap<>(parserClasses));
+        this.detector = detector;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns parser class names {@link Map} by media type read from input tika configuration {@link URL}
+     *
+     * @param config - initial input tika configuration {@link URL}
+     * @return parser class names {@link Map} by media type
+     * @throws IOException
+     */
+    public static Map<MediaType, String> readConfig(final URL config) throws IOException {
+        if (Objects.isNull(config)) {
+            throw new IOException("ERROR: tika configuration is not found");
+        }
+        final Map<MediaType, String> result = new LinkedHashMap<>();
+        try (final InputStream stream = config.openStream()) {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            final Document document = factory.newDocumentBuilder().parse(stream);
+            final NodeList parsers = document.getElementsByTagName("parser");
+            for (int i = 0; i < parsers.getLength(); i++) {
+                final Element parser = (Element) parsers.item(i);
+                final String className = parser.getAttribute("class").trim();
+                final NodeList mimes = parser.getElementsByTagName("mime");
+                for (int j = 0; j < mimes.getLength(); j++) {
+                    final MediaType type = MediaType.parse(mimes.item(j).getTextContent().trim());
+                    if (Objects.isNull(type) || className.isEmpty()) {
+                        log.error(String.format("ERROR: invalid parser configuration, class={%s}, mime={%s}", className, mimes.item(j).getTextContent()));
+                        continue;
+                    }
+                    result.put(type, className);
+                }
+            }
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException(String.format("ERROR: cannot read tika configuration={%s}", config), e);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<MediaType> getSupportedTypes(final ParseContext context) {
+        return this.parserClasses.keySet();
+    }
+
+    /**
+     * Returns class names {@link Set} of parsers loaded so far
+     *
+     * @return class names {@link Set} of loaded parsers
+     */
+    public Set<String> getLoadedParsers() {
+        return Collections.unmodifiableSet(new TreeSet<>(this.parsers.keySet()));
+    }
+
+    /**
+     * Returns binary flag whether fallback parser has been created
+     *
+     * @return true - if fallback parser has been created, false - otherwise
+     */
+    public boolean isFallbackLoaded() {
+        return Objects.nonNull(this.fallbackParser);
+    }
+
+    @Override
+    public void parse(final InputStream stream, final ContentHandler handler, final Metadata metadata, final ParseContext context) throws IOException, SAXException, TikaException {
+        final TemporaryResources tmp = new TemporaryResources();
+        final boolean installed = Objects.isNull(context.get(Parser.class));
+        try {
+            final TikaInputStream tis = TikaInputStream.get(stream, tmp);
+            final MediaType type = this.getDetector().detect(tis, metadata);
+            metadata.set(Metadata.CONTENT_TYPE, type.toString());
+            if (installed) {
+                context.set(Parser.class, this);
+            }
+            this.getParser(type).parse(tis, handler, metadata, context);
+        } finally {
+            if (installed) {
+                context.set(Parser.class, null);
+            }
+            tmp.dispose();
+        }
+    }
+
+    /**
+     * Returns parser {@link Parser} by input media type {@link MediaType}, loading parser class on first use,
+     * supertypes are searched when media type has no configured parser, fallback parser is used for unsupported media types
+     *
+     * @param type - initial input media type {@link MediaType}
+     * @return parser {@link Parser}
+     * @throws TikaException if media type is not supported and there is no fallback parser
+     */
+    public Parser getParser(final MediaType type) throws TikaException {
+        final MediaTypeRegistry registry = Defaults.MIME_TYPES.getMediaTypeRegistry();
+        MediaType current = registry.normalize(type.getBaseType());
+        while (Objects.nonNull(current)) {
+            final String className = this.parserClasses.get(current);
+            if (Objects.nonNull(className)) {
+                return this.load(className);
+            }
+            current = registry.getSupertype(current);
+        }
+        return this.getFallbackParser(type);
+    }
+
+    private Parser getFallbackParser(final MediaType type) throws TikaException {
+        if (Objects.isNull(this.fallback)) {
+            throw new TikaException(String.format("ERROR: unsupported media type={%s}, no parser is configured", type));
+        }
+        Parser parser = this.fallbackParser;
+        if (Objects.isNull(parser)) {
+            synchronized (this) {
+                parser = this.fallbackParser;
+                if (Objects.isNull(parser)) {
+                    log.debug(String.format("Loading fallback parser for media type={%s}", type));
+                    parser = Objects.requireNonNull(this.fallback.get(), "Fallback parser should not be null");
+                    this.fallbackParser = parser;
+                }
+            }
+        }
+        return parser;
+    }
+
+    private Parser load(final String className) throws TikaException {
+        final Parser parser = this.parsers.get(className);
+        if (Objects.nonNull(parser)) {
+            return parser;
+        }
+        try {
+            return this.parsers.computeIfAbsent(className, name -> {
+                try {
+                    log.debug(String.format("Loading parser class={%s}", name));
+                    return Class.forName(name, true, LazyCompositeParser.class.getClassLoader())
+                        .asSubclass(Parser.class)
+                        .getDeclaredConstructor()
+                        .newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            throw new TikaException(String.format("ERROR: cannot load parser class={%s}", className), e.getCause());
+        }
+    }
+
+    private Detector getDetector() {
+        return Objects.nonNull(this.detector) ? this.detector : Defaults.DETECTOR;
+    }
+
+    /**
+     * Default mime types and detector holder, initialized on first parse
+     */
+    private static final class Defaults {
+        private static final MimeTypes MIME_TYPES = MimeTypes.getDefaultMimeTypes();
+        private static final Detector DETECTOR = new DefaultDetector(MIME_TYPES);
+    }
+}
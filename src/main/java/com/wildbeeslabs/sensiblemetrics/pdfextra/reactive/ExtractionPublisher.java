@@ -0,0 +1,366 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.reactive;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent.ExtractionExecutors;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.ExtractionResult;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extraction publisher implementation {@link Publisher}
+ * <p>
+ * Cold publisher of extraction results {@link ExtractionResult} for source files, every subscription iterates source anew.
+ * A file is opened only when subscriber demand is not yet covered by in-flight files, it is opened and its header window is
+ * prefetched (on I/O executor), then it is streamed from disk through shared parser by
+ * {@link AnalyzerUtils#extractByParser(InputStream, String)} and chunked (on CPU executor) and optionally written into
+ * extraction sink {@link ExtractionSink} (on I/O executor), so CPU workers do not wait for cold file opens, slow subscriber
+ * throttles reads instead of growing queues and no file is held in memory as a whole. Results are emitted in completion order,
+ * per-file failures are emitted as failed results {@link ExtractionResult#isFailed()} and do not terminate the stream.
+ */
+@Slf4j
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class ExtractionPublisher implements Publisher<ExtractionResult> {
+
+    /**
+     * Default maximum number of in-flight files
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = Runtime.getRuntime().availableProcessors() * 2;
+    /**
+     * Default text chunk size (in characters)
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    /**
+     * Default file header window prefetched by I/O stage (in bytes)
+     */
+    public static final int DEFAULT_PREFETCH_SIZE = 64 * 1024;
+
+    /**
+     * Default source files
+     */
+    @NonNull
+    private final Iterable<Path> sources;
+    /**
+     * Default blocking I/O executor (opening and sinking)
+     */
+    @Builder.Default
+    private final Executor ioExecutor = Defaults.DEFAULT_IO_EXECUTOR;
+    /**
+     * Default CPU executor (parsing and chunking)
+     */
+    @Builder.Default
+    private final Executor cpuExecutor = Defaults.DEFAULT_CPU_EXECUTOR;
+    /**
+     * Default maximum number of in-flight files
+     */
+    @Builder.Default
+    private final int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    /**
+     * Default text chunk size
+     */
+    @Builder.Default
+    private final int chunkSize = DEFAULT_CHUNK_SIZE;
+    /**
+     * Default optional extraction sink
+     */
+    private final ExtractionSink sink;
+
+    @Override
+    public void subscribe(final Subscriber<? super ExtractionResult> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber should not be null");
+        final Iterator<Path> iterator;
+        try {
+            iterator = this.sources.iterator();
+        } catch (RuntimeException e) {
+            subscriber.onSubscribe(CancelledSubscription.INSTANCE);
+            subscriber.onError(e);
+            return;
+        }
+        final ExtractionSubscription subscription = new ExtractionSubscription(subscriber, iterator);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Opens source file and prefetches its header window, which is read by type detection first
+     */
+    private TikaInputStream open(final Path path) {
+        TikaInputStream stream = null;
+        try {
+            stream = AnalyzerUtils.openFileStream(path, new Metadata());
+            stream.peek(new byte[stream.hasLength() ? (int) Math.min(DEFAULT_PREFETCH_SIZE, stream.getLength()) : DEFAULT_PREFETCH_SIZE]);
+            return stream;
+        } catch (Exception e) {
+            close(stream);
+            throw new StageException("open", e);
+        }
+    }
+
+    /**
+     * Streams opened source file through shared parser and chunks document content
+     */
+    private ExtractionResult parse(final Path path, final TikaInputStream input) {
+        final ExtractionResult result;
+        try (final InputStream stream = input) {
+            result = AnalyzerUtils.extractByParser(stream, path.toString());
+        } catch (Exception e) {
+            throw new StageException("parse", e);
+        }
+        return ExtractionResult.builder()
+            .documentId(result.getDocumentId())
+            .mediaType(result.getMediaType())
+            .metadata(result.getMetadata())
+            .content(result.getContent())
+            .chunks(AnalyzerUtils.splitToChunks(result.getContent(), this.chunkSize))
+            .build();
+    }
+
+    private static void close(final InputStream stream) {
+        if (Objects.isNull(stream)) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.error(String.format("ERROR: cannot close source stream, message={%s}", e.getMessage()));
+        }
+    }
+
+    /**
+     * Writes extraction result into extraction sink
+     */
+    private ExtractionResult store(final ExtractionResult result) {
+        try {
+            this.sink.accept(result.getDocumentId(), result.getMetadata(), result.getContent());
+            return result;
+        } catch (Exception e) {
+            throw new StageException("sink", e);
+        }
+    }
+
+    /**
+     * Extraction subscription implementation {@link Subscription}
+     * <p>
+     * Every state change is serialized by work-in-progress counter, completed results are handed over by lock-free queue
+     */
+    private final class ExtractionSubscription implements Subscription {
+        private final Subscriber<? super ExtractionResult> subscriber;
+        private final Iterator<Path> iterator;
+        private final Queue<ExtractionResult> completed = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile Throwable failure;
+        private long emitted;
+        private int inFlight;
+        private boolean exhausted;
+        private boolean done;
+
+        private ExtractionSubscription(final Subscriber<? super ExtractionResult> subscriber, final Iterator<Path> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.failure = new IllegalArgumentException(String.format("ERROR: invalid request={%s}, must be positive (rule 3.9)", n));
+            } else {
+                this.requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled.compareAndSet(false, true)) {
+                this.drain();
+            }
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!this.done && this.cancelled.get()) {
+                    this.done = true;
+                }
+                if (!this.done && Objects.nonNull(this.failure)) {
+                    this.terminate(this.failure);
+                }
+                if (this.done) {
+                    this.completed.clear();
+                } else {
+                    this.emit();
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            final long demand = this.requested.get();
+            while (this.emitted < demand && !this.cancelled.get()) {
+                final ExtractionResult result = this.completed.poll();
+                if (Objects.isNull(result)) {
+                    break;
+                }
+                this.inFlight--;
+                this.emitted++;
+                try {
+                    this.subscriber.onNext(result);
+                } catch (Throwable t) {
+                    this.cancelled.set(true);
+                    log.error(String.format("ERROR: subscriber failed on next, document={%s}, message={%s}", result.getDocumentId(), t.getMessage()));
+                    return;
+                }
+            }
+            while (!this.exhausted && !this.cancelled.get() && this.emitted + this.inFlight < demand && this.inFlight < maxConcurrency) {
+                final Path path;
+                try {
+                    if (!this.iterator.hasNext()) {
+                        this.exhausted = true;
+                        break;
+                    }
+                    path = this.iterator.next();
+                } catch (RuntimeException e) {
+                    this.terminate(e);
+                    return;
+                }
+                this.inFlight++;
+                this.start(path);
+            }
+            if (this.exhausted && this.inFlight == 0 && !this.cancelled.get()) {
+                this.done = true;
+                this.subscriber.onComplete();
+            }
+        }
+
+        private void start(final Path path) {
+            final CompletableFuture<TikaInputStream> opened = CompletableFuture.supplyAsync(() -> open(path), ioExecutor);
+            CompletableFuture<ExtractionResult> future = opened.thenApplyAsync(stream -> parse(path, stream), cpuExecutor);
+            // parse stage closes the stream, unless it is never run (e.g. rejected by CPU executor)
+            future.whenComplete((result, error) -> {
+                if (Objects.nonNull(error)) {
+                    opened.thenAccept(ExtractionPublisher::close);
+                }
+            });
+            if (Objects.nonNull(sink)) {
+                future = future.thenApplyAsync(ExtractionPublisher.this::store, ioExecutor);
+            }
+            future.whenComplete((result, error) -> {
+                if (Objects.nonNull(error)) {
+                    final Throwable cause = Objects.nonNull(error.getCause()) ? error.getCause() : error;
+                    log.error(String.format("ERROR: cannot extract document={%s}, message={%s}", path, cause.getMessage()));
+                    this.completed.offer(ExtractionResult.builder()
+                        .documentId(path.toString())
+                        .chunks(Collections.emptyList())
+                        .error(cause)
+                        .build());
+                } else {
+                    this.completed.offer(result);
+                }
+                this.drain();
+            });
+        }
+
+        private void terminate(final Throwable error) {
+            this.done = true;
+            this.cancelled.set(true);
+            this.subscriber.onError(error);
+        }
+    }
+
+    /**
+     * Stage exception implementation
+     */
+    private static final class StageException extends RuntimeException {
+
+        /**
+         * Default explicit serialVersionUID for interoperability
+         */
+        private static final long serialVersionUID = -3275612887307461935L;
+
+        private StageException(final String stage, final Throwable cause) {
+            super(String.format("ERROR: %s stage failed, message={%s}", stage, cause.getMessage()), cause);
+        }
+    }
+
+    /**
+     * Cancelled subscription implementation
+     */
+    private enum CancelledSubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+
+    /**
+     * Default shared executors
+     */
+    private static final class Defaults {
+        private static final ExecutorService DEFAULT_IO_EXECUTOR = ExtractionExecutors.newIoExecutor("pdfextra-io");
+        private static final ExecutorService DEFAULT_CPU_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-cpu-%d").build());
+    }
+}
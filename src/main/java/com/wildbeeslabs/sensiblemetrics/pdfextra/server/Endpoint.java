@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.exporter.PdfExporter;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.CompressionType;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Extraction server endpoint definition
+ * <p>
+ * Every endpoint reads request body straight into the parser and writes result into response stream {@link ResponseStream},
+ * text and xhtml output is written (chunked) as it is produced by the parser.
+ */
+public enum Endpoint {
+    /**
+     * Detects media type
+     */
+    DETECT("/detect") {
+        @Override
+        public void handle(final InputStream body, final ResponseStream response) throws Exception {
+            final String type = AnalyzerUtils.detectDocTypeByDetector(TikaInputStream.get(body)).toString();
+            response.setContentType(TEXT_PLAIN);
+            response.send(type.getBytes(StandardCharsets.UTF_8));
+        }
+    },
+    /**
+     * Extracts body text
+     */
+    TEXT("/text") {
+        @Override
+        public void handle(final InputStream body, final ResponseStream response) throws Exception {
+            response.setContentType(TEXT_PLAIN);
+            try (final TikaInputStream stream = TikaInputStream.get(body)) {
+                AnalyzerUtils.parseToText(stream, response);
+            }
+        }
+    },
+    /**
+     * Extracts xhtml document
+     */
+    XHTML("/xhtml") {
+        @Override
+        public void handle(final InputStream body, final ResponseStream response) throws Exception {
+            response.setContentType("application/xhtml+xml; charset=UTF-8");
+            try (final TikaInputStream stream = TikaInputStream.get(body)) {
+                AnalyzerUtils.parseToHTML(stream, response, CompressionType.NONE);
+            }
+        }
+    },
+    /**
+     * Extracts meta data as json object
+     */
+    METADATA("/metadata") {
+        @Override
+        public void handle(final InputStream body, final ResponseStream response) throws Exception {
+            final Metadata metadata;
+            try (final TikaInputStream stream = TikaInputStream.get(body)) {
+                metadata = AnalyzerUtils.getMetadataByParser(stream);
+            }
+            response.setContentType("application/json; charset=UTF-8");
+            response.send(MAPPER.writeValueAsBytes(AnalyzerUtils.toMap(metadata)));
+        }
+    },
+    /**
+     * Renders velocity html template into pdf document
+     */
+    EXPORT("/export") {
+        @Override
+        public void handle(final InputStream body, final ResponseStream response) throws Exception {
+            final byte[] document = PdfExporter.getInstance().export(body, new HashMap<>());
+            response.setContentType("application/pdf");
+            response.send(document);
+        }
+    };
+
+    /**
+     * Default plain text content type
+     */
+    private static final String TEXT_PLAIN = "text/plain; charset=UTF-8";
+    /**
+     * Default json object mapper
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Default endpoint path
+     */
+    private final String path;
+
+    Endpoint(final String path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns endpoint path {@link String}
+     *
+     * @return endpoint path {@link String}
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Handles request body {@link InputStream} by writing result into response stream {@link ResponseStream}
+     *
+     * @param body     - initial input request body {@link InputStream}
+     * @param response - initial input response stream {@link ResponseStream}
+     * @throws Exception
+     */
+    public abstract void handle(final InputStream body, final ResponseStream response) throws Exception;
+}
@@ -0,0 +1,258 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.xml.sax.SAXException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded extraction http server implementation based on JDK {@link HttpServer}
+ * <p>
+ * Serves {@link Endpoint} endpoints (POST or PUT with document as request body) over keep-alive HTTP/1.1 connections.
+ * Requests are accepted on the dispatcher thread and handed to fixed pool of workers with bounded queue, once the queue
+ * is full further requests are shed immediately with 503 status and "Retry-After" header instead of piling up.
+ * Status codes: 400 - invalid request, 405 - invalid method, 422 - unprocessable document, 500 - internal failure;
+ * failures after response streaming has started discard output not sent yet and terminate the response by in-band
+ * error marker {@link ResponseStream#ERROR_MARKER}, clients of streaming endpoints must check the end of the body for it.
+ */
+@Slf4j
+@ToString(of = "statistics")
+public class ExtractionServer implements Closeable {
+
+    /**
+     * Default server port
+     */
+    public static final int DEFAULT_PORT = 9998;
+    /**
+     * Default number of queued requests per worker thread
+     */
+    public static final int DEFAULT_QUEUE_PER_WORKER = 4;
+    /**
+     * Default retry delay (in seconds) advertised to shed requests
+     */
+    private static final String DEFAULT_RETRY_AFTER = "1";
+
+    /**
+     * Default http server
+     */
+    private final HttpServer server;
+    /**
+     * Default request workers
+     */
+    private final ThreadPoolExecutor workers;
+    /**
+     * Default server statistics
+     */
+    @Getter
+    private final Statistics statistics = new Statistics();
+
+    /**
+     * Default extraction server constructor with input server address {@link InetSocketAddress}, a worker per processor
+     *
+     * @param address - initial input server address {@link InetSocketAddress}
+     * @throws IOException
+     */
+    public ExtractionServer(final InetSocketAddress address) throws IOException {
+        this(address, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors() * DEFAULT_QUEUE_PER_WORKER);
+    }
+
+    /**
+     * Default extraction server constructor with input server address {@link InetSocketAddress}, number of workers and request queue capacity
+     *
+     * @param address       - initial input server address {@link InetSocketAddress}
+     * @param workers       - initial input number of worker threads
+     * @param queueCapacity - initial input request queue capacity
+     * @throws IOException
+     */
+    public ExtractionServer(final InetSocketAddress address, int workers, int queueCapacity) throws IOException {
+        Objects.requireNonNull(address, "Server address should not be null");
+        if (workers <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid number of workers={%s}", workers));
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid queue capacity={%s}", queueCapacity));
+        }
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pdfextra-http-%d").build(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.server = HttpServer.create(address, workers + queueCapacity);
+        for (final Endpoint endpoint : Endpoint.values()) {
+            this.server.createContext(endpoint.getPath(), exchange -> this.dispatch(endpoint, exchange));
+        }
+        this.server.createContext("/", exchange -> this.respond(exchange, 404, "Not Found"));
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        this.server.start();
+        log.info(String.format("Extraction server listening on address={%s}", this.getAddress()));
+    }
+
+    /**
+     * Returns bound server address {@link InetSocketAddress}
+     *
+     * @return server address {@link InetSocketAddress}
+     */
+    public InetSocketAddress getAddress() {
+        return this.server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests (new requests are shed with 503 status), waits for in-flight and queued requests
+     * to complete and only then stops http server, so no accepted exchange is cut off
+     */
+    @Override
+    public void close() {
+        this.workers.shutdown();
+        try {
+            this.workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.server.stop(0);
+        }
+    }
+
+    private void dispatch(final Endpoint endpoint, final HttpExchange exchange) {
+        try {
+            this.workers.execute(() -> this.process(endpoint, exchange));
+            this.statistics.accepted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            this.statistics.rejected.incrementAndGet();
+            ExtractionMetrics.getInstance().increment(ExtractionMetrics.HTTP_REJECTED, 1);
+            exchange.getResponseHeaders().set("Retry-After", DEFAULT_RETRY_AFTER);
+            this.respond(exchange, 503, "Service Unavailable");
+        }
+    }
+
+    private void process(final Endpoint endpoint, final HttpExchange exchange) {
+        final String method = exchange.getRequestMethod();
+        if (!endpoint.getPath().equals(exchange.getRequestURI().getPath())) {
+            this.respond(exchange, 404, "Not Found");
+            return;
+        }
+        if (!"POST".equals(method) && !"PUT".equals(method)) {
+            exchange.getResponseHeaders().set("Allow", "POST, PUT");
+            this.respond(exchange, 405, "Method Not Allowed");
+            return;
+        }
+        final String name = ExtractionMetrics.HTTP + endpoint.name().toLowerCase();
+        final long start = ExtractionMetrics.start();
+        final ResponseStream response = new ResponseStream(exchange);
+        try (final InputStream body = exchange.getRequestBody()) {
+            endpoint.handle(body, response);
+            response.close();
+            this.statistics.completed.incrementAndGet();
+        } catch (Exception e) {
+            this.statistics.failed.incrementAndGet();
+            ExtractionMetrics.getInstance().failure(name);
+            log.error(String.format("ERROR: cannot process request={%s %s}, message={%s}", method, exchange.getRequestURI(), e.getMessage()));
+            final String message = Objects.isNull(e.getMessage()) ? e.getClass().getName() : e.getMessage();
+            if (response.isCommitted()) {
+                this.fail(response, message);
+            } else {
+                this.respond(exchange, status(e), message);
+            }
+        } finally {
+            ExtractionMetrics.getInstance().record(name, start);
+        }
+    }
+
+    private void respond(final HttpExchange exchange, int status, final String message) {
+        final byte[] content = message.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(status, content.length);
+            exchange.getResponseBody().write(content);
+        } catch (IOException e) {
+            log.error(String.format("ERROR: cannot send response status={%s}, message={%s}", status, e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void fail(final ResponseStream response, final String message) {
+        try {
+            response.fail(message);
+        } catch (IOException e) {
+            log.error(String.format("ERROR: cannot send error marker, message={%s}", e.getMessage()));
+        }
+    }
+
+    private static int status(final Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return 400;
+        }
+        if (e instanceof TikaException || e instanceof SAXException) {
+            return 422;
+        }
+        return 500;
+    }
+
+    /**
+     * Server statistics implementation
+     */
+    @Getter
+    @ToString
+    public static class Statistics {
+        /**
+         * Default number of accepted requests
+         */
+        final AtomicLong accepted = new AtomicLong();
+        /**
+         * Default number of requests shed by full queue
+         */
+        final AtomicLong rejected = new AtomicLong();
+        /**
+         * Default number of completed requests
+         */
+        final AtomicLong completed = new AtomicLong();
+        /**
+         * Default number of failed requests
+         */
+        final AtomicLong failed = new AtomicLong();
+    }
+}
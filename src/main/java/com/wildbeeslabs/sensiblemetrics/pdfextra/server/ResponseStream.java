@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Http response stream implementation {@link OutputStream}
+ * <p>
+ * Response headers (status 200, chunked transfer encoding) are sent lazily on first written byte, so failures
+ * raised before any output is produced can still be reported with proper error status code. Failures raised
+ * once the response is committed are reported in-band by {@link #ERROR_MARKER} followed by error message
+ * as the last line of response body, so truncated output is never mistaken for complete one.
+ */
+public class ResponseStream extends OutputStream {
+
+    /**
+     * Default in-band error marker, NUL character never occurs in text or xml output
+     */
+    public static final String ERROR_MARKER = "\n\u0000ERROR: ";
+
+    /**
+     * Default http exchange
+     */
+    private final HttpExchange exchange;
+    /**
+     * Default response body stream (null until committed)
+     */
+    private OutputStream body;
+
+    /**
+     * Default response stream constructor with input http exchange {@link HttpExchange}
+     *
+     * @param exchange - initial input http exchange {@link HttpExchange}
+     */
+    public ResponseStream(final HttpExchange exchange) {
+        this.exchange = Objects.requireNonNull(exchange, "Http exchange should not be null");
+    }
+
+    /**
+     * Sets response content type {@link String}, has no effect once response is committed
+     *
+     * @param contentType - initial input content type {@link String}
+     */
+    public void setContentType(final String contentType) {
+        if (!this.isCommitted()) {
+            this.exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+    }
+
+    /**
+     * Returns binary flag whether response headers have been sent
+     *
+     * @return true - if response headers have been sent, false - otherwise
+     */
+    public boolean isCommitted() {
+        return Objects.nonNull(this.body);
+    }
+
+    /**
+     * Sends input content as fixed-length response body
+     *
+     * @param content - initial input content
+     * @throws IOException
+     */
+    public void send(final byte[] content) throws IOException {
+        if (this.isCommitted()) {
+            throw new IOException("ERROR: response is already committed");
+        }
+        this.exchange.sendResponseHeaders(200, content.length == 0 ? -1 : content.length);
+        this.body = this.exchange.getResponseBody();
+        this.body.write(content);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.body().write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+            this.body().write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.isCommitted()) {
+            this.body.flush();
+        }
+    }
+
+    /**
+     * Commits empty response (if nothing was written) and closes http exchange
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!this.isCommitted()) {
+                this.exchange.sendResponseHeaders(200, -1);
+            }
+        } finally {
+            this.exchange.close();
+        }
+    }
+
+    /**
+     * Terminates committed response by in-band error marker {@link #ERROR_MARKER} followed by input error message {@link String}
+     * and closes http exchange
+     *
+     * @param message - initial input error message {@link String}
+     * @throws IOException
+     */
+    public void fail(final String message) throws IOException {
+        if (!this.isCommitted()) {
+            throw new IOException("ERROR: response is not committed");
+        }
+        try {
+            this.body.write((ERROR_MARKER + message + "\n").getBytes(StandardCharsets.UTF_8));
+            this.body.flush();
+        } finally {
+            this.exchange.close();
+        }
+    }
+
+    private OutputStream body() throws IOException {
+        if (!this.isCommitted()) {
+            this.exchange.sendResponseHeaders(200, 0);
+            this.body = this.exchange.getResponseBody();
+        }
+        return this.body;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.server;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Extraction server options implementation
+ * <p>
+ * Command line syntax: {@code server [options]}
+ */
+@Data
+@EqualsAndHashCode
+@ToString
+public class ServerOptions {
+
+    /**
+     * Default server host
+     */
+    public static final String DEFAULT_HOST = "localhost";
+
+    /**
+     * Default command line usage
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: pdfextra server [options]",
+        "",
+        "Endpoints (POST or PUT document as request body):",
+        "  /detect     detected media type",
+        "  /text       body text (streamed)",
+        "  /xhtml      xhtml document (streamed)",
+        "  /metadata   meta data as json object",
+        "  /export     pdf document rendered from velocity html template",
+        "",
+        "Options:",
+        "  -H, --host <host>       bind address (default: " + DEFAULT_HOST + ")",
+        "  -p, --port <n>          port (default: " + ExtractionServer.DEFAULT_PORT + ")",
+        "  -t, --threads <n>       number of worker threads (default: available processors)",
+        "  -q, --queue <n>         number of queued requests before shedding with 503 (default: " + ExtractionServer.DEFAULT_QUEUE_PER_WORKER + " per worker)",
+        "  -h, --help              print this message");
+
+    /**
+     * Default bind host
+     */
+    private String host = DEFAULT_HOST;
+    /**
+     * Default port
+     */
+    private int port = ExtractionServer.DEFAULT_PORT;
+    /**
+     * Default number of worker threads
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Default queue capacity (0 - derived from number of worker threads)
+     */
+    private int queue;
+    /**
+     * Default help flag
+     */
+    private boolean help;
+
+    /**
+     * Returns server options {@link ServerOptions} by input command line arguments
+     *
+     * @param args - initial input command line arguments
+     * @return server options {@link ServerOptions}
+     */
+    public static ServerOptions parse(final String... args) {
+        final ServerOptions options = new ServerOptions();
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    options.setHelp(true);
+                    return options;
+                case "-H":
+                case "--host":
+                    options.setHost(value(args, ++i, arg));
+                    break;
+                case "-p":
+                case "--port":
+                    options.setPort(number(arg, value(args, ++i, arg), 0));
+                    break;
+                case "-t":
+                case "--threads":
+                    options.setThreads(number(arg, value(args, ++i, arg), 1));
+                    break;
+                case "-q":
+                case "--queue":
+                    options.setQueue(number(arg, value(args, ++i, arg), 1));
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}", arg));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Returns server address {@link InetSocketAddress}
+     *
+     * @return server address {@link InetSocketAddress}
+     */
+    public InetSocketAddress getAddress() {
+        return new InetSocketAddress(this.host, this.port);
+    }
+
+    /**
+     * Returns queue capacity
+     *
+     * @return queue capacity
+     */
+    public int getQueueCapacity() {
+        return this.queue > 0 ? this.queue : this.threads * ExtractionServer.DEFAULT_QUEUE_PER_WORKER;
+    }
+
+    private static String value(final String[] args, final int index, final String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}, value is missing", option));
+        }
+        return args[index];
+    }
+
+    private static int number(final String option, final String value, int min) {
+        try {
+            final int result = Integer.parseInt(value);
+            if (result >= min) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException(String.format("ERROR: invalid option={%s}, value={%s}", option, value));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.store;
+
+import org.apache.tika.metadata.Metadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Extraction sink definition
+ * <p>
+ * Receives extracted text and meta data of processed documents, implementations must be thread-safe
+ */
+public interface ExtractionSink extends Closeable {
+
+    /**
+     * Accepts extracted document by input document identifier {@link String}, meta data {@link Metadata} and text content {@link CharSequence}
+     *
+     * @param documentId - initial input document identifier {@link String}
+     * @param metadata   - initial input meta data {@link Metadata}
+     * @param content    - initial input text content {@link CharSequence}
+     * @throws IOException
+     */
+    void accept(final String documentId, final Metadata metadata, final CharSequence content) throws IOException;
+
+    /**
+     * Makes accepted documents durable
+     *
+     * @throws IOException
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.store;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Segment store file format
+ * <p>
+ * Segment file ({@code segment-NNNNNN.dat}) is a sequence of records:
+ * <pre>
+ * int    payload length
+ * int    payload CRC32
+ * string document identifier
+ * int    number of meta data names, then for every name: string name, int number of values, strings values
+ * int    UTF-8 text length
+ * int    deflated text length, deflated text bytes
+ * </pre>
+ * Index file ({@code segment-NNNNNN.idx}) is a sequence of entries: string document identifier, long record offset, int record length.
+ * Strings are stored as int length followed by UTF-8 bytes.
+ */
+@UtilityClass
+class SegmentFormat {
+
+    /**
+     * Default segment data file extension
+     */
+    static final String DATA_EXTENSION = ".dat";
+    /**
+     * Default segment index file extension
+     */
+    static final String INDEX_EXTENSION = ".idx";
+    /**
+     * Default segment file prefix
+     */
+    static final String SEGMENT_PREFIX = "segment-";
+    /**
+     * Default record header size (payload length and CRC32)
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    static Path dataFile(final Path directory, int segment) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, DATA_EXTENSION));
+    }
+
+    static Path indexFile(final Path directory, int segment) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, INDEX_EXTENSION));
+    }
+
+    static int segmentNumber(final Path file) {
+        final String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.lastIndexOf('.')));
+    }
+
+    static void writeString(final DataOutput output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(final DataInput input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.store;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.BufferCleaner;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.wildbeeslabs.sensiblemetrics.pdfextra.store.SegmentFormat.*;
+
+/**
+ * Segment store reader implementation
+ * <p>
+ * Loads segment indexes on open and memory-maps segment files lazily for random access by document identifier,
+ * later records win over earlier records with the same identifier. Mapped segments and pooled inflaters are released
+ * explicitly by {@link #close()}; reads are thread-safe, but must not race with close.
+ */
+@Slf4j
+@ToString(of = "directory")
+public class SegmentStoreReader implements Closeable {
+
+    /**
+     * Default store directory
+     */
+    @Getter
+    private final Path directory;
+    /**
+     * Default document locations
+     */
+    private final Map<String, Location> locations = new HashMap<>();
+    /**
+     * Default mapped segments
+     */
+    private final Map<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    /**
+     * Default idle inflaters {@link Queue}
+     */
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * Default segment store reader constructor with input store directory {@link Path}, loads all segment indexes
+     *
+     * @param directory - initial input store directory {@link Path}
+     * @throws IOException
+     */
+    public SegmentStoreReader(final Path directory) throws IOException {
+        Objects.requireNonNull(directory, "Store directory should not be null");
+        this.directory = directory;
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + INDEX_EXTENSION)) {
+            final Map<Integer, Path> indexes = new TreeMap<>();
+            for (final Path file : stream) {
+                indexes.put(segmentNumber(file), file);
+            }
+            for (final Map.Entry<Integer, Path> entry : indexes.entrySet()) {
+                this.loadIndex(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns set of stored document identifiers {@link Set}
+     *
+     * @return set of stored document identifiers {@link Set}
+     */
+    public Set<String> getDocumentIds() {
+        return Collections.unmodifiableSet(this.locations.keySet());
+    }
+
+    /**
+     * Returns number of stored documents
+     *
+     * @return number of stored documents
+     */
+    public int size() {
+        return this.locations.size();
+    }
+
+    /**
+     * Returns stored document {@link StoredDocument} by input document identifier {@link String}
+     *
+     * @param documentId - initial input document identifier {@link String}
+     * @return stored document {@link StoredDocument} or null if document is not stored
+     * @throws IOException
+     */
+    public StoredDocument get(final String documentId) throws IOException {
+        final Location location = this.locations.get(documentId);
+        if (Objects.isNull(location)) {
+            return null;
+        }
+        final ByteBuffer record = this.segment(location.segment).duplicate();
+        record.position((int) location.offset);
+        final int length = record.getInt();
+        final int crc = record.getInt();
+        if (length != location.length - RECORD_HEADER_SIZE) {
+            throw new IOException(String.format("ERROR: invalid record length={%s}, document={%s}", length, documentId));
+        }
+        final byte[] body = new byte[length];
+        record.get(body);
+        final CRC32 checksum = new CRC32();
+        checksum.update(body, 0, body.length);
+        if ((int) checksum.getValue() != crc) {
+            throw new IOException(String.format("ERROR: corrupted record checksum, document={%s}", documentId));
+        }
+        return this.decode(ByteBuffer.wrap(body));
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.locations.clear();
+        this.segments.values().forEach(BufferCleaner::clean);
+        this.segments.clear();
+        for (Inflater inflater = this.inflaters.poll(); Objects.nonNull(inflater); inflater = this.inflaters.poll()) {
+            inflater.end();
+        }
+    }
+
+    private StoredDocument decode(final ByteBuffer payload) throws IOException {
+        final String documentId = readString(payload);
+        final Metadata metadata = new Metadata();
+        final int names = payload.getInt();
+        for (int i = 0; i < names; i++) {
+            final String name = readString(payload);
+            final int values = payload.getInt();
+            for (int j = 0; j < values; j++) {
+                metadata.add(name, readString(payload));
+            }
+        }
+        final byte[] text = new byte[payload.getInt()];
+        final int compressedLength = payload.getInt();
+        final Inflater pooled = this.inflaters.poll();
+        final Inflater inflater = Objects.isNull(pooled) ? new Inflater() : pooled;
+        try {
+            inflater.reset();
+            inflater.setInput(payload.array(), payload.arrayOffset() + payload.position(), compressedLength);
+            int offset = 0;
+            while (offset < text.length && !inflater.finished()) {
+                offset += inflater.inflate(text, offset, text.length - offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(String.format("ERROR: cannot inflate record, document={%s}", documentId), e);
+        } finally {
+            this.release(inflater);
+        }
+        return new StoredDocument(documentId, metadata, new String(text, StandardCharsets.UTF_8));
+    }
+
+    private void release(final Inflater inflater) {
+        if (this.closed) {
+            inflater.end();
+            return;
+        }
+        this.inflaters.offer(inflater);
+        // close may have drained the pool before the inflater was returned
+        if (this.closed && this.inflaters.remove(inflater)) {
+            inflater.end();
+        }
+    }
+
+    private MappedByteBuffer segment(int segment) throws IOException {
+        MappedByteBuffer buffer = this.segments.get(segment);
+        if (Objects.isNull(buffer)) {
+            try (final FileChannel channel = FileChannel.open(dataFile(this.directory, segment), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            final MappedByteBuffer previous = this.segments.putIfAbsent(segment, buffer);
+            if (Objects.nonNull(previous)) {
+                BufferCleaner.clean(buffer);
+                buffer = previous;
+            }
+        }
+        return buffer;
+    }
+
+    private void loadIndex(int segment, final Path file) throws IOException {
+        final long dataSize = Files.size(dataFile(this.directory, segment));
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                final String documentId;
+                final Location location;
+                try {
+                    documentId = readString(input);
+                    location = new Location(segment, input.readLong(), input.readInt());
+                } catch (EOFException e) {
+                    break;
+                }
+                if (location.offset + location.length > dataSize) {
+                    log.error(String.format("ERROR: cannot locate record beyond segment end, document={%s}, segment={%s}", documentId, segment));
+                    break;
+                }
+                this.locations.put(documentId, location);
+            }
+        }
+    }
+
+    /**
+     * Record location implementation
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static final class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        private Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
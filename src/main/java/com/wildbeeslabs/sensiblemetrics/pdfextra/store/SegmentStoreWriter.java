@@ -0,0 +1,345 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.store;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.wildbeeslabs.sensiblemetrics.pdfextra.store.SegmentFormat.*;
+
+/**
+ * Segment store writer implementation {@link ExtractionSink}
+ * <p>
+ * Appends compressed records into large segment files through {@link FileChannel} and keeps offset index per segment,
+ * records are buffered and committed as a group (single write and force per batch), segments are rolled over by size
+ * and never appended after reopening the store. Records are encoded and compressed by pooled encoders outside of the writer
+ * lock, which is held only to append records to the batch and roll segments over
+ */
+@Slf4j
+@ToString(of = {"directory", "segment", "segmentSize"})
+public class SegmentStoreWriter implements ExtractionSink {
+
+    /**
+     * Default maximum segment size (in bytes)
+     */
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 512L * 1024 * 1024;
+    /**
+     * Default group commit batch size (in bytes)
+     */
+    public static final int DEFAULT_COMMIT_BATCH_SIZE = 1024 * 1024;
+
+    /**
+     * Default store directory
+     */
+    @Getter
+    private final Path directory;
+    /**
+     * Default maximum segment size
+     */
+    private final long maxSegmentSize;
+    /**
+     * Default group commit batch size
+     */
+    private final int commitBatchSize;
+    /**
+     * Default pending data batch
+     */
+    private final ByteArrayOutputStream dataBatch = new ByteArrayOutputStream(DEFAULT_COMMIT_BATCH_SIZE);
+    /**
+     * Default pending index batch
+     */
+    private final ByteArrayOutputStream indexBatch = new ByteArrayOutputStream(64 * 1024);
+    /**
+     * Default idle record encoders {@link Queue}
+     */
+    private final Queue<RecordEncoder> encoders = new ConcurrentLinkedQueue<>();
+
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    /**
+     * Default current segment number
+     */
+    @Getter
+    private int segment;
+    /**
+     * Default current segment size including pending batch
+     */
+    private long segmentSize;
+    private volatile boolean closed;
+
+    /**
+     * Default segment store writer constructor with input store directory {@link Path}, default segment and commit batch sizes
+     *
+     * @param directory - initial input store directory {@link Path}
+     * @throws IOException
+     */
+    public SegmentStoreWriter(final Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE, DEFAULT_COMMIT_BATCH_SIZE);
+    }
+
+    /**
+     * Default segment store writer constructor with input store directory {@link Path}, maximum segment size and commit batch size
+     *
+     * @param directory       - initial input store directory {@link Path}
+     * @param maxSegmentSize  - initial input maximum segment size (in bytes)
+     * @param commitBatchSize - initial input group commit batch size (in bytes)
+     * @throws IOException
+     */
+    public SegmentStoreWriter(final Path directory, long maxSegmentSize, int commitBatchSize) throws IOException {
+        Objects.requireNonNull(directory, "Store directory should not be null");
+        if (maxSegmentSize <= 0 || maxSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid segment size={%s}", maxSegmentSize));
+        }
+        if (commitBatchSize <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid commit batch size={%s}", commitBatchSize));
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentSize = maxSegmentSize;
+        this.commitBatchSize = commitBatchSize;
+        this.openSegment(this.lastSegment(directory) + 1);
+    }
+
+    @Override
+    public void accept(final String documentId, final Metadata metadata, final CharSequence content) throws IOException {
+        Objects.requireNonNull(documentId, "Document identifier should not be null");
+        this.ensureOpen();
+        final byte[] record = this.encode(documentId, metadata, content);
+        synchronized (this) {
+            this.ensureOpen();
+            if (this.segmentSize > 0 && this.segmentSize + record.length > this.maxSegmentSize) {
+                this.commit();
+                this.closeSegment();
+                this.openSegment(this.segment + 1);
+            }
+            final DataOutputStream index = new DataOutputStream(this.indexBatch);
+            writeString(index, documentId);
+            index.writeLong(this.segmentSize);
+            index.writeInt(record.length);
+            this.dataBatch.write(record);
+            this.segmentSize += record.length;
+            if (this.dataBatch.size() >= this.commitBatchSize) {
+                this.commit();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        this.ensureOpen();
+        this.commit();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        try {
+            this.commit();
+        } finally {
+            this.closed = true;
+            for (RecordEncoder encoder = this.encoders.poll(); Objects.nonNull(encoder); encoder = this.encoders.poll()) {
+                encoder.end();
+            }
+            this.closeSegment();
+        }
+    }
+
+    /**
+     * Writes pending data batch and then index batch, index never references data that is not yet durable
+     *
+     * @throws IOException
+     */
+    private void commit() throws IOException {
+        if (this.dataBatch.size() == 0) {
+            return;
+        }
+        this.writeFully(this.dataChannel, this.dataBatch);
+        this.dataChannel.force(false);
+        this.writeFully(this.indexChannel, this.indexBatch);
+        this.indexChannel.force(false);
+    }
+
+    private void writeFully(final FileChannel channel, final ByteArrayOutputStream batch) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        batch.reset();
+    }
+
+    private byte[] encode(final String documentId, final Metadata metadata, final CharSequence content) throws IOException {
+        final RecordEncoder pooled = this.encoders.poll();
+        final RecordEncoder encoder = Objects.isNull(pooled) ? new RecordEncoder() : pooled;
+        try {
+            return encoder.encode(documentId, metadata, content);
+        } finally {
+            this.release(encoder);
+        }
+    }
+
+    private void release(final RecordEncoder encoder) {
+        if (this.closed) {
+            encoder.end();
+            return;
+        }
+        this.encoders.offer(encoder);
+        // close may have drained the pool before the encoder was returned
+        if (this.closed && this.encoders.remove(encoder)) {
+            encoder.end();
+        }
+    }
+
+    private void openSegment(int segment) throws IOException {
+        final FileChannel data = FileChannel.open(dataFile(this.directory, segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        final FileChannel index;
+        try {
+            index = FileChannel.open(indexFile(this.directory, segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                data.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        this.segment = segment;
+        this.segmentSize = 0;
+        this.dataChannel = data;
+        this.indexChannel = index;
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            if (Objects.nonNull(this.dataChannel)) {
+                this.dataChannel.close();
+            }
+        } finally {
+            if (Objects.nonNull(this.indexChannel)) {
+                this.indexChannel.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException(String.format("ERROR: segment store is closed, directory={%s}", this.directory));
+        }
+    }
+
+    private int lastSegment(final Path directory) throws IOException {
+        int last = 0;
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + DATA_EXTENSION)) {
+            for (final Path file : stream) {
+                try {
+                    last = Math.max(last, segmentNumber(file));
+                } catch (NumberFormatException e) {
+                    log.error(String.format("ERROR: cannot parse segment file name={%s}, message={%s}", file, e.getMessage()));
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Record encoder implementation
+     * <p>
+     * Serializes and compresses single record, used by one thread at a time
+     */
+    private static final class RecordEncoder {
+        /**
+         * Default record payload buffer
+         */
+        private final ByteArrayOutputStream payload = new ByteArrayOutputStream(64 * 1024);
+        /**
+         * Default compression buffer
+         */
+        private final byte[] chunk = new byte[64 * 1024];
+        /**
+         * Default text deflater
+         */
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        /**
+         * Default record checksum
+         */
+        private final CRC32 checksum = new CRC32();
+
+        private byte[] encode(final String documentId, final Metadata metadata, final CharSequence content) throws IOException {
+            this.payload.reset();
+            final DataOutputStream output = new DataOutputStream(this.payload);
+            writeString(output, documentId);
+            final String[] names = Objects.isNull(metadata) ? new String[0] : metadata.names();
+            output.writeInt(names.length);
+            for (final String name : names) {
+                writeString(output, name);
+                final String[] values = metadata.getValues(name);
+                output.writeInt(values.length);
+                for (final String value : values) {
+                    writeString(output, value);
+                }
+            }
+            final byte[] text = Objects.isNull(content) ? new byte[0] : content.toString().getBytes(StandardCharsets.UTF_8);
+            output.writeInt(text.length);
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, text.length / 2));
+            this.deflater.reset();
+            this.deflater.setInput(text);
+            this.deflater.finish();
+            while (!this.deflater.finished()) {
+                compressed.write(this.chunk, 0, this.deflater.deflate(this.chunk));
+            }
+            output.writeInt(compressed.size());
+            compressed.writeTo(output);
+            output.flush();
+
+            final byte[] body = this.payload.toByteArray();
+            this.checksum.reset();
+            this.checksum.update(body, 0, body.length);
+            final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + body.length);
+            record.putInt(body.length).putInt((int) this.checksum.getValue()).put(body);
+            return record.array();
+        }
+
+        private void end() {
+            this.deflater.end();
+        }
+    }
+}
@@ -23,6 +23,7 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra.templater;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.Utils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.velocity.VelocityContext;
@@ -54,7 +55,15 @@ public class Templater {
         Utils.notNull(reader, () -> new IllegalArgumentException("reader"));
         final StringWriter result = new StringWriter();
         final VelocityContext velocityContext = new VelocityContext(arguments);
-        this.engine.evaluate(velocityContext, result, StringUtils.EMPTY, reader);
+        final long start = ExtractionMetrics.start();
+        try {
+            this.engine.evaluate(velocityContext, result, StringUtils.EMPTY, reader);
+        } catch (RuntimeException e) {
+            ExtractionMetrics.getInstance().failure(ExtractionMetrics.TEMPLATE_RENDER);
+            throw e;
+        } finally {
+            ExtractionMetrics.getInstance().record(ExtractionMetrics.TEMPLATE_RENDER, start);
+        }
         return result.toString();
     }
 
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.Objects;
+
+/**
+ * ASCII folder implementation
+ * <p>
+ * Folds text to ASCII by precomputed per-char table: every char is replaced by the ASCII char of its canonical decomposition
+ * (NFD) or dropped when it has none, which is equivalent to {@code Normalizer.normalize(s, NFD).replaceAll("[^\\p{ASCII}]", "")}
+ * (every BMP char decomposes to at most one ASCII char, supplementary chars never do). Optional lower casing is ASCII-only
+ * and locale independent. Folding works on {@code char[]} ranges (in place is allowed) without intermediate strings.
+ */
+@UtilityClass
+public class AsciiFolder {
+
+    /**
+     * Default dropped char marker
+     */
+    private static final byte DROP = -1;
+    /**
+     * Default folding table, ASCII char or {@link #DROP} per BMP char
+     */
+    private static final byte[] TABLE = createTable();
+
+    /**
+     * Folds input chars range into target chars at input position, target may be the source array if position is not after offset
+     *
+     * @param source    - initial input source chars
+     * @param offset    - initial input source offset
+     * @param length    - initial input source length
+     * @param target    - initial input target chars (at least length chars available)
+     * @param position  - initial input target position
+     * @param lowerCase - initial input ASCII lower case flag
+     * @return position after last written char
+     */
+    public static int fold(final char[] source, int offset, int length, final char[] target, int position, boolean lowerCase) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final int folded = fold(source[i], lowerCase);
+            if (folded >= 0) {
+                target[position++] = (char) folded;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns ASCII folded string by input char sequence {@link CharSequence}, input string is returned as is if nothing changes
+     *
+     * @param value     - initial input char sequence {@link CharSequence}
+     * @param lowerCase - initial input ASCII lower case flag
+     * @return folded string {@link String}
+     */
+    public static String fold(final CharSequence value, boolean lowerCase) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        final int length = value.length();
+        int i = 0;
+        while (i < length && fold(value.charAt(i), lowerCase) == value.charAt(i)) {
+            i++;
+        }
+        if (i == length) {
+            return value.toString();
+        }
+        final char[] chars = new char[length];
+        int position = 0;
+        for (int j = 0; j < i; j++) {
+            chars[position++] = value.charAt(j);
+        }
+        for (; i < length; i++) {
+            final int folded = fold(value.charAt(i), lowerCase);
+            if (folded >= 0) {
+                chars[position++] = (char) folded;
+            }
+        }
+        return new String(chars, 0, position);
+    }
+
+    /**
+     * Returns ASCII folded char by input char or -1 if char is dropped
+     *
+     * @param c         - initial input char
+     * @param lowerCase - initial input ASCII lower case flag
+     * @return folded char or -1
+     */
+    public static int fold(char c, boolean lowerCase) {
+        final int folded = TABLE[c];
+        return lowerCase && folded >= 'A' && folded <= 'Z' ? folded + ('a' - 'A') : folded;
+    }
+
+    private static byte[] createTable() {
+        final byte[] table = new byte[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (c < 0x80) {
+                table[c] = (byte) c;
+                continue;
+            }
+            table[c] = DROP;
+            final String value = String.valueOf((char) c);
+            if (Character.isSurrogate((char) c) || Normalizer.isNormalized(value, Normalizer.Form.NFD)) {
+                continue;
+            }
+            final String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+            for (int i = 0; i < decomposed.length(); i++) {
+                if (decomposed.charAt(i) < 0x80) {
+                    table[c] = (byte) decomposed.charAt(i);
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Direct buffer cleaner implementation
+ * <p>
+ * Releases native memory of direct (and unmaps memory-mapped) buffers {@link ByteBuffer} immediately instead of waiting
+ * for garbage collection, via {@code sun.misc.Unsafe#invokeCleaner} on Java 9+ or {@code sun.misc.Cleaner} on Java 8.
+ * Falls back to garbage collection when neither is accessible.
+ */
+@Slf4j
+@UtilityClass
+public class BufferCleaner {
+
+    /**
+     * Default cleaner function
+     */
+    private static final Consumer<ByteBuffer> CLEANER = createCleaner();
+
+    /**
+     * Releases input direct buffer {@link ByteBuffer}, the buffer must not be accessed afterwards
+     *
+     * @param buffer - initial input direct buffer {@link ByteBuffer} (not a slice or duplicate)
+     */
+    public static void clean(final ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            CLEANER.accept(buffer);
+        }
+    }
+
+    private static Consumer<ByteBuffer> createCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 8
+        }
+        try {
+            final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                try {
+                    final Object instance = cleaner.invoke(buffer);
+                    if (Objects.nonNull(instance)) {
+                        clean.invoke(instance);
+                    }
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    log.error(String.format("ERROR: cannot clean direct buffer, message={%s}", e.getMessage()));
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.error(String.format("ERROR: direct buffer cleaner is not available, memory is released by garbage collector, message={%s}", e.getMessage()));
+            return buffer -> {
+            };
+        }
+    }
+
+    private static void invoke(final Method method, final Object target, final ByteBuffer buffer) {
+        try {
+            method.invoke(target, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.error(String.format("ERROR: cannot clean direct buffer, message={%s}", e.getMessage()));
+        }
+    }
+}
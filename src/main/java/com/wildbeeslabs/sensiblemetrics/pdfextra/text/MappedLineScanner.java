@@ -0,0 +1,364 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import lombok.ToString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Memory-mapped line scanner implementation
+ * <p>
+ * Maps UTF-8 encoded file read-only (in segments cut at line boundaries) and passes every line to line consumer {@link LineConsumer}
+ * as reusable char sequence view {@link CharSequence}, so no {@link String} is allocated per line (call {@link Object#toString()}
+ * to keep a line). Lines are terminated by {@code \n}, {@code \r\n} or {@code \r} as by {@link java.io.BufferedReader#readLine()},
+ * malformed bytes decode to replacement char. Parallel mode splits segments at {@code \n} boundaries into fork-join tasks
+ * of about {@link #DEFAULT_SPLIT_SIZE} bytes, consumer is then called concurrently and in no particular order.
+ */
+@ToString(of = {"path", "size"})
+public class MappedLineScanner implements Closeable {
+
+    /**
+     * Default fork-join leaf task size (in bytes)
+     */
+    public static final int DEFAULT_SPLIT_SIZE = 1 << 20;
+    /**
+     * Default maximum size of single memory-mapped segment
+     */
+    private static final int DEFAULT_MAX_MAPPED_SEGMENT_SIZE = 1 << 30;
+    /**
+     * Default replacement char of malformed input
+     */
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    /**
+     * Line consumer definition
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+
+        /**
+         * Processes line view, view is only valid during the call
+         *
+         * @param line   - initial input line view {@link CharSequence} (without terminator)
+         * @param offset - initial input byte offset of line start in the file
+         */
+        void accept(final CharSequence line, long offset);
+    }
+
+    /**
+     * Default file path {@link Path}
+     */
+    private final Path path;
+    /**
+     * Default file size
+     */
+    private final long size;
+    /**
+     * Default mapped segments (every segment ends at line boundary)
+     */
+    private final ByteBuffer[] segments;
+    /**
+     * Default file offsets of segments
+     */
+    private final long[] offsets;
+    private volatile boolean closed;
+
+    private MappedLineScanner(final Path path, long size, final ByteBuffer[] segments, final long[] offsets) {
+        this.path = path;
+        this.size = size;
+        this.segments = segments;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns line scanner {@link MappedLineScanner} of memory-mapped UTF-8 encoded file {@link Path}
+     *
+     * @param path - initial input file path {@link Path}
+     * @return line scanner {@link MappedLineScanner}
+     * @throws IOException
+     */
+    public static MappedLineScanner open(final Path path) throws IOException {
+        return open(path, DEFAULT_MAX_MAPPED_SEGMENT_SIZE);
+    }
+
+    static MappedLineScanner open(final Path path, int maxSegmentSize) throws IOException {
+        Objects.requireNonNull(path, "File path should not be null");
+        final List<ByteBuffer> segments = new ArrayList<>();
+        final List<Long> offsets = new ArrayList<>();
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            try {
+                while (position < size) {
+                    final long remaining = size - position;
+                    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(remaining, maxSegmentSize));
+                    int limit = buffer.capacity();
+                    if (remaining > maxSegmentSize) {
+                        while (limit > 0 && buffer.get(limit - 1) != '\n') {
+                            limit--;
+                        }
+                        if (limit == 0) {
+                            BufferCleaner.clean(buffer);
+                            throw new IOException(String.format("ERROR: invalid line length, longer than={%s} bytes, offset={%s}, file={%s}", maxSegmentSize, position, path));
+                        }
+                        buffer.limit(limit);
+                    }
+                    segments.add(buffer);
+                    offsets.add(position);
+                    position += limit;
+                }
+            } catch (IOException | RuntimeException e) {
+                segments.forEach(BufferCleaner::clean);
+                throw e;
+            }
+            final long[] starts = new long[offsets.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = offsets.get(i);
+            }
+            return new MappedLineScanner(path, size, segments.toArray(new ByteBuffer[0]), starts);
+        }
+    }
+
+    /**
+     * Returns file size
+     *
+     * @return file size (in bytes)
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Passes every line in file order to input line consumer {@link LineConsumer}
+     *
+     * @param consumer - initial input line consumer {@link LineConsumer}
+     */
+    public void forEachLine(final LineConsumer consumer) {
+        this.checkOpen();
+        final Line line = new Line();
+        for (int segment = 0; segment < this.segments.length; segment++) {
+            this.scan(segment, 0, this.segments[segment].limit(), line, consumer);
+        }
+    }
+
+    /**
+     * Passes every line to input thread-safe line consumer {@link LineConsumer} from fork-join tasks of common pool
+     *
+     * @param consumer - initial input thread-safe line consumer {@link LineConsumer}
+     */
+    public void forEachLineParallel(final LineConsumer consumer) {
+        this.forEachLineParallel(ForkJoinPool.commonPool(), consumer);
+    }
+
+    /**
+     * Passes every line to input thread-safe line consumer {@link LineConsumer} from fork-join tasks of input pool {@link ForkJoinPool}
+     *
+     * @param pool     - initial input fork-join pool {@link ForkJoinPool}
+     * @param consumer - initial input thread-safe line consumer {@link LineConsumer}
+     */
+    public void forEachLineParallel(final ForkJoinPool pool, final LineConsumer consumer) {
+        this.checkOpen();
+        final ScanTask[] tasks = new ScanTask[this.segments.length];
+        for (int segment = 0; segment < tasks.length; segment++) {
+            tasks[segment] = new ScanTask(segment, 0, this.segments[segment].limit(), consumer);
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(Arrays.asList(tasks));
+            }
+        });
+    }
+
+    /**
+     * Returns list of all lines {@link List}
+     *
+     * @return list of lines {@link List}
+     */
+    public List<String> readLines() {
+        final List<String> lines = new ArrayList<>();
+        this.forEachLine((line, offset) -> lines.add(line.toString()));
+        return lines;
+    }
+
+    /**
+     * Releases mapped segments, line views must not be used afterwards
+     */
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            for (final ByteBuffer segment : this.segments) {
+                BufferCleaner.clean(segment);
+            }
+        }
+    }
+
+    /**
+     * Scans lines of segment bytes range starting at line start
+     */
+    private void scan(int segment, int start, int end, final Line line, final LineConsumer consumer) {
+        final ByteBuffer buffer = this.segments[segment];
+        final long base = this.offsets[segment];
+        int lineStart = start;
+        int position = start;
+        line.clear();
+        while (position < end) {
+            final int b = buffer.get(position);
+            if (b == '\n' || b == '\r') {
+                consumer.accept(line, base + lineStart);
+                line.clear();
+                position += b == '\r' && position + 1 < end && buffer.get(position + 1) == '\n' ? 2 : 1;
+                lineStart = position;
+            } else if (b >= 0) {
+                line.append((char) b);
+                position++;
+            } else {
+                final int n = OffHeapText.sequenceLength(buffer, position);
+                if (n == 1) {
+                    line.append(REPLACEMENT_CHAR);
+                } else {
+                    line.appendCodePoint(OffHeapText.decode(buffer, position, n));
+                }
+                position += n;
+            }
+        }
+        if (lineStart < end) {
+            consumer.accept(line, base + lineStart);
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("ERROR: line scanner is already closed");
+        }
+    }
+
+    /**
+     * Fork-join scan task of segment bytes range starting at line start
+     */
+    private final class ScanTask extends RecursiveAction {
+
+        /**
+         * Default explicit serialVersionUID for interoperability
+         */
+        private static final long serialVersionUID = 8364123467201985570L;
+
+        private final int segment;
+        private final int start;
+        private final int end;
+        private final transient LineConsumer consumer;
+
+        ScanTask(int segment, int start, int end, final LineConsumer consumer) {
+            this.segment = segment;
+            this.start = start;
+            this.end = end;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start > DEFAULT_SPLIT_SIZE) {
+                final ByteBuffer buffer = segments[this.segment];
+                int middle = this.start + (this.end - this.start) / 2;
+                while (middle < this.end && buffer.get(middle - 1) != '\n') {
+                    middle++;
+                }
+                if (middle < this.end) {
+                    invokeAll(new ScanTask(this.segment, this.start, middle, this.consumer), new ScanTask(this.segment, middle, this.end, this.consumer));
+                    return;
+                }
+            }
+            scan(this.segment, this.start, this.end, new Line(), this.consumer);
+        }
+    }
+
+    /**
+     * Reusable line view implementation {@link CharSequence}
+     */
+    private static final class Line implements CharSequence {
+
+        private char[] chars = new char[256];
+        private int length;
+
+        void clear() {
+            this.length = 0;
+        }
+
+        void append(char c) {
+            if (this.length == this.chars.length) {
+                this.chars = Arrays.copyOf(this.chars, this.chars.length * 2);
+            }
+            this.chars[this.length++] = c;
+        }
+
+        void appendCodePoint(int codePoint) {
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                this.append(Character.highSurrogate(codePoint));
+                this.append(Character.lowSurrogate(codePoint));
+            } else {
+                this.append((char) codePoint);
+            }
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= this.length) {
+                throw new IndexOutOfBoundsException(String.format("ERROR: invalid index={%s}, length={%s}", index, this.length));
+            }
+            return this.chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > this.length || start > end) {
+                throw new IndexOutOfBoundsException(String.format("ERROR: invalid range={%s, %s}, length={%s}", start, end, this.length));
+            }
+            return new String(this.chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.chars, 0, this.length);
+        }
+    }
+}
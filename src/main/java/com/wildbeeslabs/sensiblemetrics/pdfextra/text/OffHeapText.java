@@ -0,0 +1,411 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Off-heap text implementation {@link CharSequence}
+ * <p>
+ * Keeps text as UTF-8 bytes in direct or memory-mapped buffers {@link ByteBuffer} outside the java heap (about half the size
+ * of UTF-16 {@link String} for latin text, invisible to garbage collector) and decodes chars lazily. Random access decodes from
+ * the nearest sparse index entry (every {@link TextIndex#INTERVAL} chars), sequential access continues from the last position.
+ * Text is created by {@link OffHeapTextWriter} (content handlers write into it directly), {@link #of(CharSequence)} or
+ * {@link #map(Path)} and released explicitly by {@link #close()}; reads are thread-safe, but must not race with close.
+ * Serialized form is plain {@link String}.
+ */
+public class OffHeapText implements CharSequence, AutoCloseable, Serializable {
+
+    /**
+     * Default explicit serialVersionUID for interoperability
+     */
+    private static final long serialVersionUID = -3416262418939512357L;
+
+    /**
+     * Default maximum size of single memory-mapped segment
+     */
+    private static final int DEFAULT_MAX_MAPPED_SEGMENT_SIZE = 1 << 30;
+    /**
+     * Default replacement char of malformed input
+     */
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    /**
+     * Default UTF-8 segments (limit marks end of data)
+     */
+    private final transient ByteBuffer[] segments;
+    /**
+     * Default sparse char index entries
+     */
+    private final transient long[] index;
+    /**
+     * Default number of UTF-16 chars
+     */
+    private final int length;
+    /**
+     * Default number of UTF-8 bytes
+     */
+    private final long byteSize;
+    /**
+     * Default last decoded position (sequential access)
+     */
+    private transient volatile Cursor cursor;
+    private transient volatile boolean closed;
+
+    OffHeapText(final ByteBuffer[] segments, final long[] index, int length, long byteSize) {
+        this.segments = segments;
+        this.index = index;
+        this.length = length;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Returns off-heap text {@link OffHeapText} by input char sequence {@link CharSequence}
+     *
+     * @param text - initial input char sequence {@link CharSequence}
+     * @return off-heap text {@link OffHeapText}
+     */
+    public static OffHeapText of(final CharSequence text) {
+        Objects.requireNonNull(text, "Text should not be null");
+        final OffHeapTextWriter writer = new OffHeapTextWriter();
+        try {
+            writer.append(text);
+        } catch (IOException e) {
+            writer.toText().close();
+            throw new IllegalArgumentException(String.format("ERROR: invalid text length={%s}", text.length()), e);
+        }
+        return writer.toText();
+    }
+
+    /**
+     * Returns off-heap text {@link OffHeapText} backed by memory-mapped UTF-8 encoded file {@link Path}
+     *
+     * @param path - initial input file path {@link Path}
+     * @return off-heap text {@link OffHeapText}
+     * @throws IOException
+     */
+    public static OffHeapText map(final Path path) throws IOException {
+        Objects.requireNonNull(path, "File path should not be null");
+        final List<ByteBuffer> segments = new ArrayList<>();
+        try {
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    final long remaining = size - position;
+                    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(remaining, DEFAULT_MAX_MAPPED_SEGMENT_SIZE));
+                    segments.add(buffer);
+                    final int limit = remaining > DEFAULT_MAX_MAPPED_SEGMENT_SIZE ? boundary(buffer, buffer.capacity()) : buffer.capacity();
+                    buffer.limit(limit);
+                    position += limit;
+                }
+            }
+            final ByteBuffer[] buffers = segments.toArray(new ByteBuffer[0]);
+            final TextIndex index = new TextIndex();
+            long chars = 0;
+            long bytes = 0;
+            for (int segment = 0; segment < buffers.length; segment++) {
+                final ByteBuffer buffer = buffers[segment];
+                for (int position = 0; position < buffer.limit(); ) {
+                    final int n = sequenceLength(buffer, position);
+                    final int units = n == 4 ? 2 : 1;
+                    index.add(chars, units, (long) segment << 32 | position);
+                    chars += units;
+                    position += n;
+                }
+                bytes += buffer.limit();
+            }
+            if (chars > Integer.MAX_VALUE) {
+                throw new IOException(String.format("ERROR: invalid text length={%s}, file={%s}", chars, path));
+            }
+            return new OffHeapText(buffers, index.toArray(), (int) chars, bytes);
+        } catch (IOException | RuntimeException e) {
+            segments.forEach(BufferCleaner::clean);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns number of UTF-8 bytes held off-heap
+     *
+     * @return number of UTF-8 bytes
+     */
+    public long getByteSize() {
+        return this.byteSize;
+    }
+
+    /**
+     * Returns number of bytes retained by off-heap segments (capacity, at least {@link #getByteSize()})
+     *
+     * @return number of retained bytes
+     */
+    public long getCapacity() {
+        long capacity = 0;
+        for (final ByteBuffer segment : this.segments) {
+            capacity += segment.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns binary flag whether text is released
+     *
+     * @return true - if text is released, false - otherwise
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        this.checkOpen();
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException(String.format("ERROR: invalid index={%s}, length={%s}", index, this.length));
+        }
+        final Cursor cursor = this.seek(index);
+        final ByteBuffer buffer = this.segments[cursor.segment];
+        final int n = sequenceLength(buffer, cursor.position);
+        final int codePoint = decode(buffer, cursor.position, n);
+        if (n != 4) {
+            return (char) codePoint;
+        }
+        return index == cursor.charIndex ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        this.checkOpen();
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException(String.format("ERROR: invalid range={%s, %s}, length={%s}", start, end, this.length));
+        }
+        return new String(this.decode(start, end));
+    }
+
+    @Override
+    public String toString() {
+        this.checkOpen();
+        return new String(this.decode(0, this.length));
+    }
+
+    /**
+     * Writes UTF-8 encoded text into output stream {@link OutputStream} without decoding it on heap
+     *
+     * @param output - initial input output stream {@link OutputStream}
+     * @throws IOException
+     */
+    public void writeTo(final OutputStream output) throws IOException {
+        this.checkOpen();
+        final byte[] chunk = new byte[8192];
+        for (final ByteBuffer segment : this.segments) {
+            final ByteBuffer view = segment.duplicate();
+            view.position(0);
+            while (view.hasRemaining()) {
+                final int n = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, n);
+                output.write(chunk, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Releases off-heap memory, text must not be accessed afterwards
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.cursor = null;
+        for (final ByteBuffer segment : this.segments) {
+            BufferCleaner.clean(segment);
+        }
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return this.toString();
+    }
+
+    private char[] decode(int start, int end) {
+        final char[] result = new char[end - start];
+        if (start == end) {
+            return result;
+        }
+        final Cursor cursor = this.seek(start);
+        int segment = cursor.segment;
+        int position = cursor.position;
+        int charIndex = cursor.charIndex;
+        int count = 0;
+        while (count < result.length) {
+            final ByteBuffer buffer = this.segments[segment];
+            if (position >= buffer.limit()) {
+                segment++;
+                position = 0;
+                continue;
+            }
+            final int n = sequenceLength(buffer, position);
+            final int codePoint = decode(buffer, position, n);
+            if (n != 4) {
+                result[count++] = (char) codePoint;
+            } else {
+                if (charIndex >= start) {
+                    result[count++] = Character.highSurrogate(codePoint);
+                }
+                if (count < result.length) {
+                    result[count++] = Character.lowSurrogate(codePoint);
+                }
+            }
+            charIndex += n == 4 ? 2 : 1;
+            position += n;
+        }
+        return result;
+    }
+
+    /**
+     * Returns cursor {@link Cursor} at code point containing input char index, decoding forward from last cursor or index entry
+     */
+    private Cursor seek(int index) {
+        Cursor cursor = this.cursor;
+        if (Objects.isNull(cursor) || cursor.charIndex > index || index - cursor.charIndex >= TextIndex.INTERVAL) {
+            final long entry = this.index[index >>> TextIndex.SHIFT];
+            final long position = entry >>> 1;
+            cursor = new Cursor(((index >>> TextIndex.SHIFT) << TextIndex.SHIFT) - (int) (entry & 1), (int) (position >>> 32), (int) position);
+        }
+        int segment = cursor.segment;
+        int position = cursor.position;
+        int charIndex = cursor.charIndex;
+        while (true) {
+            final ByteBuffer buffer = this.segments[segment];
+            if (position >= buffer.limit()) {
+                segment++;
+                position = 0;
+                continue;
+            }
+            final int n = sequenceLength(buffer, position);
+            final int units = n == 4 ? 2 : 1;
+            if (index < charIndex + units) {
+                break;
+            }
+            charIndex += units;
+            position += n;
+        }
+        if (charIndex != cursor.charIndex || segment != cursor.segment || position != cursor.position) {
+            cursor = new Cursor(charIndex, segment, position);
+        }
+        this.cursor = cursor;
+        return cursor;
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("ERROR: off-heap text is already released");
+        }
+    }
+
+    /**
+     * Returns byte length of UTF-8 sequence starting at input position, malformed, overlong or truncated sequences
+     * count as single byte (decoded as replacement char)
+     */
+    static int sequenceLength(final ByteBuffer buffer, int position) {
+        final int lead = buffer.get(position) & 0xFF;
+        if (lead < 0x80) {
+            return 1;
+        }
+        final int n = lead >= 0xC2 && lead < 0xE0 ? 2 : lead >= 0xE0 && lead < 0xF0 ? 3 : lead >= 0xF0 && lead < 0xF5 ? 4 : 1;
+        if (n == 1 || position + n > buffer.limit()) {
+            return 1;
+        }
+        final int second = buffer.get(position + 1) & 0xFF;
+        if ((lead == 0xE0 && second < 0xA0) || (lead == 0xED && second >= 0xA0) || (lead == 0xF0 && second < 0x90) || (lead == 0xF4 && second >= 0x90)) {
+            return 1;
+        }
+        for (int i = 1; i < n; i++) {
+            if ((buffer.get(position + i) & 0xC0) != 0x80) {
+                return 1;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns code point of UTF-8 sequence of input length starting at input position
+     */
+    static int decode(final ByteBuffer buffer, int position, int n) {
+        final int lead = buffer.get(position) & 0xFF;
+        switch (n) {
+            case 1:
+                return lead < 0x80 ? lead : REPLACEMENT_CHAR;
+            case 2:
+                return (lead & 0x1F) << 6 | buffer.get(position + 1) & 0x3F;
+            case 3:
+                return (lead & 0x0F) << 12 | (buffer.get(position + 1) & 0x3F) << 6 | buffer.get(position + 2) & 0x3F;
+            default:
+                return (lead & 0x07) << 18 | (buffer.get(position + 1) & 0x3F) << 12 | (buffer.get(position + 2) & 0x3F) << 6 | buffer.get(position + 3) & 0x3F;
+        }
+    }
+
+    /**
+     * Returns end position not splitting UTF-8 sequence at input limit
+     */
+    private static int boundary(final ByteBuffer buffer, int limit) {
+        int lead = limit - 1;
+        while (lead > 0 && limit - lead < 4 && (buffer.get(lead) & 0xC0) == 0x80) {
+            lead--;
+        }
+        final int b = buffer.get(lead) & 0xFF;
+        final int n = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return lead + n > limit ? lead : limit;
+    }
+
+    /**
+     * Decoding cursor implementation (code point start)
+     */
+    private static final class Cursor {
+        private final int charIndex;
+        private final int segment;
+        private final int position;
+
+        private Cursor(int charIndex, int segment, int position) {
+            this.charIndex = charIndex;
+            this.segment = segment;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Off-heap text writer implementation {@link Writer}
+ * <p>
+ * Encodes written chars as UTF-8 straight into direct buffer segments and builds sparse char index on the fly, so content
+ * handlers (e.g. {@link org.apache.tika.sax.BodyContentHandler#BodyContentHandler(Writer)}) produce {@link OffHeapText}
+ * without intermediate heap strings. Unpaired surrogates are encoded as '?', as by {@link String#getBytes}.
+ * {@link #toText()} hands the segments over to off-heap text, the last (partially filled) segment is copied into right-sized
+ * buffer first, so short texts do not retain whole segment. Writer is not thread-safe.
+ */
+public class OffHeapTextWriter extends Writer {
+
+    /**
+     * Default direct buffer segment size
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    /**
+     * Default direct buffer segment size
+     */
+    private final int segmentSize;
+    /**
+     * Default written segments
+     */
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    /**
+     * Default sparse char index
+     */
+    private final TextIndex index = new TextIndex();
+    private ByteBuffer current;
+    private long length;
+    private long byteSize;
+    private char pendingHigh;
+    private boolean pending;
+    private OffHeapText text;
+
+    public OffHeapTextWriter() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    public OffHeapTextWriter(int segmentSize) {
+        if (segmentSize < 4) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid segment size={%s}", segmentSize));
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        this.append((char) c);
+    }
+
+    @Override
+    public void write(final char[] buffer, int offset, int length) throws IOException {
+        this.checkOpen();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            this.append(buffer[i]);
+        }
+    }
+
+    @Override
+    public void write(final String value, int offset, int length) throws IOException {
+        this.checkOpen();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            this.append(value.charAt(i));
+        }
+    }
+
+    @Override
+    public Writer append(final CharSequence value) throws IOException {
+        final CharSequence sequence = Objects.isNull(value) ? "null" : value;
+        return this.append(sequence, 0, sequence.length());
+    }
+
+    @Override
+    public Writer append(final CharSequence value, int start, int end) throws IOException {
+        this.checkOpen();
+        final CharSequence sequence = Objects.isNull(value) ? "null" : value;
+        for (int i = start; i < end; i++) {
+            this.append(sequence.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        this.checkOpen();
+        if (this.pending) {
+            this.pending = false;
+            if (Character.isLowSurrogate(c)) {
+                this.writeCodePoint(Character.toCodePoint(this.pendingHigh, c), 2);
+                return this;
+            }
+            this.writeCodePoint('?', 1);
+        }
+        if (Character.isHighSurrogate(c)) {
+            this.pendingHigh = c;
+            this.pending = true;
+        } else if (Character.isLowSurrogate(c)) {
+            this.writeCodePoint('?', 1);
+        } else {
+            this.writeCodePoint(c, 1);
+        }
+        return this;
+    }
+
+    /**
+     * Returns number of written UTF-16 chars
+     *
+     * @return number of written chars
+     */
+    public long getLength() {
+        return this.length + (this.pending ? 1 : 0);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Completes written text (trailing unpaired surrogate is encoded as '?')
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (Objects.isNull(this.text) && this.pending) {
+            this.pending = false;
+            this.writeCodePoint('?', 1);
+        }
+    }
+
+    /**
+     * Returns off-heap text {@link OffHeapText} of written chars, completing the writer on first call
+     *
+     * @return off-heap text {@link OffHeapText}
+     */
+    public OffHeapText toText() {
+        if (Objects.isNull(this.text)) {
+            try {
+                this.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            final ByteBuffer[] buffers = new ByteBuffer[this.segments.size()];
+            for (int i = 0; i < buffers.length; i++) {
+                final ByteBuffer segment = this.segments.get(i);
+                segment.flip();
+                buffers[i] = segment;
+            }
+            if (buffers.length > 0) {
+                buffers[buffers.length - 1] = trim(buffers[buffers.length - 1]);
+            }
+            this.text = new OffHeapText(buffers, this.index.toArray(), (int) this.length, this.byteSize);
+            this.current = null;
+            this.segments.clear();
+        }
+        return this.text;
+    }
+
+    private static ByteBuffer trim(final ByteBuffer segment) {
+        if (segment.limit() == segment.capacity()) {
+            return segment;
+        }
+        final ByteBuffer result = ByteBuffer.allocateDirect(segment.limit());
+        result.put(segment).flip();
+        BufferCleaner.clean(segment);
+        return result;
+    }
+
+    private void writeCodePoint(int codePoint, int units) throws IOException {
+        if (this.length + units > Integer.MAX_VALUE) {
+            throw new IOException(String.format("ERROR: invalid text length={%s}, maximum={%s}", this.length + units, Integer.MAX_VALUE));
+        }
+        final int n = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT ? 3 : 4;
+        if (Objects.isNull(this.current) || this.current.remaining() < n) {
+            this.current = ByteBuffer.allocateDirect(this.segmentSize);
+            this.segments.add(this.current);
+        }
+        this.index.add(this.length, units, (long) (this.segments.size() - 1) << 32 | this.current.position());
+        switch (n) {
+            case 1:
+                this.current.put((byte) codePoint);
+                break;
+            case 2:
+                this.current.put((byte) (0xC0 | codePoint >> 6));
+                this.current.put((byte) (0x80 | codePoint & 0x3F));
+                break;
+            case 3:
+                this.current.put((byte) (0xE0 | codePoint >> 12));
+                this.current.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                this.current.put((byte) (0x80 | codePoint & 0x3F));
+                break;
+            default:
+                this.current.put((byte) (0xF0 | codePoint >> 18));
+                this.current.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                this.current.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                this.current.put((byte) (0x80 | codePoint & 0x3F));
+        }
+        this.length += units;
+        this.byteSize += n;
+    }
+
+    private void checkOpen() throws IOException {
+        if (Objects.nonNull(this.text)) {
+            throw new IOException("ERROR: off-heap text writer is already completed");
+        }
+    }
+}
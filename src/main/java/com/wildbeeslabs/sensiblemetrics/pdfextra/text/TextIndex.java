@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import java.util.Arrays;
+
+/**
+ * Sparse char index implementation
+ * <p>
+ * Records position of the code point containing every {@link #INTERVAL}-th UTF-16 char, so random access decodes at most
+ * {@link #INTERVAL} chars. Entry layout: {@code (segment << 32 | position) << 1 | low}, where low flag marks that indexed
+ * char is low surrogate of supplementary code point starting at recorded position.
+ */
+final class TextIndex {
+
+    /**
+     * Default number of chars between index entries (power of two)
+     */
+    static final int INTERVAL = 1024;
+    /**
+     * Default index entry shift
+     */
+    static final int SHIFT = Integer.numberOfTrailingZeros(INTERVAL);
+
+    private long[] entries = new long[16];
+    private int size;
+
+    /**
+     * Records code point of input number of UTF-16 chars starting at input char index and byte position
+     *
+     * @param charIndex - initial input index of first char of code point
+     * @param units     - initial input number of UTF-16 chars of code point (1 or 2)
+     * @param position  - initial input packed byte position of code point ({@code segment << 32 | position})
+     */
+    void add(long charIndex, int units, long position) {
+        if ((charIndex & (INTERVAL - 1)) == 0) {
+            this.append(position << 1);
+        } else if (units == 2 && ((charIndex + 1) & (INTERVAL - 1)) == 0) {
+            this.append(position << 1 | 1);
+        }
+    }
+
+    /**
+     * Returns index entries
+     *
+     * @return index entries
+     */
+    long[] toArray() {
+        return Arrays.copyOf(this.entries, this.size);
+    }
+
+    private void append(long entry) {
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, this.size << 1);
+        }
+        this.entries[this.size++] = entry;
+    }
+}
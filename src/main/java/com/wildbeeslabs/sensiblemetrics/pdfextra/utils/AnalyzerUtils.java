@@ -24,13 +24,37 @@
 package com.wildbeeslabs.sensiblemetrics.pdfextra.utils;
 
 import com.google.common.collect.ImmutableMap;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.context.ExtractionContext;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.extractor.PdfPageExtractor;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.fetcher.AsyncUrlFetcher;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.ExtractionCompletedException;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.MetadataContentHandler;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.PageEventContentHandler;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.XHTMLStreamingContentHandler;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.XPathFragmentHandler;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.XPathMatcherCache;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.CompressionType;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.DigestingInputStream;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.MappedFileInputStream;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.PooledEncodingWriter;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.InstrumentedContentHandler;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.model.DocumentInfo;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.ExtractionResult;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.LazyDocumentInfo;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.parser.DocumentAreaParser;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.parser.InstrumentedParser;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.parser.LazyCompositeParser;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.OffHeapText;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.OffHeapTextWriter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.tika.Tika;
 import org.apache.tika.detect.DefaultDetector;
@@ -47,12 +71,12 @@ import org.apache.tika.parser.html.HtmlMapper;
 import org.apache.tika.parser.html.HtmlParser;
 import org.apache.tika.parser.html.IdentityHtmlMapper;
 import org.apache.tika.parser.pdf.PDFParser;
+import org.apache.tika.parser.pdf.PDFParserConfig;
 import org.apache.tika.parser.txt.TXTParser;
 import org.apache.tika.parser.xml.XMLParser;
 import org.apache.tika.sax.*;
 import org.apache.tika.sax.xpath.Matcher;
 import org.apache.tika.sax.xpath.MatchingContentHandler;
-import org.apache.tika.sax.xpath.XPathParser;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -65,7 +89,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.zip.GZIPInputStream;
 
 /**
  * Analyzer utilities implementation
@@ -79,6 +102,39 @@ public class AnalyzerUtils {
      */
     public static final int DEFAULT_MAX_TEXT_CHUNK_SIZE = 40;
 
+    /**
+     * Default system property switching shared parser to {@link LazyCompositeParser}, which loads only parsers of encountered media types
+     */
+    public static final String LAZY_PARSER_PROPERTY = "pdfextra.parser.lazy";
+
+    /**
+     * Default shared auto-detect parser instance {@link Parser}, component parsers are accounted by {@link InstrumentedParser}
+     */
+    private static final Parser DEFAULT_AUTO_DETECT_PARSER = createParser();
+
+    /**
+     * Default shared pdf parser configuration {@link PDFParserConfig} propagating intermediate page errors (read-only)
+     */
+    private static final PDFParserConfig DEFAULT_EARLY_STOP_PDF_CONFIG = createEarlyStopPdfConfig();
+
+    /**
+     * Returns shared parser {@link Parser}, lazy parser {@link LazyCompositeParser} when {@link #LAZY_PARSER_PROPERTY} is set
+     * (short-lived jobs), otherwise instrumented {@link AutoDetectParser}. Media types missing from lazy parser configuration
+     * are delegated to instrumented {@link AutoDetectParser}, created on first such document
+     *
+     * @return shared parser {@link Parser}
+     */
+    private static Parser createParser() {
+        if (Boolean.getBoolean(LAZY_PARSER_PROPERTY)) {
+            try {
+                return new LazyCompositeParser(() -> InstrumentedParser.instrument(new AutoDetectParser()));
+            } catch (IOException e) {
+                log.error(String.format("ERROR: cannot load lazy parser configuration={%s}, message={%s}", LazyCompositeParser.DEFAULT_CONFIG, e.getMessage()));
+            }
+        }
+        return InstrumentedParser.instrument(new AutoDetectParser());
+    }
+
     /**
      * Returns document media type {@link MediaType} by input stream {@link InputStream}
      *
@@ -89,7 +145,47 @@ public class AnalyzerUtils {
     public static MediaType detectDocTypeByDetector(final InputStream stream) throws IOException {
         final Detector detector = new DefaultDetector();
         final Metadata metadata = new Metadata();
-        return detector.detect(stream, metadata);
+        final long start = ExtractionMetrics.start();
+        try {
+            return detector.detect(stream, metadata);
+        } finally {
+            ExtractionMetrics.getInstance().record(ExtractionMetrics.DETECT, start);
+        }
+    }
+
+    /**
+     * Returns document media type {@link MediaType} by local file path {@link Path}
+     * <p>
+     * File header window is memory-mapped, so detector reads the header without extra buffering
+     *
+     * @param path - initial input file path {@link Path}
+     * @return document media type {@link MediaType}
+     * @throws IOException
+     */
+    public static MediaType detectDocTypeByFile(final Path path) throws IOException {
+        final Detector detector = new DefaultDetector();
+        final Metadata metadata = new Metadata();
+        metadata.set(Metadata.RESOURCE_NAME_KEY, path.getFileName().toString());
+        final long start = ExtractionMetrics.start();
+        try (final InputStream stream = new MappedFileInputStream(path)) {
+            return detector.detect(stream, metadata);
+        } finally {
+            ExtractionMetrics.getInstance().record(ExtractionMetrics.DETECT, start);
+        }
+    }
+
+    /**
+     * Returns file-backed input stream {@link TikaInputStream} by local file path {@link Path} and meta data {@link Metadata}
+     * <p>
+     * Parsers requiring random access (PDF xref, ZIP central directory) read the file directly instead of spooling it to temporary file
+     *
+     * @param path     - initial input file path {@link Path}
+     * @param metadata - initial input meta data {@link Metadata} to be populated by resource name and length
+     * @return file-backed input stream {@link TikaInputStream}
+     * @throws IOException
+     */
+    public static TikaInputStream openFileStream(final Path path, final Metadata metadata) throws IOException {
+        return TikaInputStream.get(path, metadata);
     }
 
     /**
@@ -115,7 +211,12 @@ public class AnalyzerUtils {
      */
     public static String detectDocTypeByFacade(final InputStream stream) throws IOException {
         final Tika tika = new Tika();
-        return tika.detect(stream);
+        final long start = ExtractionMetrics.start();
+        try {
+            return tika.detect(stream);
+        } finally {
+            ExtractionMetrics.getInstance().record(ExtractionMetrics.DETECT, start);
+        }
     }
 
     /**
@@ -129,13 +230,231 @@ public class AnalyzerUtils {
      * @throws SAXException
      */
     public static String getContentByParser(final InputStream stream, final ContentHandler handler) throws IOException, TikaException, SAXException {
-        final Parser autoDetectParser = new AutoDetectParser();
-        final Metadata metadata = new Metadata();
-        final ParseContext context = new ParseContext();
-        autoDetectParser.parse(stream, handler, metadata, context);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
         return handler.toString();
     }
 
+    /**
+     * Returns text content by input stream {@link InputStream} and {@link AutoDetectParser} parser
+     * using per-thread pooled extraction context {@link ExtractionContext}
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @return text content {@link String}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static String getContentByParser(final InputStream stream) throws IOException, TikaException, SAXException {
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, context.getBodyHandler(), context.getMetadata(), context.getParseContext());
+            return context.getText();
+        }
+    }
+
+    /**
+     * Returns off-heap text content {@link OffHeapText} by input stream {@link InputStream} and {@link AutoDetectParser} parser
+     * <p>
+     * Body text is encoded as UTF-8 into direct buffers while it is produced, so large documents do not occupy heap,
+     * caller owns returned text and should release it by {@link OffHeapText#close()}
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @return off-heap text content {@link OffHeapText}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static OffHeapText getOffHeapContentByParser(final InputStream stream) throws IOException, TikaException, SAXException {
+        final OffHeapTextWriter writer = new OffHeapTextWriter();
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, new BodyContentHandler(writer), context.getMetadata(), context.getParseContext());
+            return writer.toText();
+        } catch (IOException | TikaException | SAXException | RuntimeException e) {
+            writer.toText().close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes UTF-8 encoded body text by input stream {@link InputStream} to output stream {@link OutputStream} as it is produced by {@link AutoDetectParser} parser,
+     * text buffered but not written yet is discarded when parsing fails
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @param output - initial input output stream {@link OutputStream}, remains open
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static void parseToText(final InputStream stream, final OutputStream output) throws IOException, TikaException, SAXException {
+        final PooledEncodingWriter writer = new PooledEncodingWriter(new CloseShieldOutputStream(output));
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, new BodyContentHandler(writer), context.getMetadata(), context.getParseContext());
+        } catch (IOException | TikaException | SAXException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+    }
+
+    /**
+     * Returns extraction result {@link ExtractionResult} with text content, detected media type and meta data by input stream {@link InputStream}
+     * and {@link AutoDetectParser} parser using per-thread pooled extraction context {@link ExtractionContext}
+     *
+     * @param stream     - initial input stream {@link InputStream}
+     * @param documentId - initial input document identifier {@link String}
+     * @return extraction result {@link ExtractionResult}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static ExtractionResult extractByParser(final InputStream stream, final String documentId) throws IOException, TikaException, SAXException {
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            if (Objects.nonNull(documentId)) {
+                context.getMetadata().set(Metadata.RESOURCE_NAME_KEY, documentId);
+            }
+            parseInstrumented(stream, context.getBodyHandler(), context.getMetadata(), context.getParseContext());
+            final Metadata metadata = new Metadata();
+            for (final String name : context.getMetadata().names()) {
+                for (final String value : context.getMetadata().getValues(name)) {
+                    metadata.add(name, value);
+                }
+            }
+            return ExtractionResult.builder()
+                .documentId(documentId)
+                .mediaType(MediaType.parse(metadata.get(Metadata.CONTENT_TYPE)))
+                .metadata(metadata)
+                .content(context.getText())
+                .build();
+        }
+    }
+
+    /**
+     * Returns extraction result {@link ExtractionResult} by input stream {@link InputStream} as by {@link #extractByParser(InputStream, String)},
+     * with SHA-256 and XXH64 digests of the stream computed while parser consumes it (see {@link DigestingInputStream})
+     * <p>
+     * Input stream should be raw one, stream is re-wrapped by {@link TikaInputStream} and parsers requiring file access spool it to temporary file
+     *
+     * @param stream     - initial input stream {@link InputStream}
+     * @param documentId - initial input document identifier {@link String}
+     * @return extraction result {@link ExtractionResult}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static ExtractionResult extractWithDigests(final InputStream stream, final String documentId) throws IOException, TikaException, SAXException {
+        final Metadata digests = new Metadata();
+        final DigestingInputStream digesting = new DigestingInputStream(stream, digests);
+        final ExtractionResult result;
+        try (final TikaInputStream tikaStream = TikaInputStream.get(digesting)) {
+            result = extractByParser(tikaStream, documentId);
+            digesting.finish();
+        }
+        for (final String name : digests.names()) {
+            result.getMetadata().set(name, digests.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * Parses input stream {@link InputStream} by {@link AutoDetectParser} parser and writes extracted text with meta data into extraction sink {@link ExtractionSink}
+     *
+     * @param stream     - initial input stream {@link InputStream}
+     * @param documentId - initial input document identifier {@link String}
+     * @param sink       - initial input extraction sink {@link ExtractionSink}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static void storeByParser(final InputStream stream, final String documentId, final ExtractionSink sink) throws IOException, TikaException, SAXException {
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, context.getBodyHandler(), context.getMetadata(), context.getParseContext());
+            sink.accept(documentId, context.getMetadata(), context.getText());
+        }
+    }
+
+    /**
+     * Parses local file {@link Path} by {@link AutoDetectParser} parser and writes extracted text with meta data into extraction sink {@link ExtractionSink},
+     * file path is used as document identifier
+     *
+     * @param path - initial input file path {@link Path}
+     * @param sink - initial input extraction sink {@link ExtractionSink}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static void storeByParser(final Path path, final ExtractionSink sink) throws IOException, TikaException, SAXException {
+        try (final InputStream stream = openFileStream(path, new Metadata())) {
+            storeByParser(stream, path.toString(), sink);
+        }
+    }
+
+    /**
+     * Parses input stream {@link InputStream} by shared {@link AutoDetectParser} parser recording parse time per media type,
+     * content handler time, input bytes and output characters into extraction metrics {@link ExtractionMetrics}
+     *
+     * @param stream   - initial input stream {@link InputStream}
+     * @param handler  - initial input content handler {@link ContentHandler}
+     * @param metadata - initial input meta data {@link Metadata}
+     * @param context  - initial input parse context {@link ParseContext}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    private static void parseInstrumented(final InputStream stream, final ContentHandler handler, final Metadata metadata, final ParseContext context) throws IOException, SAXException, TikaException {
+        final ExtractionMetrics metrics = ExtractionMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            DEFAULT_AUTO_DETECT_PARSER.parse(stream, handler, metadata, context);
+            return;
+        }
+        final long start = ExtractionMetrics.start();
+        final CountingInputStream counting = stream instanceof TikaInputStream ? null : new CountingInputStream(stream);
+        try {
+            DEFAULT_AUTO_DETECT_PARSER.parse(Objects.isNull(counting) ? stream : counting, new InstrumentedContentHandler(handler, metrics), metadata, context);
+        } catch (IOException | SAXException | TikaException | RuntimeException e) {
+            if (!ExtractionCompletedException.isCauseOf(e)) {
+                metrics.failure(ExtractionMetrics.PARSE + getBaseType(metadata));
+            }
+            throw e;
+        } finally {
+            metrics.record(ExtractionMetrics.PARSE + getBaseType(metadata), start);
+            if (Objects.nonNull(counting)) {
+                metrics.increment(ExtractionMetrics.BYTES_IN, counting.getByteCount());
+            } else {
+                final TikaInputStream tikaStream = (TikaInputStream) stream;
+                metrics.increment(ExtractionMetrics.BYTES_IN, tikaStream.hasLength() ? tikaStream.getLength() : tikaStream.getPosition());
+            }
+        }
+    }
+
+    /**
+     * Returns pdf parser configuration {@link PDFParserConfig} which does not catch intermediate page exceptions,
+     * otherwise pdf parser records {@link ExtractionCompletedException} raised at page end and proceeds with next page
+     *
+     * @return pdf parser configuration {@link PDFParserConfig}
+     */
+    private static PDFParserConfig createEarlyStopPdfConfig() {
+        final PDFParserConfig config = new PDFParserConfig();
+        config.setCatchIntermediateIOExceptions(false);
+        return config;
+    }
+
+    /**
+     * Returns input parse context {@link ParseContext} with pdf parser configuration stopping on {@link ExtractionCompletedException}
+     *
+     * @param context - initial input parse context {@link ParseContext}
+     * @return parse context {@link ParseContext}
+     */
+    private static ParseContext withEarlyStop(final ParseContext context) {
+        context.set(PDFParserConfig.class, DEFAULT_EARLY_STOP_PDF_CONFIG);
+        return context;
+    }
+
+    private static String getBaseType(final Metadata metadata) {
+        final MediaType type = MediaType.parse(metadata.get(Metadata.CONTENT_TYPE));
+        return Objects.isNull(type) ? MediaType.OCTET_STREAM.toString() : type.getBaseType().toString();
+    }
+
     /**
      * Returns pdf content by input stream {@link InputStream}
      *
@@ -154,6 +473,52 @@ public class AnalyzerUtils {
         return handler.toString();
     }
 
+    /**
+     * Parses pdf content by input stream {@link InputStream} and notifies page listener {@link PageEventContentHandler.PageListener} as each page is extracted
+     * <p>
+     * Parsing stops early when the listener cancels extraction
+     *
+     * @param stream   - initial input stream {@link InputStream}
+     * @param listener - initial input page listener {@link PageEventContentHandler.PageListener}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parsePdfByPages(final InputStream stream, final PageEventContentHandler.PageListener listener) throws IOException, SAXException, TikaException {
+        parsePdfByPages(stream, new PageEventContentHandler(listener));
+    }
+
+    /**
+     * Parses pdf content by input stream {@link InputStream} and page event content handler {@link PageEventContentHandler}
+     *
+     * @param stream  - initial input stream {@link InputStream}
+     * @param handler - initial input page event content handler {@link PageEventContentHandler}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parsePdfByPages(final InputStream stream, final PageEventContentHandler handler) throws IOException, SAXException, TikaException {
+        final PDFParser parser = new PDFParser();
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parser.parse(stream, handler, context.getMetadata(), withEarlyStop(context.getParseContext()));
+        } catch (SAXException | TikaException e) {
+            if (!ExtractionCompletedException.isCauseOf(e)) throw e;
+        }
+    }
+
+    /**
+     * Returns pdf content of page range by input stream {@link InputStream}, pages outside the range are skipped
+     *
+     * @param stream    - initial input stream {@link InputStream}
+     * @param startPage - initial input start page (1-based, inclusive)
+     * @param endPage   - initial input end page (1-based, inclusive)
+     * @return text content {@link String}
+     * @throws IOException
+     */
+    public static String getPdfContentByPages(final InputStream stream, int startPage, int endPage) throws IOException {
+        return new PdfPageExtractor().extract(stream, startPage, endPage);
+    }
+
     /**
      * Returns text content by input stream {@link InputStream}
      *
@@ -199,14 +564,28 @@ public class AnalyzerUtils {
      * @throws TikaException
      */
     public static Metadata getMetadataByParser(final InputStream stream) throws IOException, SAXException, TikaException {
-        final Parser autoDetectParser = new AutoDetectParser();
-        final ContentHandler handler = new BodyContentHandler();
         final Metadata metadata = new Metadata();
-        final ParseContext context = new ParseContext();
-        autoDetectParser.parse(stream, handler, metadata, context);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, ExtractionContext.DEFAULT_DISCARD_HANDLER, metadata, context.getParseContext());
+        }
         return metadata;
     }
 
+    /**
+     * Returns meta data properties {@link Map} by input meta data {@link Metadata}, multi-valued properties are mapped to arrays
+     *
+     * @param metadata - initial input meta data {@link Metadata}
+     * @return meta data properties {@link Map}
+     */
+    public static Map<String, Object> toMap(final Metadata metadata) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        for (final String name : metadata.names()) {
+            final String[] values = metadata.getValues(name);
+            result.put(name, values.length == 1 ? values[0] : values);
+        }
+        return result;
+    }
+
     /**
      * Returns meta data {@link Metadata} by input stream {@link InputStream}
      *
@@ -238,6 +617,56 @@ public class AnalyzerUtils {
         return handler.toString();
     }
 
+    /**
+     * Writes html text by input stream {@link InputStream} to writer {@link Writer} without buffering the document
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @param writer - initial input writer {@link Writer}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseToHTML(final InputStream stream, final Writer writer) throws IOException, SAXException, TikaException {
+        parseToHTML(stream, new XHTMLStreamingContentHandler(writer));
+    }
+
+    /**
+     * Writes UTF-8 encoded html text by input stream {@link InputStream} to output stream {@link OutputStream} without buffering the document
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @param output - initial input output stream {@link OutputStream}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseToHTML(final InputStream stream, final OutputStream output) throws IOException, SAXException, TikaException {
+        parseToHTML(stream, output, CompressionType.NONE);
+    }
+
+    /**
+     * Writes UTF-8 encoded html text by input stream {@link InputStream} to output stream {@link OutputStream} compressed by compression type {@link CompressionType},
+     * markup buffered but not written yet is discarded and compressed output is left unfinished when parsing fails
+     *
+     * @param stream      - initial input stream {@link InputStream}
+     * @param output      - initial input output stream {@link OutputStream}, remains open
+     * @param compression - initial input compression type {@link CompressionType}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseToHTML(final InputStream stream, final OutputStream output, final CompressionType compression) throws IOException, SAXException, TikaException {
+        final OutputStream compressed = compression.wrap(new CloseShieldOutputStream(output));
+        final PooledEncodingWriter writer = new PooledEncodingWriter(compressed);
+        try {
+            parseToHTML(stream, writer);
+        } catch (IOException | SAXException | TikaException | RuntimeException e) {
+            writer.abort();
+            compression.discard(compressed);
+            throw e;
+        }
+        writer.close();
+    }
+
     /**
      * Returns html body text by input stream {@link InputStream}
      *
@@ -255,6 +684,62 @@ public class AnalyzerUtils {
         return handler.toString();
     }
 
+    /**
+     * Writes html body text by input stream {@link InputStream} to writer {@link Writer} without buffering the document
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @param writer - initial input writer {@link Writer}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseBodyToHTML(final InputStream stream, final Writer writer) throws IOException, SAXException, TikaException {
+        parseToHTML(stream, new BodyContentHandler(new XHTMLStreamingContentHandler(writer)));
+    }
+
+    /**
+     * Writes UTF-8 encoded html body text by input stream {@link InputStream} to output stream {@link OutputStream} without buffering the document
+     *
+     * @param stream - initial input stream {@link InputStream}
+     * @param output - initial input output stream {@link OutputStream}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseBodyToHTML(final InputStream stream, final OutputStream output) throws IOException, SAXException, TikaException {
+        parseBodyToHTML(stream, output, CompressionType.NONE);
+    }
+
+    /**
+     * Writes UTF-8 encoded html body text by input stream {@link InputStream} to output stream {@link OutputStream} compressed by compression type {@link CompressionType},
+     * markup buffered but not written yet is discarded and compressed output is left unfinished when parsing fails
+     *
+     * @param stream      - initial input stream {@link InputStream}
+     * @param output      - initial input output stream {@link OutputStream}, remains open
+     * @param compression - initial input compression type {@link CompressionType}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseBodyToHTML(final InputStream stream, final OutputStream output, final CompressionType compression) throws IOException, SAXException, TikaException {
+        final OutputStream compressed = compression.wrap(new CloseShieldOutputStream(output));
+        final PooledEncodingWriter writer = new PooledEncodingWriter(compressed);
+        try {
+            parseBodyToHTML(stream, writer);
+        } catch (IOException | SAXException | TikaException | RuntimeException e) {
+            writer.abort();
+            compression.discard(compressed);
+            throw e;
+        }
+        writer.close();
+    }
+
+    private static void parseToHTML(final InputStream stream, final ContentHandler handler) throws IOException, SAXException, TikaException {
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
+    }
+
     /**
      * Returns html text by input stream {@link InputStream} and xpath identifier {@link String}
      *
@@ -267,15 +752,33 @@ public class AnalyzerUtils {
      */
     public static String parseHTMLByXPath(final InputStream stream, final String xpath) throws IOException, SAXException, TikaException {
         // Only get things under html -> body -> div (class=header)
-        final XPathParser xhtmlParser = new XPathParser("xhtml", XHTMLContentHandler.XHTML);
-        final Matcher divContentMatcher = xhtmlParser.parse(xpath);
+        final Matcher divContentMatcher = XPathMatcherCache.get(xpath);
         final ContentHandler handler = new MatchingContentHandler(new ToXMLContentHandler(), divContentMatcher);
-        final AutoDetectParser parser = new AutoDetectParser();
-        final Metadata metadata = new Metadata();
-        parser.parse(stream, handler, metadata);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
         return handler.toString();
     }
 
+    /**
+     * Parses input stream {@link InputStream} by streaming xpath fragment handler {@link XPathFragmentHandler}
+     * <p>
+     * Matched fragments are delivered to the handler listener while parsing, parsing stops as soon as every expression is satisfied
+     *
+     * @param stream  - initial input stream {@link InputStream}
+     * @param handler - initial input xpath fragment handler {@link XPathFragmentHandler}
+     * @throws IOException
+     * @throws SAXException
+     * @throws TikaException
+     */
+    public static void parseByXPath(final InputStream stream, final XPathFragmentHandler handler) throws IOException, SAXException, TikaException {
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, handler, context.getMetadata(), withEarlyStop(context.getParseContext()));
+        } catch (SAXException | TikaException e) {
+            if (!ExtractionCompletedException.isCauseOf(e)) throw e;
+        }
+    }
+
     /**
      * Returns collection of file strings {@link List} by input stream {@link InputStream} with default chunk size
      *
@@ -320,6 +823,40 @@ public class AnalyzerUtils {
         return chunks;
     }
 
+    /**
+     * Returns collection of text chunks {@link List} by input text content {@link CharSequence} and max chunk size,
+     * chunks are split at the last whitespace before the limit when possible
+     *
+     * @param content      - initial input text content {@link CharSequence}
+     * @param maxChunkSize - initial input maximum chunk size
+     * @return collection of text chunks {@link List}
+     */
+    public static List<String> splitToChunks(final CharSequence content, int maxChunkSize) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid chunk size={%s}", maxChunkSize));
+        }
+        final List<String> chunks = new ArrayList<>();
+        final int length = content.length();
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(start + maxChunkSize, length);
+            if (end < length) {
+                int split = end;
+                while (split > start && !Character.isWhitespace(content.charAt(split - 1))) {
+                    split--;
+                }
+                if (split > start) {
+                    end = split;
+                } else if (end - start > 1 && Character.isHighSurrogate(content.charAt(end - 1))) {
+                    end--;
+                }
+            }
+            chunks.add(content.subSequence(start, end).toString());
+            start = end;
+        }
+        return chunks;
+    }
+
     /**
      * Returns document info {@link DocumentInfo} by input file name {@link String}
      *
@@ -331,8 +868,7 @@ public class AnalyzerUtils {
     public static DocumentInfo getDocumentInfo(final String fileName) throws IOException, TikaException {
         final Tika tika = new Tika();
         final Metadata metadata = new Metadata();
-        final File file = new File(fileName);
-        try (final InputStream stream = new FileInputStream(file)) {
+        try (final InputStream stream = openFileStream(Paths.get(fileName), metadata)) {
             final String content = tika.parseToString(stream, metadata);
             return DocumentInfo
                 .builder()
@@ -343,6 +879,94 @@ public class AnalyzerUtils {
         }
     }
 
+    /**
+     * Returns lazy document info {@link LazyDocumentInfo} by input file name {@link String}, nothing is parsed until fields are accessed
+     *
+     * @param fileName - initial input file name {@link String}
+     * @return lazy document info {@link LazyDocumentInfo}
+     */
+    public static LazyDocumentInfo getLazyDocumentInfo(final String fileName) {
+        return new LazyDocumentInfo(Paths.get(fileName));
+    }
+
+    /**
+     * Returns meta data {@link Metadata} by input file path {@link Path}, parsing stops at body start so no text is extracted
+     *
+     * @param path - initial input file path {@link Path}
+     * @return meta data {@link Metadata}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static Metadata getMetadataByParser(final Path path) throws IOException, TikaException, SAXException {
+        return getMetadataByParser(path, new MetadataContentHandler());
+    }
+
+    /**
+     * Returns meta data {@link Metadata} by input file path {@link Path} and meta data content handler {@link MetadataContentHandler},
+     * parsing stops at body start and PDF parser does not recover from handler interruption
+     *
+     * @param path    - initial input file path {@link Path}
+     * @param handler - initial input meta data content handler {@link MetadataContentHandler}
+     * @return meta data {@link Metadata}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static Metadata getMetadataByParser(final Path path, final MetadataContentHandler handler) throws IOException, TikaException, SAXException {
+        final Metadata metadata = new Metadata();
+        try (final InputStream stream = openFileStream(path, metadata)) {
+            parseInstrumented(stream, handler, metadata, withEarlyStop(new ParseContext()));
+        } catch (SAXException | TikaException e) {
+            if (!ExtractionCompletedException.isCauseOf(e)) throw e;
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns text content by input file path {@link Path} and {@link AutoDetectParser} parser, populating input meta data {@link Metadata}
+     *
+     * @param path     - initial input file path {@link Path}
+     * @param metadata - initial input meta data {@link Metadata}
+     * @return text content {@link String}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static String getContentByParser(final Path path, final Metadata metadata) throws IOException, TikaException, SAXException {
+        try (final InputStream stream = openFileStream(path, metadata);
+             final ExtractionContext context = ExtractionContext.acquire()) {
+            parseInstrumented(stream, context.getBodyHandler(), metadata, context.getParseContext());
+            return context.getText();
+        }
+    }
+
+    /**
+     * Returns document info {@link DocumentInfo} with off-heap text content {@link OffHeapText} by input file name {@link String}
+     *
+     * @param fileName - initial input file name {@link String}
+     * @return document info {@link DocumentInfo}
+     * @throws IOException
+     * @throws TikaException
+     * @throws SAXException
+     */
+    public static DocumentInfo getOffHeapDocumentInfo(final String fileName) throws IOException, TikaException, SAXException {
+        final Metadata metadata = new Metadata();
+        final OffHeapTextWriter writer = new OffHeapTextWriter();
+        try (final InputStream stream = openFileStream(Paths.get(fileName), metadata)) {
+            parseInstrumented(stream, new BodyContentHandler(writer), metadata, new ParseContext());
+        } catch (IOException | TikaException | SAXException | RuntimeException e) {
+            writer.toText().close();
+            throw e;
+        }
+        return DocumentInfo
+            .builder()
+            .name(metadata.get(Metadata.RESOURCE_NAME_KEY))
+            .content(writer.toText())
+            .created(metadata.getDate(TikaCoreProperties.CREATED))
+            .build();
+    }
+
     /**
      * Returns file content by input file name {@link String} and content handler {@link ContentHandler}
      *
@@ -352,20 +976,22 @@ public class AnalyzerUtils {
      * @throws Exception
      */
     public static String parseFileStream(final String filename, final ContentHandler handler) throws Exception {
-        try (final InputStream stream = new FileInputStream(new File(filename))) {
+        try (final InputStream stream = openFileStream(Paths.get(filename), new Metadata())) {
             return getContentByParser(stream, handler);
         }
     }
 
     /**
      * Returns url content by input address name {@link String} and content handler {@link ContentHandler}
+     * <p>
+     * Response body is decoded according to its Content-Encoding header, use {@link AsyncUrlFetcher} for non-blocking ingestion
      *
      * @param address - initial input address name {@link String}
      * @return address content
      * @throws Exception
      */
     public static String parseURLStream(final String address, final ContentHandler handler) throws Exception {
-        try (final InputStream stream = new GZIPInputStream(new URL(address).openStream())) {
+        try (final InputStream stream = AsyncUrlFetcher.openStream(new URL(address), new Metadata())) {
             return getContentByParser(stream, handler);
         }
     }
@@ -391,9 +1017,8 @@ public class AnalyzerUtils {
      * @throws Exception
      */
     public static File getFileByName(final String filename) throws Exception {
-        try (final InputStream stream = TikaInputStream.get(Paths.get(filename))) {
-            final TikaInputStream tikaInputStream = TikaInputStream.get(stream);
-            return tikaInputStream.getFile();
+        try (final TikaInputStream stream = TikaInputStream.get(Paths.get(filename))) {
+            return stream.getFile();
         }
     }
 
@@ -465,11 +1090,10 @@ public class AnalyzerUtils {
      * @throws Exception
      */
     public static String parseByLocale(final InputStream stream, final ContentHandler handler, final Locale locale) throws Exception {
-        final Metadata metadata = new Metadata();
-        final Parser autoDetectParser = new AutoDetectParser();
-        final ParseContext context = new ParseContext();
-        context.set(Locale.class, locale);
-        autoDetectParser.parse(stream, handler, metadata, context);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            context.set(Locale.class, locale);
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
         return handler.toString();
     }
 
@@ -481,11 +1105,10 @@ public class AnalyzerUtils {
      * @throws Exception
      */
     public static String testHtmlMapper(final InputStream stream, final ContentHandler handler) throws Exception {
-        final Metadata metadata = new Metadata();
-        final Parser autoDetectParser = new AutoDetectParser();
-        final ParseContext context = new ParseContext();
-        context.set(HtmlMapper.class, new IdentityHtmlMapper());
-        autoDetectParser.parse(stream, handler, metadata, context);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            context.set(HtmlMapper.class, IdentityHtmlMapper.INSTANCE);
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
         return handler.toString();
     }
 
@@ -499,11 +1122,10 @@ public class AnalyzerUtils {
      * @throws Exception
      */
     public static void parseByCustomDecorator(final InputStream stream, final ContentHandler handler, final Parser parser) throws Exception {
-        final Metadata metadata = new Metadata();
-        final Parser autoDetectParser = new AutoDetectParser();
-        final ParseContext context = new ParseContext();
-        context.set(Parser.class, new ParserDecorator(parser));
-        autoDetectParser.parse(stream, handler, metadata, context);
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            context.set(Parser.class, new InstrumentedParser(parser));
+            parseInstrumented(stream, handler, context.getMetadata(), context.getParseContext());
+        }
     }
 
     /**
@@ -522,7 +1144,7 @@ public class AnalyzerUtils {
         final Metadata metadata = new Metadata();
         metadata.set(Metadata.RESOURCE_NAME_KEY, filename);
         final ParseContext context = new ParseContext();
-        try (final InputStream stream = new FileInputStream(new File(filename))) {
+        try (final InputStream stream = openFileStream(Paths.get(filename), metadata)) {
             autoDetectParser.parse(stream, handler, metadata, context);
             return handler.getMetadataList();
         }
@@ -24,6 +24,7 @@
 package com.wildbeeslabs.sensiblemetrics.pdfextra.utils;
 
 import com.wildbeeslabs.sensiblemetrics.pdfextra.examples.detector.EncryptedPrescriptionDetector;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ExtractionMetrics;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.Tika;
@@ -59,7 +60,7 @@ public class DetectorUtils {
      */
     public static String getMimeInfo(final String name) throws Exception {
         final Tika tika = new Tika(MimeTypesFactory.create(DEFAULT_MIME_TYPES_CONFIG));
-        return tika.detect(name);
+        return detect(tika, name);
     }
 
     /**
@@ -88,7 +89,7 @@ public class DetectorUtils {
             }
         };
         final Tika tika = new Tika(new CompositeDetector(customDetector, detector));
-        return tika.detect(name);
+        return detect(tika, name);
     }
 
     /**
@@ -102,7 +103,7 @@ public class DetectorUtils {
     public static String getMimeInfo(final String sourceType, final String fileName) throws Exception {
         final MimeTypes typeDatabase = MimeTypesFactory.create(new URL(sourceType));
         final Tika tika = new Tika(typeDatabase);
-        return tika.detect(fileName);
+        return detect(tika, fileName);
     }
 
     /**
@@ -116,6 +117,15 @@ public class DetectorUtils {
     public static String getMimeInfoByEncryptedDetector(final String sourceType, final String fileName) throws Exception {
         final MimeTypes typeDatabase = MimeTypesFactory.create(new URL(sourceType));
         final Tika tika = new Tika(new CompositeDetector(typeDatabase, new EncryptedPrescriptionDetector(null)));
-        return tika.detect(fileName);
+        return detect(tika, fileName);
+    }
+
+    private static String detect(final Tika tika, final String name) {
+        final long start = ExtractionMetrics.start();
+        try {
+            return tika.detect(name);
+        } finally {
+            ExtractionMetrics.getInstance().record(ExtractionMetrics.DETECT, start);
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identifier utilities implementation
+ * <p>
+ * Generates time-ordered (UUID version 7 layout) identifiers without locks and without {@link java.security.SecureRandom}:
+ * 48-bit Unix epoch milliseconds and 12-bit sequence are advanced by single CAS on shared state (sequence overflow borrows
+ * next millisecond, so identifiers are strictly increasing within process), 62 low bits are taken from {@link ThreadLocalRandom}.
+ * Identifiers are unique, not unguessable, do not use them as secrets.
+ */
+@UtilityClass
+public class IdentifierUtils {
+
+    /**
+     * Default version 7 bits of most significant half
+     */
+    private static final long VERSION_BITS = 0x7000L;
+    /**
+     * Default IETF variant bits of least significant half
+     */
+    private static final long VARIANT_BITS = 0x8000000000000000L;
+    /**
+     * Default last issued timestamp and sequence (timestamp << 12 | sequence)
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Returns next time-ordered identifier {@link UUID}
+     *
+     * @return time-ordered identifier {@link UUID}
+     */
+    public static UUID nextTimeOrderedUuid() {
+        final long now = System.currentTimeMillis() << 12;
+        long last;
+        long next;
+        do {
+            last = LAST.get();
+            next = Math.max(now, last + 1);
+        } while (!LAST.compareAndSet(last, next));
+        final long mostSigBits = (next >>> 12) << 16 | VERSION_BITS | next & 0xFFFL;
+        final long leastSigBits = ThreadLocalRandom.current().nextLong() >>> 2 | VARIANT_BITS;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Returns next time-ordered identifier string, lexicographic order matches generation order
+     *
+     * @return time-ordered identifier {@link String}
+     */
+    public static String nextTimeOrderedId() {
+        return nextTimeOrderedUuid().toString();
+    }
+
+    /**
+     * Returns Unix epoch milliseconds by input time-ordered identifier {@link UUID}
+     *
+     * @param uuid - initial input time-ordered identifier {@link UUID}
+     * @return Unix epoch milliseconds
+     */
+    public static long getTimestamp(final UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid identifier version={%s}", uuid.version()));
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -33,7 +33,6 @@ import java.io.*;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.text.Normalizer;
 import java.time.*;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
@@ -46,6 +45,9 @@ import java.util.stream.StreamSupport;
 
 import com.google.common.io.ByteSource;
 import com.google.common.io.Resources;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.HexEncoder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.AsciiFolder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.text.MappedLineScanner;
 import lombok.AllArgsConstructor;
 
 public class Utils {
@@ -522,21 +524,11 @@ public class Utils {
     }
 
     public static String normalize(String s) {
-        if (s != null) {
-            return stripAccents(s).toLowerCase();
-        } else {
-            return null;
-        }
+        return AsciiFolder.fold(s, true);
     }
 
     public static String stripAccents(String s) {
-        if (s != null) {
-            s = Normalizer.normalize(s, Normalizer.Form.NFD);
-            s = s.replaceAll("[^\\p{ASCII}]", "");
-            return s;
-        } else {
-            return null;
-        }
+        return AsciiFolder.fold(s, false);
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -582,11 +574,7 @@ public class Utils {
     }
 
     public static String bytesToHexString(byte[] bytes) {
-        final StringBuilder builder = new StringBuilder();
-        for (byte b : bytes) {
-            builder.append(String.format("%02x", b));
-        }
-        return builder.toString();
+        return HexEncoder.encode(bytes);
     }
 
     public static class Pair<L,R> {
@@ -629,15 +617,9 @@ public class Utils {
     }
 
     public static List<String> readLinesOfFileToList(File file) throws IOException {
-        List<String> lines = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
-            }
+        try (MappedLineScanner scanner = MappedLineScanner.open(file.toPath())) {
+            return scanner.readLines();
         }
-        return lines;
     }
 
     public static InputStream stringToInputStream(String text) throws UnsupportedEncodingException {
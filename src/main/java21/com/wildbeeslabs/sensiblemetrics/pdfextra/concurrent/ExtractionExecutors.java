@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Extraction executors implementation (Java 21 layer of multi-release jar)
+ * <p>
+ * Runs I/O-bound and batch tasks on virtual threads, CPU-bound work (parsing, pdf rendering) is capped by shared semaphore
+ * sized by {@link #CPU_PERMITS_PROPERTY} (available processors by default), so virtual threads blocked on I/O are cheap
+ * while parsing never oversubscribes the carrier threads. {@link #invokeAll(String, Collection)} scopes subtasks by
+ * executor lifetime, as {@code StructuredTaskScope} is a preview API in Java 21.
+ */
+@UtilityClass
+public class ExtractionExecutors {
+
+    /**
+     * Default system property overriding number of concurrent CPU-bound tasks
+     */
+    public static final String CPU_PERMITS_PROPERTY = "pdfextra.cpu.permits";
+
+    /**
+     * Default CPU-bound task permits
+     */
+    private static final Semaphore CPU_PERMITS = new Semaphore(Math.max(1, Integer.getInteger(CPU_PERMITS_PROPERTY, Runtime.getRuntime().availableProcessors())));
+    /**
+     * Default per-thread flag whether CPU permit is held (nested CPU-bound calls do not acquire again)
+     */
+    private static final ThreadLocal<Boolean> CPU_PERMIT_HELD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Returns binary flag whether tasks run on virtual threads
+     *
+     * @return true - if tasks run on virtual threads, false - otherwise
+     */
+    public static boolean isVirtual() {
+        return true;
+    }
+
+    /**
+     * Returns executor service {@link ExecutorService} for I/O-bound tasks (fetching, spooling, writing) by input thread name prefix {@link String}
+     *
+     * @param name - initial input thread name prefix {@link String}
+     * @return executor service {@link ExecutorService}
+     */
+    public static ExecutorService newIoExecutor(final String name) {
+        return Executors.newThreadPerTaskExecutor(threadFactory(name));
+    }
+
+    /**
+     * Returns executor service {@link ExecutorService} for batch tasks by input thread name prefix {@link String},
+     * virtual thread per task with at most {@code parallelism} tasks running at once (further virtual threads wait for permit
+     * before running their task, so waiting tasks cost a parked virtual thread only)
+     * <p>
+     * Per-thread state ({@link com.wildbeeslabs.sensiblemetrics.pdfextra.context.ExtractionContext}, encoding buffers) is not
+     * reused across tasks as every task runs on a fresh virtual thread, each running task allocates its own instance instead of
+     * taking pooled one of platform worker. The permits bound number of such live instances by {@code parallelism}, at the cost of
+     * allocation per task compared with Java 8 layer.
+     *
+     * @param name        - initial input thread name prefix {@link String}
+     * @param parallelism - initial input maximum number of running tasks
+     * @return executor service {@link ExecutorService}
+     */
+    public static ExecutorService newBatchExecutor(final String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(String.format("ERROR: invalid parallelism={%s}", parallelism));
+        }
+        final ThreadFactory factory = threadFactory(name);
+        final Semaphore permits = new Semaphore(parallelism);
+        return Executors.newThreadPerTaskExecutor(task -> factory.newThread(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }));
+    }
+
+    /**
+     * Returns result of input CPU-bound task {@link Callable}, waiting for CPU permit when all permits are in use
+     *
+     * @param task - initial input task {@link Callable}
+     * @param <T>  type of result
+     * @return task result
+     * @throws Exception
+     */
+    public static <T> T callCpuBound(final Callable<T> task) throws Exception {
+        if (CPU_PERMIT_HELD.get()) {
+            return task.call();
+        }
+        CPU_PERMITS.acquire();
+        CPU_PERMIT_HELD.set(Boolean.TRUE);
+        try {
+            return task.call();
+        } finally {
+            CPU_PERMIT_HELD.set(Boolean.FALSE);
+            CPU_PERMITS.release();
+        }
+    }
+
+    /**
+     * Returns results {@link List} of input tasks {@link Collection} in task order, forked as virtual subtasks of the calling thread.
+     * The first failed subtask cancels the remaining ones and its exception is rethrown, no subtask outlives the call.
+     *
+     * @param name  - initial input thread name prefix {@link String}
+     * @param tasks - initial input tasks {@link Collection}
+     * @param <T>   type of result
+     * @return results {@link List}
+     * @throws Exception
+     */
+    public static <T> List<T> invokeAll(final String name, final Collection<? extends Callable<T>> tasks) throws Exception {
+        try (final ExecutorService scope = Executors.newThreadPerTaskExecutor(threadFactory(name))) {
+            final CompletionService<T> completion = new ExecutorCompletionService<>(scope);
+            final List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (final Callable<T> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    completion.take().get();
+                }
+            } catch (ExecutionException e) {
+                scope.shutdownNow();
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw (Exception) e.getCause();
+            } catch (InterruptedException e) {
+                scope.shutdownNow();
+                throw e;
+            }
+            return futures.stream().map(Future::resultNow).toList();
+        }
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        return Thread.ofVirtual().name(name + "-", 0).factory();
+    }
+}
@@ -23,6 +23,7 @@
  */
 package com.wildbeeslabs.sensiblemetrics.pdfextra;
 
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.MetadataContentHandler;
 import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -36,10 +37,13 @@ import org.apache.tika.mime.MediaType;
 import org.apache.tika.sax.BodyContentHandler;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
@@ -270,6 +274,40 @@ public class AnalyzerUtilsUnitTest {
         }
     }
 
+    @Test
+    @DisplayName("Test pdf meta data parsing stops at body start")
+    public void whenUsingMetadataHandler_thenPdfParsingStopsAtBodyStart() throws IOException, TikaException, SAXException {
+        // given
+        final String fileName = getFilePath("tika.pdf");
+        assertTrue("File should exist", new File(fileName).exists());
+        final AtomicInteger lateEvents = new AtomicInteger();
+        final MetadataContentHandler handler = new MetadataContentHandler() {
+            @Override
+            public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) throws SAXException {
+                if (this.isCompleted()) {
+                    lateEvents.incrementAndGet();
+                }
+                super.startElement(uri, localName, qName, attributes);
+            }
+
+            @Override
+            public void characters(final char[] ch, int start, int length) throws SAXException {
+                if (this.isCompleted()) {
+                    lateEvents.incrementAndGet();
+                }
+                super.characters(ch, start, length);
+            }
+        };
+
+        // when
+        final Metadata metadata = AnalyzerUtils.getMetadataByParser(Paths.get(fileName), handler);
+
+        // then
+        assertTrue(handler.isCompleted());
+        assertEquals(0, lateEvents.get());
+        assertEquals("application/pdf", metadata.get("Content-Type"));
+    }
+
     @Test
     @DisplayName("Test document meta data by default facade")
     public void whenUsingFacade_thenMetadataIsReturned() throws IOException {
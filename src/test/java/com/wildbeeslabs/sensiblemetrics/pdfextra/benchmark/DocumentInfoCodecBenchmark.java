@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.BinaryOutput;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.DocumentInfoCodec;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.DocumentInfo;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.IdentifierUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Document info serialization benchmark
+ * <p>
+ * Compares throughput of encoding and decoding {@link DocumentInfo} with binary codec {@link DocumentInfoCodec}
+ * (plain and LZ4 compressed content) against Java serialization and Jackson JSON, and time-ordered identifiers
+ * against {@link UUID#randomUUID()}. Encoded sizes are printed on setup, run with {@link GCProfiler} to compare allocation.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentInfoCodecBenchmark {
+
+    /**
+     * Default JSON object mapper {@link ObjectMapper}
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Default reusable binary output {@link BinaryOutput}
+     */
+    private final BinaryOutput output = new BinaryOutput();
+
+    @Param({"200", "20000"})
+    private int contentSize;
+
+    private DocumentInfo info;
+    private byte[] plain;
+    private byte[] compressed;
+    private byte[] serialized;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        final StringBuilder content = new StringBuilder(this.contentSize);
+        for (int i = 0; content.length() < this.contentSize; i++) {
+            content.append("Apache Tika - a content analysis toolkit, page ").append(i).append('\n');
+        }
+        this.info = DocumentInfo.builder()
+            .id(IdentifierUtils.nextTimeOrderedId())
+            .name("tika.pdf")
+            .content(content.toString())
+            .created(new Date())
+            .build();
+        this.plain = DocumentInfoCodec.getInstance(false).encode(this.info);
+        this.compressed = DocumentInfoCodec.getInstance(true).encode(this.info);
+        this.serialized = this.serialize();
+        this.json = this.mapper.writeValueAsBytes(this.info);
+        System.out.println(String.format("plain=%s, lz4=%s, serializable=%s, json=%s bytes",
+            this.plain.length, this.compressed.length, this.serialized.length, this.json.length));
+    }
+
+    @Benchmark
+    public int encodeCodec() {
+        this.output.reset();
+        DocumentInfoCodec.getInstance(false).write(this.info, this.output);
+        return this.output.size();
+    }
+
+    @Benchmark
+    public int encodeCodecLz4() {
+        this.output.reset();
+        DocumentInfoCodec.getInstance(true).write(this.info, this.output);
+        return this.output.size();
+    }
+
+    @Benchmark
+    public byte[] encodeSerializable() throws IOException {
+        return this.serialize();
+    }
+
+    @Benchmark
+    public byte[] encodeJackson() throws IOException {
+        return this.mapper.writeValueAsBytes(this.info);
+    }
+
+    @Benchmark
+    public DocumentInfo decodeCodec() throws IOException {
+        return DocumentInfoCodec.getInstance(false).decode(this.plain);
+    }
+
+    @Benchmark
+    public DocumentInfo decodeCodecLz4() throws IOException {
+        return DocumentInfoCodec.getInstance(true).decode(this.compressed);
+    }
+
+    @Benchmark
+    public Object decodeSerializable() throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(this.serialized))) {
+            return input.readObject();
+        }
+    }
+
+    @Benchmark
+    public DocumentInfo decodeJackson() throws IOException {
+        return this.mapper.readValue(this.json, DocumentInfo.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedId() {
+        return IdentifierUtils.nextTimeOrderedId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    private byte[] serialize() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(this.info);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(DocumentInfoCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.context.ExtractionContext;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.xml.sax.ContentHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extraction context allocation benchmark
+ * <p>
+ * Compares per-call allocation of {@link Metadata}, {@link ParseContext} and {@link BodyContentHandler}
+ * against pooled {@link ExtractionContext} on small text/html snippets, run with {@link GCProfiler}
+ * to report allocation rate (gc.alloc.rate.norm) per operation.
+ * <p>
+ * No results are recorded yet, pooling is only justified once gc.alloc.rate.norm of {@code pooledContext} is measured
+ * below {@code allocatingContext} for both snippet types: {@code java -cp <test classpath> ...ExtractionContextBenchmark}.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionContextBenchmark {
+
+    /**
+     * Default shared parser instance {@link Parser}
+     */
+    private final Parser parser = new AutoDetectParser();
+
+    @Param({"text", "html"})
+    private String type;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        final String snippet = "text".equals(this.type)
+            ? "Apache Tika - a content analysis toolkit"
+            : "<html><head><title>Tika</title></head><body><p>Apache Tika - a content analysis toolkit</p></body></html>";
+        this.content = snippet.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String allocatingContext() throws Exception {
+        final ContentHandler handler = new BodyContentHandler();
+        final Metadata metadata = new Metadata();
+        final ParseContext context = new ParseContext();
+        try (final InputStream stream = new ByteArrayInputStream(this.content)) {
+            this.parser.parse(stream, handler, metadata, context);
+        }
+        return handler.toString();
+    }
+
+    @Benchmark
+    public String pooledContext() throws Exception {
+        try (final ExtractionContext context = ExtractionContext.acquire();
+             final InputStream stream = new ByteArrayInputStream(this.content)) {
+            this.parser.parse(stream, context.getBodyHandler(), context.getMetadata(), context.getParseContext());
+            return context.getText();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(ExtractionContextBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.parser.LazyCompositeParser;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser startup benchmark
+ * <p>
+ * Measures cold time-to-first-parse (construction plus first plain text parse) in fresh JVM forks,
+ * comparing eager {@link AutoDetectParser} construction against lazy {@link LazyCompositeParser} driven by tika.xml.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ParserStartupBenchmark {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Benchmark
+    public String eagerAutoDetectParser() throws Exception {
+        return parse(new AutoDetectParser());
+    }
+
+    @Benchmark
+    public String lazyCompositeParser() throws Exception {
+        return parse(new LazyCompositeParser());
+    }
+
+    private static String parse(final Parser parser) throws Exception {
+        final BodyContentHandler handler = new BodyContentHandler(-1);
+        try (final InputStream stream = Files.newInputStream(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.txt"))) {
+            parser.parse(stream, handler, new Metadata(), new ParseContext());
+        }
+        return handler.toString();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(ParserStartupBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
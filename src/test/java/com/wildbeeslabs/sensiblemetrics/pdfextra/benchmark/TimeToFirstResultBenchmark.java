@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.benchmark;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.PdfExtraAppLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line time-to-first-result benchmark
+ * <p>
+ * Measures wall time from launching {@link PdfExtraAppLoader} in a new JVM process until the first byte of extracted
+ * json line arrives on its standard output, comparing plain {@code java -jar} against fast-start launcher options
+ * (AppCDS archive, C1 only, serial GC, lazy parser). Launcher buffers json lines and flushes them once every input is
+ * processed, so for the single document this is the time to its complete result rather than to the first output byte.
+ * Packaged jar is located by build coordinates from {@code benchmark.properties} test resource, requires
+ * {@code mvn -P fast-start package} on JDK 13+ beforehand.
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 20)
+@Fork(1)
+public class TimeToFirstResultBenchmark {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+    /**
+     * Default build coordinates resource
+     */
+    public static final String DEFAULT_BUILD_PROPERTIES = "/benchmark.properties";
+    /**
+     * Default sink for standard error of launched processes
+     */
+    private static final File NULL_FILE = new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    @Param({"default", "fast-start"})
+    private String launcher;
+
+    @Param({"tika.html", "tika.pdf"})
+    private String document;
+
+    private List<String> command;
+
+    @Setup
+    public void setup() throws Exception {
+        final Properties build = loadBuildProperties();
+        final Path directory = Paths.get(build.getProperty("build.directory"));
+        final String finalName = build.getProperty("build.final-name");
+        final Path jar = directory.resolve(finalName + ".jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(String.format("ERROR: invalid application jar={%s}, run mvn -P fast-start package first", jar));
+        }
+        final String javaHome = System.getProperty("java.home");
+        this.command = new ArrayList<>();
+        this.command.add(javaHome + File.separator + "bin" + File.separator + "java");
+        if ("fast-start".equals(this.launcher)) {
+            final Path archive = directory.resolve(finalName + ".jsa");
+            if (Files.exists(archive)) {
+                this.command.add("-XX:SharedArchiveFile=" + archive);
+            }
+            this.command.add("-XX:TieredStopAtLevel=1");
+            this.command.add("-XX:+UseSerialGC");
+            this.command.add("-Dpdfextra.parser.lazy=true");
+        }
+        this.command.add("-jar");
+        this.command.add(jar.toString());
+        this.command.add("extract");
+        this.command.add(DEFAULT_FILE_CONTENT_DIRECTORY + this.document);
+    }
+
+    @Benchmark
+    public int timeToFirstResult() throws Exception {
+        final Process process = new ProcessBuilder(this.command)
+            .redirectError(ProcessBuilder.Redirect.appendTo(NULL_FILE))
+            .start();
+        try (final InputStream output = process.getInputStream()) {
+            return output.read();
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Properties loadBuildProperties() throws IOException {
+        try (final InputStream stream = TimeToFirstResultBenchmark.class.getResourceAsStream(DEFAULT_BUILD_PROPERTIES)) {
+            if (Objects.isNull(stream)) {
+                throw new IllegalStateException(String.format("ERROR: invalid test resources, missing build properties={%s}", DEFAULT_BUILD_PROPERTIES));
+            }
+            final Properties properties = new Properties();
+            properties.load(stream);
+            return properties;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+            .include(TimeToFirstResultBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.SegmentStoreReader;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.StoredDocument;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Command line launcher unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class LauncherTest {
+
+    /**
+     * Default file content directory
+     */
+    private static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test launcher options are parsed from command line arguments")
+    public void whenParsingArguments_thenOptionsAreSet() {
+        // given
+        final String[] args = {"chunk", "--threads", "3", "-c", "128", "-o", "out.jsonl", "a.pdf", "-"};
+
+        // when
+        final LauncherOptions options = LauncherOptions.parse(args);
+
+        // then
+        assertEquals(Command.CHUNK, options.getCommand());
+        assertEquals(3, options.getThreads());
+        assertEquals(128, options.getChunkSize());
+        assertEquals(Paths.get("out.jsonl"), options.getOutput());
+        assertEquals(2, options.getInputs().size());
+        assertEquals(Source.STDIN, options.getInputs().get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test launcher options reject invalid thread count")
+    public void whenParsingInvalidThreads_thenExceptionIsThrown() {
+        LauncherOptions.parse("extract", "--threads", "0", "a.pdf");
+    }
+
+    @Test
+    @DisplayName("Test launcher writes single json line per document")
+    public void whenExtractingDirectory_thenJsonLinesAreWritten() throws Exception {
+        // given
+        final File output = this.folder.newFile("out.jsonl");
+        final LauncherOptions options = LauncherOptions.parse("extract", "-t", "2", "-o", output.getPath(),
+            DEFAULT_FILE_CONTENT_DIRECTORY + "tika.txt", DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html");
+
+        // when
+        final Launcher.Statistics statistics;
+        try (final Launcher launcher = new Launcher(options)) {
+            statistics = launcher.run();
+            assertEquals(2, launcher.getLatency().getCount());
+        }
+
+        // then
+        assertEquals(2, statistics.getProcessed().get());
+        assertEquals(0, statistics.getFailed().get());
+        final List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        final ObjectMapper mapper = new ObjectMapper();
+        for (final String line : lines) {
+            final Map<?, ?> record = mapper.readValue(line, Map.class);
+            assertNotNull(record.get("source"));
+            assertNotNull(record.get("type"));
+            assertTrue(record.containsKey("content"));
+            assertFalse(record.containsKey("error"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test launcher walks input directory recursively")
+    public void whenExtractingNestedDirectory_thenEveryFileIsProcessed() throws Exception {
+        // given
+        final Path root = this.folder.newFolder("input").toPath();
+        final Path nested = Files.createDirectories(root.resolve("first").resolve("second"));
+        final Set<String> expected = new HashSet<>();
+        expected.add(write(root.resolve("root.txt"), "Root document"));
+        expected.add(write(root.resolve("first").resolve("first.txt"), "First document"));
+        expected.add(write(nested.resolve("second.txt"), "Second document"));
+        final File output = this.folder.newFile("out.jsonl");
+        final LauncherOptions options = LauncherOptions.parse("extract", "-t", "2", "-o", output.getPath(), root.toString());
+
+        // when
+        final Launcher.Statistics statistics;
+        try (final Launcher launcher = new Launcher(options)) {
+            statistics = launcher.run();
+        }
+
+        // then
+        assertEquals(3, statistics.getProcessed().get());
+        assertEquals(0, statistics.getFailed().get());
+        final ObjectMapper mapper = new ObjectMapper();
+        final Set<String> sources = new HashSet<>();
+        for (final String line : Files.readAllLines(output.toPath(), StandardCharsets.UTF_8)) {
+            sources.add((String) mapper.readValue(line, Map.class).get("source"));
+        }
+        assertEquals(expected, sources);
+    }
+
+    @Test
+    @DisplayName("Test launcher writes extracted documents into segment store")
+    public void whenExtractingWithStore_thenDocumentsAreStored() throws Exception {
+        // given
+        final Path store = this.folder.getRoot().toPath().resolve("store");
+        final File output = this.folder.newFile("out.jsonl");
+        final String text = DEFAULT_FILE_CONTENT_DIRECTORY + "tika.txt";
+        final String html = DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html";
+        final LauncherOptions options = LauncherOptions.parse("extract", "-o", output.getPath(), "--store", store.toString(), text, html);
+
+        // when
+        try (final Launcher launcher = new Launcher(options)) {
+            assertEquals(2, launcher.run().getProcessed().get());
+        }
+
+        // then
+        final ObjectMapper mapper = new ObjectMapper();
+        for (final String line : Files.readAllLines(output.toPath(), StandardCharsets.UTF_8)) {
+            final Map<?, ?> record = mapper.readValue(line, Map.class);
+            assertFalse(record.containsKey("content"));
+            assertNotNull(record.get("characters"));
+        }
+        try (final SegmentStoreReader reader = new SegmentStoreReader(store)) {
+            assertEquals(2, reader.size());
+            final StoredDocument document = reader.get(text);
+            assertNotNull(document);
+            assertFalse(document.getContent().trim().isEmpty());
+            assertNotNull(document.getMetadata().get("Content-Type"));
+            assertNotNull(reader.get(html));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test launcher rejects segment store for non-extracting command")
+    public void whenStoringWithDetectCommand_thenExceptionIsThrown() throws Exception {
+        final Path store = this.folder.getRoot().toPath().resolve("store");
+        new Launcher(LauncherOptions.parse("detect", "--store", store.toString(), DEFAULT_FILE_CONTENT_DIRECTORY + "tika.txt")).close();
+    }
+
+    private static String write(final Path path, final String content) throws Exception {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toString();
+    }
+}
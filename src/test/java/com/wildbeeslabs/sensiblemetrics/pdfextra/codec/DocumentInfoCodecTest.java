@@ -0,0 +1,225 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.DocumentInfo;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.IdentifierUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Document info codec unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class DocumentInfoCodecTest {
+
+    @Test
+    @DisplayName("Test varints and strings round trip")
+    public void whenWritingPrimitives_thenTheyAreReadBack() throws IOException {
+        // given
+        final BinaryOutput output = new BinaryOutput(16);
+        final long[] values = {0, 1, 127, 128, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+
+        // when
+        for (final long value : values) {
+            output.writeSignedVarLong(value);
+        }
+        output.writeVarInt(-1);
+        output.writeString("Tika été 中文 😀");
+        final BinaryInput input = new BinaryInput(output.toByteArray());
+
+        // then
+        for (final long value : values) {
+            assertEquals(value, input.readSignedVarLong());
+        }
+        assertEquals(-1, input.readVarInt());
+        assertEquals("Tika été 中文 😀", input.readString());
+        assertEquals(0, input.remaining());
+    }
+
+    @Test
+    @DisplayName("Test meta data round trip with dictionary and literal names")
+    public void whenEncodingMetadata_thenItIsDecoded() throws IOException {
+        // given
+        final Metadata metadata = new Metadata();
+        metadata.set(Metadata.CONTENT_TYPE, "application/pdf");
+        metadata.add("dc:creator", "Apache");
+        metadata.add("dc:creator", "Tika");
+        metadata.set("custom:name", "value");
+
+        // when
+        final byte[] bytes = MetadataCodec.encode(metadata);
+        final Metadata decoded = MetadataCodec.decode(bytes);
+
+        // then
+        assertEquals(metadata, decoded);
+        assertArrayEquals(new String[]{"Apache", "Tika"}, decoded.getValues("dc:creator"));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    @DisplayName("Test meta data of unknown format version is rejected")
+    public void whenDecodingUnknownMetadataVersion_thenExceptionIsThrown() throws IOException {
+        // given
+        final Metadata metadata = new Metadata();
+        metadata.set(Metadata.CONTENT_TYPE, "application/pdf");
+        final byte[] bytes = MetadataCodec.encode(metadata);
+        bytes[0] = (byte) (MetadataCodec.VERSION + 1);
+
+        // when
+        MetadataCodec.decode(bytes);
+    }
+
+    @Test
+    @DisplayName("Test meta data of previous format version is decoded with its own dictionary")
+    public void whenDecodingPreviousMetadataVersion_thenItsDictionaryIsUsed() throws IOException {
+        // given
+        final BinaryOutput output = new BinaryOutput();
+        output.writeByte(1);
+        output.writeVarInt(1);
+        output.writeVarInt(MetadataCodec.DICTIONARY_SIZES[1]);
+        output.writeVarInt(1);
+        output.writeString("1");
+        final byte[] bytes = output.toByteArray();
+
+        // when
+        final Metadata decoded = MetadataCodec.decode(bytes);
+
+        // then
+        assertEquals("1", decoded.get(MetadataCodec.KEYS[MetadataCodec.DICTIONARY_SIZES[1] - 1]));
+
+        // when
+        bytes[2]++;
+        try {
+            MetadataCodec.decode(bytes);
+            fail("name code beyond version 1 dictionary should be rejected");
+        } catch (StreamCorruptedException e) {
+            // then
+            assertTrue(e.getMessage().contains("version={1}"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test document info round trip with and without compression")
+    public void whenEncodingDocumentInfo_thenItIsDecoded() throws IOException {
+        // given
+        final char[] text = new char[10_000];
+        Arrays.fill(text, 'a');
+        final DocumentInfo info = DocumentInfo.builder()
+            .id(IdentifierUtils.nextTimeOrderedId())
+            .name("tika.pdf")
+            .content(new String(text) + " 中文 😀")
+            .created(new Date(-86_400_000L))
+            .build();
+
+        // when
+        final byte[] plain = DocumentInfoCodec.getInstance(false).encode(info);
+        final byte[] compressed = DocumentInfoCodec.getInstance(true).encode(info);
+
+        // then
+        assertTrue(compressed.length < plain.length / 10);
+        assertEquals(info, DocumentInfoCodec.getInstance(false).decode(plain));
+        assertEquals(info, DocumentInfoCodec.getInstance(true).decode(compressed));
+        assertEquals(info, DocumentInfoCodec.getInstance(false).decode(compressed));
+    }
+
+    @Test
+    @DisplayName("Test document info with absent fields and literal identifier round trip")
+    public void whenEncodingSparseDocumentInfo_thenItIsDecoded() throws IOException {
+        // given
+        final DocumentInfo info = DocumentInfo.builder().id("document-1").build();
+
+        // when
+        final DocumentInfo decoded = DocumentInfoCodec.getInstance(true).decode(DocumentInfoCodec.getInstance(true).encode(info));
+
+        // then
+        assertEquals(info, decoded);
+        assertNull(decoded.getContent());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    @DisplayName("Test compressed content not matching declared length is rejected")
+    public void whenDecodingCompressedContentOfWrongLength_thenExceptionIsThrown() throws IOException {
+        // given
+        final char[] text = new char[10_000];
+        Arrays.fill(text, 'a');
+        final byte[] bytes = DocumentInfoCodec.getInstance(true).encode(DocumentInfo.builder().content(new String(text)).build());
+        assertEquals(DocumentInfoCodec.FLAG_CONTENT | DocumentInfoCodec.FLAG_CONTENT_LZ4, bytes[1]);
+
+        // when
+        bytes[2]++;
+        DocumentInfoCodec.getInstance(true).decode(bytes);
+    }
+
+    @Test(expected = EOFException.class)
+    @DisplayName("Test truncated document info is rejected")
+    public void whenDecodingTruncatedInput_thenExceptionIsThrown() throws IOException {
+        // given
+        final byte[] bytes = DocumentInfoCodec.getInstance(false).encode(DocumentInfo.builder().name("tika.pdf").content("Apache Tika").build());
+
+        // when
+        DocumentInfoCodec.getInstance(false).decode(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test
+    @DisplayName("Test time-ordered identifiers are increasing")
+    public void whenGeneratingIdentifiers_thenTheyAreOrdered() {
+        // given
+        final long start = System.currentTimeMillis();
+        String previous = IdentifierUtils.nextTimeOrderedId();
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            final String next = IdentifierUtils.nextTimeOrderedId();
+
+            // then
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+        final UUID uuid = UUID.fromString(previous);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(IdentifierUtils.getTimestamp(uuid) >= start);
+    }
+}
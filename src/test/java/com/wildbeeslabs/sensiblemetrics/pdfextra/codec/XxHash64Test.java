@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.codec;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * XXH64 hash unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class XxHash64Test {
+
+    @Test
+    @DisplayName("Test hash matches reference implementation vectors")
+    public void whenHashingReferenceInput_thenReferenceValueIsReturned() {
+        // given
+        final byte[] empty = new byte[0];
+        final byte[] abc = "abc".getBytes(StandardCharsets.US_ASCII);
+        final byte[] sentence = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII);
+
+        // when
+        final long emptyHash = XxHash64.hash(empty, 0, empty.length, 0);
+        final long abcHash = XxHash64.hash(abc, 0, abc.length, 0);
+        final long sentenceHash = XxHash64.hash(sentence, 0, sentence.length, 0);
+
+        // then
+        assertEquals(0xEF46DB3751D8E999L, emptyHash);
+        assertEquals(0x44BC2CF5AD770999L, abcHash);
+        assertEquals(0xFBCEA83C8A378BF1L, sentenceHash);
+        assertEquals("ef46db3751d8e999", HexEncoder.encode(emptyHash));
+    }
+
+    @Test
+    @DisplayName("Test streaming updates of any size produce the same hash")
+    public void whenUpdatingInChunks_thenHashIsTheSame() {
+        // given
+        final byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31 + 7);
+        }
+        final long expected = XxHash64.hash(bytes, 0, bytes.length, 0);
+
+        for (final int step : new int[]{1, 3, 31, 32, 33, 100}) {
+            // when
+            final XxHash64 hash = new XxHash64();
+            for (int i = 0; i < bytes.length; i += step) {
+                hash.update(bytes, i, Math.min(step, bytes.length - i));
+            }
+
+            // then
+            assertEquals(expected, hash.getValue());
+            assertEquals(bytes.length, hash.getLength());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.concurrent;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Extraction executors unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class ExtractionExecutorsTest {
+
+    @Test
+    @DisplayName("Test subtask results are returned in task order")
+    public void whenInvokingAll_thenResultsAreInTaskOrder() throws Exception {
+        // given
+        final List<Callable<Integer>> tasks = Arrays.asList(() -> {
+            TimeUnit.MILLISECONDS.sleep(50);
+            return 1;
+        }, () -> 2, () -> 3);
+
+        // when
+        final List<Integer> results = ExtractionExecutors.invokeAll("test", tasks);
+
+        // then
+        assertEquals(Arrays.asList(1, 2, 3), results);
+    }
+
+    @Test
+    @DisplayName("Test failed subtask cancels its siblings")
+    public void whenSubtaskFails_thenSiblingsAreCancelled() throws Exception {
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final List<Callable<Integer>> tasks = Arrays.asList(() -> {
+            started.countDown();
+            try {
+                TimeUnit.MINUTES.sleep(1);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            }
+            return 1;
+        }, () -> {
+            started.await();
+            throw new IllegalStateException("failed");
+        });
+
+        // when
+        try {
+            ExtractionExecutors.invokeAll("test", tasks);
+            fail("subtask failure should be rethrown");
+        } catch (IllegalStateException e) {
+            // then
+            assertEquals("failed", e.getMessage());
+            assertTrue(interrupted.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Test batch executor runs no more tasks at once than its parallelism")
+    public void whenSubmittingBatchTasks_thenParallelismIsHonoured() throws Exception {
+        // given
+        final int parallelism = 2;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final ExecutorService executor = ExtractionExecutors.newBatchExecutor("test", parallelism);
+
+        // when
+        try {
+            for (int i = 0; i < 16; i++) {
+                executor.execute(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(parallelism, peak.get());
+    }
+
+    @Test
+    @DisplayName("Test nested CPU-bound calls hold single permit")
+    public void whenCallingCpuBoundNested_thenSinglePermitIsUsed() throws Exception {
+        // when
+        final String result = ExtractionExecutors.callCpuBound(() -> ExtractionExecutors.callCpuBound(() -> "nested"));
+
+        // then
+        assertEquals("nested", result);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.context;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.EmptyParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.XHTMLContentHandler;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Extraction context unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class ExtractionContextTest {
+
+    @Test
+    @DisplayName("Test extraction context is reused and reset by the same thread")
+    public void whenReleasingContext_thenContextIsResetAndReused() {
+        // given
+        final ExtractionContext first;
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            context.getMetadata().set(Metadata.CONTENT_TYPE, "text/plain");
+            context.set(Locale.class, Locale.FRENCH);
+            context.getWriter().write("content");
+            assertEquals("content", context.getText());
+            first = context;
+        }
+
+        // when
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            // then
+            assertSame(first, context);
+            assertEquals(0, context.getMetadata().size());
+            assertNull(context.getParseContext().get(Locale.class));
+            assertEquals("", context.getText());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parse context entries added by parsers are cleared on reset")
+    public void whenParserAddsContextEntry_thenItIsClearedOnReset() {
+        // given
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            final ParseContext parseContext = context.getParseContext();
+            parseContext.set(Parser.class, EmptyParser.INSTANCE);
+            assertSame(EmptyParser.INSTANCE, parseContext.get(Parser.class));
+        }
+
+        // when
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            // then
+            assertNull(context.getParseContext().get(Parser.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Test nested extraction context acquisition returns a fresh instance")
+    public void whenAcquiringNestedContext_thenFreshContextIsReturned() {
+        // given
+        try (final ExtractionContext outer = ExtractionContext.acquire()) {
+            // when
+            try (final ExtractionContext inner = ExtractionContext.acquire()) {
+                // then
+                assertNotSame(outer, inner);
+                assertTrue(outer.isAcquired());
+            }
+            assertTrue(outer.isAcquired());
+        }
+    }
+
+    @Test
+    @DisplayName("Test failed parse does not leave body handler state for the next parse on the same thread")
+    public void whenParseFails_thenNextParseOnSameThreadIsNotAffected() throws IOException, SAXException, TikaException {
+        // given
+        try (final ExtractionContext context = ExtractionContext.acquire()) {
+            final XHTMLContentHandler xhtml = new XHTMLContentHandler(context.getBodyHandler(), context.getMetadata());
+            xhtml.startDocument();
+            xhtml.startElement("p");
+            xhtml.characters("broken");
+            assertEquals("broken", context.getText());
+        }
+        final String html = "<html><head><title>Title</title></head><body><p>Body</p></body></html>";
+
+        // when
+        final String content;
+        try (final InputStream stream = new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8))) {
+            content = AnalyzerUtils.getContentByParser(stream);
+        }
+
+        // then
+        assertTrue(content.contains("Body"));
+        assertFalse(content.contains("Title"));
+        assertFalse(content.contains("broken"));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.extractor;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.*;
+
+/**
+ * Pdf page extractor unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class PdfPageExtractorTest {
+
+    /**
+     * Default number of pages in generated document
+     */
+    public static final int DEFAULT_NUMBER_OF_PAGES = 30;
+
+    @Test
+    @DisplayName("Test only pages of selected range are extracted")
+    public void whenExtractingPageRange_thenOnlyRangePagesAreReturned() throws IOException {
+        // given
+        final PdfPageExtractor extractor = new PdfPageExtractor();
+
+        try (final InputStream stream = new ByteArrayInputStream(createDocument())) {
+            // when
+            final String text = extractor.extract(stream, 3, 5);
+
+            // then
+            assertThat(text, containsString(marker(3)));
+            assertThat(text, containsString(marker(5)));
+            assertThat(text, not(containsString(marker(2))));
+            assertThat(text, not(containsString(marker(6))));
+        }
+    }
+
+    @Test
+    @DisplayName("Test page-parallel extraction keeps page order")
+    public void whenExtractingInParallel_thenTextIsInPageOrder() throws IOException {
+        // given
+        final PdfPageExtractor extractor = new PdfPageExtractor();
+        final PdfPageExtractor.DocumentSource source = PdfPageExtractor.DocumentSource.of(createDocument());
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            // when
+            final String text = extractor.extractParallel(source, executor, 4);
+
+            // then
+            assertEquals(extractor.extract(source, 1, DEFAULT_NUMBER_OF_PAGES), text);
+            int position = -1;
+            for (int page = 1; page <= DEFAULT_NUMBER_OF_PAGES; page++) {
+                final int next = text.indexOf(marker(page));
+                assertTrue("Page text should follow previous page", next > position);
+                position = next;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test page-parallel extraction of input stream matches sequential extraction")
+    public void whenExtractingStreamInParallel_thenTextMatchesSequentialExtraction() throws IOException {
+        // given
+        final PdfPageExtractor extractor = new PdfPageExtractor();
+        final byte[] document = createDocument();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try (final InputStream stream = new ByteArrayInputStream(document)) {
+            // when
+            final String text = extractor.extractParallel(stream, executor, 4);
+
+            // then
+            assertEquals(extractor.extract(PdfPageExtractor.DocumentSource.of(document), 1, DEFAULT_NUMBER_OF_PAGES), text);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test page-parallel extraction from a task of the same saturated executor completes")
+    public void whenExtractingFromExecutorTask_thenExtractionDoesNotDeadlock() throws Exception {
+        // given
+        final PdfPageExtractor extractor = new PdfPageExtractor();
+        final PdfPageExtractor.DocumentSource source = PdfPageExtractor.DocumentSource.of(createDocument());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // when
+            final Future<String> text = executor.submit(() -> extractor.extractParallel(source, executor, 4));
+
+            // then
+            assertEquals(extractor.extract(source, 1, DEFAULT_NUMBER_OF_PAGES), text.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test invalid page range is rejected")
+    public void whenExtractingInvalidPageRange_thenExceptionIsThrown() throws IOException {
+        // given
+        final PdfPageExtractor extractor = new PdfPageExtractor();
+
+        // when
+        extractor.extract(PdfPageExtractor.DocumentSource.of(createDocument()), 5, 4);
+    }
+
+    private static String marker(int page) {
+        return String.format("page-%03d", page);
+    }
+
+    private static byte[] createDocument() throws IOException {
+        try (final PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= DEFAULT_NUMBER_OF_PAGES; page++) {
+                final PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (final PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(100, 700);
+                    content.showText(marker(page));
+                    content.endText();
+                }
+            }
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            document.save(output);
+            return output.toByteArray();
+        }
+    }
+}
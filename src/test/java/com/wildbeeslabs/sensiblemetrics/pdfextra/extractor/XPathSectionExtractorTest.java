@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.extractor;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.*;
+
+/**
+ * Xpath section extractor unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class XPathSectionExtractorTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+    /**
+     * Default heading xpath expression
+     */
+    public static final String DEFAULT_HEADING_EXPRESSION = "/xhtml:html/xhtml:body/xhtml:h1";
+    /**
+     * Default division text xpath expression
+     */
+    public static final String DEFAULT_DIVISION_EXPRESSION = "/xhtml:html/xhtml:body/xhtml:div/text()";
+
+    @Test
+    @DisplayName("Test sections are grouped by xpath expression in configured order")
+    public void whenExtractingSections_thenSectionsAreGroupedByExpression() throws IOException, TikaException, SAXException {
+        // given
+        final XPathSectionExtractor extractor = new XPathSectionExtractor(DEFAULT_DIVISION_EXPRESSION, DEFAULT_HEADING_EXPRESSION);
+
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html"))) {
+            // when
+            final Map<String, List<String>> sections = extractor.extract(stream);
+
+            // then
+            assertEquals(Arrays.asList(DEFAULT_DIVISION_EXPRESSION, DEFAULT_HEADING_EXPRESSION), Arrays.asList(sections.keySet().toArray()));
+            assertEquals(Collections.singletonList("Now with an improved layout."), sections.get(DEFAULT_DIVISION_EXPRESSION));
+            assertEquals(1, sections.get(DEFAULT_HEADING_EXPRESSION).size());
+            assertThat(sections.get(DEFAULT_HEADING_EXPRESSION).get(0), containsString("hasCode.com</h1>"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test extractor is reused for several documents")
+    public void whenReusingExtractor_thenEveryDocumentIsExtracted() throws IOException, TikaException, SAXException {
+        // given
+        final Map<String, Integer> expressions = new LinkedHashMap<>();
+        expressions.put(DEFAULT_HEADING_EXPRESSION, 1);
+        final XPathSectionExtractor extractor = new XPathSectionExtractor(expressions);
+
+        for (int i = 0; i < 3; i++) {
+            try (final InputStream stream = new BufferedInputStream(new FileInputStream(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html"))) {
+                // when
+                final Map<String, List<String>> sections = extractor.extract(stream);
+
+                // then
+                assertEquals(1, sections.get(DEFAULT_HEADING_EXPRESSION).size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test html fragment is selected by xpath expression")
+    public void whenParsingHtmlByXPath_thenOnlyMatchedFragmentIsReturned() throws IOException, TikaException, SAXException {
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html"))) {
+            // when
+            final String html = AnalyzerUtils.parseHTMLByXPath(stream, "/xhtml:html/xhtml:body/xhtml:div/descendant::node()");
+
+            // then
+            assertThat(html, containsString("Now with an improved layout."));
+            assertThat(html, not(containsString("hasCode.com")));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test extractor with unsupported xpath expression is rejected")
+    public void whenCreatingExtractorWithUnsupportedExpression_thenExceptionIsThrown() {
+        // when
+        new XPathSectionExtractor(DEFAULT_HEADING_EXPRESSION, "body/div");
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.fetcher;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.tika.metadata.Metadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.*;
+
+/**
+ * Asynchronous url fetcher unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class AsyncUrlFetcherTest {
+
+    /**
+     * Default response text content
+     */
+    public static final String DEFAULT_CONTENT = "Apache Tika - a content analysis toolkit";
+
+    private HttpServer server;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+        this.server.createContext("/plain.txt", exchange -> {
+            final byte[] body = DEFAULT_CONTENT.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        this.server.createContext("/gzip.txt", exchange -> {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (final OutputStream output = new GZIPOutputStream(buffer)) {
+                output.write(DEFAULT_CONTENT.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, buffer.size());
+            try (final OutputStream output = exchange.getResponseBody()) {
+                buffer.writeTo(output);
+            }
+        });
+        this.server.createContext("/slow.txt", exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(100);
+                final byte[] body = DEFAULT_CONTENT.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (final OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+        this.server.createContext("/blocking.txt", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                final byte[] body = DEFAULT_CONTENT.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (final OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Test plain and gzip encoded responses are decoded by content encoding")
+    public void whenFetchingEncodedContent_thenContentIsDecoded() throws Exception {
+        try (final AsyncUrlFetcher fetcher = new AsyncUrlFetcher()) {
+            // when
+            final String plain = fetcher.fetchContent(getAddress("/plain.txt")).get(10, TimeUnit.SECONDS);
+            final String gzip = fetcher.fetchContent(getAddress("/gzip.txt")).get(10, TimeUnit.SECONDS);
+
+            // then
+            assertThat(plain, containsString(DEFAULT_CONTENT));
+            assertThat(gzip, containsString(DEFAULT_CONTENT));
+        }
+    }
+
+    @Test
+    @DisplayName("Test response transfer coding is not reported as character encoding")
+    public void whenFetchingGzipDocument_thenTransferCodingIsKeptApart() throws Exception {
+        try (final AsyncUrlFetcher fetcher = new AsyncUrlFetcher()) {
+            // when
+            final Metadata metadata = fetcher.fetch(getAddress("/gzip.txt"), (stream, meta) -> meta).get(10, TimeUnit.SECONDS);
+
+            // then
+            assertEquals("gzip", metadata.get(AsyncUrlFetcher.HTTP_CONTENT_ENCODING));
+            assertNull(metadata.get(Metadata.CONTENT_ENCODING));
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests per host are bounded")
+    public void whenFetchingManyDocuments_thenConcurrencyPerHostIsBounded() throws Exception {
+        try (final AsyncUrlFetcher fetcher = new AsyncUrlFetcher(2)) {
+            // when
+            final List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(fetcher.fetch(getAddress("/slow.txt"), (stream, metadata) -> IOUtils.toString(stream, StandardCharsets.UTF_8)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+            // then
+            for (final CompletableFuture<String> future : futures) {
+                assertEquals(DEFAULT_CONTENT, future.get());
+            }
+            assertTrue("Concurrent requests per host should be bounded", maxActive.get() <= 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Test missing resource completes future exceptionally")
+    public void whenFetchingMissingDocument_thenFutureFails() {
+        try (final AsyncUrlFetcher fetcher = new AsyncUrlFetcher()) {
+            // when
+            final CompletableFuture<String> future = fetcher.fetchContent(getAddress("/missing.txt"));
+
+            // then
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail("Missing resource should not be fetched");
+            } catch (Exception e) {
+                assertTrue(future.isCompletedExceptionally());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test pending requests fail once executor is shut down")
+    public void whenExecutorIsShutDown_thenPendingFuturesFail() throws Exception {
+        // given
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (final AsyncUrlFetcher fetcher = new AsyncUrlFetcher(1, executor)) {
+            final CompletableFuture<String> running = fetcher.fetch(getAddress("/blocking.txt"), (stream, metadata) -> IOUtils.toString(stream, StandardCharsets.UTF_8));
+            final List<CompletableFuture<String>> pending = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                pending.add(fetcher.fetch(getAddress("/plain.txt"), (stream, metadata) -> IOUtils.toString(stream, StandardCharsets.UTF_8)));
+            }
+
+            // when
+            executor.shutdown();
+            this.release.countDown();
+
+            // then
+            assertEquals(DEFAULT_CONTENT, running.get(10, TimeUnit.SECONDS));
+            for (final CompletableFuture<String> future : pending) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail("Pending request should not be fetched by shut down executor");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof RejectedExecutionException);
+                }
+            }
+        }
+    }
+
+    private String getAddress(final String path) {
+        return String.format("http://localhost:%d%s", this.server.getAddress().getPort(), path);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.*;
+
+/**
+ * Page event content handler unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class PageEventContentHandlerTest {
+
+    /**
+     * Default number of pages in generated document
+     */
+    public static final int DEFAULT_NUMBER_OF_PAGES = 5;
+
+    @Test
+    @DisplayName("Test every page is reported with its text and meta data")
+    public void whenPagesClose_thenListenerIsNotified() throws SAXException {
+        // given
+        final List<Metadata> pages = new ArrayList<>();
+        final List<String> texts = new ArrayList<>();
+        final PageEventContentHandler handler = new PageEventContentHandler((pageNumber, text, metadata) -> {
+            texts.add(text);
+            pages.add(metadata);
+            return true;
+        });
+
+        // when
+        emitPages(handler, 3);
+
+        // then
+        assertEquals(3, handler.getPageCount());
+        assertEquals(3, pages.size());
+        for (int page = 1; page <= 3; page++) {
+            assertEquals(String.valueOf(page), pages.get(page - 1).get(PageEventContentHandler.PAGE_NUMBER));
+            assertEquals("2", pages.get(page - 1).get(PageEventContentHandler.PAGE_PARAGRAPHS));
+            assertEquals(marker(page) + "nested", texts.get(page - 1));
+            assertEquals(String.valueOf(texts.get(page - 1).length()), pages.get(page - 1).get(PageEventContentHandler.PAGE_CHARACTERS));
+        }
+    }
+
+    @Test
+    @DisplayName("Test listener cancellation interrupts parsing after the current page")
+    public void whenListenerCancels_thenRemainingPagesAreSkipped() {
+        // given
+        final List<Integer> pages = new ArrayList<>();
+        final PageEventContentHandler handler = new PageEventContentHandler((pageNumber, text, metadata) -> {
+            pages.add(pageNumber);
+            return pageNumber < 2;
+        });
+
+        // when
+        try {
+            emitPages(handler, 3);
+            fail("Parsing should be interrupted by cancelled listener");
+        } catch (SAXException e) {
+            // then
+            assertTrue(ExtractionCompletedException.isCauseOf(e));
+        }
+        assertEquals(2, pages.size());
+        assertEquals(2, handler.getPageCount());
+    }
+
+    @Test
+    @DisplayName("Test completed handler neither notifies listener nor forwards events")
+    public void whenHandlerIsCompleted_thenLaterEventsAreRejected() throws SAXException {
+        // given
+        final List<Integer> pages = new ArrayList<>();
+        final List<String> forwarded = new ArrayList<>();
+        final ContentHandler decorated = new DefaultHandler() {
+            @Override
+            public void characters(final char[] ch, int start, int length) {
+                forwarded.add(new String(ch, start, length));
+            }
+        };
+        final PageEventContentHandler handler = new PageEventContentHandler(decorated, (pageNumber, text, metadata) -> pages.add(pageNumber), 1);
+        try {
+            emitPages(handler, 1);
+            fail("Parsing should be interrupted after maximum number of pages");
+        } catch (ExtractionCompletedException e) {
+            log.debug("Page extraction completed", e);
+        }
+        forwarded.clear();
+
+        // when
+        try {
+            // parser recovering from the page error closes the page again and proceeds
+            emitPages(handler, 1);
+            fail("Completed handler should reject later events");
+        } catch (ExtractionCompletedException e) {
+            // then
+            assertTrue(handler.isCompleted());
+        }
+        assertEquals(1, pages.size());
+        assertTrue(forwarded.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test pdf parsing stops after maximum number of pages without error")
+    public void whenMaximumPagesAreReached_thenPdfParsingStops() throws IOException, SAXException, TikaException {
+        // given
+        final List<String> texts = new ArrayList<>();
+        final List<String> forwardedPages = new ArrayList<>();
+        final ContentHandler decorated = new DefaultHandler() {
+            @Override
+            public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+                if ("page".equals(attributes.getValue("class"))) {
+                    forwardedPages.add(localName);
+                }
+            }
+        };
+        final PageEventContentHandler handler = new PageEventContentHandler(decorated, (pageNumber, text, metadata) -> texts.add(text), 2);
+
+        try (final InputStream stream = new ByteArrayInputStream(createDocument())) {
+            // when
+            AnalyzerUtils.parsePdfByPages(stream, handler);
+        }
+
+        // then
+        assertTrue(handler.isCompleted());
+        assertEquals(2, handler.getPageCount());
+        assertEquals(2, forwardedPages.size());
+        assertEquals(2, texts.size());
+        assertThat(texts.get(0), containsString(marker(1)));
+        assertThat(texts.get(1), containsString(marker(2)));
+    }
+
+    @Test
+    @DisplayName("Test pdf pages are reported in page order")
+    public void whenParsingPdfByPages_thenEveryPageIsReported() throws IOException, SAXException, TikaException {
+        // given
+        final List<String> texts = new ArrayList<>();
+
+        try (final InputStream stream = new ByteArrayInputStream(createDocument())) {
+            // when
+            AnalyzerUtils.parsePdfByPages(stream, (pageNumber, text, metadata) -> {
+                assertEquals(texts.size() + 1, pageNumber);
+                return texts.add(text);
+            });
+        }
+
+        // then
+        assertEquals(DEFAULT_NUMBER_OF_PAGES, texts.size());
+        for (int page = 1; page <= DEFAULT_NUMBER_OF_PAGES; page++) {
+            assertThat(texts.get(page - 1), containsString(marker(page)));
+        }
+    }
+
+    private static void emitPages(final ContentHandler handler, int numberOfPages) throws SAXException {
+        final AttributesImpl page = new AttributesImpl();
+        page.addAttribute("", "class", "class", "CDATA", "page");
+        final AttributesImpl empty = new AttributesImpl();
+        handler.startDocument();
+        for (int i = 1; i <= numberOfPages; i++) {
+            handler.startElement("", "div", "div", page);
+            handler.startElement("", "p", "p", empty);
+            final char[] text = marker(i).toCharArray();
+            handler.characters(text, 0, text.length);
+            handler.endElement("", "p", "p");
+            handler.startElement("", "div", "div", empty);
+            handler.startElement("", "p", "p", empty);
+            handler.characters("nested".toCharArray(), 0, 6);
+            handler.endElement("", "p", "p");
+            handler.endElement("", "div", "div");
+            handler.endElement("", "div", "div");
+        }
+        handler.endDocument();
+    }
+
+    private static String marker(int page) {
+        return String.format("page-%03d", page);
+    }
+
+    private static byte[] createDocument() throws IOException {
+        try (final PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= DEFAULT_NUMBER_OF_PAGES; page++) {
+                final PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (final PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(100, 700);
+                    content.showText(marker(page));
+                    content.endText();
+                }
+            }
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            document.save(output);
+            return output.toByteArray();
+        }
+    }
+}
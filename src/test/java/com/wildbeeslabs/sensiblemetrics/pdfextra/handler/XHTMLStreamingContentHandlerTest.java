@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.io.CompressionType;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.sax.ToXMLContentHandler;
+import org.apache.tika.sax.XHTMLContentHandler;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Streaming xhtml content handler unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class XHTMLStreamingContentHandlerTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test streamed markup matches ToXMLContentHandler for escaped text, attributes and empty elements")
+    public void whenStreamingEvents_thenMarkupMatchesToXMLContentHandler() throws SAXException {
+        // given
+        final ToXMLContentHandler expected = new ToXMLContentHandler();
+        final StringWriter writer = new StringWriter();
+
+        // when
+        emit(expected);
+        emit(new XHTMLStreamingContentHandler(writer));
+
+        // then
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test streamed document and body markup match buffered markup")
+    public void whenStreamingDocument_thenMarkupMatchesBufferedMarkup() throws IOException, SAXException, TikaException {
+        // given
+        final File file = new File(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html");
+        final String html;
+        final String body;
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            html = AnalyzerUtils.parseToHTML(stream);
+        }
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            body = AnalyzerUtils.parseBodyToHTML(stream);
+        }
+
+        // when
+        final StringWriter writer = new StringWriter();
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            AnalyzerUtils.parseToHTML(stream, writer);
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            AnalyzerUtils.parseBodyToHTML(stream, output);
+        }
+
+        // then
+        assertEquals(html, writer.toString());
+        assertEquals(body, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test failed compressed body streaming does not produce complete archive")
+    public void whenCompressedBodyStreamingFails_thenArchiveIsNotFinished() throws IOException {
+        // given
+        final StringBuilder html = new StringBuilder("<html><head><title>Tika</title></head><body>");
+        for (int i = 0; i < 1000; i++) {
+            html.append("<p>Apache Tika - a content analysis toolkit</p>");
+        }
+        final byte[] bytes = html.toString().getBytes(StandardCharsets.UTF_8);
+        final InputStream failing = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            private int remaining = bytes.length / 2;
+
+            @Override
+            public int read(final byte[] buffer, int offset, int length) throws IOException {
+                if (this.remaining <= 0) {
+                    throw new IOException("connection reset");
+                }
+                final int n = super.read(buffer, offset, Math.min(length, this.remaining));
+                this.remaining -= n;
+                return n;
+            }
+        };
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        try {
+            AnalyzerUtils.parseBodyToHTML(failing, output, CompressionType.GZIP);
+            fail("parse failure should be rethrown");
+        } catch (IOException | SAXException | TikaException e) {
+            // expected
+        }
+
+        // then
+        try (final InputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            IOUtils.toByteArray(input);
+            fail("aborted archive should not be complete");
+        } catch (EOFException e) {
+            // expected
+        }
+    }
+
+    private static void emit(final ContentHandler handler) throws SAXException {
+        final XHTMLContentHandler xhtml = new XHTMLContentHandler(handler, new Metadata());
+        xhtml.startDocument();
+        xhtml.element("h1", "Heading & \"quotes\" <tags>");
+        final AttributesImpl attributes = new AttributesImpl();
+        attributes.addAttribute("", "href", "href", "CDATA", "http://example.com/?a=1&b=\"2\"");
+        xhtml.startElement("a", attributes);
+        xhtml.characters("link");
+        xhtml.endElement("a");
+        xhtml.startElement("br");
+        xhtml.endElement("br");
+        xhtml.element("p", "emoji 😀 and accents été");
+        xhtml.endDocument();
+    }
+}
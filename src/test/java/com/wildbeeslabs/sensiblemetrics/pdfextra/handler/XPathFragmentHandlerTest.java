@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.*;
+
+/**
+ * Streaming xpath fragment handler unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class XPathFragmentHandlerTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test several xpath expressions are evaluated in a single parse")
+    public void whenUsingSeveralExpressions_thenEveryFragmentIsReturned() throws IOException, TikaException, SAXException {
+        // given
+        final File file = new File(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html");
+        assertTrue("File should exist", file.exists());
+        final Map<String, String> fragments = new LinkedHashMap<>();
+        final XPathFragmentHandler handler = new XPathFragmentHandler(fragments::put)
+            .select("/xhtml:html/xhtml:body/xhtml:h1", 1)
+            .select("/xhtml:html/xhtml:body/xhtml:div/text()", 1);
+
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            // when
+            AnalyzerUtils.parseByXPath(stream, handler);
+
+            // then
+            assertTrue(handler.isCompleted());
+            assertThat(fragments.get("/xhtml:html/xhtml:body/xhtml:h1"), containsString("<h1"));
+            assertThat(fragments.get("/xhtml:html/xhtml:body/xhtml:h1"), containsString("hasCode.com</h1>"));
+            assertEquals("Now with an improved layout.", fragments.get("/xhtml:html/xhtml:body/xhtml:div/text()"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test unlimited xpath expression does not complete parsing early")
+    public void whenUsingUnlimitedExpression_thenHandlerIsNotCompleted() throws IOException, TikaException, SAXException {
+        // given
+        final File file = new File(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html");
+        final Map<String, String> fragments = new LinkedHashMap<>();
+        final XPathFragmentHandler handler = new XPathFragmentHandler(fragments::put)
+            .select("/xhtml:html/xhtml:body/xhtml:h1");
+
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            // when
+            AnalyzerUtils.parseByXPath(stream, handler);
+
+            // then
+            assertFalse(handler.isCompleted());
+            assertEquals(1, fragments.size());
+        }
+    }
+}
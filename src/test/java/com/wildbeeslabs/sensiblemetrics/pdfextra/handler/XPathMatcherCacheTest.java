@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.handler;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.sax.xpath.Matcher;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compiled xpath matcher cache unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class XPathMatcherCacheTest {
+
+    @Test
+    @DisplayName("Test compiled matcher is shared by the same xpath expression")
+    public void whenGettingSameExpression_thenSameMatcherIsReturned() {
+        // given
+        final String expression = "/xhtml:html/xhtml:body/xhtml:div/descendant::node()";
+
+        // when
+        final Matcher first = XPathMatcherCache.get(expression);
+        final Matcher second = XPathMatcherCache.get(new String(expression));
+
+        // then
+        assertSame(first, second);
+        assertNotSame(Matcher.FAIL, first);
+        assertNotSame(first, XPathMatcherCache.get("/xhtml:html/xhtml:body/xhtml:h1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test unsupported xpath expression is rejected")
+    public void whenGettingUnsupportedExpression_thenExceptionIsThrown() {
+        // when
+        XPathMatcherCache.get("xhtml:html/xhtml:body");
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Bulk ingestor unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class BulkIngestorTest {
+
+    /**
+     * Default journal entry size (in bytes)
+     */
+    private static final int ENTRY_SIZE = 3 * Long.BYTES;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path input;
+    private Path journalFile;
+
+    @Before
+    public void setUp() throws IOException {
+        this.input = this.folder.newFolder("input").toPath();
+        this.journalFile = this.folder.getRoot().toPath().resolve(BulkIngestor.DEFAULT_JOURNAL_NAME);
+        for (int i = 0; i < 3; i++) {
+            Files.write(this.input.resolve(String.format("document-%s.txt", i)), String.format("Document %s", i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test unchanged files are skipped by next run and modified files are extracted again")
+    public void whenIngestingTwice_thenOnlyChangedFilesAreExtracted() throws IOException {
+        // given
+        final RecordingSink sink = new RecordingSink(this.journalFile);
+        this.ingest(sink);
+        assertEquals(3, sink.accepted.size());
+
+        // when
+        final BulkIngestor.Statistics unchanged = this.ingest(new RecordingSink(this.journalFile));
+        final Path modified = this.input.resolve("document-1.txt");
+        Files.write(modified, "Modified document".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(modified, FileTime.fromMillis(Files.getLastModifiedTime(modified).toMillis() + 60_000));
+        final RecordingSink changedSink = new RecordingSink(this.journalFile);
+        final BulkIngestor.Statistics changed = this.ingest(changedSink);
+
+        // then
+        assertEquals(0, unchanged.getProcessed().get());
+        assertEquals(3, unchanged.getSkipped().get());
+        assertEquals(1, changed.getProcessed().get());
+        assertEquals(2, changed.getSkipped().get());
+        assertTrue(changedSink.accepted.contains(modified.toString()));
+    }
+
+    @Test
+    @DisplayName("Test interrupted run is resumed from checkpoint journal")
+    public void whenResumingInterruptedRun_thenOnlyRemainingFilesAreExtracted() throws IOException {
+        // given
+        final RecordingSink interrupted = new RecordingSink(this.journalFile);
+        interrupted.rejected.add("document-2.txt");
+        final BulkIngestor.Statistics first = this.ingest(interrupted);
+
+        // when
+        final RecordingSink resumed = new RecordingSink(this.journalFile);
+        final BulkIngestor.Statistics second = this.ingest(resumed);
+
+        // then
+        assertEquals(2, first.getProcessed().get());
+        assertEquals(1, first.getFailed().get());
+        assertEquals(1, second.getProcessed().get());
+        assertEquals(2, second.getSkipped().get());
+        assertEquals(1, resumed.accepted.size());
+        assertTrue(resumed.accepted.contains(this.input.resolve("document-2.txt").toString()));
+    }
+
+    @Test
+    @DisplayName("Test journal entries are not committed when extraction sink cannot be flushed")
+    public void whenSinkFlushFails_thenJournalIsNotCommitted() throws IOException {
+        // given
+        final RecordingSink failing = new RecordingSink(this.journalFile);
+        failing.failFlush = true;
+        final BulkIngestor ingestor = new BulkIngestor(failing, new CheckpointJournal(this.journalFile), null, 1, 1);
+
+        // when
+        try {
+            ingestor.ingest(this.input);
+            fail("Ingestion should fail when extraction sink cannot be flushed");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            ingestor.close();
+            fail("Closing should fail when extraction sink cannot be flushed");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // then
+        assertEquals(0, Files.size(this.journalFile));
+        final BulkIngestor.Statistics rerun = this.ingest(new RecordingSink(this.journalFile));
+        assertEquals(3, rerun.getProcessed().get());
+        assertEquals(0, rerun.getSkipped().get());
+    }
+
+    @Test
+    @DisplayName("Test files of failed checkpoint are extracted again by next run of the same ingestor")
+    public void whenRerunningAfterFailedFlush_thenFilesAreExtractedAgain() throws IOException {
+        // given
+        final RecordingSink sink = new RecordingSink(this.journalFile);
+        sink.failFlush = true;
+        try (final BulkIngestor ingestor = new BulkIngestor(sink, new CheckpointJournal(this.journalFile), null, 1, 1)) {
+            try {
+                ingestor.ingest(this.input);
+                fail("Ingestion should fail when extraction sink cannot be flushed");
+            } catch (IOException e) {
+                // expected
+            }
+            sink.failFlush = false;
+            sink.accepted.clear();
+
+            // when
+            final BulkIngestor.Statistics rerun = ingestor.ingest(this.input);
+
+            // then
+            assertEquals(3, rerun.getProcessed().get());
+            assertEquals(0, rerun.getSkipped().get());
+            assertEquals(3, sink.accepted.size());
+        }
+        assertEquals(3L * ENTRY_SIZE, Files.size(this.journalFile));
+    }
+
+    private BulkIngestor.Statistics ingest(final RecordingSink sink) throws IOException {
+        try (final BulkIngestor ingestor = new BulkIngestor(sink, new CheckpointJournal(this.journalFile), null, 1, 1)) {
+            return ingestor.ingest(this.input);
+        }
+    }
+
+    /**
+     * Recording extraction sink implementation
+     * <p>
+     * Verifies on every flush that journal file holds no entries for documents accepted since previous flush
+     */
+    private static class RecordingSink implements ExtractionSink {
+        private final Path journalFile;
+        private final Set<String> accepted = ConcurrentHashMap.newKeySet();
+        private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+        private final long committed;
+        private volatile boolean failFlush;
+        private int flushed;
+
+        RecordingSink(final Path journalFile) throws IOException {
+            this.journalFile = journalFile;
+            this.committed = journalSize(journalFile);
+        }
+
+        @Override
+        public void accept(final String documentId, final Metadata metadata, final CharSequence content) throws IOException {
+            if (this.rejected.stream().anyMatch(documentId::endsWith)) {
+                throw new IOException(String.format("ERROR: rejected document={%s}", documentId));
+            }
+            this.accepted.add(documentId);
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (this.failFlush) {
+                throw new IOException("ERROR: cannot flush sink");
+            }
+            assertTrue("Journal is committed before sink flush", journalSize(this.journalFile) <= this.committed + (long) ENTRY_SIZE * this.flushed);
+            this.flushed = this.accepted.size();
+        }
+
+        private static long journalSize(final Path journalFile) throws IOException {
+            return Files.exists(journalFile) ? Files.size(journalFile) : 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checkpoint journal unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class CheckpointJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test committed files are skipped after reopening journal until they change")
+    public void whenReopeningJournal_thenOnlyChangedFilesAreNotDone() throws IOException {
+        // given
+        final Path journalFile = this.folder.getRoot().toPath().resolve("checkpoint.journal");
+        final Path unchanged = this.folder.newFile("unchanged.txt").toPath();
+        final Path changed = this.folder.newFile("changed.txt").toPath();
+        final Path uncommitted = this.folder.newFile("uncommitted.txt").toPath();
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile)) {
+            journal.markDone(unchanged, attributes(unchanged));
+            journal.markDone(changed, attributes(changed));
+        }
+
+        // when
+        Files.write(changed, "modified".getBytes(StandardCharsets.UTF_8));
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile)) {
+            // then
+            assertEquals(2, journal.getSize());
+            assertTrue(journal.isDone(unchanged, attributes(unchanged)));
+            assertFalse(journal.isDone(changed, attributes(changed)));
+            assertFalse(journal.isDone(uncommitted, attributes(uncommitted)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test discarded entries are rolled back to the last committed state")
+    public void whenDiscardingMarkedEntries_thenCommittedStateIsRestored() throws IOException {
+        // given
+        final Path journalFile = this.folder.getRoot().toPath().resolve("checkpoint.journal");
+        final Path original = this.folder.newFile("original.txt").toPath();
+        final Path modified = this.folder.newFile("modified.txt").toPath();
+        Files.write(modified, "modified".getBytes(StandardCharsets.UTF_8));
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile)) {
+            for (int i = 0; i < 1000; i++) {
+                journal.markDone(original.resolveSibling("committed-" + i), attributes(original));
+            }
+            journal.commit();
+            for (int i = 0; i < 500; i++) {
+                journal.markDone(original.resolveSibling("committed-" + i), attributes(modified));
+            }
+            for (int i = 0; i < 5000; i++) {
+                journal.markDone(original.resolveSibling("pending-" + i), attributes(original));
+            }
+
+            // when
+            journal.discard();
+
+            // then
+            assertEquals(1000, journal.getSize());
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(journal.isDone(original.resolveSibling("committed-" + i), attributes(original)));
+            }
+            for (int i = 0; i < 5000; i++) {
+                assertFalse(journal.isDone(original.resolveSibling("pending-" + i), attributes(original)));
+            }
+        }
+        assertEquals(1000L * 3 * Long.BYTES, Files.size(journalFile));
+    }
+
+    private static BasicFileAttributes attributes(final Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
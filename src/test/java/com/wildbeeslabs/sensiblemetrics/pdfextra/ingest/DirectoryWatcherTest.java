@@ -0,0 +1,249 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.ingest;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.store.ExtractionSink;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Directory watcher unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class DirectoryWatcherTest {
+
+    /**
+     * Default quiet period (in milliseconds)
+     */
+    private static final long QUIET_PERIOD = 200;
+    /**
+     * Default await timeout (in milliseconds)
+     */
+    private static final long TIMEOUT = 10_000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test existing, created and nested files are extracted once they are quiet")
+    public void whenFilesAreDropped_thenEachFileIsExtractedOnce() throws Exception {
+        // given
+        final Path directory = this.folder.newFolder("drop").toPath();
+        write(directory.resolve("existing.txt"), "Existing document");
+        final RecordingSink sink = new RecordingSink();
+
+        try (final DirectoryWatcher watcher = new DirectoryWatcher(directory, sink, null, 2, 16, QUIET_PERIOD)) {
+            // when
+            watcher.start();
+            write(directory.resolve("created.txt"), "Created document");
+            final Path nested = Files.createDirectory(directory.resolve("nested"));
+            Thread.sleep(QUIET_PERIOD);
+            write(nested.resolve("nested.txt"), "Nested document");
+
+            // then
+            await(() -> watcher.getStatistics().getProcessed().get() == 3);
+            assertEquals(0, watcher.getStatistics().getFailed().get());
+        }
+        assertEquals(3, sink.documents.size());
+        assertTrue(sink.content(directory.resolve("nested").resolve("nested.txt")).contains("Nested document"));
+        assertEquals(1, sink.flushes.get());
+    }
+
+    @Test
+    @DisplayName("Test scan skips files recorded unchanged by checkpoint journal")
+    public void whenFileIsInJournal_thenScanSkipsFile() throws Exception {
+        // given
+        final Path directory = this.folder.newFolder("drop").toPath();
+        final Path done = write(directory.resolve("done.txt"), "Done document");
+        final Path changed = write(directory.resolve("changed.txt"), "Changed document");
+        final Path journalFile = this.folder.getRoot().toPath().resolve(BulkIngestor.DEFAULT_JOURNAL_NAME);
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile)) {
+            journal.markDone(done, Files.readAttributes(done, BasicFileAttributes.class));
+            journal.markDone(changed, Files.readAttributes(changed, BasicFileAttributes.class));
+        }
+        write(changed, "Changed document, second revision");
+        final RecordingSink sink = new RecordingSink();
+
+        // when
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile);
+             final DirectoryWatcher watcher = new DirectoryWatcher(directory, sink, journal, 1, 16, QUIET_PERIOD)) {
+            watcher.start();
+            await(() -> watcher.getStatistics().getProcessed().get() == 1);
+
+            // then
+            assertEquals(1, watcher.getStatistics().getSkipped().get());
+            assertEquals(1, sink.documents.size());
+            assertTrue(sink.content(changed).contains("second revision"));
+        }
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile)) {
+            assertTrue(journal.isDone(changed, Files.readAttributes(changed, BasicFileAttributes.class)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test modification of queued file re-arms quiet period and final revision is extracted")
+    public void whenQueuedFileIsModified_thenFinalRevisionIsExtracted() throws Exception {
+        // given
+        final Path directory = this.folder.newFolder("drop").toPath();
+        final RecordingSink sink = new RecordingSink();
+        sink.blocked = directory.resolve("blocking.txt").toString();
+
+        try (final DirectoryWatcher watcher = new DirectoryWatcher(directory, sink, null, 1, 16, QUIET_PERIOD)) {
+            watcher.start();
+            write(directory.resolve("blocking.txt"), "Blocking document");
+            assertTrue(sink.started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            final Path queued = write(directory.resolve("queued.txt"), "First revision");
+            Thread.sleep(QUIET_PERIOD * 3);
+
+            // when
+            Files.write(queued, ", second revision".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            await(() -> watcher.getStatistics().getCoalesced().get() > 0);
+            sink.release.countDown();
+            Files.write(queued, ", third revision".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            // then
+            await(() -> watcher.getStatistics().getProcessed().get() == 2);
+            Thread.sleep(QUIET_PERIOD * 3);
+            assertEquals(2, watcher.getStatistics().getProcessed().get());
+            assertTrue(sink.content(queued).contains("First revision, second revision, third revision"));
+            assertEquals(1, sink.accepted(queued));
+        }
+    }
+
+    @Test
+    @DisplayName("Test extracted files are checkpointed while watching and working directory is not extracted")
+    public void whenCheckpointIntervalIsReached_thenJournalIsCommittedWhileWatching() throws Exception {
+        // given
+        final Path directory = this.folder.newFolder("drop").toPath();
+        final Path workDirectory = Files.createDirectory(directory.resolve("work"));
+        final Path journalFile = workDirectory.resolve(BulkIngestor.DEFAULT_JOURNAL_NAME);
+        final RecordingSink sink = new RecordingSink();
+
+        try (final CheckpointJournal journal = new CheckpointJournal(journalFile);
+             final DirectoryWatcher watcher = new DirectoryWatcher(directory, sink, journal, workDirectory, 1, 16, QUIET_PERIOD, 1)) {
+            watcher.start();
+
+            // when
+            final Path dropped = write(directory.resolve("dropped.txt"), "Dropped document");
+            write(workDirectory.resolve("store.dat"), "Store data");
+            await(() -> watcher.getStatistics().getProcessed().get() == 1);
+            await(() -> sink.flushes.get() > 0);
+            Thread.sleep(QUIET_PERIOD * 3);
+
+            // then
+            assertEquals(1, sink.documents.size());
+            assertTrue(sink.content(dropped).contains("Dropped document"));
+            assertEquals(3L * Long.BYTES, Files.size(journalFile));
+        }
+    }
+
+    private static Path write(final Path path, final String content) throws IOException {
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition is not met before timeout");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Recording extraction sink implementation
+     * <p>
+     * Blocks extraction of configured document until released
+     */
+    private static class RecordingSink implements ExtractionSink {
+        private final Map<String, String> documents = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+        private final AtomicLong flushes = new AtomicLong();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile String blocked;
+
+        @Override
+        public void accept(final String documentId, final Metadata metadata, final CharSequence content) throws IOException {
+            if (documentId.equals(this.blocked)) {
+                this.started.countDown();
+                try {
+                    this.release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            this.documents.put(documentId, content.toString());
+            this.counts.computeIfAbsent(documentId, id -> new AtomicLong()).incrementAndGet();
+        }
+
+        @Override
+        public void flush() {
+            this.flushes.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        String content(final Path path) {
+            return this.documents.get(path.toString());
+        }
+
+        long accepted(final Path path) {
+            return this.counts.get(path.toString()).get();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.codec.HexEncoder;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.ExtractionResult;
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+/**
+ * Digesting input stream unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class DigestingInputStreamTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test partially read stream is drained and digested on finish")
+    public void whenFinishingPartiallyReadStream_thenDigestsAreStored() throws IOException {
+        // given
+        final Metadata metadata = new Metadata();
+        final DigestingInputStream stream = new DigestingInputStream(new ByteArrayInputStream("abc".getBytes(StandardCharsets.US_ASCII)), metadata);
+        assertEquals('a', stream.read());
+
+        // when
+        stream.finish();
+
+        // then
+        assertEquals(3, stream.getLength());
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", metadata.get(DigestingInputStream.DIGEST_SHA256));
+        assertEquals("44bc2cf5ad770999", metadata.get(DigestingInputStream.DIGEST_XXH64));
+    }
+
+    @Test
+    @DisplayName("Test extraction digests match digests of the whole file")
+    public void whenExtractingWithDigests_thenDigestsMatchFile() throws Exception {
+        // given
+        final byte[] bytes = Files.readAllBytes(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf"));
+        final DigestingInputStream expected = new DigestingInputStream(new ByteArrayInputStream(bytes), null);
+        expected.finish();
+
+        // when
+        final ExtractionResult result;
+        try (final InputStream stream = Files.newInputStream(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf"))) {
+            result = AnalyzerUtils.extractWithDigests(stream, "tika.pdf");
+        }
+
+        // then
+        assertTrue(result.getContent().contains("Tika"));
+        assertEquals(HexEncoder.encode(expected.getSha256()), result.getMetadata().get(DigestingInputStream.DIGEST_SHA256));
+        assertEquals(HexEncoder.encode(expected.getXxHash64()), result.getMetadata().get(DigestingInputStream.DIGEST_XXH64));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mapped file input stream unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class MappedFileInputStreamTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test file is read through mapped header window and positional reads")
+    public void whenReadingFile_thenMappedAndPositionalBytesAreReturned() throws IOException {
+        // given
+        final byte[] content = content(1000);
+        final Path path = this.write(content);
+
+        // when
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (final MappedFileInputStream stream = new MappedFileInputStream(path, 100)) {
+            assertEquals(content.length, stream.size());
+            assertEquals(content[0] & 0xFF, stream.read());
+            final byte[] buffer = new byte[64];
+            output.write(content[0]);
+            for (int n = stream.read(buffer); n != -1; n = stream.read(buffer)) {
+                output.write(buffer, 0, n);
+            }
+            assertEquals(-1, stream.read());
+        }
+
+        // then
+        assertArrayEquals(content, output.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Test reset returns to marked position inside and beyond header window")
+    public void whenResettingStream_thenMarkedPositionIsRestored() throws IOException {
+        // given
+        final byte[] content = content(1000);
+        final Path path = this.write(content);
+
+        try (final MappedFileInputStream stream = new MappedFileInputStream(path, 100)) {
+            // when
+            assertEquals(90, stream.skip(90));
+            stream.mark(0);
+            final byte[] first = new byte[20];
+            assertEquals(10, stream.read(first, 0, 20));
+            assertEquals(10, stream.read(first, 10, 10));
+            stream.reset();
+            final byte[] second = new byte[20];
+            assertEquals(10, stream.read(second, 0, 20));
+            assertEquals(10, stream.read(second, 10, 10));
+
+            // then
+            assertArrayEquals(first, second);
+            assertEquals(content[90], first[0]);
+            assertEquals(content[109], first[19]);
+            assertEquals(content.length - 110, stream.available());
+
+            stream.skip(500);
+            stream.mark(0);
+            final int value = stream.read();
+            stream.reset();
+            assertEquals(content[610] & 0xFF, value);
+            assertEquals(value, stream.read());
+        }
+    }
+
+    @Test
+    @DisplayName("Test empty file is read as end of stream")
+    public void whenReadingEmptyFile_thenEndOfStreamIsReturned() throws IOException {
+        // given
+        final Path path = this.write(new byte[0]);
+
+        // when
+        try (final InputStream stream = new MappedFileInputStream(path)) {
+            // then
+            assertEquals(-1, stream.read());
+            assertEquals(-1, stream.read(new byte[8]));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    @DisplayName("Test closed stream does not access released mapping")
+    public void whenReadingClosedStream_thenExceptionIsThrown() throws IOException {
+        // given
+        final InputStream stream = new MappedFileInputStream(this.write(content(10)));
+        stream.close();
+
+        // when
+        stream.read();
+    }
+
+    private Path write(final byte[] content) throws IOException {
+        final Path path = this.folder.newFile().toPath();
+        Files.write(path, content);
+        return path;
+    }
+
+    private static byte[] content(int length) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.io;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pooled encoding writer unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class PooledEncodingWriterTest {
+
+    /**
+     * Default supplementary character (surrogate pair)
+     */
+    public static final String DEFAULT_SURROGATE_PAIR = "😀";
+
+    @Test
+    @DisplayName("Test surrogate pair spanning char buffer boundary is encoded as one code point")
+    public void whenSurrogatePairSpansBuffer_thenCodePointIsEncoded() throws IOException {
+        // given
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < PooledEncodingWriter.DEFAULT_BUFFER_SIZE - 1; i++) {
+            builder.append('a');
+        }
+        final String text = builder.append(DEFAULT_SURROGATE_PAIR).append("été").toString();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        try (final Writer writer = new PooledEncodingWriter(output)) {
+            writer.write(text);
+        }
+
+        // then
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), output.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Test surrogate pair split by flush is carried over to the next write")
+    public void whenSurrogatePairIsSplitByFlush_thenCodePointIsEncoded() throws IOException {
+        // given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        try (final Writer writer = new PooledEncodingWriter(output)) {
+            writer.write("a");
+            writer.write(DEFAULT_SURROGATE_PAIR.charAt(0));
+            writer.flush();
+            assertArrayEquals("a".getBytes(StandardCharsets.UTF_8), output.toByteArray());
+            writer.write(DEFAULT_SURROGATE_PAIR.charAt(1));
+            writer.write("b");
+        }
+
+        // then
+        assertArrayEquals(("a" + DEFAULT_SURROGATE_PAIR + "b").getBytes(StandardCharsets.UTF_8), output.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Test nested writers on the same thread do not share buffers")
+    public void whenWritersAreNested_thenOutputsAreIndependent() throws IOException {
+        // given
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        // when
+        try (final Writer outer = new PooledEncodingWriter(first)) {
+            outer.write("outer");
+            try (final Writer inner = new PooledEncodingWriter(second)) {
+                inner.write("inner");
+            }
+            outer.write(" text");
+        }
+
+        // then
+        assertEquals("outer text", new String(first.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("inner", new String(second.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test aborted writer discards buffered characters and releases pooled buffers")
+    public void whenWriterIsAborted_thenBufferedCharactersAreDiscarded() throws IOException {
+        // given
+        final ByteArrayOutputStream aborted = new ByteArrayOutputStream();
+        final ByteArrayOutputStream next = new ByteArrayOutputStream();
+
+        // when
+        final PooledEncodingWriter writer = new PooledEncodingWriter(aborted);
+        writer.write("written");
+        writer.flush();
+        writer.write(" discarded");
+        writer.abort();
+        try (final Writer reused = new PooledEncodingWriter(next)) {
+            reused.write("next");
+        }
+
+        // then
+        assertEquals("written", new String(aborted.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("next", new String(next.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IOException.class)
+    @DisplayName("Test closed writer rejects writes")
+    public void whenWritingToClosedWriter_thenExceptionIsThrown() throws IOException {
+        // given
+        final Writer writer = new PooledEncodingWriter(new ByteArrayOutputStream());
+        writer.close();
+
+        // when
+        writer.write("text");
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented content handler unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class InstrumentedContentHandlerTest {
+
+    @Test
+    @DisplayName("Test sampled handler time is extrapolated to every event and every character is counted")
+    public void whenSamplingEvents_thenHandlerTimeIsExtrapolated() throws SAXException {
+        // given
+        final ExtractionMetrics metrics = new ExtractionMetrics();
+        final AtomicInteger calls = new AtomicInteger();
+        final InstrumentedContentHandler handler = new InstrumentedContentHandler(new DefaultHandler() {
+            @Override
+            public void characters(final char[] ch, int start, int length) {
+                calls.incrementAndGet();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, metrics, 4);
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            handler.characters("text".toCharArray(), 0, 4);
+        }
+        handler.endDocument();
+
+        // then
+        assertEquals(8, calls.get());
+        assertEquals(32L, metrics.getCounters().get(ExtractionMetrics.CHARS_OUT).longValue());
+        assertEquals(1, metrics.getTimers().get(ExtractionMetrics.HANDLER).getCount());
+        assertTrue(handler.getElapsed() >= TimeUnit.MILLISECONDS.toNanos(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Test sample interval which is not power of two is rejected")
+    public void whenSampleIntervalIsNotPowerOfTwo_thenExceptionIsThrown() {
+        // when
+        new InstrumentedContentHandler(new DefaultHandler(), new ExtractionMetrics(), 3);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.metrics;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Latency histogram unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Test histogram percentiles stay within bucket precision")
+    public void whenRecordingValues_thenPercentilesAreWithinPrecision() {
+        // given
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        IntStream.rangeClosed(1, 10_000).parallel().forEach(value -> histogram.record(value * 1_000L));
+
+        // then
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000L, snapshot.getMax());
+        assertEquals(5_000_500L, snapshot.getMean());
+        assertEquals(5_000_000L, snapshot.getP50(), 5_000_000L * 0.125);
+        assertEquals(9_900_000L, snapshot.getP99(), 9_900_000L * 0.125);
+        assertTrue(snapshot.getP99() >= 9_900_000L);
+    }
+
+    @Test
+    @DisplayName("Test extraction metrics record timers and counters until reset")
+    public void whenRecordingMetrics_thenTimersAndCountersAreReported() {
+        // given
+        final ExtractionMetrics metrics = new ExtractionMetrics();
+
+        // when
+        metrics.record(ExtractionMetrics.DETECT, ExtractionMetrics.start());
+        metrics.increment(ExtractionMetrics.BYTES_IN, 42);
+        metrics.failure(ExtractionMetrics.PDF_CREATE);
+
+        // then
+        metrics.report((timers, counters) -> {
+            assertEquals(1, timers.get(ExtractionMetrics.DETECT).getCount());
+            assertEquals(Long.valueOf(42), counters.get(ExtractionMetrics.BYTES_IN));
+            assertEquals(Long.valueOf(1), counters.get(ExtractionMetrics.PDF_CREATE + ExtractionMetrics.FAILURES));
+        });
+        metrics.reset();
+        assertEquals(0, metrics.timer(ExtractionMetrics.DETECT).getCount());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.model;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.utils.AnalyzerUtils;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lazy document info unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class LazyDocumentInfoTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test name and meta data are available without content extraction")
+    public void whenReadingMetadataFields_thenContentIsNotParsed() {
+        // given
+        final LazyDocumentInfo info = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf");
+
+        // when
+        final CharSequence name = info.getName();
+
+        // then
+        assertEquals("tika.pdf", name);
+        assertFalse(info.isMetadataLoaded());
+
+        // when
+        info.getCreated();
+
+        // then
+        assertTrue(info.isMetadataLoaded());
+        assertEquals("application/pdf", info.getMetadata().get("Content-Type"));
+        assertFalse(info.isContentLoaded());
+    }
+
+    @Test
+    @DisplayName("Test equality and hash code do not trigger parsing")
+    public void whenComparingAndHashing_thenNothingIsParsed() {
+        // given
+        final LazyDocumentInfo info = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf");
+        final LazyDocumentInfo same = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf");
+        final LazyDocumentInfo other = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.docx");
+
+        // when
+        final int hashCode = info.hashCode();
+
+        // then
+        assertEquals(same.hashCode(), hashCode);
+        assertEquals(same, info);
+        assertNotEquals(other, info);
+        assertNotEquals(info, DocumentInfo.builder().name("tika.pdf").build());
+        assertNotEquals(DocumentInfo.builder().name("tika.pdf").build(), info);
+        assertFalse(info.isContentLoaded());
+        assertFalse(info.isMetadataLoaded());
+        assertFalse(other.isContentLoaded());
+        assertFalse(other.isMetadataLoaded());
+    }
+
+    @Test
+    @DisplayName("Test content is parsed once for concurrent readers")
+    public void whenReadingContentConcurrently_thenItIsParsedOnce() throws Exception {
+        // given
+        final LazyDocumentInfo info = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<CharSequence>> results = new ArrayList<>();
+
+        // when
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(info::getContent));
+            }
+
+            // then
+            final CharSequence content = results.get(0).get();
+            assertTrue(content.toString().contains("Tika"));
+            for (final Future<CharSequence> result : results) {
+                assertSame(content, result.get());
+            }
+            assertTrue(info.isMetadataLoaded());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test lazy document info is serialized as loaded document info")
+    public void whenSerializing_thenLoadedDocumentInfoIsRead() throws Exception {
+        // given
+        final LazyDocumentInfo info = AnalyzerUtils.getLazyDocumentInfo(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // when
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(info);
+        }
+        final Object restored;
+        try (final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = input.readObject();
+        }
+
+        // then
+        assertEquals(DocumentInfo.class, restored.getClass());
+        assertEquals(info.getId(), ((DocumentInfo) restored).getId());
+        assertEquals(info.getContent(), ((DocumentInfo) restored).getContent());
+    }
+}
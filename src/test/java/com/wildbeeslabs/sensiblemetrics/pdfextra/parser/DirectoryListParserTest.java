@@ -31,12 +31,18 @@ import org.apache.tika.exception.TikaException;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.sax.BodyContentHandler;
 import org.hamcrest.core.IsEqual;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
 import org.xml.sax.SAXException;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -53,6 +59,9 @@ import static org.junit.Assert.assertTrue;
 @ToString
 public class DirectoryListParserTest {
 
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     @DisplayName("Test parse the output of input directory and counts the number of files and the number of executables")
     public void whenUsingParser_thenDirectoryListIsReturned() throws IOException, TikaException, SAXException {
@@ -74,4 +83,28 @@ public class DirectoryListParserTest {
             //assertThat(metadata.get("NumExecutables"), IsEqual.equalTo(0));
         }
     }
+
+    @Test
+    @DisplayName("Test directory list tokens are separated by whitespace runs and incomplete lines are skipped")
+    public void whenParsingIrregularLines_thenTokensAreSplitByWhitespace() throws IOException, TikaException, SAXException {
+        // given
+        final Path file = this.folder.newFile("ls").toPath();
+        Files.write(file, String.join("\n",
+            "total 8",
+            "-rwxr-xr-x  1 tika\tstaff   512 Jan  1  2019 run   me.sh",
+            "drwxr-xr-x  2 tika staff    64 Jan  1  2019",
+            "-rw-r--r--  1 tika staff  1024 Feb 12 10:15 tika.pdf  ").getBytes(StandardCharsets.UTF_8));
+
+        try (final InputStream stream = Files.newInputStream(file)) {
+            // when
+            final Metadata metadata = new Metadata();
+            new DirectoryListParser().parse(stream, new BodyContentHandler(), metadata);
+
+            // then
+            assertArrayEquals(new String[]{"run me.sh", "tika.pdf"}, metadata.getValues("Filename"));
+            assertArrayEquals(new String[]{"Jan 1 2019", "Feb 12 10:15"}, metadata.getValues("LastModifiedDate"));
+            assertArrayEquals(new String[]{"staff", "staff"}, metadata.getValues("FileOwnerGroup"));
+            assertThat(metadata.get("NumExecutables"), IsEqual.equalTo("1"));
+        }
+    }
 }
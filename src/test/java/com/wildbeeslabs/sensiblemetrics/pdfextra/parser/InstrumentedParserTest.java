@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.parser;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.metrics.ParserStatistics;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.html.HtmlParser;
+import org.apache.tika.parser.txt.TXTParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented parser unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class InstrumentedParserTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test instrumented auto-detect parser accounts dispatched parser classes")
+    public void whenParsingByInstrumentedParser_thenComponentParsersAreAccounted() throws IOException, TikaException, SAXException {
+        // given
+        final AutoDetectParser parser = InstrumentedParser.instrument(new AutoDetectParser());
+        ParserStatistics.getInstance().reset();
+
+        // when
+        for (final String name : new String[]{"tika.html", "tika.txt", "tika.txt"}) {
+            try (final InputStream stream = TikaInputStream.get(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, name))) {
+                parser.parse(stream, new BodyContentHandler(-1), new Metadata(), new ParseContext());
+            }
+        }
+
+        // then
+        final List<ParserStatistics.Entry> entries = ParserStatistics.getInstance().getHottestParsers(Integer.MAX_VALUE);
+        final Optional<ParserStatistics.Entry> html = find(entries, HtmlParser.class);
+        final Optional<ParserStatistics.Entry> text = find(entries, TXTParser.class);
+        assertTrue(html.isPresent());
+        assertTrue(text.isPresent());
+        assertEquals(1, html.get().getInvocations());
+        assertEquals(2, text.get().getInvocations());
+        assertEquals(0, text.get().getFailures());
+        assertTrue(text.get().getBytes() > 0);
+        assertTrue(ParserStatistics.getInstance().report().contains(TXTParser.class.getName()));
+    }
+
+    private static Optional<ParserStatistics.Entry> find(final List<ParserStatistics.Entry> entries, final Class<?> parserClass) {
+        return entries.stream().filter(entry -> entry.getParserClass().equals(parserClass.getName())).findFirst();
+    }
+}
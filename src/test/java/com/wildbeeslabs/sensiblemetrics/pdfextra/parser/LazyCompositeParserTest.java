@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.parser;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.parser.EmptyParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.txt.TXTParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lazy composite parser unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class LazyCompositeParserTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test lazy parser loads only parser class of detected media type")
+    public void whenParsingText_thenOnlyTextParserIsLoaded() throws IOException, TikaException, SAXException {
+        // given
+        final LazyCompositeParser parser = new LazyCompositeParser();
+        assertTrue(parser.getSupportedTypes(new ParseContext()).contains(MediaType.application("pdf")));
+        assertTrue(parser.getLoadedParsers().isEmpty());
+
+        // when
+        final BodyContentHandler handler = new BodyContentHandler(-1);
+        final Metadata metadata = new Metadata();
+        try (final InputStream stream = Files.newInputStream(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.txt"))) {
+            parser.parse(stream, handler, metadata, new ParseContext());
+        }
+
+        // then
+        assertFalse(handler.toString().trim().isEmpty());
+        assertTrue(metadata.get(Metadata.CONTENT_TYPE).startsWith("text/plain"));
+        assertEquals(Collections.singleton(TXTParser.class.getName()), parser.getLoadedParsers());
+        assertFalse(parser.isFallbackLoaded());
+    }
+
+    @Test
+    @DisplayName("Test lazy parser delegates media type missing from configuration to fallback parser")
+    public void whenParsingUnconfiguredType_thenFallbackParserIsUsed() throws IOException, TikaException, SAXException {
+        // given
+        final AtomicInteger created = new AtomicInteger();
+        final LazyCompositeParser parser = new LazyCompositeParser(() -> {
+            created.incrementAndGet();
+            return EmptyParser.INSTANCE;
+        });
+
+        // when
+        for (int i = 0; i < 2; i++) {
+            try (final InputStream stream = Files.newInputStream(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.png"))) {
+                parser.parse(stream, new BodyContentHandler(-1), new Metadata(), new ParseContext());
+            }
+        }
+
+        // then
+        assertEquals(1, created.get());
+        assertTrue(parser.isFallbackLoaded());
+        assertTrue(parser.getLoadedParsers().isEmpty());
+    }
+
+    @Test(expected = TikaException.class)
+    @DisplayName("Test lazy parser without fallback parser rejects media type missing from configuration")
+    public void whenParsingUnconfiguredTypeWithoutFallback_thenTikaExceptionIsThrown() throws IOException, TikaException, SAXException {
+        // given
+        final LazyCompositeParser parser = new LazyCompositeParser((Supplier<Parser>) null);
+
+        // when
+        try (final InputStream stream = Files.newInputStream(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.png"))) {
+            parser.parse(stream, new BodyContentHandler(-1), new Metadata(), new ParseContext());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.reactive;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.model.ExtractionResult;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Extraction publisher unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class ExtractionPublisherTest {
+
+    /**
+     * Default file content directory
+     */
+    public static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+
+    @Test
+    @DisplayName("Test publisher reads files only on demand and emits failures as results")
+    public void whenRequestingOneByOne_thenSourceIsPulledOnDemand() throws InterruptedException {
+        // given
+        final List<Path> paths = Arrays.asList(
+            Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.txt"),
+            Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "tika.html"),
+            Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY, "missing.txt"));
+        final AtomicInteger pulled = new AtomicInteger();
+        final Iterable<Path> sources = () -> {
+            final Iterator<Path> iterator = paths.iterator();
+            return new Iterator<Path>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Path next() {
+                    pulled.incrementAndGet();
+                    return iterator.next();
+                }
+            };
+        };
+        final ExtractionPublisher publisher = ExtractionPublisher.builder().sources(sources).chunkSize(16).build();
+        final List<ExtractionResult> results = new CopyOnWriteArrayList<>();
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        final Subscription[] subscription = new Subscription[1];
+
+        // when
+        publisher.subscribe(new Subscriber<ExtractionResult>() {
+            @Override
+            public void onSubscribe(final Subscription s) {
+                subscription[0] = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(final ExtractionResult result) {
+                results.add(result);
+                first.countDown();
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+        assertTrue(first.await(30, TimeUnit.SECONDS));
+        assertEquals(1, pulled.get());
+        subscription[0].request(Long.MAX_VALUE);
+
+        // then
+        assertTrue(completed.await(30, TimeUnit.SECONDS));
+        assertEquals(3, results.size());
+        assertEquals(1, results.stream().filter(ExtractionResult::isFailed).count());
+        results.stream()
+            .filter(result -> !result.isFailed())
+            .forEach(result -> {
+                assertNotNull(result.getMediaType());
+                assertEquals(result.getContent(), String.join("", result.getChunks()));
+            });
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.server;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Extraction server unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class ExtractionServerTest {
+
+    /**
+     * Default file content directory
+     */
+    private static final String DEFAULT_FILE_CONTENT_DIRECTORY = "src/test/java/resources/content/";
+    /**
+     * Default await timeout (in milliseconds)
+     */
+    private static final long TIMEOUT = 30_000;
+
+    private ExtractionServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        this.server = new ExtractionServer(new InetSocketAddress("localhost", 0), 2, 2);
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.close();
+    }
+
+    @Test
+    @DisplayName("Test text endpoint streams extracted body text")
+    public void whenPostingDocument_thenTextIsStreamed() throws Exception {
+        // given
+        final byte[] document = Files.readAllBytes(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.html"));
+
+        // when
+        final HttpURLConnection connection = this.post("/text", document);
+
+        // then
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+        try (final InputStream stream = connection.getInputStream()) {
+            assertTrue(IOUtils.toString(stream, StandardCharsets.UTF_8).contains("Tika"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test detect endpoint returns media type")
+    public void whenPostingDocument_thenMediaTypeIsDetected() throws Exception {
+        // given
+        final byte[] document = Files.readAllBytes(Paths.get(DEFAULT_FILE_CONTENT_DIRECTORY + "tika.pdf"));
+
+        // when
+        final HttpURLConnection connection = this.post("/detect", document);
+
+        // then
+        assertEquals(200, connection.getResponseCode());
+        try (final InputStream stream = connection.getInputStream()) {
+            assertEquals("application/pdf", IOUtils.toString(stream, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test endpoints reject requests without body")
+    public void whenGettingEndpoint_thenMethodIsNotAllowed() throws Exception {
+        // given
+        final HttpURLConnection connection = (HttpURLConnection) new URL(this.url("/metadata")).openConnection();
+
+        // when
+        final int status = connection.getResponseCode();
+
+        // then
+        assertEquals(405, status);
+        assertEquals("POST, PUT", connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    @DisplayName("Test failure after response is committed ends body with error marker")
+    public void whenParsingFailsAfterCommit_thenBodyEndsWithErrorMarker() throws Exception {
+        // given
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 128 * 1024; i++) {
+            text.append("Line of streamed text number ").append(i).append('\n');
+        }
+
+        // when
+        final String response;
+        try (final Socket socket = this.openChunked(this.server, "/text")) {
+            writeChunk(socket, text.toString().getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().write("zz\r\n".getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            socket.shutdownOutput();
+            response = IOUtils.toString(socket.getInputStream(), StandardCharsets.UTF_8);
+        }
+
+        // then
+        assertTrue(response.startsWith("HTTP/1.1 200"));
+        assertTrue(response.contains("Line of streamed text number 0"));
+        assertTrue(response.contains(ResponseStream.ERROR_MARKER));
+        assertEquals(1, this.server.getStatistics().getFailed().get());
+    }
+
+    @Test
+    @DisplayName("Test requests beyond queue capacity are shed with 503 status and retry delay")
+    public void whenQueueIsFull_thenRequestIsShedWithRetryAfter() throws Exception {
+        // given
+        try (final ExtractionServer server = new ExtractionServer(new InetSocketAddress("localhost", 0), 1, 1)) {
+            server.start();
+            try (final Socket running = this.openChunked(server, "/text");
+                 final Socket queued = this.openChunked(server, "/text")) {
+                writeChunk(running, "Running".getBytes(StandardCharsets.UTF_8));
+                writeChunk(queued, "Queued".getBytes(StandardCharsets.UTF_8));
+                await(() -> server.getStatistics().getAccepted().get() == 2);
+
+                // when
+                final HttpURLConnection shed = (HttpURLConnection) new URL(url(server, "/detect")).openConnection();
+                shed.setRequestMethod("POST");
+                shed.setDoOutput(true);
+                try (final OutputStream output = shed.getOutputStream()) {
+                    output.write("Shed".getBytes(StandardCharsets.UTF_8));
+                }
+
+                // then
+                assertEquals(503, shed.getResponseCode());
+                assertEquals("1", shed.getHeaderField("Retry-After"));
+                assertEquals(1, server.getStatistics().getRejected().get());
+                endChunks(running);
+                endChunks(queued);
+                assertTrue(IOUtils.toString(running.getInputStream(), StandardCharsets.UTF_8).startsWith("HTTP/1.1 200"));
+                assertTrue(IOUtils.toString(queued.getInputStream(), StandardCharsets.UTF_8).startsWith("HTTP/1.1 200"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test closing server sheds new requests and completes in-flight ones before stopping")
+    public void whenClosing_thenInFlightRequestCompletesBeforeServerStops() throws Exception {
+        // given
+        final ExtractionServer server = new ExtractionServer(new InetSocketAddress("localhost", 0), 1, 1);
+        server.start();
+        try (final Socket inFlight = this.openChunked(server, "/text")) {
+            writeChunk(inFlight, "In-flight ".getBytes(StandardCharsets.UTF_8));
+            await(() -> server.getStatistics().getAccepted().get() == 1);
+
+            // when
+            final Thread closer = new Thread(server::close);
+            closer.start();
+            await(() -> closer.getState() == Thread.State.TIMED_WAITING || closer.getState() == Thread.State.WAITING);
+            final HttpURLConnection shed = this.post(server, "/detect", "Shed".getBytes(StandardCharsets.UTF_8));
+
+            // then
+            assertEquals(503, shed.getResponseCode());
+            assertTrue(closer.isAlive());
+            writeChunk(inFlight, "document".getBytes(StandardCharsets.UTF_8));
+            endChunks(inFlight);
+            final String response = IOUtils.toString(inFlight.getInputStream(), StandardCharsets.UTF_8);
+            assertTrue(response.startsWith("HTTP/1.1 200"));
+            assertTrue(response.contains("In-flight document"));
+            closer.join(TIMEOUT);
+            assertFalse(closer.isAlive());
+            assertEquals(1, server.getStatistics().getCompleted().get());
+        }
+    }
+
+    private HttpURLConnection post(final String path, final byte[] body) throws Exception {
+        return this.post(this.server, path, body);
+    }
+
+    private HttpURLConnection post(final ExtractionServer server, final String path, final byte[] body) throws Exception {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url(server, path)).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(8192);
+        try (final OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        return connection;
+    }
+
+    private String url(final String path) {
+        return url(this.server, path);
+    }
+
+    private Socket openChunked(final ExtractionServer server, final String path) throws IOException {
+        final Socket socket = new Socket("localhost", server.getAddress().getPort());
+        socket.setSoTimeout((int) TIMEOUT);
+        socket.getOutputStream().write(String.format("POST %s HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n", path)
+            .getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private static void writeChunk(final Socket socket, final byte[] data) throws IOException {
+        final OutputStream output = socket.getOutputStream();
+        output.write(String.format("%x\r\n", data.length).getBytes(StandardCharsets.US_ASCII));
+        output.write(data);
+        output.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        output.flush();
+    }
+
+    private static void endChunks(final Socket socket) throws IOException {
+        socket.getOutputStream().write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+    }
+
+    private static String url(final ExtractionServer server, final String path) {
+        return String.format("http://localhost:%d%s", server.getAddress().getPort(), path);
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition is not met before timeout");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
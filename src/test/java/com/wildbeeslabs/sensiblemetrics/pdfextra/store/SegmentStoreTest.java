@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.store;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.metadata.Metadata;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Segment store unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class SegmentStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test stored documents are read back by document identifier across rolled segments")
+    public void whenStoringDocuments_thenDocumentsAreReadBackById() throws IOException {
+        // given
+        final Path directory = this.folder.newFolder("store").toPath();
+        try (final SegmentStoreWriter writer = new SegmentStoreWriter(directory, 4096, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                final Metadata metadata = new Metadata();
+                metadata.add(Metadata.CONTENT_TYPE, "text/plain");
+                metadata.add("page", String.valueOf(i));
+                writer.accept("doc-" + i, metadata, "Document content №" + i);
+            }
+        }
+
+        // when
+        try (final SegmentStoreReader reader = new SegmentStoreReader(directory)) {
+            final StoredDocument document = reader.get("doc-42");
+
+            // then
+            assertEquals(100, reader.size());
+            assertEquals("Document content №42", document.getContent());
+            assertEquals("text/plain", document.getMetadata().get(Metadata.CONTENT_TYPE));
+            assertEquals("42", document.getMetadata().get("page"));
+            assertNull(reader.get("unknown"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test reopened store appends new segment and later record wins")
+    public void whenReopeningStore_thenLaterRecordWins() throws IOException {
+        // given
+        final Path directory = this.folder.newFolder("store").toPath();
+        try (final SegmentStoreWriter writer = new SegmentStoreWriter(directory)) {
+            writer.accept("doc", new Metadata(), "first");
+        }
+
+        // when
+        try (final SegmentStoreWriter writer = new SegmentStoreWriter(directory)) {
+            writer.accept("doc", new Metadata(), "second");
+            assertEquals(2, writer.getSegment());
+        }
+
+        // then
+        try (final SegmentStoreReader reader = new SegmentStoreReader(directory)) {
+            assertEquals(1, reader.size());
+            assertEquals("second", reader.get("doc").getContent());
+        }
+    }
+
+    @Test
+    @DisplayName("Test documents stored by concurrent writers are read back by every reader thread")
+    public void whenStoringConcurrently_thenEveryDocumentIsReadBack() throws Exception {
+        // given
+        final Path directory = this.folder.newFolder("store").toPath();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            try (final SegmentStoreWriter writer = new SegmentStoreWriter(directory, 4096, 1024)) {
+                final List<Future<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    final int number = i;
+                    tasks.add(executor.submit(() -> {
+                        writer.accept("doc-" + number, new Metadata(), "Document content №" + number);
+                        return null;
+                    }));
+                }
+                for (final Future<?> task : tasks) {
+                    task.get();
+                }
+            }
+
+            // when
+            try (final SegmentStoreReader reader = new SegmentStoreReader(directory)) {
+                final List<Future<StoredDocument>> documents = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    final String documentId = "doc-" + i;
+                    documents.add(executor.submit(() -> reader.get(documentId)));
+                }
+
+                // then
+                assertEquals(200, reader.size());
+                for (int i = 0; i < 200; i++) {
+                    assertEquals("Document content №" + i, documents.get(i).get().getContent());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import com.wildbeeslabs.sensiblemetrics.pdfextra.handler.AsciiFoldingContentHandler;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.sax.ToTextContentHandler;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.text.Normalizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * ASCII folder unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class AsciiFolderTest {
+
+    @Test
+    @DisplayName("Test folding table is equivalent to NFD decomposition with non-ASCII removal")
+    public void whenFoldingEveryCodePoint_thenResultMatchesNormalizer() {
+        // given
+        final StringBuilder builder = new StringBuilder();
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            builder.appendCodePoint(codePoint);
+        }
+        final String text = builder.toString();
+
+        // when
+        final String folded = AsciiFolder.fold(text, false);
+
+        // then
+        assertEquals(Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("[^\\p{ASCII}]", ""), folded);
+    }
+
+    @Test
+    @DisplayName("Test folding chars in place with lower case")
+    public void whenFoldingCharsInPlace_thenTheyAreLowerCasedAscii() {
+        // given
+        final char[] chars = "Crème Brûlée Ångström".toCharArray();
+
+        // when
+        final int length = AsciiFolder.fold(chars, 0, chars.length, chars, 0, true);
+
+        // then
+        assertEquals("creme brulee angstrom", new String(chars, 0, length));
+        final String ascii = "ascii";
+        assertSame(ascii, AsciiFolder.fold(ascii, true));
+    }
+
+    @Test
+    @DisplayName("Test content handler folds character events")
+    public void whenHandlingCharacters_thenFoldedTextIsForwarded() throws Exception {
+        // given
+        final ToTextContentHandler target = new ToTextContentHandler();
+        final AsciiFoldingContentHandler handler = new AsciiFoldingContentHandler(target, true);
+        final char[] chars = "Ça va, Zoë? 😀".toCharArray();
+
+        // when
+        handler.characters(chars, 0, 5);
+        handler.characters(chars, 5, chars.length - 5);
+
+        // then
+        assertEquals("ca va, zoe? ", target.toString());
+        assertEquals("Ça va, Zoë? 😀", new String(chars));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Mapped line scanner unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class MappedLineScannerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test lines match buffered reader lines for mixed terminators and non-ASCII text")
+    public void whenScanningLines_thenTheyMatchBufferedReader() throws IOException {
+        // given
+        final Path path = this.write("first\r\nsecond été\rthird 中文\n\nfifth 😀");
+
+        // when
+        final List<String> lines;
+        try (final MappedLineScanner scanner = MappedLineScanner.open(path)) {
+            lines = scanner.readLines();
+        }
+
+        // then
+        assertEquals(readLines(path), lines);
+    }
+
+    @Test
+    @DisplayName("Test lines are not split across small mapped segments")
+    public void whenScanningSmallSegments_thenLinesAreComplete() throws IOException {
+        // given
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("line ").append(i).append(" été\n");
+        }
+        final Path path = this.write(builder.toString());
+
+        // when
+        final List<String> lines;
+        try (final MappedLineScanner scanner = MappedLineScanner.open(path, 64)) {
+            lines = scanner.readLines();
+        }
+
+        // then
+        assertEquals(readLines(path), lines);
+    }
+
+    @Test
+    @DisplayName("Test parallel scan yields every line once at its byte offset")
+    public void whenScanningInParallel_thenEveryLineIsYieldedOnce() throws IOException {
+        // given
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; builder.length() < 3 * MappedLineScanner.DEFAULT_SPLIT_SIZE; i++) {
+            builder.append("line ").append(i).append(" été 中文\n");
+        }
+        final Path path = this.write(builder.toString());
+        final Map<Long, String> sequential = new TreeMap<>();
+        final Map<Long, String> parallel = new ConcurrentHashMap<>();
+
+        // when
+        try (final MappedLineScanner scanner = MappedLineScanner.open(path)) {
+            scanner.forEachLine((line, offset) -> sequential.put(offset, line.toString()));
+            scanner.forEachLineParallel((line, offset) -> parallel.put(offset, line.toString()));
+        }
+
+        // then
+        assertEquals(readLines(path).size(), sequential.size());
+        assertEquals(sequential, new TreeMap<>(parallel));
+    }
+
+    @Test(expected = IOException.class)
+    @DisplayName("Test line longer than mapped segment is rejected")
+    public void whenLineIsLongerThanSegment_thenExceptionIsThrown() throws IOException {
+        // given
+        final Path path = this.write("a very long line without terminator\nshort\n");
+
+        // when
+        MappedLineScanner.open(path, 16).close();
+    }
+
+    private Path write(final String text) throws IOException {
+        final Path path = this.folder.newFile().toPath();
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private static List<String> readLines(final Path path) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        try (final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 WildBees Labs, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.wildbeeslabs.sensiblemetrics.pdfextra.text;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Off-heap text unit test
+ *
+ * @author Alexander Rogalskiy
+ * @version 1.1
+ * @since 1.0
+ */
+@Slf4j
+@Data
+@EqualsAndHashCode
+@ToString
+public class OffHeapTextTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Test off-heap text chars match source string across index intervals and segments")
+    public void whenWritingMixedText_thenCharsMatchSource() throws IOException {
+        // given
+        final String source = mixedText(5000);
+        final OffHeapTextWriter writer = new OffHeapTextWriter(64);
+
+        // when
+        writer.write(source);
+        try (final OffHeapText text = writer.toText()) {
+
+            // then
+            assertEquals(source.length(), text.length());
+            assertEquals(source.getBytes(StandardCharsets.UTF_8).length, text.getByteSize());
+            for (int i = source.length() - 1; i >= 0; i -= 7) {
+                assertEquals(source.charAt(i), text.charAt(i));
+            }
+            for (int i = 0; i < source.length(); i++) {
+                assertEquals(source.charAt(i), text.charAt(i));
+            }
+            assertEquals(source.substring(1023, 3077), text.subSequence(1023, 3077).toString());
+            assertEquals(source, text.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test short text does not retain whole default segment")
+    public void whenWritingShortText_thenLastSegmentIsTrimmed() throws IOException {
+        // given
+        final String source = mixedText(100);
+        final OffHeapTextWriter writer = new OffHeapTextWriter();
+
+        // when
+        writer.write(source);
+        try (final OffHeapText text = writer.toText()) {
+
+            // then
+            assertEquals(source.getBytes(StandardCharsets.UTF_8).length, text.getCapacity());
+            assertTrue(text.getCapacity() < OffHeapTextWriter.DEFAULT_SEGMENT_SIZE);
+            assertEquals(source, text.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test unpaired surrogates are encoded as replacement")
+    public void whenWritingUnpairedSurrogates_thenTheyAreReplaced() throws IOException {
+        // given
+        final String source = "a\uD83Db\uDE00c\uD83D";
+
+        // when
+        try (final OffHeapText text = OffHeapText.of(source)) {
+
+            // then
+            assertEquals(new String(source.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), text.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test mapped file text matches file content")
+    public void whenMappingFile_thenCharsMatchContent() throws IOException {
+        // given
+        final String source = mixedText(3000);
+        final Path path = this.folder.newFile("text.txt").toPath();
+        Files.write(path, source.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        try (final OffHeapText text = OffHeapText.map(path);
+             final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            text.writeTo(output);
+
+            // then
+            assertEquals(source.length(), text.length());
+            assertEquals(source.charAt(2049), text.charAt(2049));
+            assertEquals(source, text.toString());
+            assertEquals(source, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @DisplayName("Test released text cannot be accessed")
+    public void whenTextIsClosed_thenAccessFails() {
+        // given
+        final OffHeapText text = OffHeapText.of("Apache Tika");
+
+        // when
+        text.close();
+
+        // then
+        text.charAt(0);
+    }
+
+    private static String mixedText(final int size) {
+        final StringBuilder builder = new StringBuilder();
+        final String[] parts = {"Tika ", "été ", "中文 ", "😀 "};
+        for (int i = 0; builder.length() < size; i++) {
+            builder.append(parts[i % parts.length]);
+        }
+        return builder.toString();
+    }
+}